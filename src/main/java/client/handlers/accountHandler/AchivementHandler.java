@@ -33,7 +33,7 @@ public class AchivementHandler extends GameObject {
 
   public static void giveAchievment(Settings settings, Player player, int id) {
     if(settings.getLevelHandler().isServer()) {
-      settings.getLevelHandler().getServer().sendToClients(new PacketAward(AwardID.ACHIEVEMENT, id, player).getData(), false);
+      settings.getLevelHandler().getRoom().sendToClients(new PacketAward(AwardID.ACHIEVEMENT, id, player));
     } else {
       settings.getData().awardAchievement(id);
     }
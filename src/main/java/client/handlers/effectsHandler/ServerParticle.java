@@ -11,6 +11,12 @@ import shared.util.maths.Vector2;
  * Works like Particle but uses a less refined, server friendly GIF particles
  */
 public class ServerParticle extends GameObject {
+
+  /**
+   * Pinned so maps and objects serialized by earlier builds can still be read
+   */
+  private static final long serialVersionUID = -2394166141794875795L;
+
   private Vector2 velocity;
   private Vector2 acceleration;
   private String particleName;
@@ -69,5 +75,19 @@ public class ServerParticle extends GameObject {
     }
   }
 
+  public Vector2 getVelocity() {
+    return velocity;
+  }
+
+  public Vector2 getAcceleration() {
+    return acceleration;
+  }
 
+  public String getParticleName() {
+    return particleName;
+  }
+
+  public float getLifetime() {
+    return lifetime;
+  }
 }
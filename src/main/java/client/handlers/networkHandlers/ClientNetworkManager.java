@@ -1,24 +1,29 @@
 package client.handlers.networkHandlers;
 
 import client.main.Client;
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.io.ObjectInputStream;
 import java.sql.Timestamp;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.UUID;
 import shared.gameObjects.GameObject;
+import shared.gameObjects.Utils.ObjectType;
 import shared.gameObjects.Utils.TimePosition;
 import shared.gameObjects.players.Limbs.Arm;
 import shared.gameObjects.players.Player;
 import shared.handlers.levelHandler.Map;
+import shared.packets.ObjectState;
+import shared.packets.Packet;
 import shared.packets.PacketAward;
+import shared.packets.PacketCodec;
 import shared.packets.PacketDelete;
 import shared.packets.PacketGameState;
+import shared.packets.PacketID;
 import shared.packets.PacketInput;
 import shared.packets.PacketMap;
 import shared.packets.PacketReSend;
+import shared.packets.PacketSnapshotAck;
+import shared.packets.PacketSpawn;
+import shared.packets.Snapshot;
+import shared.packets.SnapshotBuffer;
+import shared.packets.SpawnDescriptor;
 import shared.util.Path;
 import shared.util.maths.Vector2;
 
@@ -32,6 +37,20 @@ public class ClientNetworkManager {
   private static final boolean setStateSnap = true;
   private static final boolean entity_interpolation = true;
 
+  /**
+   * Snapshots rebuilt from the game states received, used as baselines for the server's deltas
+   */
+  private static final SnapshotBuffer snapshots = new SnapshotBuffer();
+  private static int latestSnapshot = -1;
+
+  /**
+   * Forgets the snapshots of a previous connection
+   */
+  public static void reset() {
+    snapshots.clear();
+    latestSnapshot = -1;
+  }
+
   /**
    * Loops through all gameobjects and interpolates between states recieved by server to smooth
    * movement
@@ -107,12 +126,12 @@ public class ClientNetworkManager {
   public static void processServerPackets() {
     while (Client.connectionHandler.received.size() != 0) {
       try {
-        String message = (String) Client.connectionHandler.received.take();
-        int messageID = Integer.parseInt(message.substring(0, 1));
-        switch (messageID) {
-          case 8:
-            PacketDelete delete = new PacketDelete(message);
-            GameObject deleteObject = Client.levelHandler.getGameObjects()
+        byte[] frame = Client.connectionHandler.received.take();
+        Packet message = PacketCodec.decode(frame, 0, frame.length);
+        switch (PacketID.fromID(message.getPacketID())) {
+          case DELETE:
+            PacketDelete delete = (PacketDelete) message;
+            GameObject deleteObject = Client.levelHandler.getNetworkIds()
                 .get(delete.getGameobject());
             if (deleteObject == null) {
               System.out.println("Can't delete " + delete.getGameobject());
@@ -120,42 +139,22 @@ public class ClientNetworkManager {
               Client.levelHandler.removeGameObject(deleteObject);
             }
             break;
-          case 3:
-            PacketMap map = new PacketMap(message);
+          case MAP:
+            PacketMap map = (PacketMap) message;
             Client.levelHandler.changeMap(
                 new Map("menus/multi.map", Path.convert(map.getMap())),
                 true, false);
-
-          case 7:
-            PacketGameState gameState = new PacketGameState(message);
-            HashMap<UUID, String> data = gameState.getGameObjects();
-            data.forEach((key, value) -> {
-              if (!value.split(";")[1].equals("Fist")
-                  && !value.split(";")[1].equals("WeaponSpawner")) {
-                GameObject gameObject = Client.levelHandler.getGameObjects().get(key);
-                if (gameObject == null) {
-                  PacketReSend reSend = new PacketReSend(key);
-                  Client.connectionHandler.send(reSend.getString());
-                } else {
-                  if (!entity_interpolation || gameObject.getUUID() == Client.levelHandler
-                      .getClientPlayer().getUUID()) {
-                    gameObject.setState(value, setStateSnap);
-                  } else {
-                    Timestamp now = new Timestamp(System.currentTimeMillis());
-                    String[] unpackedData = value.split(";");
-                    Vector2 statePos = new Vector2(Double.parseDouble(unpackedData[2]),
-                        Double.parseDouble(unpackedData[3]));
-                    gameObject.getPositionBuffer().add(new TimePosition(now, statePos));
-                  }
-                }
-              }
-            });
-            if (reconciliation) {
-              serverReconciliation(Client.levelHandler.getClientPlayer().getLastInputCount());
+            break;
+          case GAMESTATE:
+            receiveGameState((PacketGameState) message);
+            break;
+          case SPAWN:
+            for (SpawnDescriptor spawn : ((PacketSpawn) message).getSpawns()) {
+              Client.levelHandler.spawnObject(spawn);
             }
             break;
-          case 10:
-            PacketAward packetAward = new PacketAward(message);
+          case AWARD:
+            PacketAward packetAward = (PacketAward) message;
             if(packetAward.getPlayerUUID().equals(Client.levelHandler.getClientPlayer().getUUID())) {
               switch (packetAward.getAwardID()) {
                 case 0 :
@@ -166,11 +165,12 @@ public class ClientNetworkManager {
                   break;
               }
             }
+            break;
           default:
         }
       } catch (InterruptedException e) {
         e.printStackTrace();
-      } catch (NumberFormatException e) {
+      } catch (IllegalArgumentException e) {
 
       }
     }
@@ -178,29 +178,57 @@ public class ClientNetworkManager {
 
 
   /**
-   * Create game objects sent by the server
+   * Rebuilds the snapshot sent by the server from its baseline, applies the objects that changed
+   * since the last snapshot applied and acknowledges it
    *
-   * @param data Data to convert to game objects
+   * @param gameState Game state received
    */
-  public static void createGameObjects(byte[] data) {
-    ObjectInputStream objectInputStream = null;
-    try {
-      ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(data);
-      objectInputStream = new ObjectInputStream(byteArrayInputStream);
-      ArrayList<GameObject> gameObjects = (ArrayList<GameObject>) objectInputStream
-          .readObject();
-      gameObjects.forEach(
-          gameObject -> Client.levelHandler.getToCreate().put(gameObject.getUUID(), gameObject));
-    } catch (IOException e) {
-    } catch (ClassNotFoundException e) {
-    } finally {
-      try {
-        if (objectInputStream != null) {
-          objectInputStream.close();
+  private static void receiveGameState(PacketGameState gameState) {
+    //Drop late or duplicated snapshots
+    if (gameState.getSequence() <= latestSnapshot) {
+      return;
+    }
+    Snapshot baseline = null;
+    if (gameState.isDelta()) {
+      baseline = snapshots.get(gameState.getBaselineSequence());
+      if (baseline == null) {
+        //Baseline lost, so ask for the next state in full rather than wait on the server's ring
+        Client.connectionHandler.send(new PacketSnapshotAck(PacketGameState.NO_BASELINE,
+            Client.connectionHandler.getReliableAcknowledgement()));
+        return;
+      }
+    }
+    Snapshot previous = snapshots.get(latestSnapshot);
+    Snapshot snapshot = snapshots.next(gameState.getSequence());
+    gameState.rebuild(baseline, snapshot);
+
+    for (int i = 0; i < snapshot.size(); i++) {
+      ObjectState state = snapshot.getState(i);
+      if (state.getType() == ObjectType.Fist || state.getType() == ObjectType.WeaponSpawner) {
+        continue;
+      }
+      GameObject gameObject = Client.levelHandler.getNetworkIds().get(state.getNetworkId());
+      if (gameObject == null) {
+        PacketReSend reSend = new PacketReSend(state.getNetworkId());
+        Client.connectionHandler.send(reSend);
+      } else if (previous == null || state.diff(previous.get(state.getNetworkId())) != 0) {
+        if (!entity_interpolation || gameObject.getUUID() == Client.levelHandler
+            .getClientPlayer().getUUID()) {
+          gameObject.readState(state, setStateSnap);
+        } else {
+          Timestamp now = new Timestamp(System.currentTimeMillis());
+          Vector2 statePos = new Vector2(state.getX(), state.getY());
+          gameObject.getPositionBuffer().add(new TimePosition(now, statePos));
         }
-      } catch (Exception e) {
       }
     }
+    latestSnapshot = gameState.getSequence();
+    Client.connectionHandler.send(new PacketSnapshotAck(latestSnapshot,
+        Client.connectionHandler.getReliableAcknowledgement()));
+
+    if (reconciliation) {
+      serverReconciliation(gameState.getLastProcessedInput());
+    }
   }
 
   /**
@@ -219,7 +247,7 @@ public class ClientNetworkManager {
             player.throwHoldingKey,
             player.getUUID(),
             Client.inputSequenceNumber);
-    Client.connectionHandler.send(input.getString());
+    Client.connectionHandler.send(input);
     input.setInputSequenceNumber(Client.inputSequenceNumber);
     Client.pendingInputs.add(input);
     Client.inputSequenceNumber++;
@@ -1,32 +1,39 @@
 package client.handlers.networkHandlers;
 
 import client.main.Client;
+import java.io.DataOutputStream;
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.Socket;
+import java.nio.ByteBuffer;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import javafx.application.Platform;
 import shared.gameObjects.players.Player;
 import shared.handlers.levelHandler.Map;
+import shared.packets.Framer;
 import shared.packets.Packet;
+import shared.packets.PacketCodec;
 import shared.packets.PacketJoin;
+import shared.packets.Reassembler;
+import shared.packets.ReliableReceiver;
 import shared.util.Path;
 
 public class ConnectionHandler extends Thread {
 
-  public BlockingQueue received;
+  public BlockingQueue<byte[]> received;
 
-  private byte[] buffer;
+  private final byte[] buffer = new byte[Framer.MAX_DATAGRAM_SIZE];
+  private final Reassembler reassembler = new Reassembler();
+  private final ReliableReceiver reliable = new ReliableReceiver();
   private String address;
   private int port;
   private boolean connected;
   private DatagramSocket clientSocket;
   private Socket socket;
-  private PrintWriter out;
-  private int size;
+  private DataOutputStream out;
+  private final PacketCodec codec = new PacketCodec();
 
   /**
    * Starts a new client side connection to a game server
@@ -35,14 +42,14 @@ public class ConnectionHandler extends Thread {
    */
   public ConnectionHandler(String address) {
     connected = true;
-    size = 1000;
     port = 4446;
-    received = new LinkedBlockingQueue<String>();
+    received = new LinkedBlockingQueue<>();
+    ClientNetworkManager.reset();
     this.address = address;
     try {
       clientSocket = new DatagramSocket(port);
       socket = new Socket(this.address, 4445);
-      out = new PrintWriter(socket.getOutputStream(), true);
+      out = new DataOutputStream(socket.getOutputStream());
     } catch (IOException e) {
       end();
     }
@@ -69,23 +76,28 @@ public class ConnectionHandler extends Thread {
             player.getHandLeft().getUUID(),
             player.getHandRight().getUUID(),
             player.getCurrentSkin());
-    send(joinPacket.getString());
+    send(joinPacket);
 
     Client.multiplayer = true;
+    DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
     while (connected) {
-      buffer = new byte[size];
-      DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
       try {
+        packet.setLength(buffer.length);
         clientSocket.receive(packet);
-        String msg = new String(packet.getData(), packet.getOffset(), packet.getLength());
-        if (msg.startsWith("length:")) {
-          size = Integer.parseInt(msg.split(":")[1]);
-        } else if (msg.startsWith("object")) {
-          packet = new DatagramPacket(buffer, buffer.length);
-          clientSocket.receive(packet);
-          ClientNetworkManager.createGameObjects(packet.getData());
+        ByteBuffer datagram = ByteBuffer.wrap(buffer, 0, packet.getLength());
+        //Too short to hold a header, so not one of ours
+        if (datagram.remaining() < Framer.HEADER_SIZE) {
+          continue;
+        }
+        byte type = Framer.getType(datagram);
+        ByteBuffer message = reassembler.accept(datagram);
+        if (message == null) {
+          continue;
+        }
+        if (type == Framer.TYPE_RELIABLE) {
+          reliable.receive(message, this::deliver);
         } else {
-          received.add(msg.trim());
+          deliver(type, message);
         }
       } catch (IOException e) {
         end();
@@ -93,6 +105,24 @@ public class ConnectionHandler extends Thread {
     }
   }
 
+  private void deliver(byte type, ByteBuffer message) {
+    if (type == Framer.TYPE_PACKET) {
+      byte[] data = new byte[message.remaining()];
+      message.get(data);
+      received.add(data);
+    }
+  }
+
+  /**
+   * Gets what the client has received on the reliable channel, sent back to the server with each
+   * snapshot acknowledgement
+   *
+   * @return Acknowledgement from {@link ReliableReceiver#getAcknowledgement()}
+   */
+  public long getReliableAcknowledgement() {
+    return reliable.getAcknowledgement();
+  }
+
   /**
    * Ends connection to server
    */
@@ -129,13 +159,16 @@ public class ConnectionHandler extends Thread {
   }
 
   /**
-   * Sends message to the server
+   * Sends a packet to the server as a length prefixed frame
    *
-   * @param data Message to server
+   * @param packet Packet to send
    */
-  public void send(String data) {
+  public synchronized void send(Packet packet) {
     try {
-      out.println(data);
+      ByteBuffer frame = codec.encode(packet);
+      out.writeInt(frame.limit());
+      out.write(frame.array(), 0, frame.limit());
+      out.flush();
     } catch (Exception e) {
       end();
     }
@@ -41,7 +41,6 @@ import shared.gameObjects.Utils.ObjectType;
 import shared.gameObjects.menu.main.ButtonQuit;
 import shared.gameObjects.menu.main.SoundSlider;
 import shared.gameObjects.menu.main.SoundSlider.SOUND_TYPE;
-import shared.gameObjects.objects.ObjectManager;
 import shared.gameObjects.players.Player;
 import shared.gameObjects.rendering.ColourFilters;
 import shared.gameObjects.weapons.MachineGun;
@@ -50,6 +49,7 @@ import shared.handlers.levelHandler.LevelHandler;
 import shared.handlers.levelHandler.Map;
 import shared.packets.PacketInput;
 import shared.physics.Physics;
+import shared.physics.PhysicsWorld;
 import shared.util.Path;
 import shared.util.maths.Vector2;
 
@@ -550,12 +550,14 @@ public class Client extends Application {
 
         if (!multiplayer) {
           /** Check Collisions */
-          Physics.gameObjects = levelHandler.getGameObjects();
-
+          PhysicsWorld physics = levelHandler.getPhysics();
+          physics.updateBroadphase();
+          physics.updateNarrowPhase();
           levelHandler
               .getGameObjects()
-              .forEach((key, gameObject) -> gameObject.updateCollision());
-          Physics.clearCollisions();
+              .forEach((key, gameObject) -> gameObject.updateCollision(physics));
+          physics.endCollisionPass();
+          physics.step();
 
           /** Update Game Objects */
           levelHandler.getGameObjects().forEach((key, gameObject) -> gameObject.update());
@@ -563,7 +565,7 @@ public class Client extends Application {
           ClientNetworkManager.update();
         }
         //Update Generic Object Timers
-        ObjectManager.update();
+        levelHandler.getObjectManager().update();
 
         accumulatedTime -= timeStep;
         float alpha = accumulatedTime / timeStep;
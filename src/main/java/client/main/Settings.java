@@ -40,6 +40,7 @@ public class Settings {
   private int gridSize;
   private int playersDead;
   private boolean multiplayer;
+  private boolean headless;
   private HashMap<KEY_CONTROL, KeyCode> keyMap = new HashMap<>();
   private Group overlay;
 
@@ -405,6 +406,18 @@ public class Settings {
     this.multiplayer = multiplayer;
   }
 
+  /**
+   * Whether this is a headless server's, which has no graphics and never renders, so its objects
+   * load no images
+   */
+  public boolean isHeadless() {
+    return headless;
+  }
+
+  public void setHeadless(boolean headless) {
+    this.headless = headless;
+  }
+
   // key mappings
   public enum KEY_CONTROL {
     JUMP, LEFT, RIGHT, THROW, MENU
@@ -0,0 +1,86 @@
+package server;
+
+import java.net.InetAddress;
+import shared.gameObjects.players.Player;
+import shared.packets.ReliableSender;
+import shared.packets.SnapshotBuffer;
+
+/**
+ * Server side state kept for each connected client
+ */
+public class ClientSession {
+
+  private final InetAddress address;
+  private final Player player;
+  private final SnapshotBuffer views = new SnapshotBuffer();
+  private final ReliableSender reliable = new ReliableSender();
+  private volatile int ackedSnapshot = -1;
+  /**
+   * Snapshots below this are not taken as baselines, as the client asked for a full game state
+   * after they were sent
+   */
+  private volatile int firstAckable = 0;
+
+  /**
+   * Constructor
+   *
+   * @param address IP address of the client
+   * @param player The player controlled by the client
+   */
+  public ClientSession(InetAddress address, Player player) {
+    this.address = address;
+    this.player = player;
+  }
+
+  /**
+   * Records a snapshot acknowledged by the client; acks older than the current one are ignored
+   *
+   * @param sequence Sequence number of the snapshot
+   */
+  public void acknowledgeSnapshot(int sequence) {
+    if (sequence > ackedSnapshot && sequence >= firstAckable) {
+      ackedSnapshot = sequence;
+    }
+  }
+
+  /**
+   * Forgets the client's baseline, so its next game state is sent in full; acks of snapshots sent
+   * before are ignored, as the client may no longer hold them
+   *
+   * @param nextSequence Sequence number of the next snapshot to be sent
+   */
+  public void requestFullSnapshot(int nextSequence) {
+    ackedSnapshot = -1;
+    firstAckable = nextSequence;
+  }
+
+  public int getAckedSnapshot() {
+    return ackedSnapshot;
+  }
+
+  /**
+   * The views of the world recently sent to the client, used as the baselines of its deltas
+   *
+   * @return Ring of sent views keyed by snapshot sequence
+   */
+  public SnapshotBuffer getViews() {
+    return views;
+  }
+
+  /**
+   * The reliable ordered channel to the client, only used by the simulation thread
+   *
+   * @return Sending side of the channel
+   */
+  public ReliableSender getReliable() {
+    return reliable;
+  }
+
+  public InetAddress getAddress() {
+    return address;
+  }
+
+  public Player getPlayer() {
+    return player;
+  }
+}
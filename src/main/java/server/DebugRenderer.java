@@ -0,0 +1,53 @@
+package server;
+
+import javafx.animation.AnimationTimer;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Group;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.WritableImage;
+import shared.handlers.levelHandler.LevelHandler;
+
+/**
+ * Optional window showing what a room is simulating, for debugging. The room's scene graph is
+ * never shown directly, as the room's ticks change it; instead each frame renders the objects and
+ * takes a snapshot of the graph while the room is held between ticks.
+ */
+public class DebugRenderer extends AnimationTimer {
+
+  private final ServerLoop loop;
+  private final LevelHandler levelHandler;
+  private final Group world;
+  private final ImageView view;
+  private final SnapshotParameters parameters = new SnapshotParameters();
+  private WritableImage image;
+
+  /**
+   * Constructor
+   *
+   * @param room Room to show
+   * @param view Image view shown in the window
+   */
+  public DebugRenderer(Room room, ImageView view) {
+    this.loop = room.getLoop();
+    this.levelHandler = room.getLevelHandler();
+    this.world = room.getRoot();
+    this.view = view;
+    parameters.setViewport(new Rectangle2D(0, 0, room.getSettings().getMapWidth(),
+        room.getSettings().getMapHeight()));
+  }
+
+  @Override
+  public void handle(long now) {
+    synchronized (loop.getLock()) {
+      levelHandler.getGameObjects().forEach((key, gameObject) -> gameObject.render());
+      if (levelHandler.getBackground() != null) {
+        levelHandler.getBackground().render();
+      }
+      image = world.snapshot(parameters, image);
+    }
+    view.setImage(image);
+    view.setFitWidth(view.getScene().getWidth());
+    view.setFitHeight(view.getScene().getHeight());
+  }
+}
@@ -0,0 +1,110 @@
+package server;
+
+import java.util.EnumMap;
+import shared.gameObjects.GameObject;
+import shared.gameObjects.Utils.ObjectType;
+import shared.packets.ObjectState;
+import shared.packets.Snapshot;
+
+/**
+ * Decides which object states are relevant to each client. Objects near the client's player are
+ * sent every update; further objects are sent less often depending on their distance and the
+ * priority of their type, and objects with no priority are never sent.
+ */
+public class InterestManager {
+
+  /**
+   * Objects within this distance of the viewer are sent every update
+   */
+  public static final float NEAR_DISTANCE = 480;
+  /**
+   * Distance beyond the near distance that adds one update to the send interval
+   */
+  public static final float FALLOFF_DISTANCE = 240;
+  /**
+   * The most updates a relevant object can go without being sent
+   */
+  public static final int MAX_INTERVAL = 8;
+
+  private final EnumMap<ObjectType, Integer> priorities = new EnumMap<>(ObjectType.class);
+
+  /**
+   * Constructs an interest manager with the default priority of each object type
+   */
+  public InterestManager() {
+    for (ObjectType type : ObjectType.values()) {
+      priorities.put(type, 1);
+    }
+    //Fast moving objects
+    priorities.put(ObjectType.Player, 2);
+    priorities.put(ObjectType.Bot, 2);
+    priorities.put(ObjectType.Limb, 2);
+    priorities.put(ObjectType.Bullet, 2);
+    //Not shown by the client
+    priorities.put(ObjectType.MapDataObject, 0);
+    priorities.put(ObjectType.Fist, 0);
+    priorities.put(ObjectType.WeaponSpawner, 0);
+  }
+
+  /**
+   * Sets how important it is for clients to see an object type; 0 stops it being sent
+   *
+   * @param type Type of object
+   * @param priority Divides the send interval of the type
+   */
+  public void setPriority(ObjectType type, int priority) {
+    priorities.put(type, priority);
+  }
+
+  /**
+   * Gets how often a state should be sent to a client
+   *
+   * @param state State of the object
+   * @param viewer The client's player, null if the client has none
+   * @return Number of updates between sends, 0 if the state should never be sent
+   */
+  public int getSendInterval(ObjectState state, GameObject viewer) {
+    int priority = priorities.get(state.getType());
+    if (priority <= 0) {
+      return 0;
+    }
+    if (viewer == null) {
+      return 1;
+    }
+    double dx = state.getX() - viewer.getX();
+    double dy = state.getY() - viewer.getY();
+    double distance = Math.sqrt(dx * dx + dy * dy);
+    if (distance <= NEAR_DISTANCE) {
+      return 1;
+    }
+    int interval = 1 + (int) ((distance - NEAR_DISTANCE) / (FALLOFF_DISTANCE * priority));
+    return Math.min(interval, MAX_INTERVAL);
+  }
+
+  /**
+   * Builds the view of the world a client is sent this update. Relevant objects that are due take
+   * their current state; the others keep the state last sent so they produce no delta.
+   *
+   * @param world Current state of every object
+   * @param previous View sent to the client last update, null if there is none
+   * @param view Empty snapshot to fill with the client's view
+   * @param viewer The client's player, null if the client has none
+   * @param tick Sequence number of the update, used to spread sends of the same interval
+   */
+  public void buildView(Snapshot world, Snapshot previous, Snapshot view, GameObject viewer,
+      int tick) {
+    for (int i = 0; i < world.size(); i++) {
+      ObjectState state = world.getState(i);
+      int interval = getSendInterval(state, viewer);
+      if (interval == 0) {
+        continue;
+      }
+      ObjectState sent = previous == null ? null : previous.get(state.getNetworkId());
+      if (sent == null || (tick + state.getNetworkId()) % interval == 0) {
+        view.add(state);
+      } else {
+        view.add(sent);
+      }
+    }
+  }
+}
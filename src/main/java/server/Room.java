@@ -0,0 +1,651 @@
+package server;
+
+import client.main.Settings;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javafx.scene.Group;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import server.ai.Bot;
+import server.profiling.TickProfiler;
+import server.profiling.TickProfiler.Phase;
+import shared.gameObjects.GameObject;
+import shared.gameObjects.MapDataObject;
+import shared.gameObjects.players.Player;
+import shared.gameObjects.rendering.ColourFilters;
+import shared.handlers.levelHandler.LevelHandler;
+import shared.handlers.levelHandler.Map;
+import shared.handlers.levelHandler.NetworkIdTable;
+import shared.packets.Framer;
+import shared.packets.Packet;
+import shared.packets.PacketCodec;
+import shared.packets.PacketGameState;
+import shared.packets.PacketID;
+import shared.packets.PacketInput;
+import shared.packets.PacketJoin;
+import shared.packets.PacketMap;
+import shared.packets.PacketReSend;
+import shared.packets.PacketSnapshotAck;
+import shared.packets.PacketSpawn;
+import shared.packets.Snapshot;
+import shared.packets.SnapshotBuffer;
+import shared.physics.Physics;
+import shared.physics.PhysicsWorld;
+import shared.util.Path;
+
+/**
+ * A match hosted by the server. Each room owns its level, physics world, clients, input queues and
+ * timers, and runs its ticks on the server's shared worker pool, so one server can host many
+ * independent matches. Everything in a room is only changed from its own ticks; other threads hand
+ * work to it through {@link #execute(Runnable)}.
+ */
+public class Room {
+
+  private static final Logger LOGGER = LogManager.getLogger(Room.class.getName());
+  /**
+   * Ticks per second of the simulation
+   */
+  public static final int TICK_RATE = Math.round(1 / Physics.TIMESTEP);
+
+  private final int id;
+  private final int maxPlayers;
+  private final Server server;
+  private final ServerTransport transport;
+  private final ScheduledExecutorService pool;
+  private final ServerLoop loop;
+  /**
+   * Packets routed to this room by the server, handled at the start of each tick
+   */
+  private final ConcurrentLinkedQueue<ServerTransport.Received> received =
+      new ConcurrentLinkedQueue<>();
+  /**
+   * Clients the server has routed here, counted before their joins are handled
+   */
+  private final AtomicInteger seats = new AtomicInteger(0);
+  /**
+   * The number of players connected
+   */
+  private final AtomicInteger playerCount = new AtomicInteger(0);
+  /**
+   * The numbers of players that are ready to play
+   */
+  private final AtomicBoolean ready = new AtomicBoolean(false);
+  private final AtomicBoolean gameOver = new AtomicBoolean(false);
+  private final AtomicInteger counter = new AtomicInteger(0);
+  private final int serverUpdateRate = 3;
+  /**
+   * Current game state of the room
+   */
+  private volatile ServerState serverState;
+  private volatile boolean closed;
+  private boolean startedGame;
+  private int timeRemaining;
+  private int timeLimit = 1;
+  private ScheduledFuture<?> countdown;
+  private final ConcurrentMap<Player, BlockingQueue<PacketInput>> inputQueue =
+      new ConcurrentHashMap<>();
+  //Only used from the room's ticks
+  private final Framer framer = new Framer();
+  private final ConcurrentMap<InetAddress, ClientSession> sessions = new ConcurrentHashMap<>();
+  private final Snapshot world = new Snapshot();
+  private final InterestManager interest = new InterestManager();
+  /**
+   * Times each tick, shown through JMX while the room is open
+   */
+  private final TickProfiler profiler = new TickProfiler();
+  private int snapshotSequence = 0;
+  private final Settings settings;
+  private final LevelHandler levelHandler;
+  //Scene graph the objects are added to, only shown through the debug renderer
+  private Group root;
+  private Group backgroundRoot;
+  private Group gameRoot;
+  private Group overlayRoot;
+
+  /**
+   * Creates a room and loads its lobby; the room does not tick until it is started
+   *
+   * @param id Number of the room, used in logs
+   * @param maxPlayers Players needed to fill the room
+   * @param server Server hosting the room
+   * @param transport Transport the room's clients are connected through
+   * @param pool Worker pool shared by the rooms
+   */
+  public Room(int id, int maxPlayers, Server server, ServerTransport transport,
+      ScheduledExecutorService pool) {
+    this.id = id;
+    this.maxPlayers = maxPlayers;
+    this.server = server;
+    this.transport = transport;
+    this.pool = pool;
+    this.loop = new ServerLoop(this::tick, TICK_RATE);
+    setupScene();
+    settings = new Settings(null, gameRoot);
+    settings.setOverlay(overlayRoot);
+    settings.setHeadless(server.isHeadless());
+    startedGame = false;
+    serverState = ServerState.WAITING_FOR_PLAYERS;
+    levelHandler = new LevelHandler(settings, backgroundRoot, gameRoot, this);
+    settings.setLevelHandler(levelHandler);
+    settings.setGameRoot(gameRoot);
+  }
+
+  /**
+   * Starts running the room's ticks on the pool
+   */
+  public void start() {
+    LOGGER.debug("Opening room " + id);
+    profiler.register("room-" + id);
+    loop.start(pool);
+  }
+
+  /**
+   * Ends the match: stops the ticks and timers, disconnects the clients and removes the room from
+   * the server
+   */
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    LOGGER.debug("Closing room " + id);
+    loop.stop();
+    profiler.unregister();
+    if (countdown != null) {
+      countdown.cancel(false);
+    }
+    levelHandler.getBotPlayerList().forEach((uuid, bot) -> bot.terminate());
+    sessions.keySet().forEach(transport::disconnect);
+    server.removeRoom(this);
+  }
+
+  /**
+   * Takes a seat for a client the server is about to route here
+   *
+   * @return True if the room is waiting for players and has a seat free
+   */
+  boolean takeSeat() {
+    int taken;
+    do {
+      taken = seats.get();
+      if (closed || serverState != ServerState.WAITING_FOR_PLAYERS || taken >= maxPlayers) {
+        return false;
+      }
+    } while (!seats.compareAndSet(taken, taken + 1));
+    return true;
+  }
+
+  /**
+   * Frees the seat of a client that has disconnected
+   */
+  void leaveSeat() {
+    seats.decrementAndGet();
+  }
+
+  /**
+   * Queues a packet from one of this room's clients for the next tick
+   *
+   * @param packet Packet and who sent it
+   */
+  void receive(ServerTransport.Received packet) {
+    received.add(packet);
+  }
+
+  /**
+   * The end of the game, resets game back to main menu
+   */
+  public void endGame() {
+    // remove desaturation
+    ColourFilters filter = new ColourFilters();
+    filter.setDesaturate(0);
+    filter.applyFilter(gameRoot, "desaturation");
+    //Show Scores
+    levelHandler.changeMap(
+        new Map("menus/score.map", Path.convert("src/main/resources/menus/score.map")),
+        true, true);
+  }
+
+  /**
+   * Encodes a packet and sends it to all clients on the reliable ordered channel, so it arrives
+   * exactly once and after every message sent before it
+   *
+   * @param packet Packet to send
+   */
+  public void sendToClients(Packet packet) {
+    sendReliable(Framer.TYPE_PACKET, PacketCodec.forThread().encode(packet));
+  }
+
+  /**
+   * Encodes a packet and sends it to one client; it may be lost, so only use this for state that
+   * is sent again
+   *
+   * @param address Address of the client
+   * @param packet Packet to send
+   */
+  public void sendToClient(InetAddress address, Packet packet) {
+    send(address, Framer.TYPE_PACKET, PacketCodec.forThread().encode(packet));
+  }
+
+  /**
+   * Sends a message to all clients on the reliable ordered channel
+   *
+   * @param type Framer type of the message
+   * @param data Buffer holding the message between its position and limit
+   */
+  private void sendReliable(byte type, ByteBuffer data) {
+    long now = System.currentTimeMillis();
+    for (ClientSession session : sessions.values()) {
+      session.getReliable()
+          .send(type, data, now, body -> send(session.getAddress(), Framer.TYPE_RELIABLE, body));
+    }
+  }
+
+  private void send(InetAddress address, byte type, ByteBuffer data) {
+    framer.frame(type, data, datagram -> transport.send(address, datagram));
+  }
+
+  /**
+   * Handles the packets received from clients since the last update
+   */
+  private void processClientPackets() {
+    ServerTransport.Received packetReceived;
+    while ((packetReceived = received.poll()) != null) {
+      Packet packet = packetReceived.getPacket();
+      ClientSession session = sessions.get(packetReceived.getAddress());
+      if (packet == null) {
+        if (session != null) {
+          removePlayer(session);
+        }
+        continue;
+      }
+      switch (PacketID.fromID(packet.getPacketID())) {
+        case JOIN:
+          if (session == null && playerCount.get() < maxPlayers
+              && serverState == ServerState.WAITING_FOR_PLAYERS) {
+            addPlayer((PacketJoin) packet, packetReceived.getAddress());
+          } else if (session == null) {
+            transport.disconnect(packetReceived.getAddress());
+          }
+          break;
+        case INPUT:
+          if (session != null) {
+            getQueue(session.getPlayer()).add((PacketInput) packet);
+          }
+          break;
+        case RESEND:
+          GameObject gameObject = levelHandler.getNetworkIds()
+              .get(((PacketReSend) packet).getGameobject());
+          if (gameObject != null) {
+            sendObjects(Collections.singletonList(gameObject));
+          }
+          break;
+        case SNAPSHOTACK:
+          if (session != null) {
+            PacketSnapshotAck ack = (PacketSnapshotAck) packet;
+            if (ack.isFullRequest()) {
+              session.requestFullSnapshot(snapshotSequence);
+            } else {
+              session.acknowledgeSnapshot(ack.getSequence());
+            }
+            session.getReliable().acknowledge(ack.getReliableExpected(), ack.getReliableReceived());
+          }
+          break;
+        default:
+          break;
+      }
+    }
+  }
+
+  /**
+   * Removes a disconnected client and replaces its player with a bot
+   *
+   * @param session Session of the client
+   */
+  private void removePlayer(ClientSession session) {
+    Player player = session.getPlayer();
+    sessions.remove(session.getAddress());
+    inputQueue.remove(player);
+    levelHandler.getPlayers().remove(player.getUUID());
+    levelHandler.getGameObjects().remove(player.getUUID());
+    levelHandler.getNetworkIds().release(player);
+    player.removeRender();
+    //Replacement bot
+    Bot botPlayer = new Bot(player.getX(), player.getY(), player.getUUID(), levelHandler);
+    botPlayer.initialise(gameRoot, settings);
+    levelHandler.getPlayers().put(botPlayer.getUUID(), botPlayer);
+    levelHandler.getBotPlayerList().put(botPlayer.getUUID(), botPlayer);
+    levelHandler.getGameObjects().put(botPlayer.getUUID(), botPlayer);
+    botPlayer.startThread();
+    LOGGER.debug("Removing player and Swap for bot in room " + id);
+  }
+
+  //Updates the Physics of the objects in the room
+  private void updateSimulation() {
+    long time = System.nanoTime();
+    inputQueue.forEach(
+        ((player, packetInputs) -> {
+          PacketInput temp = packetInputs.poll();
+          if (temp != null) {
+            player.click = temp.isClick();
+            player.rightKey = temp.isRightKey();
+            player.leftKey = temp.isLeftKey();
+            player.mouseX = temp.getX();
+            player.mouseY = temp.getY();
+            player.jumpKey = temp.isJumpKey();
+            player.throwHoldingKey = temp.isThrowKey();
+            player.setLastInputCount(temp.getInputSequenceNumber());
+          }
+        }));
+    levelHandler.getPlayers().forEach((key, player) -> player.applyInput());
+    time = profiler.lap(Phase.INPUT, time);
+
+    /** Check Collisions */
+    PhysicsWorld physics = levelHandler.getPhysics();
+    physics.updateBroadphase();
+    time = profiler.lap(Phase.BROADPHASE, time);
+    physics.updateNarrowPhase();
+    time = profiler.lap(Phase.NARROW_PHASE, time);
+    levelHandler.getGameObjects().forEach((key, gameObject) -> gameObject.updateCollision(physics));
+    time = profiler.lap(Phase.COLLISIONS, time);
+    physics.endCollisionPass();
+    time = profiler.lap(Phase.CONTACTS, time);
+    physics.step();
+    time = profiler.lap(Phase.STEP, time);
+    /** Update Game Objects */
+    levelHandler.getGameObjects().forEach((key, gameObject) -> {
+      long start = System.nanoTime();
+      gameObject.update();
+      profiler.recordUpdate(gameObject.getId(), System.nanoTime() - start);
+    });
+    time = profiler.lap(Phase.UPDATE, time);
+    levelHandler.getObjectManager().update();
+    profiler.lap(Phase.OBJECT_MANAGER, time);
+  }
+
+  /**
+   * Adds new player to input list
+   *
+   * @param player Player to add
+   */
+  public void add(Player player) {
+    inputQueue.put(player, new LinkedBlockingQueue<PacketInput>());
+  }
+
+  /**
+   * Gets the queue of items for a specific client
+   *
+   * @param player Player to get inputs for
+   * @return Queue of player inputs received and not processed
+   */
+  public BlockingQueue<PacketInput> getQueue(Player player) {
+    BlockingQueue<PacketInput> toRet = new LinkedBlockingQueue<>();
+    try {
+      toRet = inputQueue.get(player);
+    } catch (Exception e) {
+
+    }
+    return toRet;
+  }
+
+  /**
+   * Captures a snapshot of the world and sends each client the relevant changes since the last
+   * view it acknowledged, or its full view if that baseline is no longer held
+   */
+  private void sendWorldState() {
+    int sequence = snapshotSequence++;
+    world.clear(sequence);
+    NetworkIdTable networkIds = levelHandler.getNetworkIds();
+    for (GameObject gameObject : levelHandler.getGameObjects().values()) {
+      if (!(gameObject instanceof MapDataObject)) {
+        //Objects not spawned through the level handler are given an ID on first send
+        int networkId = networkIds.assign(gameObject);
+        gameObject.writeState(world.add(networkId, gameObject.getId()));
+      }
+    }
+
+    //Sent even when nothing changed so the clients keep acknowledging newer baselines
+    long now = System.currentTimeMillis();
+    for (ClientSession session : sessions.values()) {
+      session.getReliable()
+          .resend(now, body -> send(session.getAddress(), Framer.TYPE_RELIABLE, body));
+      SnapshotBuffer views = session.getViews();
+      Snapshot previous = views.get(sequence - 1);
+      Snapshot view = views.next(sequence);
+      Snapshot baseline = views.get(session.getAckedSnapshot());
+      interest.buildView(world, previous, view, session.getPlayer(), sequence);
+      sendToClient(session.getAddress(),
+          new PacketGameState(view, baseline, session.getPlayer().getLastInputCount()));
+    }
+  }
+
+  private void checkConditions() {
+    ArrayList<Player> alive = new ArrayList<>();
+    for (UUID key : levelHandler.getPlayers().keySet()) {
+      Player p = levelHandler.getPlayers().get(key);
+      if (p.isActive()) {
+        alive.add(p);
+      }
+      if (alive.size() > 1) {
+        break;
+      }
+    }
+    if (alive.size() <= 1 && serverState == ServerState.IN_GAME) {
+      alive.forEach(player -> player.increaseScore());
+      Map nextMap = levelHandler.pollPlayList();
+      levelHandler.getPlayers().forEach((uuid, player) -> player.reset());
+      PacketMap map = new PacketMap(nextMap.getPath(), true);
+      sendToClients(map);
+      schedule(() -> levelHandler.changeMap(nextMap, true, true), 500);
+    } else if (alive.size() == 1 && serverState == ServerState.WAITING_FOR_READYUP) {
+      ready.set(true);
+    }
+    alive.clear();
+  }
+
+  /**
+   * Begin the timer
+   */
+  private void startMatch() {
+    if (!startedGame) {
+      serverState = ServerState.IN_GAME;
+      timeRemaining = timeLimit * 60;
+      countdown = pool.scheduleAtFixedRate(() -> execute(() -> {
+        System.out.println(String.format("Room %d %d:%d", id, timeRemaining / 60,
+            timeRemaining - ((timeRemaining / 60) * 60)));
+        timeRemaining -= 1;
+      }), 0, 1000, TimeUnit.MILLISECONDS);
+
+      long delay = 1000l * 60l * timeLimit;
+      schedule(() -> {
+        endGame();
+        gameOver.set(true);
+        countdown.cancel(false);
+      }, delay);
+
+      startedGame = true;
+      serverState = ServerState.IN_GAME;
+    }
+  }
+
+  /**
+   * Runs one tick of the room
+   */
+  private void tick() {
+    long time = profiler.startTick();
+    counter.getAndIncrement();
+
+    /** Joins, inputs and acks from clients */
+    processClientPackets();
+    time = profiler.lap(Phase.PACKETS, time);
+
+    //All players have joined
+    if (playerCount.get() == maxPlayers && (serverState != ServerState.IN_GAME
+        || serverState != ServerState.WAITING_FOR_READYUP)) {
+      serverState = ServerState.WAITING_FOR_READYUP;
+    }
+    //Start game
+    if (playerCount.get() > 1 && ready.get()) {
+      startMatch();
+    }
+
+    /** Check Conditions */
+    checkConditions();
+    profiler.lap(Phase.MATCH, time);
+
+    /** Process Update */
+    updateSimulation();
+
+    /** Send update to all clients */
+    if (playerCount.get() > 0 && counter.get() >= serverUpdateRate) {
+      counter.set(0);
+      time = System.nanoTime();
+      sendWorldState();
+      profiler.lap(Phase.SEND_STATE, time);
+    }
+    PhysicsWorld physics = levelHandler.getPhysics();
+    profiler.endTick(physics.getPairTests(), physics.getRaycasts());
+  }
+
+  /**
+   * @return Timings of the room's ticks
+   */
+  public TickProfiler getProfiler() {
+    return profiler;
+  }
+
+  /**
+   * Runs a task in the room before its next tick; timers use this to change the world
+   *
+   * @param task Task to run
+   */
+  public void execute(Runnable task) {
+    loop.execute(task);
+  }
+
+  /**
+   * Runs a task in the room once a delay has passed, timed on the shared pool rather than a thread
+   * of its own
+   *
+   * @param task Task to run
+   * @param delay Delay in milliseconds
+   * @return Future that cancels the task
+   */
+  public ScheduledFuture<?> schedule(Runnable task, long delay) {
+    return pool.schedule(() -> execute(task), delay, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Sends spawn descriptors for a list of objects to all the clients, batched into as few packets
+   * as fit
+   *
+   * @param gameObjects Objects to send
+   */
+  public void sendObjects(Collection<GameObject> gameObjects) {
+    ArrayList<GameObject> batch = new ArrayList<>(
+        Math.min(gameObjects.size(), PacketSpawn.MAX_SPAWNS));
+    for (GameObject gameObject : gameObjects) {
+      batch.add(gameObject);
+      if (batch.size() == PacketSpawn.MAX_SPAWNS) {
+        sendToClients(new PacketSpawn(batch));
+        batch.clear();
+      }
+    }
+    if (!batch.isEmpty()) {
+      sendToClients(new PacketSpawn(batch));
+    }
+  }
+
+  /**
+   * Adds a player to the room and renders them
+   *
+   * @param joinPacket Packet of data responsible for join details
+   * @param address IP address of the player
+   * @return The player object
+   */
+  public Player addPlayer(PacketJoin joinPacket, InetAddress address) {
+    Player player = new Player(joinPacket.getX(), joinPacket.getY(), joinPacket.getClientID());
+    player.initialise(gameRoot, settings, joinPacket.getLegLeftUUID(), joinPacket.getLegRightUUID(),
+        joinPacket.getBodyUUID(), joinPacket.getHeadUUID(), joinPacket.getArmLeftUUID(),
+        joinPacket.getArmRightUUID(), joinPacket.getHandLeftUUID(), joinPacket.getHandRightUUID());
+    levelHandler.addPlayer(player, joinPacket.getPlayerSkin());
+    player.updateSkinRender(joinPacket.getPlayerSkin());
+    playerCount.getAndIncrement();
+    sessions.put(address, new ClientSession(address, player));
+    add(player);
+    sendObjects(levelHandler.getGameObjects().values());
+    return player;
+  }
+
+  /**
+   * Creates the scene graph the objects are added to; it is never shown directly, so the room's
+   * ticks can change it
+   */
+  private void setupScene() {
+    root = new Group();
+    backgroundRoot = new Group();
+    gameRoot = new Group();
+    Group lightingRoot = new Group();
+    Group uiRoot = new Group();
+    overlayRoot = new Group();
+    Group overlayBackground = new Group();
+
+    root.setStyle("-fx-font-family: Kenney Future");
+
+    root.getChildren().add(backgroundRoot);
+    root.getChildren().add(gameRoot);
+    root.getChildren().add(lightingRoot);
+    root.getChildren().add(uiRoot);
+    root.getChildren().add(overlayBackground);
+    root.getChildren().add(overlayRoot);
+  }
+
+  /**
+   * @return Number of the room
+   */
+  public int getId() {
+    return id;
+  }
+
+  /**
+   * @return Current game state of the room
+   */
+  public ServerState getServerState() {
+    return serverState;
+  }
+
+  public LevelHandler getLevelHandler() {
+    return levelHandler;
+  }
+
+  public Settings getSettings() {
+    return settings;
+  }
+
+  /**
+   * @return Loop running the room's ticks
+   */
+  public ServerLoop getLoop() {
+    return loop;
+  }
+
+  /**
+   * @return Root of the room's scene graph
+   */
+  public Group getRoot() {
+    return root;
+  }
+}
@@ -1,508 +1,237 @@
 package server;
 
-import client.main.Settings;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.ObjectOutputStream;
-import java.net.DatagramPacket;
-import java.net.DatagramSocket;
 import java.net.InetAddress;
-import java.net.ServerSocket;
-import java.net.UnknownHostException;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
-import java.util.UUID;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
-import javafx.animation.AnimationTimer;
 import javafx.application.Application;
-import javafx.application.Platform;
 import javafx.scene.Cursor;
 import javafx.scene.Group;
 import javafx.scene.Scene;
 import javafx.scene.image.Image;
-import javafx.scene.transform.Scale;
+import javafx.scene.image.ImageView;
 import javafx.stage.Stage;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import shared.gameObjects.GameObject;
-import shared.gameObjects.MapDataObject;
-import shared.gameObjects.objects.ObjectManager;
-import shared.gameObjects.players.Player;
-import shared.gameObjects.rendering.ColourFilters;
-import shared.handlers.levelHandler.LevelHandler;
-import shared.handlers.levelHandler.Map;
-import shared.packets.PacketGameState;
-import shared.packets.PacketInput;
-import shared.packets.PacketJoin;
-import shared.packets.PacketMap;
-import shared.physics.Physics;
+import shared.packets.PacketID;
 import shared.util.Path;
-import shared.util.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
-import shared.util.maths.Vector2;
 
 /**
- * The Server Application
+ * The Server Application. The server hosts any number of independent matches, each in a {@link
+ * Room} ticked on a shared worker pool, and routes every client's packets to the room it joined.
+ * As a JavaFX application the server also shows a debug window of the first room, which {@link
+ * ServerMain} leaves out when running headless.
  */
 public class Server extends Application {
 
   private static final Logger LOGGER = LogManager.getLogger(Server.class.getName());
   /**
-   * The level handler attached to the application
+   * Players needed to fill a room unless --players is given
    */
-  public static LevelHandler levelHandler;
+  public static final int DEFAULT_ROOM_SIZE = 2;
   /**
-   * The settings container attached to the application
+   * Most rooms hosted at once unless --rooms is given
    */
-  public static Settings settings;
-  private static Group gameRoot;
-  /**
-   * The number of players connected
-   */
-  public final AtomicInteger playerCount = new AtomicInteger(0);
-  /**
-   * The numbers of players that are ready to play
-   */
-  private static final AtomicBoolean running = new AtomicBoolean(false);
-  private final AtomicBoolean ready = new AtomicBoolean(false);
-  private final AtomicBoolean sendAllObjects = new AtomicBoolean(false);
-  private final AtomicBoolean gameOver = new AtomicBoolean(false);
-  private final AtomicInteger counter = new AtomicInteger(0);
-  private final int maxPlayers = 2;
-  private final int serverUpdateRate = 3;
+  public static final int DEFAULT_MAX_ROOMS = 32;
   private final String gameTitle = "SERVER";
+  private int roomSize = DEFAULT_ROOM_SIZE;
+  private int maxRooms = DEFAULT_MAX_ROOMS;
+  private int serverPort = 4446;
+  private ServerTransport transport;
+  private ScheduledThreadPoolExecutor pool;
+  private final CopyOnWriteArrayList<Room> rooms = new CopyOnWriteArrayList<>();
   /**
-   * Current game state of the server
+   * The room each connected client was routed to
    */
-  public ServerState serverState;
-  private boolean startedGame;
-  private int timeRemaining;
-  private int timeLimit = 1;
-  private Timer timer = new Timer("Timer", true);
-  private ArrayList<InetAddress> connectedList = new ArrayList<>();
-  private List connected = Collections.synchronizedList(connectedList);
-  private String threadName;
-  private ConcurrentMap<Player, BlockingQueue<PacketInput>> inputQueue;
-  private int playerLastCount = 0;
-  private ServerSocket serverSocket = null;
-  private int serverPort = 4446;
-  private ExecutorService executor;
-  private Server server;
-  private DatagramSocket socket;
-  //Rendering
-  private Group root;
-  private Group backgroundRoot;
-  private Scene scene;
-  public static Group overlayRoot;
-  private static Group uiRoot;
-  private static Group overlayBackground;
-  private static Group lightingRoot;
-
-  public static void main(String args[]) {
-    launch(args);
-  }
-
-  public static LevelHandler getLevelHandler() {
-    return levelHandler;
-  }
+  private final ConcurrentMap<InetAddress, Room> routes = new ConcurrentHashMap<>();
+  private final AtomicBoolean dispatchPending = new AtomicBoolean(false);
+  private int nextRoomId = 0;
+  private boolean headless = false;
 
   /**
-   * The end of the game, resets game back to main menu
+   * Starts the server with the debug window; {@link ServerMain} starts it headless
+   *
+   * @param args Command line arguments
    */
-  public static void endGame() {
-    // remove desaturation
-    ColourFilters filter = new ColourFilters();
-    filter.setDesaturate(0);
-    filter.applyFilter(gameRoot, "desaturation");
-    //Show Scores
-    levelHandler.changeMap(
-        new Map("menus/score.map", Path.convert("src/main/resources/menus/score.map")),
-        true, true);
+  public static void main(String args[]) {
+    launch(args);
   }
 
   /**
-   * Send data to clients
+   * Reads the room options from the command line: --players N sets the players needed to fill a
+   * room and --rooms N the most rooms hosted at once
    *
-   * @param buffer Data as a byte array
-   * @param object If true, server is sending objects
+   * @param args Command line arguments
    */
-  public void sendToClients(byte[] buffer, boolean object) {
-    synchronized (connected) {
-      connected.forEach(
-          address -> {
-            try {
-              //Send buffer size to set
-              byte[] lengthBuffer = ("length:" + buffer.length).getBytes();
-              DatagramPacket packet = new DatagramPacket(lengthBuffer, lengthBuffer.length,
-                  (InetAddress) address, serverPort);
-              socket.send(packet);
-
-              if (object) {
-                packet = new DatagramPacket("object".getBytes(), "object".getBytes().length,
-                    (InetAddress) address, serverPort);
-                socket.send(packet);
-              }
-
-              packet = new DatagramPacket(buffer, buffer.length,
-                  (InetAddress) address, serverPort);
-              socket.send(packet);
-              LOGGER.debug("SEND: " + new String(buffer));
-            } catch (UnknownHostException e) {
-              e.printStackTrace();
-            } catch (IOException e) {
-              e.printStackTrace();
-            }
-          });
+  public void configure(List<String> args) {
+    for (int i = 0; i + 1 < args.size(); i++) {
+      try {
+        if (args.get(i).equals("--players")) {
+          roomSize = Math.max(1, Integer.parseInt(args.get(i + 1)));
+        } else if (args.get(i).equals("--rooms")) {
+          maxRooms = Math.max(1, Integer.parseInt(args.get(i + 1)));
+        }
+      } catch (NumberFormatException e) {
+        LOGGER.error("Ignoring " + args.get(i) + ", " + args.get(i + 1) + " is not a number");
+      }
     }
   }
 
-  //Updates the Physics of the objects on the Server
-  private void updateSimulation() {
-    /** Check Collisions */
-    Physics.gameObjects = levelHandler.getGameObjects();
-    inputQueue.forEach(
-        ((player, packetInputs) -> {
-          PacketInput temp = packetInputs.poll();
-          if (temp != null) {
-            LOGGER.debug("Input-:" + temp.getString());
-            player.click = temp.isClick();
-            player.rightKey = temp.isRightKey();
-            player.leftKey = temp.isLeftKey();
-            player.mouseX = temp.getX();
-            player.mouseY = temp.getY();
-            player.jumpKey = temp.isJumpKey();
-            player.throwHoldingKey = temp.isThrowKey();
-            player.setLastInputCount(temp.getInputSequenceNumber());
-          }
-        }));
-    levelHandler.getPlayers().forEach((key, player) -> player.applyInput());
-
-    levelHandler.getGameObjects().forEach((key, gameObject) -> gameObject.updateCollision());
-    Physics.clearCollisions();
-    /** Update Game Objects */
-    levelHandler.getGameObjects().forEach((key, gameObject) -> gameObject.update());
-    ObjectManager.update();
-  }
-
   /**
-   * Adds new player to input list
-   *
-   * @param player Player to add
+   * @return Whether the server runs without a display, so its rooms load no images
    */
-  public void add(Player player) {
-    inputQueue.put(player, new LinkedBlockingQueue<PacketInput>());
+  public boolean isHeadless() {
+    return headless;
   }
 
-
   /**
-   * Gets the queue of items for a specific client
-   *
-   * @param player Player to get inputs for
-   * @return Queue of player inputs received and not processed
+   * @param headless Whether the server runs without a display, set before any room is opened
    */
-  public BlockingQueue<PacketInput> getQueue(Player player) {
-    BlockingQueue<PacketInput> toRet = new LinkedBlockingQueue<>();
-    try {
-      toRet = inputQueue.get(player);
-    } catch (Exception e) {
-
-    }
-    return toRet;
-  }
-
-  private void sendWorldState() {
-    ArrayList<GameObject> gameObjectsFiltered = new ArrayList<>();
-    for (UUID key : levelHandler.getGameObjects().keySet()) {
-      GameObject gameObject = levelHandler.getGameObjects().get(key);
-      if (!(gameObject instanceof MapDataObject)) {
-        gameObjectsFiltered.add(gameObject);
-      }
-    }
-
-    PacketGameState gameState = new PacketGameState(gameObjectsFiltered, sendAllObjects.get());
-    sendAllObjects.set(false);
-
-    if (gameState.isUpdate()) {
-      byte[] buffer = gameState.getData();
-      sendToClients(buffer, false);
-    }
+  public void setHeadless(boolean headless) {
+    this.headless = headless;
   }
 
   /**
    * Initializes the Server
    */
   public void init() {
-    server = this;
-    executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
-    threadName = "Server";
-    settings = new Settings(levelHandler, gameRoot);
-    running.set(true);
-    startedGame = false;
-    settings.setLevelHandler(levelHandler);
-    inputQueue = new ConcurrentHashMap<>();
+    AtomicInteger workers = new AtomicInteger(0);
+    pool = new ScheduledThreadPoolExecutor(Runtime.getRuntime().availableProcessors(),
+        task -> new Thread(task, "Room Worker " + workers.getAndIncrement()));
     try {
-      this.serverSocket = new ServerSocket(4445);
-      this.socket = new DatagramSocket();
+      transport = new ServerTransport(4445, serverPort);
+      transport.setListener(this::onReceived);
+      new Thread(transport).start();
     } catch (IOException e) {
       e.printStackTrace();
     }
-    serverState = ServerState.WAITING_FOR_PLAYERS;
   }
 
-  private void scaleRendering(Stage primaryStage) {
-    Vector2 scaleRatio = new Vector2(scene.getWidth() / settings.getMapWidth(),
-        scene.getHeight() / settings.getMapHeight());
-    Scale scale = new Scale(scaleRatio.getX(), scaleRatio.getY(), 0, 0);
-    primaryStage.getScene().getRoot().getTransforms().setAll(scale);
+  @Override
+  public void start(Stage primaryStage) {
+    configure(getParameters().getRaw());
+    startSimulation();
+    Room room = rooms.get(0);
+    ImageView view = new ImageView();
+    Scene scene = new Scene(new Group(view), room.getSettings().getWindowWidth(),
+        room.getSettings().getWindowHeight());
+    scene.setCursor(Cursor.CROSSHAIR);
+    primaryStage.setTitle(gameTitle);
+    primaryStage.getIcons().add(new Image(Path.convert("images/logo.png")));
+    primaryStage.setScene(scene);
+    primaryStage.setFullScreen(false);
+    primaryStage.show();
+    new DebugRenderer(room, view).start();
   }
 
-  private void checkConditions() {
-    ArrayList<Player> alive = new ArrayList<>();
-      for (UUID key : levelHandler.getPlayers().keySet()) {
-        Player p = levelHandler.getPlayers().get(key);
-        if (p.isActive()) {
-          alive.add(p);
-        }
-        if (alive.size() > 1) {
-          break;
-        }
-      }
-    if (alive.size() <= 1 && serverState == ServerState.IN_GAME) {
-      alive.forEach(player -> player.increaseScore());
-      Map nextMap = levelHandler.pollPlayList();
-      levelHandler.getPlayers().forEach((uuid, player) -> player.reset());
-      PacketMap map = new PacketMap(nextMap.getPath(), true);
-      sendToClients(map.getData(), false);
-      new java.util.Timer().schedule(
-          new java.util.TimerTask() {
-            @Override
-            public void run() {
-              Platform.runLater(new Runnable() {
-                @Override
-                public void run() {
-                  levelHandler.changeMap(nextMap, true, true);
-                }
-              });
-            }
-          },
-          500
-      );
-    } else if (alive.size() == 1 && serverState == ServerState.WAITING_FOR_READYUP) {
-      ready.set(true);
-    }
-    alive.clear();
+  /**
+   * Opens the first room, so the first clients to join do not wait for a lobby to load
+   */
+  public void startSimulation() {
+    LOGGER.debug("Hosting up to " + maxRooms + " rooms of " + roomSize + " players");
+    openRoom();
   }
 
   /**
-   * Begin the timer
+   * Closes every room and stops the server
    */
-  private void startMatch() {
-    if (!startedGame) {
-      serverState = ServerState.IN_GAME;
-      timeRemaining = timeLimit * 60;
-      Timer secondsTimer = new Timer();
-      secondsTimer.scheduleAtFixedRate(new TimerTask() {
-        @Override
-        public void run() {
-          System.out.println(String
-              .format("%d:%d", timeRemaining / 60, timeRemaining - ((timeRemaining / 60) * 60)));
-          timeRemaining -= 1;
-        }
-      }, 0, 1000);
-
-      long delay = 1000l * 60l * timeLimit;
-      timer.schedule(new TimerTask() {
-        @Override
-        public void run() {
-          Platform.runLater(new Runnable() {
-            @Override
-            public void run() {
-              endGame();
-              gameOver.set(true);
-              secondsTimer.cancel();
-            }
-          });
-        }
-      }, delay);
-
-      startedGame = true;
-      serverState = ServerState.IN_GAME;
+  public void shutdown() {
+    rooms.forEach(Room::close);
+    if (transport != null) {
+      transport.shutdown();
     }
+    pool.shutdownNow();
   }
 
-  public static void killServer() {
-    running.set(false);
+  /**
+   * Run by the transport's I/O thread when packets arrive; routing is handed to the pool so the
+   * I/O thread never waits for it
+   */
+  private void onReceived() {
+    if (dispatchPending.compareAndSet(false, true)) {
+      pool.execute(this::dispatch);
+    }
   }
 
-  @Override
-  public void start(Stage primaryStage) {
-    setupRender(primaryStage);
-    levelHandler = new LevelHandler(settings, backgroundRoot, gameRoot, this);
-    settings.setLevelHandler(levelHandler);
-    settings.setGameRoot(gameRoot);
-    LOGGER.debug("Running " + threadName);
-    /** Receiver from clients */
-    executor.execute(new ServerReceiver(this, serverSocket, connected));
-
-    Physics.settings = settings;
-
-    new AnimationTimer() {
-
-      @Override
-      public void handle(long now) {
-        counter.getAndIncrement();
-        if (!running.get()) {
-          executor.shutdownNow();
-          System.exit(0);
-        }
-
-        //Allow player to join
-        if (playerLastCount < playerCount.get() && server.playerCount.get() < 5
-            && serverState == ServerState.WAITING_FOR_PLAYERS) {
-          playerLastCount++;
-          executor.execute(new ServerReceiver(server, serverSocket, connected));
-        }
-
-        //All players have joined
-        if (playerCount.get() == maxPlayers && (serverState != ServerState.IN_GAME
-            || serverState != ServerState.WAITING_FOR_READYUP)) {
-          serverState = ServerState.WAITING_FOR_READYUP;
-        }
-        //Start game
-        if (playerCount.get() > 1 && ready.get()) {
-          startMatch();
+  /**
+   * Routes the packets received from clients to their rooms. A client's first join takes a seat in
+   * a room that is waiting for players, opening a new room when none has a seat free.
+   */
+  private synchronized void dispatch() {
+    dispatchPending.set(false);
+    ServerTransport.Received received;
+    while ((received = transport.poll()) != null) {
+      InetAddress address = received.getAddress();
+      Room room = routes.get(address);
+      if (received.getPacket() == null) {
+        //The client has gone
+        if (room != null) {
+          routes.remove(address);
+          room.leaveSeat();
+          room.receive(received);
         }
-
-        /** Check Conditions */
-        checkConditions();
-
-        /** Process Update */
-        updateSimulation();
-
-        scaleRendering(primaryStage);
-
-        /** Render Game Objects */
-        levelHandler.getGameObjects().forEach((key, gameObject) -> gameObject.render());
-        if (levelHandler.getBackground() != null) {
-          levelHandler.getBackground().render();
+        continue;
+      }
+      if (room == null) {
+        if (PacketID.fromID(received.getPacket().getPacketID()) != PacketID.JOIN) {
+          continue;
         }
-
-        /** Send update to all clients */
-        if (playerCount.get() > 0 && counter.get() >= serverUpdateRate) {
-          counter.set(0);
-          sendWorldState();
+        room = findRoom();
+        if (room == null) {
+          LOGGER.debug("No room for " + address + ", all " + maxRooms + " rooms are full");
+          transport.disconnect(address);
+          continue;
         }
+        routes.put(address, room);
       }
-    }.start();
+      room.receive(received);
+    }
   }
 
   /**
-   * Sends a list of updated objects to all the clients
+   * Finds a room with a seat free and takes the seat
    *
-   * @param gameobjects List of objects to send
+   * @return The room, null if every room is full and no more can be opened
    */
-  public void sendObjects(ConcurrentLinkedHashMap<UUID, GameObject> gameobjects) {
-    ByteArrayOutputStream byteArrayOutputStream = null;
-    try {
-      int i = 0;
-      ArrayList list = new ArrayList();
-      for (java.util.Map.Entry<UUID, GameObject> entry : gameobjects.entrySet()) {
-        list.add(entry.getValue());
-          byteArrayOutputStream = new ByteArrayOutputStream();
-          ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream);
-          objectOutputStream.writeObject(list);
-          objectOutputStream.flush();
-          sendToClients(byteArrayOutputStream.toByteArray(), true);
-          list.clear();
-      }
-      /**
-       byteArrayOutputStream = new ByteArrayOutputStream();
-       ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream);
-       objectOutputStream.writeObject(list);
-       objectOutputStream.flush();
-       sendToClients(byteArrayOutputStream.toByteArray(), true);
-       list.clear();
-       **/
-
-    } catch (IOException e) {
-      LOGGER.error("Unable to send new objects to clients ");
-      e.printStackTrace();
-    } catch (Exception e) {
-      e.printStackTrace();
-    } finally {
-      try {
-        byteArrayOutputStream.close();
-      } catch (IOException e) {
-        LOGGER.error("Can't close Byte Array Output Stream on Server");
+  private Room findRoom() {
+    for (Room room : rooms) {
+      if (room.takeSeat()) {
+        return room;
       }
     }
+    if (rooms.size() >= maxRooms) {
+      return null;
+    }
+    Room room = openRoom();
+    return room.takeSeat() ? room : null;
   }
 
-  //Rendering; mostly for Debugging
+  private synchronized Room openRoom() {
+    Room room = new Room(nextRoomId++, roomSize, this, transport, pool);
+    rooms.add(room);
+    room.start();
+    return room;
+  }
 
   /**
-   * Adds a player to the server and renders them
+   * Removes a closed room, so its clients are no longer routed to it
    *
-   * @param joinPacket Packet of data responsible for join details
-   * @param address IP address of the player
-   * @return The player object
+   * @param room Room to remove
    */
-  public Player addPlayer(PacketJoin joinPacket, InetAddress address) {
-    Player player = new Player(joinPacket.getX(), joinPacket.getY(), joinPacket.getClientID());
-    player.initialise(gameRoot, settings, joinPacket.getLegLeftUUID(), joinPacket.getLegRightUUID(),
-        joinPacket.getBodyUUID(), joinPacket.getHeadUUID(), joinPacket.getArmLeftUUID(),
-        joinPacket.getArmRightUUID(), joinPacket.getHandLeftUUID(), joinPacket.getHandRightUUID());
-    levelHandler.addPlayer(player, joinPacket.getPlayerSkin());
-    player.updateSkinRender(joinPacket.getPlayerSkin());
-    playerCount.getAndIncrement();
-    connected.add(address);
-    server.add(player);
-    server.sendObjects(levelHandler.getGameObjects());
-    return player;
+  synchronized void removeRoom(Room room) {
+    rooms.remove(room);
+    routes.values().removeIf(routed -> routed == room);
   }
 
   /**
-   * Initialises the rendering stage of the game setup
-   *
-   * @param primaryStage The JavaFX stage the game elements are to be placed into
+   * @return Rooms currently hosted
    */
-  private void setupRender(Stage primaryStage) {
-    root = new Group();
-    backgroundRoot = new Group();
-    gameRoot = new Group();
-    lightingRoot = new Group();
-    uiRoot = new Group();
-    overlayRoot = new Group();
-    overlayBackground = new Group();
-
-    root.setStyle("-fx-font-family: Kenney Future");
-
-    root.getChildren().add(backgroundRoot);
-    root.getChildren().add(gameRoot);
-    root.getChildren().add(lightingRoot);
-    root.getChildren().add(uiRoot);
-    root.getChildren().add(overlayBackground);
-    root.getChildren().add(overlayRoot);
-    settings.setOverlay(overlayRoot);
-
-    primaryStage.setTitle(gameTitle);
-    primaryStage.getIcons().add(new Image(Path.convert("images/logo.png")));
-
-    scene = new Scene(root, settings.getWindowWidth(), settings.getWindowHeight());
-    scene.setCursor(Cursor.CROSSHAIR);
-    scene.getStylesheets().add("style.css");
-
-    primaryStage.setScene(scene);
-    primaryStage.setFullScreen(false);
-    primaryStage.show();
+  public List<Room> getRooms() {
+    return rooms;
   }
 }
@@ -0,0 +1,150 @@
+package server;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Runs a simulation at a fixed tick rate, independent of any display. Rather than owning a thread,
+ * the loop reschedules itself on a shared pool after each run, so many loops can share a few
+ * threads while each still runs one tick at a time. A tick that starts late is followed by back to
+ * back ticks until the loop has caught up; if it falls more than {@link #MAX_CATCH_UP_TICKS}
+ * behind, the older ticks are dropped rather than letting the backlog grow.
+ */
+public class ServerLoop implements Runnable {
+
+  private static final Logger LOGGER = LogManager.getLogger(ServerLoop.class.getName());
+
+  /**
+   * The most ticks the loop will run back to back to catch up
+   */
+  public static final int MAX_CATCH_UP_TICKS = 5;
+
+  private final Runnable tick;
+  private final long tickNanos;
+  private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+  private final Object lock = new Object();
+  private ScheduledExecutorService pool;
+  private long nextTick;
+  private long droppedTicks;
+  private volatile boolean running = true;
+
+  /**
+   * Constructor
+   *
+   * @param tick Runs one tick of the simulation
+   * @param tickRate Ticks per second
+   */
+  public ServerLoop(Runnable tick, int tickRate) {
+    this.tick = tick;
+    this.tickNanos = 1000000000L / tickRate;
+  }
+
+  /**
+   * Starts running ticks on a pool
+   *
+   * @param pool Pool the ticks are run on
+   */
+  public void start(ScheduledExecutorService pool) {
+    this.pool = pool;
+    nextTick = System.nanoTime();
+    pool.execute(this);
+  }
+
+  /**
+   * Runs the ticks that are due, then schedules itself for the next one
+   */
+  @Override
+  public void run() {
+    int due = ticksDue(System.nanoTime());
+    for (int i = 0; i < due && running; i++) {
+      synchronized (lock) {
+        try {
+          Runnable task;
+          while ((task = tasks.poll()) != null) {
+            task.run();
+          }
+          tick.run();
+        } catch (Exception | Error e) {
+          //One bad tick should not stop the simulation for good
+          e.printStackTrace();
+        }
+      }
+    }
+    if (running) {
+      try {
+        pool.schedule(this, nextTick - System.nanoTime(), TimeUnit.NANOSECONDS);
+      } catch (RejectedExecutionException e) {
+        LOGGER.debug("Pool shut down, stopping loop");
+      }
+    }
+  }
+
+  /**
+   * Works out how many ticks are due and moves the schedule past them, dropping the ticks beyond
+   * the catch up limit
+   *
+   * @param now Current time in nanoseconds
+   * @return Number of ticks to run now
+   */
+  int ticksDue(long now) {
+    if (now < nextTick) {
+      return 0;
+    }
+    long due = (now - nextTick) / tickNanos + 1;
+    if (due > MAX_CATCH_UP_TICKS) {
+      droppedTicks += due - MAX_CATCH_UP_TICKS;
+      LOGGER.debug("Simulation fell " + due + " ticks behind, dropping "
+          + (due - MAX_CATCH_UP_TICKS));
+      due = MAX_CATCH_UP_TICKS;
+      nextTick = now + tickNanos;
+    } else {
+      nextTick += due * tickNanos;
+    }
+    return (int) due;
+  }
+
+  /**
+   * Sets when the next tick is due, the loop starts from the time it is started
+   *
+   * @param time Time in nanoseconds
+   */
+  void setNextTick(long time) {
+    nextTick = time;
+  }
+
+  /**
+   * Runs a task on the simulation thread before the next tick
+   *
+   * @param task Task to run
+   */
+  public void execute(Runnable task) {
+    tasks.add(task);
+  }
+
+  /**
+   * Held while a tick runs, so another thread such as a debug renderer can read a consistent world
+   *
+   * @return The lock object
+   */
+  public Object getLock() {
+    return lock;
+  }
+
+  /**
+   * @return Number of ticks dropped because the loop fell too far behind
+   */
+  public long getDroppedTicks() {
+    return droppedTicks;
+  }
+
+  /**
+   * Stops the loop after the current tick
+   */
+  public void stop() {
+    running = false;
+  }
+}
@@ -0,0 +1,34 @@
+package server;
+
+import java.util.Arrays;
+import javafx.application.Application;
+
+/**
+ * Entry point of the server. The server runs headless, needing no display, unless --render is
+ * given to attach the debug window; --players and --rooms size the rooms it hosts. This class must
+ * not extend Application, as the Java launcher starts the JavaFX toolkit for any main class that
+ * does.
+ */
+public class ServerMain {
+
+  /**
+   * Starts the server
+   *
+   * @param args Command line arguments, --render to show the debug window, --players N for the
+   *     players in a room and --rooms N for the most rooms at once
+   */
+  public static void main(String[] args) {
+    for (String arg : args) {
+      if (arg.equals("--render")) {
+        Application.launch(Server.class, args);
+        return;
+      }
+    }
+    Server server = new Server();
+    server.setHeadless(true);
+    server.configure(Arrays.asList(args));
+    server.init();
+    server.startSimulation();
+    Runtime.getRuntime().addShutdownHook(new Thread(server::shutdown));
+  }
+}
@@ -0,0 +1,336 @@
+package server;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import shared.packets.Framer;
+import shared.packets.Packet;
+import shared.packets.PacketCodec;
+
+/**
+ * Non-blocking network transport for the server. A single I/O thread accepts client connections,
+ * reads their length prefixed frames and sends queued datagrams. Decoded packets are handed to the
+ * simulation through a lock-free queue, and any thread can queue a datagram without blocking.
+ * Connections are all read into one buffer, keeping only the start of a frame still arriving.
+ */
+public class ServerTransport implements Runnable {
+
+  private static final Logger LOGGER = LogManager.getLogger(ServerTransport.class.getName());
+
+  private final Selector selector;
+  private final ServerSocketChannel acceptor;
+  private final DatagramChannel datagramChannel;
+  private final SelectionKey datagramKey;
+  /**
+   * Buffer every connection is read into, only used by the I/O thread
+   */
+  private final ByteBuffer in = ByteBuffer.allocateDirect(4 + PacketCodec.MAX_FRAME_SIZE);
+  /**
+   * Datagram the socket had no room for, sent before the rest once the channel is writable
+   */
+  private Outgoing blocked;
+  private final int clientPort;
+  private final ConcurrentLinkedQueue<Received> received = new ConcurrentLinkedQueue<>();
+  private final ConcurrentLinkedQueue<Outgoing> outgoing = new ConcurrentLinkedQueue<>();
+  private final ConcurrentLinkedQueue<ByteBuffer> bufferPool = new ConcurrentLinkedQueue<>();
+  private final ConcurrentLinkedQueue<InetAddress> toDisconnect = new ConcurrentLinkedQueue<>();
+  private final ConcurrentHashMap<InetAddress, SelectionKey> connections =
+      new ConcurrentHashMap<>();
+  private final AtomicBoolean wakeupPending = new AtomicBoolean(false);
+  private volatile boolean running = true;
+  private volatile Runnable listener;
+
+  /**
+   * Opens the channels of the transport
+   *
+   * @param tcpPort Port clients connect to
+   * @param clientPort Port clients receive datagrams on
+   * @throws IOException if the channels cannot be opened
+   */
+  public ServerTransport(int tcpPort, int clientPort) throws IOException {
+    this.clientPort = clientPort;
+    selector = Selector.open();
+    acceptor = ServerSocketChannel.open();
+    acceptor.bind(new InetSocketAddress(tcpPort));
+    acceptor.configureBlocking(false);
+    acceptor.register(selector, SelectionKey.OP_ACCEPT);
+    datagramChannel = DatagramChannel.open();
+    datagramChannel.configureBlocking(false);
+    datagramKey = datagramChannel.register(selector, 0);
+  }
+
+  @Override
+  public void run() {
+    Thread.currentThread().setName("Server Transport");
+    while (running) {
+      try {
+        selector.select();
+        wakeupPending.set(false);
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+          SelectionKey key = keys.next();
+          keys.remove();
+          if (!key.isValid()) {
+            continue;
+          }
+          if (key.isAcceptable()) {
+            accept();
+          } else if (key.isReadable()) {
+            read(key);
+          }
+          //The datagram channel being writable is handled by the flush below
+        }
+        InetAddress address;
+        while ((address = toDisconnect.poll()) != null) {
+          SelectionKey key = connections.get(address);
+          if (key != null) {
+            close(key);
+          }
+        }
+        flush();
+      } catch (ClosedSelectorException e) {
+        break;
+      } catch (IOException e) {
+        e.printStackTrace();
+      }
+    }
+    try {
+      for (SelectionKey key : selector.keys()) {
+        key.channel().close();
+      }
+      selector.close();
+      datagramChannel.close();
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+  }
+
+  private void accept() throws IOException {
+    SocketChannel channel = acceptor.accept();
+    if (channel == null) {
+      return;
+    }
+    channel.configureBlocking(false);
+    InetAddress address = channel.socket().getInetAddress();
+    SelectionKey key = channel.register(selector, SelectionKey.OP_READ,
+        new Connection(address));
+    connections.put(address, key);
+    LOGGER.debug("Accepted connection from " + address);
+  }
+
+  /**
+   * Reads what the client has sent after the frame it was part way through and queues every
+   * complete frame
+   */
+  private void read(SelectionKey key) {
+    Connection connection = (Connection) key.attachment();
+    in.clear();
+    if (connection.partial != null) {
+      in.put(connection.partial);
+    }
+    try {
+      if (((SocketChannel) key.channel()).read(in) < 0) {
+        close(key);
+        return;
+      }
+      in.flip();
+      while (in.remaining() >= 4) {
+        int length = in.getInt(in.position());
+        if (length <= 0 || length > PacketCodec.MAX_FRAME_SIZE) {
+          throw new IOException("Invalid frame length " + length);
+        }
+        if (in.remaining() < 4 + length) {
+          break;
+        }
+        int end = in.position() + 4 + length;
+        int limit = in.limit();
+        in.position(in.position() + 4).limit(end);
+        Packet packet = PacketCodec.decode(in);
+        in.limit(limit).position(end);
+        receive(new Received(connection.address, packet));
+      }
+      if (in.hasRemaining()) {
+        ByteBuffer partial = connection.partial;
+        if (partial == null || partial.capacity() < in.remaining()) {
+          partial = ByteBuffer.allocate(in.remaining());
+          connection.partial = partial;
+        }
+        partial.clear();
+        partial.put(in).flip();
+      }
+    } catch (IOException | IllegalArgumentException e) {
+      LOGGER.debug("Dropping connection from " + connection.address + ": " + e.getMessage());
+      close(key);
+    }
+  }
+
+  private void close(SelectionKey key) {
+    Connection connection = (Connection) key.attachment();
+    key.cancel();
+    try {
+      key.channel().close();
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+    if (connections.remove(connection.address, key)) {
+      //A null packet tells the simulation the client has gone
+      receive(new Received(connection.address, null));
+    }
+  }
+
+  private void receive(Received packet) {
+    received.add(packet);
+    Runnable listener = this.listener;
+    if (listener != null) {
+      listener.run();
+    }
+  }
+
+  /**
+   * Sends the queued datagrams in the order they were queued. When the socket has no room for the
+   * next one, it and those after it wait until the channel is writable again.
+   */
+  private void flush() throws IOException {
+    Outgoing datagram;
+    while ((datagram = blocked != null ? blocked : outgoing.poll()) != null) {
+      if (datagramChannel.send(datagram.data, datagram.address) == 0) {
+        if (blocked == null) {
+          blocked = datagram;
+          datagramKey.interestOps(SelectionKey.OP_WRITE);
+        }
+        return;
+      }
+      if (blocked != null) {
+        blocked = null;
+        datagramKey.interestOps(0);
+      }
+      if (datagram.data.capacity() == Framer.MAX_DATAGRAM_SIZE) {
+        datagram.data.clear();
+        bufferPool.add(datagram.data);
+      }
+    }
+  }
+
+  /**
+   * Queues a datagram to be sent to a client by the I/O thread. The data is copied, so the caller
+   * can reuse its buffer straight away.
+   *
+   * @param address Address of the client
+   * @param data Buffer holding the datagram between its position and limit
+   */
+  public void send(InetAddress address, ByteBuffer data) {
+    ByteBuffer copy = data.remaining() > Framer.MAX_DATAGRAM_SIZE ? null : bufferPool.poll();
+    if (copy == null) {
+      copy = ByteBuffer.allocateDirect(Math.max(data.remaining(), Framer.MAX_DATAGRAM_SIZE));
+    }
+    copy.put(data.duplicate()).flip();
+    outgoing.add(new Outgoing(new InetSocketAddress(address, clientPort), copy));
+    if (wakeupPending.compareAndSet(false, true)) {
+      selector.wakeup();
+    }
+  }
+
+  /**
+   * Closes the connection of a client
+   *
+   * @param address Address of the client
+   */
+  public void disconnect(InetAddress address) {
+    toDisconnect.add(address);
+    selector.wakeup();
+  }
+
+  /**
+   * Takes the next packet received from a client
+   *
+   * @return The packet and who sent it, null if nothing is waiting
+   */
+  public Received poll() {
+    return received.poll();
+  }
+
+  /**
+   * Sets a listener the I/O thread runs each time it queues a packet, so the packets can be handled
+   * without polling; the listener must not block
+   *
+   * @param listener Listener to run, null for none
+   */
+  public void setListener(Runnable listener) {
+    this.listener = listener;
+  }
+
+  /**
+   * @return The port clients connect to, useful when the transport was bound to port 0
+   */
+  public int getLocalPort() {
+    return acceptor.socket().getLocalPort();
+  }
+
+  /**
+   * Stops the I/O thread, which closes every channel on its way out
+   */
+  public void shutdown() {
+    running = false;
+    selector.wakeup();
+  }
+
+  /**
+   * A packet received from a client; the packet is null when the client has disconnected
+   */
+  public static class Received {
+
+    private final InetAddress address;
+    private final Packet packet;
+
+    Received(InetAddress address, Packet packet) {
+      this.address = address;
+      this.packet = packet;
+    }
+
+    public InetAddress getAddress() {
+      return address;
+    }
+
+    public Packet getPacket() {
+      return packet;
+    }
+  }
+
+  private static class Connection {
+
+    private final InetAddress address;
+    /**
+     * The start of a frame not yet fully received, kept between reads; null until a read ends part
+     * way through a frame
+     */
+    private ByteBuffer partial;
+
+    private Connection(InetAddress address) {
+      this.address = address;
+    }
+  }
+
+  private static class Outgoing {
+
+    private final InetSocketAddress address;
+    private final ByteBuffer data;
+
+    private Outgoing(InetSocketAddress address, ByteBuffer data) {
+      this.address = address;
+      this.data = data;
+    }
+  }
+}
@@ -11,9 +11,13 @@ import java.util.Random;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import javafx.scene.Group;
+import shared.gameObjects.players.Limb;
 import shared.gameObjects.players.Player;
+import shared.gameObjects.weapons.Bullet;
 import shared.gameObjects.weapons.Weapon;
 import shared.handlers.levelHandler.LevelHandler;
+import shared.physics.QueryFilter;
+import shared.physics.QueryResults;
 import shared.util.maths.Vector2;
 
 /**
@@ -21,6 +25,11 @@ import shared.util.maths.Vector2;
  */
 public class Bot extends Player {
 
+  /**
+   * Pinned so maps and objects serialized by earlier builds can still be read
+   */
+  private static final long serialVersionUID = 4044219282177977832L;
+
   /**
    * The action array index for jump key
    */
@@ -67,6 +76,15 @@ public class Bot extends Player {
   transient List<boolean[]> fleeingPlan;
 
   transient int prevHealth;
+  /**
+   * What the bot can see past when looking for its target: limbs, bullets, and the bot and
+   * anything it holds
+   */
+  transient QueryFilter sightFilter;
+  /**
+   * Buffer for the sight casts made by the bot's state machine
+   */
+  transient QueryResults sightResults;
 
   /**
    * @param x x pos of the bot
@@ -84,6 +102,11 @@ public class Bot extends Player {
     this.chasingThread = new ChasingThread(this, chasingPlan);
     chasingThread.setName("Bot chasingThread");
     this.fleeingThread = new FleeingThread(this, fleeingPlan);
+    this.sightFilter = new QueryFilter().ignore(this).setPredicate(
+        object -> !(object instanceof Limb || object instanceof Bullet)
+            && object.getParent() != this
+            && !(object instanceof Weapon && ((Weapon) object).getHolder() == this));
+    this.sightResults = new QueryResults();
   }
 
   /**
@@ -389,4 +412,11 @@ public class Bot extends Player {
     return targetPlayer;
   }
 
+  /**
+   * Get the filter for casts checking what the bot can see
+   */
+  public QueryFilter getSightFilter() {
+    return sightFilter;
+  }
+
 }
@@ -8,8 +8,7 @@ import shared.gameObjects.components.Rigidbody;
 import shared.gameObjects.players.Player;
 import shared.gameObjects.weapons.Gun;
 import shared.gameObjects.weapons.Melee;
-import shared.physics.Physics;
-import shared.physics.data.Collision;
+import shared.physics.QueryResults;
 import shared.physics.types.RigidbodyType;
 import shared.util.maths.Vector2;
 
@@ -46,13 +45,13 @@ public enum FSA {
       Vector2 enemyPosCenter = enemyPos.add(bot.getTransform().getSize().mult(0.5f));
 
       // Use the worldScene of the path finding to raycast, instead of the actual gameObjects list.
-      Collision rayCast = Physics.raycastAi(botPosCenter,
+      QueryResults rayCast = ((Bot) bot).sightResults;
+      ((Bot) bot).getLevelHandler().getPhysics().raycast(botPosCenter,
           enemyPosCenter.sub(botPosCenter),
-          null,
-          (Bot) bot,
-          false);
+          ((Bot) bot).sightFilter,
+          rayCast);
 
-      inSight = ((Rigidbody) rayCast.getCollidedObject()
+      inSight = ((Rigidbody) rayCast.getObject(0)
           .getComponent(ComponentType.RIGIDBODY)).getBodyType() != RigidbodyType.STATIC;
       /*
       if (bot.getHolding().isGun() && ((Gun) bot.getHolding()).firesExplosive()) {
@@ -113,13 +112,13 @@ public enum FSA {
       Vector2 enemyPosCenter = enemyPos.add(bot.getTransform().getSize().mult(0.5f));
 
       // Use the worldScene of the path finding to raycast, instead of the actual gameObjects list.
-      Collision rayCast = Physics.raycastAi(botPosCenter,
+      QueryResults rayCast = ((Bot) bot).sightResults;
+      ((Bot) bot).getLevelHandler().getPhysics().raycast(botPosCenter,
           enemyPosCenter.sub(botPosCenter),
-          null,
-          (Bot) bot,
-          false);
+          ((Bot) bot).sightFilter,
+          rayCast);
 
-      inSight = ((Rigidbody) rayCast.getCollidedObject()
+      inSight = ((Rigidbody) rayCast.getObject(0)
           .getComponent(ComponentType.RIGIDBODY)).getBodyType() != RigidbodyType.STATIC;
       /*
 
@@ -179,13 +178,13 @@ public enum FSA {
       Vector2 enemyPosCenter = enemyPos.add(bot.getTransform().getSize().mult(0.5f));
 
       // Use the worldScene of the path finding to raycast, instead of the actual gameObjects list.
-      Collision rayCast = Physics.raycastAi(botPosCenter,
+      QueryResults rayCast = ((Bot) bot).sightResults;
+      ((Bot) bot).getLevelHandler().getPhysics().raycast(botPosCenter,
           enemyPosCenter.sub(botPosCenter),
-          null,
-          (Bot) bot,
-          false);
+          ((Bot) bot).sightFilter,
+          rayCast);
 
-      inSight = ((Rigidbody) rayCast.getCollidedObject()
+      inSight = ((Rigidbody) rayCast.getObject(0)
           .getComponent(ComponentType.RIGIDBODY)).getBodyType() != RigidbodyType.STATIC;
 
       /*
@@ -251,13 +250,13 @@ public enum FSA {
       Vector2 enemyPosCenter = enemyPos.add(bot.getTransform().getSize().mult(0.5f));
 
       // Use the worldScene of the path finding to raycast, instead of the actual gameObjects list.
-      Collision rayCast = Physics.raycastAi(botPosCenter,
+      QueryResults rayCast = ((Bot) bot).sightResults;
+      ((Bot) bot).getLevelHandler().getPhysics().raycast(botPosCenter,
           enemyPosCenter.sub(botPosCenter),
-          null,
-          (Bot) bot,
-          false);
+          ((Bot) bot).sightFilter,
+          rayCast);
 
-      inSight = ((Rigidbody) rayCast.getCollidedObject()
+      inSight = ((Rigidbody) rayCast.getObject(0)
           .getComponent(ComponentType.RIGIDBODY)).getBodyType() != RigidbodyType.STATIC;
       /*
 
@@ -13,6 +13,7 @@ import server.ai.FSA;
 import shared.gameObjects.GameObject;
 import shared.gameObjects.components.ComponentType;
 import shared.gameObjects.components.Rigidbody;
+import shared.gameObjects.players.Limb;
 import shared.gameObjects.players.Player;
 import shared.gameObjects.weapons.ExplosiveLauncher;
 import shared.gameObjects.weapons.Handgun;
@@ -23,8 +24,8 @@ import shared.gameObjects.weapons.Sword;
 import shared.gameObjects.weapons.Uzi;
 import shared.gameObjects.weapons.Weapon;
 import shared.handlers.levelHandler.LevelHandler;
-import shared.physics.Physics;
-import shared.physics.data.Collision;
+import shared.physics.QueryFilter;
+import shared.physics.QueryResults;
 import shared.physics.types.RigidbodyType;
 import shared.util.maths.Vector2;
 
@@ -87,6 +88,17 @@ public class AStar {
    * The plan generated by the planner
    */
   private List<boolean[]> currentPlan;
+  /**
+   * Finds the static objects, the only ones that block the bot's moves
+   */
+  private final QueryFilter blockingFilter = new QueryFilter().setPredicate(object -> {
+    Rigidbody rb = (Rigidbody) object.getComponent(ComponentType.RIGIDBODY);
+    return !(object instanceof Limb) && rb != null && rb.getBodyType() == RigidbodyType.STATIC;
+  });
+  /**
+   * Buffer for the planner's casts, only used by the thread running the planner
+   */
+  private final QueryResults castResults = new QueryResults();
 
   /**
    * Create new AStar
@@ -276,15 +288,13 @@ public class AStar {
     double dist = botPos.exactMagnitude(enemyPos);
     Melee tempMelee;
 
-    // Use the worldScene of the path finding to raycast, instead of the actual gameObjects list.
-    Collision rayCast = Physics.raycastAi(botPosCenter,
+    levelHandler.getPhysics().raycast(botPosCenter,
         enemyPosCenter.sub(botPosCenter),
-        worldScene,
-        bot,
-        false);
+        bot.getSightFilter(),
+        castResults);
 
-    // If the cast is null or returns a Static RigidBody
-    boolean inSight = rayCast == null || (((Rigidbody) rayCast.getCollidedObject()
+    // If the cast hits nothing or does not return a Static RigidBody
+    boolean inSight = castResults.isEmpty() || (((Rigidbody) castResults.getObject(0)
         .getComponent(ComponentType.RIGIDBODY)).getBodyType() != RigidbodyType.STATIC);
 
     if (weaponHolder.getHolding().isGun() || !chasing) {
@@ -326,15 +336,12 @@ public class AStar {
     // Box cast to the left
     if (!Arrays.equals(parentAction, new boolean[]{false, false, true})) {
 
-      ArrayList<Collision> viscinityLeft = Physics.boxcastAll(
+      boolean viscinityLeftClear = levelHandler.getPhysics().overlapBox(
           botPosition.add(Vector2.Left().mult(botSize.mult(new Vector2(0.1, 0.85))))
               .add(Vector2.Down().mult(3)),
-          botSize.mult(new Vector2(0.1, 0.85)), false, true);
+          botSize.mult(new Vector2(0.1, 0.85)), blockingFilter, castResults) == 0;
 
-      if (viscinityLeft.size() == 0 ||
-          (viscinityLeft.stream().allMatch(o -> ((Rigidbody) o.getCollidedObject()
-              .getComponent(ComponentType.RIGIDBODY))
-              .getBodyType() != RigidbodyType.STATIC))) {
+      if (viscinityLeftClear) {
         // If no collision
         possibleActions.add(createAction(false, true, false));
         left = true;
@@ -346,14 +353,11 @@ public class AStar {
     // Box cast to the right
     if (!Arrays.equals(parentAction, new boolean[]{false, true, false})) {
 
-      ArrayList<Collision> viscinityRight = Physics.boxcastAll(
+      boolean viscinityRightClear = levelHandler.getPhysics().overlapBox(
           botPosition.add(Vector2.Right().mult(botSize)).add(Vector2.Down().mult(3)),
-          botSize.mult(new Vector2(0.1, 0.85)), false, true);
+          botSize.mult(new Vector2(0.1, 0.85)), blockingFilter, castResults) == 0;
 
-      if (viscinityRight.size() == 0 ||
-          (viscinityRight.stream().allMatch(o -> ((Rigidbody) o.getCollidedObject()
-              .getComponent(ComponentType.RIGIDBODY))
-              .getBodyType() != RigidbodyType.STATIC))) {
+      if (viscinityRightClear) {
 
         possibleActions.add(createAction(false, false, true));
         right = true;
@@ -365,43 +369,34 @@ public class AStar {
     // Box cast upwards
     if (nodeBot.mayJump()) { // If the bot cant jump, theres no point casting upwards
 
-      ArrayList<Collision> viscinityUp = Physics.boxcastAll(
+      boolean viscinityUpClear = levelHandler.getPhysics().overlapBox(
           botPosition.add(Vector2.Up().mult(botSize.mult(new Vector2(1, 0.1)))),
-          botSize.mult(new Vector2(1, 0.1)), false, true);
+          botSize.mult(new Vector2(1, 0.1)), blockingFilter, castResults) == 0;
 
       // If no collision
-      if (viscinityUp.size() == 0 ||
-          (viscinityUp.stream().allMatch(o -> ((Rigidbody) o.getCollidedObject()
-              .getComponent(ComponentType.RIGIDBODY))
-              .getBodyType() != RigidbodyType.STATIC))) {
+      if (viscinityUpClear) {
 
-        ArrayList<Collision> viscinityUpLeft = Physics.boxcastAll(
+        boolean viscinityUpLeftClear = levelHandler.getPhysics().overlapBox(
             botPosition.add(Vector2.Up().mult(botSize.mult(new Vector2(0.2, 0.1))))
                 .add(Vector2.Left()
                     .mult(new Vector2(0.2, 0.1))),
-            botSize.mult(new Vector2(0.2, 0.1)), false, true);
+            botSize.mult(new Vector2(0.2, 0.1)), blockingFilter, castResults) == 0;
 
-        ArrayList<Collision> viscinityUpRight = Physics.boxcastAll(
+        boolean viscinityUpRightClear = levelHandler.getPhysics().overlapBox(
             botPosition.add(Vector2.Up().mult(botSize.mult(new Vector2(0.2, 0.1))))
                 .add(Vector2.Right()
                     .mult(botSize.mult(new Vector2(1, 0.1)))),
-            botSize.mult(new Vector2(0.2, 0.1)), false, true);
+            botSize.mult(new Vector2(0.2, 0.1)), blockingFilter, castResults) == 0;
 
         // Just jump
         possibleActions.add(createAction(true, false, false));
 
-        if (viscinityUpRight.size() == 0 ||
-            (viscinityUpRight.stream().allMatch(o -> ((Rigidbody) o.getCollidedObject()
-                .getComponent(ComponentType.RIGIDBODY))
-                .getBodyType() != RigidbodyType.STATIC))) {
+        if (viscinityUpRightClear) {
           // Jump to the right
           possibleActions.add(createAction(true, false, true));
         }
 
-        if (viscinityUpLeft.size() == 0 ||
-            (viscinityUpLeft.stream().allMatch(o -> ((Rigidbody) o.getCollidedObject()
-                .getComponent(ComponentType.RIGIDBODY))
-                .getBodyType() != RigidbodyType.STATIC))) {
+        if (viscinityUpLeftClear) {
           // Jump to the left
           possibleActions.add(createAction(true, true, false));
         }
@@ -670,7 +665,7 @@ public class AStar {
       replicaBot.simulateAction(action);
       replicaBot.simulateApplyInput();
       replicaBot.simulateUpdate();
-      replicaBot.simulateUpdateCollision();
+      replicaBot.simulateUpdateCollision(levelHandler.getPhysics());
     }
 
     /**
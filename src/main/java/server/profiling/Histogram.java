@@ -0,0 +1,151 @@
+package server.profiling;
+
+import java.util.Arrays;
+
+/**
+ * Counts of recorded values in buckets that widen with the value, in the style of an HDR
+ * histogram: values below {@link #SUB_BUCKETS} each have a bucket of their own, and each doubling
+ * above that is split into {@link #SUB_BUCKETS} / 2 buckets, so every value is kept to within
+ * about 6% however large it is. Recording is a few shifts and an array increment and never
+ * allocates, so it can be done every tick.
+ *
+ * <p>A histogram is only changed by one thread; other threads read copies of it.
+ */
+public final class Histogram {
+
+  /**
+   * Values below this are counted exactly
+   */
+  static final int SUB_BUCKETS = 32;
+  private static final int SUB_BUCKET_BITS = 5;
+  /**
+   * Largest value told apart from larger ones, about 68 seconds in nanoseconds
+   */
+  public static final long MAX_VALUE = (1L << 36) - 1;
+
+  private final long[] counts = new long[bucketIndex(MAX_VALUE) + 1];
+  private long count = 0;
+  private long sum = 0;
+  private long min = Long.MAX_VALUE;
+  private long max = 0;
+
+  /**
+   * Records a value; negative values are counted as 0 and values over {@link #MAX_VALUE} as it
+   *
+   * @param value Value to record
+   */
+  public void record(long value) {
+    value = Math.max(0, Math.min(MAX_VALUE, value));
+    counts[bucketIndex(value)]++;
+    count++;
+    sum += value;
+    min = Math.min(min, value);
+    max = Math.max(max, value);
+  }
+
+  /**
+   * Adds the values recorded by another histogram to this one
+   *
+   * @param other Histogram to add
+   */
+  public void add(Histogram other) {
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] += other.counts[i];
+    }
+    count += other.count;
+    sum += other.sum;
+    min = Math.min(min, other.min);
+    max = Math.max(max, other.max);
+  }
+
+  /**
+   * Makes this histogram a copy of another
+   *
+   * @param other Histogram to copy
+   */
+  public void set(Histogram other) {
+    System.arraycopy(other.counts, 0, counts, 0, counts.length);
+    count = other.count;
+    sum = other.sum;
+    min = other.min;
+    max = other.max;
+  }
+
+  /**
+   * Forgets every value recorded
+   */
+  public void reset() {
+    Arrays.fill(counts, 0);
+    count = 0;
+    sum = 0;
+    min = Long.MAX_VALUE;
+    max = 0;
+  }
+
+  /**
+   * @param percentile Percentage of the values, from 0 to 100
+   * @return The value that percentage of the recorded values are no greater than, to within the
+   * width of its bucket; 0 if nothing has been recorded
+   */
+  public long getValueAtPercentile(double percentile) {
+    if (count == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+    long seen = 0;
+    for (int i = 0; i < counts.length; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return Math.max(min, Math.min(max, highestInBucket(i)));
+      }
+    }
+    return max;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public long getSum() {
+    return sum;
+  }
+
+  /**
+   * @return The smallest value recorded, 0 if nothing has been recorded
+   */
+  public long getMin() {
+    return count == 0 ? 0 : min;
+  }
+
+  public long getMax() {
+    return max;
+  }
+
+  public double getMean() {
+    return count == 0 ? 0 : (double) sum / count;
+  }
+
+  /**
+   * @return Index of the bucket a value is counted in
+   */
+  static int bucketIndex(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    //Each doubling past the exact buckets keeps the value's top bits, dropping one more bit
+    int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+    return shift * (SUB_BUCKETS / 2) + (int) (value >>> shift);
+  }
+
+  /**
+   * @return The largest value counted in a bucket
+   */
+  static long highestInBucket(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    int shift = index / (SUB_BUCKETS / 2) - 1;
+    long top = index - shift * (SUB_BUCKETS / 2);
+    return ((top + 1) << shift) - 1;
+  }
+}
@@ -0,0 +1,385 @@
+package server.profiling;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.locks.StampedLock;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import shared.gameObjects.Utils.ObjectType;
+
+/**
+ * Times the phases of a simulation's ticks and the updates of each type of object, and counts the
+ * collision pairs tested and the raycasts made each tick, keeping them in {@link Histogram}s.
+ * Timing a phase is a call to {@link System#nanoTime()} and a histogram increment, so the
+ * profiler can be left running under real load.
+ *
+ * <p>Ticks are recorded into windows of a fixed number of ticks, kept in a ring holding the last
+ * few. Only the simulation's thread writes to the ring; it takes a window's lock while filling the
+ * window and lets it go once the window is full. Readers, such as JMX, never lock: they copy the
+ * full windows, throwing away any copy of a window that was reused while it was being read, so
+ * reading a report never holds up a tick.
+ */
+public class TickProfiler implements TickProfilerMXBean {
+
+  private static final Logger LOGGER = LogManager.getLogger(TickProfiler.class.getName());
+
+  /**
+   * Ticks in a window unless given, two seconds at 60 ticks a second
+   */
+  public static final int DEFAULT_WINDOW_TICKS = 120;
+  /**
+   * Full windows kept unless given, the last half a minute
+   */
+  public static final int DEFAULT_WINDOWS = 15;
+
+  /**
+   * The parts of a tick that are timed
+   */
+  public enum Phase {
+    PACKETS,
+    MATCH,
+    INPUT,
+    BROADPHASE,
+    NARROW_PHASE,
+    COLLISIONS,
+    CONTACTS,
+    STEP,
+    UPDATE,
+    OBJECT_MANAGER,
+    SEND_STATE,
+    /**
+     * The whole tick
+     */
+    TICK
+  }
+
+  private static final Phase[] PHASES = Phase.values();
+  private static final ObjectType[] TYPES = ObjectType.values();
+
+  private final int windowTicks;
+  private final Window[] ring;
+  /**
+   * Windows filled so far; window n is kept in the ring at n modulo its length
+   */
+  private volatile long published = 0;
+
+  /**
+   * Only used by the simulation's thread
+   */
+  private Window current;
+  private long writeStamp;
+  private long tickStart;
+  private long lastPairTests;
+  private long lastRaycasts;
+  private boolean counted = false;
+
+  private ObjectName name;
+
+  /**
+   * Constructs a profiler keeping the default windows
+   */
+  public TickProfiler() {
+    this(DEFAULT_WINDOW_TICKS, DEFAULT_WINDOWS);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param windowTicks Ticks in each window
+   * @param windows Full windows kept
+   */
+  public TickProfiler(int windowTicks, int windows) {
+    this.windowTicks = Math.max(1, windowTicks);
+    //One more than kept, for the window being filled
+    ring = new Window[Math.max(1, windows) + 1];
+    for (int i = 0; i < ring.length; i++) {
+      ring[i] = new Window();
+    }
+    current = ring[0];
+    writeStamp = current.lock.writeLock();
+  }
+
+  /**
+   * Starts timing a tick
+   *
+   * @return The time the tick started, for the first {@link #lap(Phase, long)}
+   */
+  public long startTick() {
+    tickStart = System.nanoTime();
+    return tickStart;
+  }
+
+  /**
+   * Records the time taken by a phase of the tick
+   *
+   * @param phase Phase that ended
+   * @param since Time the phase started
+   * @return The time now, when the next phase starts
+   */
+  public long lap(Phase phase, long since) {
+    long now = System.nanoTime();
+    current.phases[phase.ordinal()].record(now - since);
+    return now;
+  }
+
+  /**
+   * Records the time taken to update an object
+   *
+   * @param type Type of the object
+   * @param nanos Time its update took
+   */
+  public void recordUpdate(ObjectType type, long nanos) {
+    current.updates[type.ordinal()].record(nanos);
+  }
+
+  /**
+   * Ends a tick, recording its time and how many pairs were tested and raycasts made in it
+   *
+   * @param pairTests Collision pairs tested so far, over every tick
+   * @param raycasts Raycasts made so far, over every tick
+   */
+  public void endTick(long pairTests, long raycasts) {
+    Window window = current;
+    window.phases[Phase.TICK.ordinal()].record(System.nanoTime() - tickStart);
+    if (counted) {
+      window.pairTests.record(pairTests - lastPairTests);
+      window.raycasts.record(raycasts - lastRaycasts);
+    }
+    counted = true;
+    lastPairTests = pairTests;
+    lastRaycasts = raycasts;
+    if (++window.ticks < windowTicks) {
+      return;
+    }
+    long full = published;
+    window.lock.unlockWrite(writeStamp);
+    published = full + 1;
+    current = ring[(int) ((full + 1) % ring.length)];
+    writeStamp = current.lock.writeLock();
+    current.reset();
+  }
+
+  /**
+   * Copies the full windows held into one, without holding up the simulation
+   *
+   * @return Every tick in the full windows held, summed
+   */
+  public Window snapshot() {
+    Window total = new Window();
+    Window copy = new Window();
+    long last = published;
+    for (long n = Math.max(0, last - (ring.length - 1)); n < last; n++) {
+      Window window = ring[(int) (n % ring.length)];
+      long stamp = window.lock.tryOptimisticRead();
+      if (stamp == 0) {
+        continue;
+      }
+      copy.set(window);
+      if (window.lock.validate(stamp)) {
+        total.add(copy);
+      }
+    }
+    return total;
+  }
+
+  @Override
+  public long getTicks() {
+    return snapshot().ticks;
+  }
+
+  @Override
+  public double getMeanTickMicros() {
+    return snapshot().getPhase(Phase.TICK).getMean() / 1000;
+  }
+
+  @Override
+  public double getP99TickMicros() {
+    return snapshot().getPhase(Phase.TICK).getValueAtPercentile(99) / 1000.0;
+  }
+
+  @Override
+  public double getMaxTickMicros() {
+    return snapshot().getPhase(Phase.TICK).getMax() / 1000.0;
+  }
+
+  @Override
+  public String getReport() {
+    StringBuilder report = new StringBuilder();
+    try {
+      snapshot().writeReport(report);
+    } catch (IOException e) {
+      //A StringBuilder never throws
+    }
+    return report.toString();
+  }
+
+  @Override
+  public void dump(String file) throws IOException {
+    Window window = snapshot();
+    try (Writer out = Files.newBufferedWriter(Paths.get(file), StandardCharsets.UTF_8)) {
+      window.writeReport(out);
+    }
+  }
+
+  /**
+   * Shows the profiler through the platform's MBean server; failing to does not stop the
+   * simulation, so is only logged
+   *
+   * @param name Name the profiler is shown under, unique among profilers
+   */
+  public void register(String name) {
+    try {
+      ObjectName objectName = new ObjectName("scrimmage:type=TickProfiler,name=" + name);
+      ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+      this.name = objectName;
+    } catch (JMException e) {
+      LOGGER.warn("Could not register tick profiler " + name + ": " + e.getMessage());
+    }
+  }
+
+  /**
+   * Stops showing the profiler through JMX
+   */
+  public void unregister() {
+    if (name == null) {
+      return;
+    }
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      server.unregisterMBean(name);
+    } catch (JMException e) {
+      LOGGER.warn("Could not unregister tick profiler " + name + ": " + e.getMessage());
+    }
+    name = null;
+  }
+
+  /**
+   * The histograms of a run of ticks
+   */
+  public static final class Window {
+
+    private final StampedLock lock = new StampedLock();
+    private long ticks = 0;
+    private final Histogram[] phases = new Histogram[PHASES.length];
+    private final Histogram[] updates = new Histogram[TYPES.length];
+    private final Histogram pairTests = new Histogram();
+    private final Histogram raycasts = new Histogram();
+
+    private Window() {
+      for (int i = 0; i < phases.length; i++) {
+        phases[i] = new Histogram();
+      }
+      for (int i = 0; i < updates.length; i++) {
+        updates[i] = new Histogram();
+      }
+    }
+
+    private void reset() {
+      ticks = 0;
+      for (Histogram histogram : phases) {
+        histogram.reset();
+      }
+      for (Histogram histogram : updates) {
+        histogram.reset();
+      }
+      pairTests.reset();
+      raycasts.reset();
+    }
+
+    private void set(Window other) {
+      ticks = other.ticks;
+      for (int i = 0; i < phases.length; i++) {
+        phases[i].set(other.phases[i]);
+      }
+      for (int i = 0; i < updates.length; i++) {
+        updates[i].set(other.updates[i]);
+      }
+      pairTests.set(other.pairTests);
+      raycasts.set(other.raycasts);
+    }
+
+    private void add(Window other) {
+      ticks += other.ticks;
+      for (int i = 0; i < phases.length; i++) {
+        phases[i].add(other.phases[i]);
+      }
+      for (int i = 0; i < updates.length; i++) {
+        updates[i].add(other.updates[i]);
+      }
+      pairTests.add(other.pairTests);
+      raycasts.add(other.raycasts);
+    }
+
+    public long getTicks() {
+      return ticks;
+    }
+
+    /**
+     * @return Nanoseconds taken by a phase in each tick
+     */
+    public Histogram getPhase(Phase phase) {
+      return phases[phase.ordinal()];
+    }
+
+    /**
+     * @return Nanoseconds taken by each update of an object of a type
+     */
+    public Histogram getUpdates(ObjectType type) {
+      return updates[type.ordinal()];
+    }
+
+    /**
+     * @return Collision pairs tested in each tick
+     */
+    public Histogram getPairTests() {
+      return pairTests;
+    }
+
+    /**
+     * @return Raycasts made in each tick
+     */
+    public Histogram getRaycasts() {
+      return raycasts;
+    }
+
+    /**
+     * Writes the timings, in microseconds, and the counts as a table
+     *
+     * @param out Where the table is written
+     * @throws IOException If it could not be written
+     */
+    public void writeReport(Appendable out) throws IOException {
+      out.append(String.format("%d ticks%n", ticks));
+      out.append(String.format("%-16s %10s %10s %10s %10s %10s %10s%n", "phase (us)", "count",
+          "mean", "p50", "p90", "p99", "max"));
+      for (Phase phase : PHASES) {
+        writeRow(out, phase.name(), phases[phase.ordinal()], 1000);
+      }
+      out.append(String.format("%-16s%n", "update (us)"));
+      for (ObjectType type : TYPES) {
+        Histogram histogram = updates[type.ordinal()];
+        if (histogram.getCount() > 0) {
+          writeRow(out, type.name(), histogram, 1000);
+        }
+      }
+      out.append(String.format("%-16s%n", "per tick"));
+      writeRow(out, "pair tests", pairTests, 1);
+      writeRow(out, "raycasts", raycasts, 1);
+    }
+
+    private static void writeRow(Appendable out, String name, Histogram histogram, double unit)
+        throws IOException {
+      out.append(String.format("%-16s %10d %10.1f %10.1f %10.1f %10.1f %10.1f%n", name,
+          histogram.getCount(), histogram.getMean() / unit,
+          histogram.getValueAtPercentile(50) / unit, histogram.getValueAtPercentile(90) / unit,
+          histogram.getValueAtPercentile(99) / unit, histogram.getMax() / unit));
+    }
+  }
+}
@@ -0,0 +1,33 @@
+package server.profiling;
+
+import java.io.IOException;
+
+/**
+ * What a {@link TickProfiler} shows through JMX, covering the windows it still holds
+ */
+public interface TickProfilerMXBean {
+
+  /**
+   * @return Ticks recorded in the windows held
+   */
+  long getTicks();
+
+  double getMeanTickMicros();
+
+  double getP99TickMicros();
+
+  double getMaxTickMicros();
+
+  /**
+   * @return Timings of every phase and object type, and the pair and raycast counts, as text
+   */
+  String getReport();
+
+  /**
+   * Writes the report to a file
+   *
+   * @param file Path of the file, replaced if it exists
+   * @throws IOException If the file could not be written
+   */
+  void dump(String file) throws IOException;
+}
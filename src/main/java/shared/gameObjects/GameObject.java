@@ -5,6 +5,7 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.UUID;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 import javafx.application.Platform;
 import javafx.scene.Group;
 import javafx.scene.image.ImageView;
@@ -18,9 +19,11 @@ import shared.gameObjects.components.Component;
 import shared.gameObjects.components.ComponentType;
 import shared.gameObjects.components.Rigidbody;
 import shared.gameObjects.players.Limb;
+import shared.packets.ObjectState;
+import shared.physics.ContactManager;
 import shared.physics.Physics;
+import shared.physics.PhysicsWorld;
 import shared.physics.data.Collision;
-import shared.physics.data.DynamicCollision;
 import shared.physics.data.SimulatedDynamicCollision;
 import shared.physics.types.RigidbodyType;
 import shared.util.maths.Vector2;
@@ -30,6 +33,15 @@ import shared.util.maths.Vector2;
  */
 public abstract class GameObject implements Serializable {
 
+  /**
+   * Pinned so maps and objects serialized by earlier builds can still be read
+   */
+  private static final long serialVersionUID = 6990247296359795395L;
+  /**
+   * Source of the ids objects are known by in their world's contact pairs
+   */
+  private static final AtomicInteger nextContactId = new AtomicInteger();
+
   /**
    * UUID to determine identity of object
    */
@@ -83,16 +95,31 @@ public abstract class GameObject implements Serializable {
    * false
    */
   protected boolean destroyed;
+  /**
+   * True while the object is part of its world's baked static geometry; its collider is then
+   * left as it was baked rather than updated every frame
+   */
+  private transient volatile boolean staticGeometry;
 
   //Networking
   //TODO: Networking comments
   protected boolean networkStateUpdate;
+  /**
+   * Short handle used in place of the UUID on the network; 0 until assigned by the server
+   */
+  protected int networkId;
   protected Vector2 lastPos;
+  /**
+   * Version of the transform when its position was last checked for the network; 0 for none, so
+   * an update is sent on the first frame
+   */
+  private transient long sentVersion;
   protected ArrayList<TimePosition> positionBuffer;
 
-  private ArrayList<GameObject> collidedObjects;
-  private ArrayList<GameObject> collidedThisFrame;
-  private ArrayList<GameObject> collidedToRemove;
+  /**
+   * Id the object is known by in its world's contact pairs; 0 until first needed
+   */
+  private transient int contactId;
 
   /**
    * Base class used to create an object in game. This is used on both the client and server side to
@@ -115,10 +142,8 @@ public abstract class GameObject implements Serializable {
     //So update sent by server on first frame
     this.lastPos = new Vector2((float) x + 1, (float) y + 1);
     this.children = new ArrayList<>();
-    this.animation = new Animator();
-    this.collidedObjects = new ArrayList<>();
-    this.collidedThisFrame = new ArrayList<>();
-    this.collidedToRemove = new ArrayList<>();
+    //Replaced once the object is initialised with its settings, which say whether to load images
+    this.animation = new Animator(false);
     // initialiseAnimation();
   }
 
@@ -143,28 +168,20 @@ public abstract class GameObject implements Serializable {
     }
     animation.update();
 
-    for (Component comp : getComponents(ComponentType.RIGIDBODY)) {
-      if (comp.isActive()) {
-        comp.update();
-      }
-    }
-
-    for (Component comp : getComponents(ComponentType.COLLIDER)) {
-      if (comp.isActive()) {
-        comp.update();
-      }
-    }
-
-    for (Component comp : getComponents(ComponentType.BEHAVIOUR)) {
-      if (comp.isActive()) {
-        comp.update();
-      }
+    updateComponents(ComponentType.RIGIDBODY);
+    if (!staticGeometry) {
+      updateComponents(ComponentType.COLLIDER);
     }
+    updateComponents(ComponentType.BEHAVIOUR);
     //If objects location has changed then send update if server
-    if (!(lastPos.equals(getTransform().getPos()))) {
-      networkStateUpdate = true;
+    long version = transform.getVersion();
+    if (version != sentVersion) {
+      sentVersion = version;
+      if (!(lastPos.equals(getTransform().getPos()))) {
+        networkStateUpdate = true;
+      }
+      this.lastPos.setVec((float) getX(), (float) getY());
     }
-    this.lastPos.setVec((float) getX(), (float) getY());
 
   }
 
@@ -182,37 +199,60 @@ public abstract class GameObject implements Serializable {
     imageView.setFitHeight(transform.getSize().getY());
   }
 
+  /**
+   * Updates the active components of one type, in the order they were added
+   */
+  private void updateComponents(ComponentType type) {
+    for (Component comp : components) {
+      if (comp.getComponentType() == type && comp.isActive()) {
+        comp.update();
+      }
+    }
+  }
+
   // Collision engine
 
   /**
    * Method used by collision engine to check for collisions each frame
+   *
+   * @param world The world the object is in
    */
-  public void updateCollision() {
-    ArrayList<Component> cols = getComponents(ComponentType.COLLIDER);
+  public void updateCollision(PhysicsWorld world) {
+    ContactManager contacts = world.getContacts();
     Rigidbody rb = (Rigidbody) getComponent(ComponentType.RIGIDBODY);
-    for (Component comp : cols) {
+    if (rb != null && rb.isSleeping()) {
+      contacts.rest(this);
+      return;
+    }
+    contacts.begin(this);
+    for (Component comp : components) {
+      if (comp.getComponentType() != ComponentType.COLLIDER) {
+        continue;
+      }
       Collider col = (Collider) comp;
       if (col == null) {
         return;
       }
       if (rb != null && !col.isTrigger()) {
+        ArrayList<GameObject> touching = world.getTouching(col);
         if (rb.getBodyType() == RigidbodyType.STATIC) {
-          callCollisionMethods(col, false);
+          callCollisionMethods(contacts, col, touching, false);
           return;
         } else {
-          for (GameObject o : Physics.gameObjects.values()) {
+          for (GameObject o : touching) {
             Collider o_col = (Collider) o.getComponent(ComponentType.COLLIDER);
             Rigidbody o_rb = (Rigidbody) o.getComponent(ComponentType.RIGIDBODY);
-            if (o_col != null && o_rb != null) {
-              if (Collider.haveCollided(col, o_col) && !o_col.isTrigger()) {
-                Physics.addCollision(new DynamicCollision(rb, o_rb));
+            if (o_col != null && o_rb != null && !o_col.isTrigger()) {
+              if (o_rb.isSleeping() && !rb.isStill()) {
+                o_rb.wakeUp();
               }
+              world.resolveCollision(rb, o_rb);
             }
           }
-          callCollisionMethods(col, false);
+          callCollisionMethods(contacts, col, touching, false);
         }
       } else if (col.isTrigger()) {
-        callCollisionMethods(col, true);
+        callCollisionMethods(contacts, col, world.getTouching(col), true);
       }
     }
 
@@ -220,8 +260,10 @@ public abstract class GameObject implements Serializable {
 
   /**
    * Use to only update the Physics of the object being called; used primarily by AI
+   *
+   * @param world The world the object is in
    */
-  public void simulateUpdateCollision() {
+  public void simulateUpdateCollision(PhysicsWorld world) {
     ArrayList<Component> cols = getComponents(ComponentType.COLLIDER);
     Rigidbody rb = (Rigidbody) getComponent(ComponentType.RIGIDBODY);
     for (Component comp : cols) {
@@ -233,7 +275,7 @@ public abstract class GameObject implements Serializable {
         if (rb.getBodyType() == RigidbodyType.STATIC) {
           return;
         } else {
-          for (GameObject o : Physics.gameObjects.values()) {
+          for (GameObject o : world.getCandidates(col)) {
             Collider o_col = (Collider) o.getComponent(ComponentType.COLLIDER);
             Rigidbody o_rb = (Rigidbody) o.getComponent(ComponentType.RIGIDBODY);
             if (o_col != null && o_rb != null) {
@@ -248,58 +290,33 @@ public abstract class GameObject implements Serializable {
 
   }
 
-  private void callCollisionMethods(Collider col, boolean isTrigger) {
-    if (!isTrigger) {
-      for (GameObject o : Physics.gameObjects.values()) {
-        Collider o_col = (Collider) o.getComponent(ComponentType.COLLIDER);
-        if (o_col != null) {
-          if (Collider.haveCollided(col, o_col)) {
-            Collision collision = new Collision(o, col, o_col);
-            collidedThisFrame.add(o);
-            if (!collidedObjects.contains(o)) {
-              OnCollisionEnter(collision);
-              collidedObjects.add(o);
-            }
-            OnCollisionStay(collision);
-          }
-        }
-      }
-      for (GameObject o : collidedObjects) {
-        if (!collidedThisFrame.contains(o)) {
-          collidedToRemove.add(o);
-          OnCollisionExit(new Collision(o, col, (Collider) o.getComponent(ComponentType.COLLIDER)));
-        }
-      }
-
-    } else {
-      for (GameObject o : Physics.gameObjects.values()) {
-        Collider o_col = (Collider) o.getComponent(ComponentType.COLLIDER);
-        if (o_col != null) {
-          if (Collider.haveCollided(col, o_col)) {
-            Collision collision = new Collision(o, col, o_col);
-            collidedThisFrame.add(o);
-            if (!collidedObjects.contains(o)) {
-              OnTriggerEnter(collision);
-              collidedObjects.add(o);
-            }
-            OnTriggerStay(collision);
-          }
-        }
-      }
-
-      for (GameObject o : collidedObjects) {
-        if (!collidedThisFrame.contains(o)) {
-          collidedToRemove.add(o);
-          OnCollisionExit(new Collision(o, col, (Collider) o.getComponent(ComponentType.COLLIDER)));
-        }
+  /**
+   * Records the objects a collider is touching with the world's contacts, which calls the
+   * collision or trigger methods; exits are called once every object has been checked
+   *
+   * @param contacts The world's contacts
+   * @param col The collider to check
+   * @param touching Objects the world found the collider touching
+   * @param isTrigger True if the collider is a trigger
+   */
+  private void callCollisionMethods(ContactManager contacts, Collider col,
+      ArrayList<GameObject> touching, boolean isTrigger) {
+    for (GameObject o : touching) {
+      Collider o_col = (Collider) o.getComponent(ComponentType.COLLIDER);
+      if (o_col != null) {
+        contacts.touch(this, o, col, o_col, isTrigger);
       }
     }
+  }
 
-    for (GameObject o : collidedToRemove) {
-      collidedObjects.remove(o);
+  /**
+   * @return Id the object is known by in its world's contact pairs
+   */
+  public int getContactId() {
+    if (contactId == 0) {
+      contactId = nextContactId.incrementAndGet();
     }
-    collidedToRemove.clear();
-    collidedThisFrame.clear();
+    return contactId;
   }
 
   /**
@@ -308,10 +325,7 @@ public abstract class GameObject implements Serializable {
   public void removeRender() {
     if (imageView != null) {
       imageView.setImage(null);
-      /*
-       */
-
-      Platform.runLater(
+      runOnRenderThread(
           () -> {
             root.getChildren().remove(imageView);
           }
@@ -320,13 +334,29 @@ public abstract class GameObject implements Serializable {
   }
 
   /**
-   * Contains the state of the object for sending over server Only contains items that need sending
-   * separate by commas
+   * Runs a change to the scene graph. The client changes it on the JavaFX thread; the server's
+   * scene graph is never shown, so the simulation thread changes it straight away.
+   *
+   * @param change Change to make
+   */
+  protected void runOnRenderThread(Runnable change) {
+    if (settings != null && settings.getLevelHandler() != null
+        && settings.getLevelHandler().isServer()) {
+      change.run();
+    } else {
+      Platform.runLater(change);
+    }
+  }
+
+  /**
+   * Writes the state of the object for sending over server; only contains the fields that need
+   * sending
    *
-   * @return State of object
+   * @param state State container to write the fields into
    */
-  public String getState() {
-    return objectUUID + ";" + id + ";" + (float) getX() + ";" + (float) getY();
+  public void writeState(ObjectState state) {
+    state.putFloat((float) getX());
+    state.putFloat((float) getY());
   }
 
   // Interpolate Position Client only
@@ -336,13 +366,17 @@ public abstract class GameObject implements Serializable {
   }
 
 
-  public void setState(String data, Boolean snap) {
-    String[] unpackedData = data.split(";");
-    Vector2 statePos = new Vector2(Double.parseDouble(unpackedData[2]),
-        Double.parseDouble(unpackedData[3]));
+  /**
+   * Applies a state received from the server
+   *
+   * @param state State fields written by writeState
+   * @param snap True to move straight to the received position, false to smooth towards it
+   */
+  public void readState(ObjectState state, boolean snap) {
+    Vector2 statePos = new Vector2(state.getX(), state.getY());
     if (snap) {
-      setX(Double.parseDouble(unpackedData[2]));
-      setY(Double.parseDouble(unpackedData[3]));
+      setX(state.getX());
+      setY(state.getY());
     } else {
       Vector2 difference = statePos.sub(transform.getPos());
       double distance = statePos.magnitude(transform.getPos());
@@ -360,7 +394,7 @@ public abstract class GameObject implements Serializable {
     this.settings = settings;
     this.positionBuffer = new ArrayList<>();
     this.networkStateUpdate = false;
-    animation = new Animator();
+    animation = new Animator(!settings.isHeadless());
     initialiseAnimation();
     imageView = new ImageView();
     imageView.setRotate(transform.getRot());
@@ -473,8 +507,10 @@ public abstract class GameObject implements Serializable {
    * @param col Collision data of the collision.
    */
   public void OnCollisionEnter(Collision col) {
-    for (Component component : getComponents(ComponentType.BEHAVIOUR)) {
-      ((Behaviour) component).OnCollisionEnter(col);
+    for (Component component : components) {
+      if (component.getComponentType() == ComponentType.BEHAVIOUR) {
+        ((Behaviour) component).OnCollisionEnter(col);
+      }
     }
   }
 
@@ -484,8 +520,10 @@ public abstract class GameObject implements Serializable {
    * @param col Collision data of the collision.
    */
   public void OnCollisionStay(Collision col) {
-    for (Component component : getComponents(ComponentType.BEHAVIOUR)) {
-      ((Behaviour) component).OnCollisionStay(col);
+    for (Component component : components) {
+      if (component.getComponentType() == ComponentType.BEHAVIOUR) {
+        ((Behaviour) component).OnCollisionStay(col);
+      }
     }
   }
 
@@ -495,8 +533,10 @@ public abstract class GameObject implements Serializable {
    * @param col Collision data of the collision.
    */
   public void OnCollisionExit(Collision col) {
-    for (Component component : getComponents(ComponentType.BEHAVIOUR)) {
-      ((Behaviour) component).OnCollisionExit(col);
+    for (Component component : components) {
+      if (component.getComponentType() == ComponentType.BEHAVIOUR) {
+        ((Behaviour) component).OnCollisionExit(col);
+      }
     }
   }
 
@@ -507,8 +547,10 @@ public abstract class GameObject implements Serializable {
    * @param col Collision data of the collision.
    */
   public void OnTriggerEnter(Collision col) {
-    for (Component component : getComponents(ComponentType.BEHAVIOUR)) {
-      ((Behaviour) component).OnTriggerEnter(col);
+    for (Component component : components) {
+      if (component.getComponentType() == ComponentType.BEHAVIOUR) {
+        ((Behaviour) component).OnTriggerEnter(col);
+      }
     }
   }
 
@@ -519,8 +561,10 @@ public abstract class GameObject implements Serializable {
    * @param col Collision data of the collision.
    */
   public void OnTriggerStay(Collision col) {
-    for (Component component : getComponents(ComponentType.BEHAVIOUR)) {
-      ((Behaviour) component).OnTriggerStay(col);
+    for (Component component : components) {
+      if (component.getComponentType() == ComponentType.BEHAVIOUR) {
+        ((Behaviour) component).OnTriggerStay(col);
+      }
     }
   }
 
@@ -531,8 +575,10 @@ public abstract class GameObject implements Serializable {
    * @param col Collision data of the collision.
    */
   public void OnTriggerExit(Collision col) {
-    for (Component component : getComponents(ComponentType.BEHAVIOUR)) {
-      ((Behaviour) component).OnTriggerExit(col);
+    for (Component component : components) {
+      if (component.getComponentType() == ComponentType.BEHAVIOUR) {
+        ((Behaviour) component).OnTriggerExit(col);
+      }
     }
   }
 
@@ -569,6 +615,14 @@ public abstract class GameObject implements Serializable {
     return objectUUID;
   }
 
+  public int getNetworkId() {
+    return networkId;
+  }
+
+  public void setNetworkId(int networkId) {
+    this.networkId = networkId;
+  }
+
   public GameObject getParent() {
     return parent;
   }
@@ -599,6 +653,7 @@ public abstract class GameObject implements Serializable {
 
   public void setTransform(Transform transform) {
     this.transform = transform;
+    sentVersion = 0;
   }
 
   public ImageView getImageView() {
@@ -624,6 +679,22 @@ public abstract class GameObject implements Serializable {
     return destroyed;
   }
 
+  /**
+   * @return True if the object is part of its world's baked static geometry
+   */
+  public boolean isStaticGeometry() {
+    return staticGeometry;
+  }
+
+  /**
+   * Marks the object as part of, or no longer part of, its world's baked static geometry
+   *
+   * @param staticGeometry True if the object has been baked
+   */
+  public void setStaticGeometry(boolean staticGeometry) {
+    this.staticGeometry = staticGeometry;
+  }
+
   public double getRotation() {
     return transform.getRot();
   }
@@ -1,5 +1,7 @@
 package shared.gameObjects.Utils;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import shared.gameObjects.GameObject;
 import shared.gameObjects.components.Component;
@@ -8,10 +10,17 @@ import shared.gameObjects.components.Rigidbody;
 import shared.util.maths.Vector2;
 
 /**
- * Position, scaling and rotation data container
+ * Position, scaling and rotation data container. Each change made through its methods moves its
+ * version on, so what is worked out from the transform need only be worked out again once the
+ * version differs from the one it was worked out at.
  */
 public class Transform implements Serializable {
 
+  /**
+   * Pinned so maps and objects serialized by earlier builds can still be read
+   */
+  private static final long serialVersionUID = -6903779686496726445L;
+
   private Vector2 topPos;
   private Vector2 botPos;
   private Vector2 rotatedPos;
@@ -19,6 +28,10 @@ public class Transform implements Serializable {
   private Vector2 size;
   private float rot;
   private GameObject gameObject;
+  /**
+   * Changes made so far; starts at 1 so holders of a version can use 0 for none seen
+   */
+  private transient long version = 1;
 
   /**
    * Base Constructor for positon (0,0) and size (1,1)
@@ -26,10 +39,11 @@ public class Transform implements Serializable {
    * @param parent The object the transform is attached to
    */
   public Transform(GameObject parent) {
-    this.topPos = this.size = Vector2.Zero();
+    this.topPos = Vector2.Zero();
+    this.size = Vector2.Zero();
     this.botPos = this.topPos.add(this.size);
-    rotatedPos = topPos;
-    rotatedSize = size;
+    rotatedPos = new Vector2(topPos);
+    rotatedSize = new Vector2(size);
     this.rot = 0;
     gameObject = parent;
   }
@@ -44,8 +58,8 @@ public class Transform implements Serializable {
     this.topPos = topPos;
     this.size = Vector2.Unit();
     this.botPos = this.topPos.add(this.size);
-    rotatedPos = topPos;
-    rotatedSize = size;
+    rotatedPos = new Vector2(topPos);
+    rotatedSize = new Vector2(size);
     this.rot = 0;
     gameObject = parent;
   }
@@ -61,8 +75,8 @@ public class Transform implements Serializable {
     this.topPos = topPos;
     this.size = size;
     this.botPos = this.topPos.add(this.size);
-    rotatedPos = topPos;
-    rotatedSize = size;
+    rotatedPos = new Vector2(topPos);
+    rotatedSize = new Vector2(size);
     this.rot = 0;
     gameObject = parent;
   }
@@ -73,8 +87,12 @@ public class Transform implements Serializable {
    * @param translateFactor The distance by which to translate
    */
   public void translate(Vector2 translateFactor) {
-    topPos = topPos.add(translateFactor);
-    botPos = botPos.add(translateFactor);
+    if (translateFactor.getX() == 0 && translateFactor.getY() == 0) {
+      return;
+    }
+    topPos.addLocal(translateFactor);
+    botPos.addLocal(translateFactor);
+    version++;
   }
 
   /**
@@ -83,6 +101,7 @@ public class Transform implements Serializable {
    * @param rotation in degrees
    */
   public void rotate(float rotation) {
+    float before = rot;
     rot += rotation;
     while (rot > 180) {
       rot -= 180;
@@ -91,17 +110,16 @@ public class Transform implements Serializable {
       rot += 180;
     }
     float angle = (float) Math.toRadians(rot);
+    double cos = Math.cos(angle);
+    double sin = Math.sin(angle);
     float posX = topPos.getX(), posY = topPos.getY();
-    this.rotatedPos =
-        new Vector2(
-            posX * Math.cos(angle) - posY * Math.sin(angle),
-            posX * Math.sin(angle) + posY * Math.cos(angle));
+    rotatedPos.set((float) (posX * cos - posY * sin), (float) (posX * sin + posY * cos));
     posX = size.getX();
     posY = size.getY();
-    this.rotatedSize =
-        new Vector2(
-            posX * Math.cos(angle) - posY * Math.sin(angle),
-            posX * Math.sin(angle) + posY * Math.cos(angle));
+    rotatedSize.set((float) (posX * cos - posY * sin), (float) (posX * sin + posY * cos));
+    if (rot != before) {
+      version++;
+    }
   }
 
   /**
@@ -112,6 +130,7 @@ public class Transform implements Serializable {
   public void scale(Vector2 scaleFactor) {
     this.size = size.mult(scaleFactor);
     botPos = topPos.add(size);
+    version++;
   }
 
   public float getRot() {
@@ -119,7 +138,10 @@ public class Transform implements Serializable {
   }
 
   public void setRot(float rot) {
-    this.rot = rot;
+    if (this.rot != rot) {
+      this.rot = rot;
+      version++;
+    }
     rotate(0);
     Component rb = gameObject.getComponent(ComponentType.RIGIDBODY);
     if (rb != null) {
@@ -138,7 +160,11 @@ public class Transform implements Serializable {
    * @return Manually sets the object to this position
    */
   public void setPos(Vector2 pos) {
-    this.topPos = pos;
+    if (topPos.getX() != pos.getX() || topPos.getY() != pos.getY()) {
+      this.topPos.set(pos);
+      botPos.set(pos.getX() + size.getX(), pos.getY() + size.getY());
+      version++;
+    }
   }
 
   public Vector2 getBotPos() {
@@ -148,4 +174,25 @@ public class Transform implements Serializable {
   public Vector2 getSize() {
     return size;
   }
+
+  /**
+   * @return A count of the changes made to the transform, moved on whenever it moves, turns or is
+   * resized; never 0
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Gives the transform its own copy of each position read, as its positions are moved in place
+   * and may have been written sharing a vector
+   */
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    topPos = new Vector2(topPos);
+    botPos = new Vector2(botPos);
+    rotatedPos = rotatedPos == null ? new Vector2(topPos) : new Vector2(rotatedPos);
+    rotatedSize = rotatedSize == null ? new Vector2(size) : new Vector2(rotatedSize);
+    version = 1;
+  }
 }
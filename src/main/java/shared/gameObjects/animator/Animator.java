@@ -11,6 +11,11 @@ import javafx.scene.image.Image;
 public class Animator {
 
   // Helpful variables
+  /**
+   * Off for a headless server, which has no graphics to load images with and never renders;
+   * animations then keep their frame counts but hold no images
+   */
+  private final boolean loadImages;
   private HashMap<String, ArrayList<Image>> animations;
   private ArrayList<Image> currentAnimation;
   private String currentAnimationName;
@@ -24,6 +29,16 @@ public class Animator {
    * Constructs animator
    */
   public Animator() {
+    this(true);
+  }
+
+  /**
+   * Constructs animator
+   *
+   * @param loadImages Whether the frames' images are loaded
+   */
+  public Animator(boolean loadImages) {
+    this.loadImages = loadImages;
     animations = new HashMap<>();
     intervalSpeed = 10;
     tickCounter = this.intervalSpeed;
@@ -50,7 +65,9 @@ public class Animator {
     ArrayList<Image> images = new ArrayList<>();
 
     for (String s : args) {
-      if (s != null) {
+      if (!loadImages) {
+        images.add(null);
+      } else if (s != null) {
         images.add(new Image(s.replace('/', File.separatorChar).trim()));
       } else {
         images.add(
@@ -80,7 +97,8 @@ public class Animator {
       String animationName, double h, double w, boolean ratio, String... paths) {
     ArrayList<Image> images = new ArrayList<>();
     for (String path : paths) {
-      images.add(new Image(path.replace('/', File.separatorChar).trim(), w, h, ratio, true));
+      images.add(loadImages
+          ? new Image(path.replace('/', File.separatorChar).trim(), w, h, ratio, true) : null);
     }
     animations.put(animationName, images);
     // Support for the default animation
@@ -98,7 +116,7 @@ public class Animator {
   public void switchAnimation(String animationName) {
     try {
       ArrayList<Image> getAnimation = this.animations.get(animationName);
-      if (!currentAnimation.equals(getAnimation)) {
+      if (currentAnimation != getAnimation) {
         currentAnimation = getAnimation;
         currentAnimationSize = currentAnimation.size();
         currentAnimationCounter = 0;
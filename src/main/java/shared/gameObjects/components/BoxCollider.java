@@ -4,6 +4,8 @@ import java.io.Serializable;
 import javafx.scene.Group;
 import javafx.scene.shape.Polygon;
 import shared.gameObjects.GameObject;
+import shared.gameObjects.Utils.Transform;
+import shared.physics.data.AABB;
 import shared.physics.types.ColliderLayer;
 import shared.physics.types.ColliderType;
 import shared.util.maths.Vector2;
@@ -13,6 +15,11 @@ import shared.util.maths.Vector2;
  */
 public class BoxCollider extends Collider implements Serializable {
 
+  /**
+   * Pinned so maps and objects serialized by earlier builds can still be read
+   */
+  private static final long serialVersionUID = -7138786279090332426L;
+
   private Vector2 size;
   private Vector2 centre;
   private Vector2[] corners;
@@ -92,22 +99,37 @@ public class BoxCollider extends Collider implements Serializable {
     polygon = new Polygon();
     polygon.setOpacity(0.5);
     root.getChildren().add(polygon);
+    forceUpdate();
   }
 
   @Override
   public void update() {
-    size = getParent().getTransform().getSize();
-    centre = getParent().getTransform().getPos().add(size.mult(0.5f));
-    rotation = getParent().getTransform().getRot();
-    Vector2 sourcePos = getParent().getTransform().getSize().div(-2);
-
-    corners[0] = sourcePos.applyRotation(rotation).add(centre);
-    corners[1] = sourcePos.add(Vector2.Down().mult(size)).applyRotation(rotation).add(centre);
-    corners[2] = sourcePos.add(size).applyRotation(rotation).add(centre);
-    corners[3] = sourcePos.add(Vector2.Right().mult(size)).applyRotation(rotation).add(centre);
-
-    axes[0] = corners[0].sub(corners[3]).normal().normalize();
-    axes[1] = corners[0].sub(corners[1]).normal().normalize();
+    Transform transform = getParent().getTransform();
+    if (!transformChanged(transform)) {
+      return;
+    }
+    size = transform.getSize();
+    if (centre == null) {
+      centre = new Vector2(0, 0);
+    }
+    centre.set(transform.getPos().getX() + size.getX() * 0.5f,
+        transform.getPos().getY() + size.getY() * 0.5f);
+    rotation = transform.getRot();
+
+    //Corners are rotated about the centre, from the top-left going clockwise in screen space
+    float angle = (float) Math.toRadians(rotation);
+    double cos = Math.cos(angle);
+    double sin = Math.sin(angle);
+    float left = size.getX() / -2;
+    float top = size.getY() / -2;
+    setCorner(0, left, top, cos, sin);
+    setCorner(1, left, top + size.getY(), cos, sin);
+    setCorner(2, left + size.getX(), top + size.getY(), cos, sin);
+    setCorner(3, left + size.getX(), top, cos, sin);
+
+    setAxis(0, corners[3]);
+    setAxis(1, corners[1]);
+    bounds = null;
 
     if (polygon != null) {
       polygon.getPoints().clear();
@@ -123,6 +145,45 @@ public class BoxCollider extends Collider implements Serializable {
     }
   }
 
+  /**
+   * Rotates a corner, given relative to the centre, and moves it into place, reusing the vector
+   * held for it
+   */
+  private void setCorner(int i, float x, float y, double cos, double sin) {
+    if (corners[i] == null) {
+      corners[i] = new Vector2(0, 0);
+    }
+    corners[i].set((float) (x * cos - y * sin) + centre.getX(),
+        (float) (x * sin + y * cos) + centre.getY());
+  }
+
+  /**
+   * Sets an axis to the normal of the edge from the first corner to another
+   */
+  private void setAxis(int i, Vector2 corner) {
+    if (axes[i] == null) {
+      axes[i] = new Vector2(0, 0);
+    }
+    axes[i].set(corners[0]).subLocal(corner).normalLocal().normalizeLocal();
+  }
+
+  @Override
+  AABB computeBounds() {
+    //The box-circle test ignores rotation, so the unrotated box is held as well as the corners
+    Vector2 extents = size.mult(0.5f);
+    float minX = centre.getX() - Math.abs(extents.getX());
+    float minY = centre.getY() - Math.abs(extents.getY());
+    float maxX = centre.getX() + Math.abs(extents.getX());
+    float maxY = centre.getY() + Math.abs(extents.getY());
+    for (Vector2 corner : corners) {
+      minX = Math.min(minX, corner.getX());
+      minY = Math.min(minY, corner.getY());
+      maxX = Math.max(maxX, corner.getX());
+      maxY = Math.max(maxY, corner.getY());
+    }
+    return new AABB(minX, minY, maxX, maxY);
+  }
+
   // Getters
   public Vector2 getSize() {
     return size;
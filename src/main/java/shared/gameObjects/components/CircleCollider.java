@@ -4,6 +4,8 @@ import java.io.Serializable;
 import javafx.scene.Group;
 import javafx.scene.shape.Circle;
 import shared.gameObjects.GameObject;
+import shared.gameObjects.Utils.Transform;
+import shared.physics.data.AABB;
 import shared.physics.types.ColliderLayer;
 import shared.physics.types.ColliderType;
 import shared.util.maths.Vector2;
@@ -13,6 +15,11 @@ import shared.util.maths.Vector2;
  */
 public class CircleCollider extends Collider implements Serializable {
 
+  /**
+   * Pinned so maps and objects serialized by earlier builds can still be read
+   */
+  private static final long serialVersionUID = -3753680220270137916L;
+
   private float radius;
   private Vector2 centre;
   private transient Circle circle;
@@ -68,8 +75,16 @@ public class CircleCollider extends Collider implements Serializable {
 
   @Override
   public void update() {
-    centre =
-        getParent().getTransform().getPos().add(getParent().getTransform().getSize().mult(0.5f));
+    Transform transform = getParent().getTransform();
+    if (!transformChanged(transform)) {
+      return;
+    }
+    if (centre == null) {
+      centre = new Vector2(0, 0);
+    }
+    centre.set(transform.getPos().getX() + transform.getSize().getX() * 0.5f,
+        transform.getPos().getY() + transform.getSize().getY() * 0.5f);
+    bounds = null;
     if (circle != null) {
       circle.setCenterX(centre.getX());
       circle.setCenterY(centre.getY());
@@ -77,6 +92,12 @@ public class CircleCollider extends Collider implements Serializable {
     }
   }
 
+  @Override
+  AABB computeBounds() {
+    return new AABB(centre.getX() - radius, centre.getY() - radius, centre.getX() + radius,
+        centre.getY() + radius);
+  }
+
   // Getters
 
   public float getRadius() {
@@ -2,7 +2,9 @@ package shared.gameObjects.components;
 
 import javafx.scene.Group;
 import shared.gameObjects.GameObject;
+import shared.gameObjects.Utils.Transform;
 import shared.physics.Physics;
+import shared.physics.data.AABB;
 import shared.physics.types.ColliderLayer;
 import shared.physics.types.ColliderType;
 import shared.util.maths.Vector2;
@@ -13,6 +15,11 @@ import shared.util.maths.Vector2;
  */
 public abstract class Collider extends Component {
 
+  /**
+   * Pinned so maps and objects serialized by earlier builds can still be read
+   */
+  private static final long serialVersionUID = 7595752563891361482L;
+
   /**
    * Determines if a collider is a trigger or not; triggers ignore physics collisions
    */
@@ -25,6 +32,16 @@ public abstract class Collider extends Component {
    * The collision layer used to determine what sort of collisions are possible
    */
   ColliderLayer layer;
+  /**
+   * The box holding the collider as it is now, worked out when first asked for after the collider
+   * moves
+   */
+  transient AABB bounds;
+  /**
+   * The parent's transform, and its version, when the collider was last worked out from it
+   */
+  private transient Transform seenTransform;
+  private transient long seenVersion;
 
   /**
    * Collider constructor with DEFAULT Layer
@@ -65,29 +82,26 @@ public abstract class Collider extends Component {
    * @return True if the colliders intersect
    */
   private static boolean boxCircleCollision(BoxCollider box, CircleCollider circle) {
-    Vector2 n = box.getCentre().sub(circle.getCentre());
-    Vector2 closestPoint = n.add(0);
-    Vector2 extents = box.getSize().mult(0.5f);
-    closestPoint = closestPoint.clamp(extents.mult(-1), extents);
+    float nx = box.getCentre().getX() - circle.getCentre().getX();
+    float ny = box.getCentre().getY() - circle.getCentre().getY();
+    float extentX = box.getSize().getX() * 0.5f;
+    float extentY = box.getSize().getY() * 0.5f;
+    float closestX = Math.max(extentX * -1, Math.min(extentX, nx));
+    float closestY = Math.max(extentY * -1, Math.min(extentY, ny));
     boolean inside = false;
 
-    if (n.equals(closestPoint)) {
+    if (nx == closestX && ny == closestY) {
       inside = true;
-      if (Math.abs(n.getX()) > Math.abs(n.getY())) {
-        closestPoint =
-            new Vector2(
-                closestPoint.getX() > 0 ? extents.getX() : extents.getX() * -1,
-                closestPoint.getY());
+      if (Math.abs(nx) > Math.abs(ny)) {
+        closestX = closestX > 0 ? extentX : extentX * -1;
       } else {
-        closestPoint =
-            new Vector2(
-                closestPoint.getX(),
-                closestPoint.getY() < 0 ? extents.getY() : extents.getY() * -1);
+        closestY = closestY < 0 ? extentY : extentY * -1;
       }
     }
 
-    Vector2 normal = n.sub(closestPoint);
-    float d = normal.magnitude();
+    float dx = Math.abs(nx - closestX);
+    float dy = Math.abs(ny - closestY);
+    float d = 0.96f * Math.max(dx, dy) + 0.4f * Math.min(dx, dy);
     return !(d > circle.getRadius() && !inside);
   }
 
@@ -115,42 +129,57 @@ public abstract class Collider extends Component {
    */
   private static boolean boxBoxCollision(BoxCollider boxA, BoxCollider boxB) {
     for (Vector2 axisOfProjection : boxA.getAxes()) {
-      Vector2 pA = projectToAxis(boxA, axisOfProjection);
-      Vector2 pB = projectToAxis(boxB, axisOfProjection);
-      if (!pA.canOverlap(pB)) {
+      if (!canOverlapOnAxis(boxA, boxB, axisOfProjection)) {
         return false;
       }
     }
     for (Vector2 axisOfProjection : boxB.getAxes()) {
-      Vector2 pA = projectToAxis(boxA, axisOfProjection);
-      Vector2 pB = projectToAxis(boxB, axisOfProjection);
-      if (!pA.canOverlap(pB)) {
+      if (!canOverlapOnAxis(boxA, boxB, axisOfProjection)) {
         return false;
       }
     }
     return true;
   }
 
+  /**
+   * Tests if two BoxColliders projected to a given 1D axis can overlap
+   *
+   * @param boxA BoxCollider to project
+   * @param boxB BoxCollider to project
+   * @param axis axis to project to
+   * @return False if the axis separates the colliders
+   */
+  private static boolean canOverlapOnAxis(BoxCollider boxA, BoxCollider boxB, Vector2 axis) {
+    return !(maxOnAxis(boxB, axis) < minOnAxis(boxA, axis)
+        || maxOnAxis(boxA, axis) < minOnAxis(boxB, axis));
+  }
+
   /**
    * Projects a BoxCollider 2D shape to a given 1D axis
    *
    * @param a BoxCollider to project
    * @param axis axis to project to
-   * @return the segment the BoxCollider exists on in the axis
+   * @return the start of the segment the BoxCollider exists on in the axis
    */
-  private static Vector2 projectToAxis(BoxCollider a, Vector2 axis) {
-    // Project the shapes along the axis
-    float min = axis.dot(a.getCorners()[0]); // Get the first min
-    double max = min;
-    for (int i = 1; i < a.getCorners().length; i++) {
-      float temp = axis.dot(a.getCorners()[i]); // Get the dot product between the axis and the node
-      if (temp < min) {
-        min = temp;
-      } else if (temp > max) {
-        max = temp;
-      }
+  private static float minOnAxis(BoxCollider a, Vector2 axis) {
+    Vector2[] corners = a.getCorners();
+    float min = axis.dot(corners[0]);
+    for (int i = 1; i < corners.length; i++) {
+      min = Math.min(min, axis.dot(corners[i]));
     }
-    return new Vector2(min, max);
+    return min;
+  }
+
+  /**
+   * @return the end of the segment the BoxCollider exists on in the axis
+   */
+  private static float maxOnAxis(BoxCollider a, Vector2 axis) {
+    Vector2[] corners = a.getCorners();
+    float max = axis.dot(corners[0]);
+    for (int i = 1; i < corners.length; i++) {
+      max = Math.max(max, axis.dot(corners[i]));
+    }
+    return max;
   }
 
   /**
@@ -180,8 +209,8 @@ public abstract class Collider extends Component {
   private static boolean pointBoxCollision(EdgeCollider edgeA, BoxCollider boxB) {
     for (Vector2 axisOfProjection : boxB.getAxes()) {
       Vector2 pA = projectToAxis(edgeA, axisOfProjection);
-      Vector2 pB = projectToAxis(boxB, axisOfProjection);
-      if (!pA.canOverlap(pB)) {
+      if (maxOnAxis(boxB, axisOfProjection) < pA.getX()
+          || pA.getY() < minOnAxis(boxB, axisOfProjection)) {
         return false;
       }
     }
@@ -259,6 +288,29 @@ public abstract class Collider extends Component {
     return toRet;
   }
 
+  /**
+   * Marks the collider as having seen its parent's transform as it is now, so idle colliders can skip
+   * working out their shape every update
+   *
+   * @return True if the transform moved, turned or was resized since last marked
+   */
+  boolean transformChanged(Transform transform) {
+    long version = transform.getVersion();
+    if (transform == seenTransform && version == seenVersion) {
+      return false;
+    }
+    seenTransform = transform;
+    seenVersion = version;
+    return true;
+  }
+
+  /**
+   * Makes the next update work out the collider's shape whether or not its parent moved
+   */
+  void forceUpdate() {
+    seenTransform = null;
+  }
+
   public ColliderType getColliderType() {
     return colliderType;
   }
@@ -267,6 +319,22 @@ public abstract class Collider extends Component {
   }
 
   public abstract Vector2 getCentre();
+
+  /**
+   * @return The axis-aligned box holding the collider, used by the broadphase
+   */
+  public AABB getBounds() {
+    if (bounds == null) {
+      bounds = computeBounds();
+    }
+    return bounds;
+  }
+
+  /**
+   * Works out the axis-aligned box holding the collider; it must hold every point the collision
+   * tests count as part of the collider
+   */
+  abstract AABB computeBounds();
   // Getters
 
   public ColliderLayer getLayer() {
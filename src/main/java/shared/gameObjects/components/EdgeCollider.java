@@ -2,6 +2,7 @@ package shared.gameObjects.components;
 
 import java.util.ArrayList;
 import shared.gameObjects.GameObject;
+import shared.physics.data.AABB;
 import shared.physics.types.ColliderLayer;
 import shared.physics.types.ColliderType;
 import shared.util.maths.Vector2;
@@ -11,6 +12,11 @@ import shared.util.maths.Vector2;
  */
 public class EdgeCollider extends Collider {
 
+  /**
+   * Pinned so maps and objects serialized by earlier builds can still be read
+   */
+  private static final long serialVersionUID = 2514239030141227566L;
+
   ArrayList<Vector2> nodes;
 
   /**
@@ -40,6 +46,7 @@ public class EdgeCollider extends Collider {
    */
   public void addNode(Vector2 position) {
     nodes.add(position);
+    bounds = null;
   }
 
   public ArrayList<Vector2> getNodes() {
@@ -58,6 +65,19 @@ public class EdgeCollider extends Collider {
     return toRet;
   }
 
+  @Override
+  AABB computeBounds() {
+    float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY;
+    float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY;
+    for (Vector2 node : nodes) {
+      minX = Math.min(minX, node.getX());
+      minY = Math.min(minY, node.getY());
+      maxX = Math.max(maxX, node.getX());
+      maxY = Math.max(maxY, node.getY());
+    }
+    return new AABB(minX, minY, maxX, maxY);
+  }
+
   @Override
   public Vector2 getCentre() {
     return nodes.get(nodes.size() / 2);
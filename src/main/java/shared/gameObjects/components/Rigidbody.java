@@ -1,14 +1,22 @@
 package shared.gameObjects.components;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import shared.gameObjects.GameObject;
+import shared.physics.BodyStore;
+import shared.physics.ForceAccumulator;
 import shared.physics.Physics;
 import shared.physics.data.AngularData;
 import shared.physics.data.Collision;
 import shared.physics.data.MaterialProperty;
 import shared.physics.types.RigidbodyType;
 import shared.util.maths.Vector2;
+import shared.util.maths.Vector2Pool;
 
 /**
  * @author fxa579 The primary components responsible for all Physics updates; includes data and
@@ -16,34 +24,83 @@ import shared.util.maths.Vector2;
  */
 public class Rigidbody extends Component implements Serializable {
 
-  private static final float X_THRESHOLD = 10f;
-  private Vector2 deltaPos;
-  private Vector2 deltaPosUpdate;
+  /**
+   * Pinned so maps and objects serialized by earlier builds can still be read
+   */
+  private static final long serialVersionUID = 5067055333412977278L;
 
-  private Vector2 velocity;
+  /**
+   * The fields written, kept as they were before the body's motion moved into a {@link BodyStore}
+   * so maps and objects serialized by earlier builds can still be read
+   */
+  private static final ObjectStreamField[] serialPersistentFields = {
+      new ObjectStreamField("deltaPos", Vector2.class),
+      new ObjectStreamField("deltaPosUpdate", Vector2.class),
+      new ObjectStreamField("velocity", Vector2.class),
+      new ObjectStreamField("currentForce", Vector2.class),
+      new ObjectStreamField("lastAcceleration", Vector2.class),
+      new ObjectStreamField("acceleration", Vector2.class),
+      new ObjectStreamField("bodyType", RigidbodyType.class),
+      new ObjectStreamField("material", MaterialProperty.class),
+      new ObjectStreamField("angularData", AngularData.class),
+      new ObjectStreamField("collisions", ArrayList.class),
+      new ObjectStreamField("forces", ArrayList.class),
+      new ObjectStreamField("forceTimes", ArrayList.class),
+      new ObjectStreamField("mass", Float.TYPE),
+      new ObjectStreamField("inv_mass", Float.TYPE),
+      new ObjectStreamField("gravityScale", Float.TYPE),
+      new ObjectStreamField("airDrag", Float.TYPE),
+      new ObjectStreamField("orientation", Float.TYPE),
+      new ObjectStreamField("angularVelocity", Float.TYPE),
+      new ObjectStreamField("currentTorque", Float.TYPE),
+      new ObjectStreamField("grounded", Boolean.TYPE)
+  };
 
-  private Vector2 currentForce;
-  private Vector2 lastAcceleration;
-  private Vector2 acceleration;
+  /**
+   * Bytes {@link #saveMotion(ByteBuffer)} writes at most
+   */
+  public static final int MAX_MOTION_BYTES = 14 * 4 + 2 + 4 + ForceAccumulator.MAX_SAVED_BYTES;
+
+  /**
+   * Where the body's velocity, acceleration, forces and mass are held; in its world's store while
+   * the body is in a world
+   */
+  private transient volatile BodyStore.Slot slot;
 
   private RigidbodyType bodyType;
 
   private MaterialProperty material;
   private AngularData angularData;
   private ArrayList<Collision> collisions;
-  private ArrayList<Vector2> forces;
-  private ArrayList<ForceTime> forceTimes;
+  /**
+   * Forces and impulses waiting to act on the body, written as the lists of forces they replaced
+   */
+  private transient ForceAccumulator forces;
+  private transient float[] summedForce;
 
-  private float mass;
-  private float inv_mass;
-  private float gravityScale;
-  private float airDrag;
   private float orientation;
   private float angularVelocity;
   private float currentTorque;
 
   private boolean grounded;
 
+  /**
+   * A sleeping body is skipped by the physics update and collision checks until woken
+   */
+  private transient boolean sleeping;
+  /**
+   * Updates in a row the body has been still for
+   */
+  private transient int stillTicks;
+  /**
+   * True if the body must never be put to sleep
+   */
+  private transient boolean sleepDisabled;
+  /**
+   * True if the body's world stepped it this update, so its own update does not step it again
+   */
+  private transient boolean stepped;
+
   /**
    * The main component responsible for Physics calculations. Attach this to a GameObject to have it
    * affected by the Physics Engine.
@@ -65,10 +122,11 @@ public class Rigidbody extends Component implements Serializable {
       AngularData angularData,
       GameObject parent) {
     super(parent, ComponentType.RIGIDBODY);
-    this.gravityScale = gravityScale;
-    this.mass = mass;
-    this.inv_mass = mass == 0 ? 0 : 1 / mass;
-    this.airDrag = airDrag;
+    slot = BodyStore.detached(this);
+    slot.setGravityScale(gravityScale);
+    slot.setMass(mass);
+    slot.setInvMass(mass == 0 ? 0 : 1 / mass);
+    slot.setAirDrag(airDrag);
     this.material = material;
     this.angularData = angularData;
     if (this.angularData == null) {
@@ -76,20 +134,13 @@ public class Rigidbody extends Component implements Serializable {
     }
     this.bodyType = bodyType;
     if (bodyType == RigidbodyType.STATIC) {
-      this.mass = 0;
-      this.inv_mass = 0;
+      slot.setMass(0);
+      slot.setInvMass(0);
     }
 
     collisions = new ArrayList<>();
-    forces = new ArrayList<>();
-    forceTimes = new ArrayList<>();
-
-    velocity = Vector2.Zero();
-    acceleration = Vector2.Zero();
-    lastAcceleration = Vector2.Zero();
-    deltaPos = Vector2.Zero();
-    deltaPosUpdate = Vector2.Zero();
-    currentForce = acceleration.mult(mass);
+    forces = new ForceAccumulator();
+    summedForce = new float[2];
   }
 
   /**
@@ -100,45 +151,79 @@ public class Rigidbody extends Component implements Serializable {
    */
   public Rigidbody(float restitution, GameObject parent) {
     super(parent, ComponentType.RIGIDBODY);
+    slot = BodyStore.detached(this);
 
     material = new MaterialProperty(restitution, 0.2f, 0.1f);
     angularData = new AngularData(parent.getTransform().getSize().magnitude(), 0, 0, 0);
     this.bodyType = RigidbodyType.STATIC;
-    this.mass = Integer.MAX_VALUE;
-    this.inv_mass = 0;
+    slot.setMass(Integer.MAX_VALUE);
+    slot.setInvMass(0);
 
     collisions = new ArrayList<>();
-    forces = new ArrayList<>();
-    forceTimes = new ArrayList<>();
-
-    velocity = Vector2.Zero();
-    acceleration = Vector2.Zero();
-    lastAcceleration = Vector2.Zero();
-    deltaPos = Vector2.Zero();
-    deltaPosUpdate = Vector2.Zero();
-    currentForce = acceleration.mult(mass);
+    forces = new ForceAccumulator();
+    summedForce = new float[2];
   }
   // Update Methods
 
   /**
-   * Called every physics frame, manages the velocity, forces, position, etc.
+   * Called every physics frame, manages the velocity, forces, position, etc. A body its world has
+   * already stepped this update is not stepped again.
    */
   public void update() {
     if (bodyType == RigidbodyType.DYNAMIC) {
-      applyForces();
-      updateVelocity();
+      if (sleeping) {
+        return;
+      }
+      if (stepped) {
+        stepped = false;
+      } else {
+        applyForces();
+        updateVelocity();
+      }
       grounded = false;
+      if (Vector2.magnitude(slot.getVelocityX(), slot.getVelocityY()) < Physics.SLEEP_VELOCITY) {
+        stillTicks++;
+      } else {
+        stillTicks = 0;
+      }
     } else {
-      velocity = Vector2.Zero();
+      slot.setVelocity(0, 0);
+    }
+  }
+
+  /**
+   * Sums the forces for the body's step, if its world is to step it this update: the body must be
+   * dynamic, awake and active, on an object not destroyed
+   *
+   * @return True if the body is to be stepped
+   */
+  public boolean prepareStep() {
+    if (bodyType != RigidbodyType.DYNAMIC || sleeping || !isActive()
+        || getParent().isDestroyed()) {
+      return false;
     }
+    applyForces();
+    return true;
+  }
+
+  /**
+   * Moves the body's object by the step its world integrated for it, leaving the rest of the
+   * body's update to {@link #update()}
+   */
+  public void finishStep() {
+    applyStep();
+    stepped = true;
   }
   // Force Methods
 
   /**
+   * Applies a force on the next update only
    *
+   * @param force The force to be applied
    */
   public void addForce(Vector2 force) {
-    forces.add(force);
+    wakeUp();
+    forces.addForce(force.getX(), force.getY());
   }
 
   /**
@@ -150,8 +235,19 @@ public class Rigidbody extends Component implements Serializable {
    */
   public void addForce(Vector2 force, float time) {
     float iterations = time / Physics.TIMESTEP;
-    Vector2 forceToApply = force.div(iterations);
-    forceTimes.add(new ForceTime(forceToApply, (int) iterations));
+    forces.addTimedForce(force.getX() / iterations, force.getY() / iterations, (int) iterations);
+    wakeUp();
+  }
+
+  /**
+   * Changes the body's momentum at once, as for a knockback, rather than spreading a force over
+   * the next updates; the velocity changes on the next update, before the body moves.
+   *
+   * @param impulse The change in momentum
+   */
+  public void addImpulse(Vector2 impulse) {
+    forces.addImpulse(impulse.getX(), impulse.getY());
+    wakeUp();
   }
 
   /**
@@ -162,10 +258,11 @@ public class Rigidbody extends Component implements Serializable {
    * @param time The time to cover the distance.
    */
   public void move(Vector2 distance, float time) {
+    wakeUp();
     if (time <= 0) {
-      deltaPosUpdate = deltaPosUpdate.add(distance);
+      slot.addMove(distance.getX(), distance.getY());
     } else {
-      this.velocity = distance.div(time);
+      slot.setVelocity(distance.getX() / time, distance.getY() / time);
     }
   }
 
@@ -231,77 +328,287 @@ public class Rigidbody extends Component implements Serializable {
    * An update method; all force updates happen here.
    */
   private void applyForces() {
-
-    currentForce = Vector2.Zero();
-    for (ForceTime force : forceTimes) {
-      if (force.iterate()) {
-        currentForce = currentForce.add(force.getForce());
-      } else {
-
-      }
+    BodyStore.Slot slot = this.slot;
+    if (forces.hasImpulse()) {
+      slot.setVelocity(slot.getVelocityX() + forces.getImpulseX() * slot.getInvMass(),
+          slot.getVelocityY() + forces.getImpulseY() * slot.getInvMass());
+      forces.clearImpulse();
     }
-    for (Vector2 force : forces) {
-      currentForce = currentForce.add(force);
-    }
-    forces.clear();
+    float[] summedForce = this.summedForce;
+    forces.step(summedForce);
+    float forceX = summedForce[0];
+    float forceY = summedForce[1];
     // Gravity and Friction
-    float gravityForce = Physics.GRAVITY * mass * gravityScale;
+    float gravityForce = Physics.GRAVITY * slot.getMass() * slot.getGravityScale();
     if (!grounded) {
-      currentForce = currentForce.add(Vector2.Down().mult(gravityForce));
-      currentForce =
-          currentForce.add(Vector2.Down().mult(airDrag).mult(velocity).mult(-0.5f * mass));
+      forceY += gravityForce;
+      forceY += slot.getAirDrag() * slot.getVelocityY() * (-0.5f * slot.getMass());
     } else {
-      if (currentForce.getX() > gravityForce * material.getStaticFriction()) {
-        currentForce =
-            currentForce.add(
-                Vector2.Right()
-                    .mult(Physics.GRAVITY * mass * gravityScale)
-                    .mult(currentForce.getX() > 0 ? -1 : 1 * material.getKineticFriction()));
+      if (forceX > gravityForce * material.getStaticFriction()) {
+        forceX += gravityForce * (forceX > 0 ? -1 : 1 * material.getKineticFriction());
       } else {
-        currentForce.setX(0);
+        forceX = 0;
       }
     }
+    slot.setForce(forceX, forceY);
   }
 
   /**
    * An update method; all velocity and acceleration updates happen here
    */
   private void updateVelocity() {
-    lastAcceleration = acceleration;
-
-    acceleration = currentForce.div(mass);
-    acceleration = lastAcceleration.add(acceleration).div(2);
-    velocity = velocity.add(acceleration.mult(Physics.TIMESTEP));
-    if (velocity.getX() != 0) {
-      if (Math.abs(velocity.getX()) < X_THRESHOLD) {
-        velocity = new Vector2(0, velocity.getY());
-      } else {
-        velocity = velocity.add(new Vector2(velocity.getX() > 0 ? -X_THRESHOLD : X_THRESHOLD, 0));
-      }
-    }
-    deltaPos = deltaPos.add(deltaPosUpdate);
-    deltaPos =
-        deltaPos.add(
-            velocity
-                .mult(Physics.TIMESTEP)
-                .add(acceleration.mult(0.5f).mult(Physics.TIMESTEP * Physics.TIMESTEP)));
+    slot.integrate();
+    applyStep();
+  }
 
+  /**
+   * Moves and turns the object by the body's last step
+   */
+  private void applyStep() {
+    BodyStore.Slot slot = this.slot;
     angularVelocity += currentTorque * Physics.TIMESTEP * angularData.getInvInertia();
     orientation += angularVelocity * Physics.TIMESTEP;
-    getParent().getTransform().translate(deltaPos);
+    Vector2Pool pool = Vector2Pool.get();
+    int mark = pool.mark();
+    getParent().getTransform().translate(pool.take(slot.getStepX(), slot.getStepY()));
+    pool.release(mark);
     getParent().getTransform().setRot((float) Math.toDegrees(orientation));
-    deltaPosUpdate = Vector2.Zero();
-    deltaPos = Vector2.Zero();
+  }
+
+  /**
+   * Writes the body's motion, grounding, sleep and waiting forces, for {@link
+   * #loadMotion(ByteBuffer)} to put back; its mass and material are left out, as they do not
+   * change as the body moves
+   *
+   * @param out Buffer written to, with at least {@link #MAX_MOTION_BYTES} left
+   */
+  public void saveMotion(ByteBuffer out) {
+    BodyStore.Slot slot = this.slot;
+    out.putFloat(slot.getVelocityX()).putFloat(slot.getVelocityY());
+    out.putFloat(slot.getAccelerationX()).putFloat(slot.getAccelerationY());
+    out.putFloat(slot.getLastAccelerationX()).putFloat(slot.getLastAccelerationY());
+    out.putFloat(slot.getForceX()).putFloat(slot.getForceY());
+    out.putFloat(slot.getMoveX()).putFloat(slot.getMoveY());
+    out.putFloat(slot.getStepX()).putFloat(slot.getStepY());
+    out.putFloat(orientation).putFloat(angularVelocity);
+    out.put((byte) (grounded ? 1 : 0)).put((byte) (sleeping ? 1 : 0));
+    out.putInt(stillTicks);
+    forces.save(out);
+  }
+
+  /**
+   * Puts the body back as written by {@link #saveMotion(ByteBuffer)}
+   *
+   * @param in Buffer read from
+   */
+  public void loadMotion(ByteBuffer in) {
+    BodyStore.Slot slot = this.slot;
+    slot.setVelocity(in.getFloat(), in.getFloat());
+    slot.setAcceleration(in.getFloat(), in.getFloat());
+    slot.setLastAcceleration(in.getFloat(), in.getFloat());
+    slot.setForce(in.getFloat(), in.getFloat());
+    slot.setMove(in.getFloat(), in.getFloat());
+    slot.setStep(in.getFloat(), in.getFloat());
+    orientation = in.getFloat();
+    angularVelocity = in.getFloat();
+    grounded = in.get() != 0;
+    sleeping = in.get() != 0;
+    stillTicks = in.getInt();
+    forces.load(in);
+  }
+
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    BodyStore.Slot slot = this.slot;
+    ObjectOutputStream.PutField fields = out.putFields();
+    fields.put("deltaPos", new Vector2(0, 0));
+    fields.put("deltaPosUpdate", new Vector2(slot.getMoveX(), slot.getMoveY()));
+    fields.put("velocity", new Vector2(slot.getVelocityX(), slot.getVelocityY()));
+    fields.put("currentForce", new Vector2(slot.getForceX(), slot.getForceY()));
+    fields.put("lastAcceleration",
+        new Vector2(slot.getLastAccelerationX(), slot.getLastAccelerationY()));
+    fields.put("acceleration", new Vector2(slot.getAccelerationX(), slot.getAccelerationY()));
+    fields.put("bodyType", bodyType);
+    fields.put("material", material);
+    fields.put("angularData", angularData);
+    fields.put("collisions", collisions);
+    writeForces(fields);
+    fields.put("mass", slot.getMass());
+    fields.put("inv_mass", slot.getInvMass());
+    fields.put("gravityScale", slot.getGravityScale());
+    fields.put("airDrag", slot.getAirDrag());
+    fields.put("orientation", orientation);
+    fields.put("angularVelocity", angularVelocity);
+    fields.put("currentTorque", currentTorque);
+    fields.put("grounded", grounded);
+    out.writeFields();
+  }
+
+  /**
+   * Reads the body into a slot of its own, until it is put in a world
+   */
+  @SuppressWarnings("unchecked")
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    ObjectInputStream.GetField fields = in.readFields();
+    BodyStore.Slot slot = BodyStore.detached(this);
+    Vector2 deltaPosUpdate = readVector(fields, "deltaPosUpdate");
+    slot.addMove(deltaPosUpdate.getX(), deltaPosUpdate.getY());
+    Vector2 velocity = readVector(fields, "velocity");
+    slot.setVelocity(velocity.getX(), velocity.getY());
+    Vector2 currentForce = readVector(fields, "currentForce");
+    slot.setForce(currentForce.getX(), currentForce.getY());
+    Vector2 lastAcceleration = readVector(fields, "lastAcceleration");
+    slot.setLastAcceleration(lastAcceleration.getX(), lastAcceleration.getY());
+    Vector2 acceleration = readVector(fields, "acceleration");
+    slot.setAcceleration(acceleration.getX(), acceleration.getY());
+    slot.setMass(fields.get("mass", 0f));
+    slot.setInvMass(fields.get("inv_mass", 0f));
+    slot.setGravityScale(fields.get("gravityScale", 0f));
+    slot.setAirDrag(fields.get("airDrag", 0f));
+    bodyType = (RigidbodyType) fields.get("bodyType", null);
+    material = (MaterialProperty) fields.get("material", null);
+    angularData = (AngularData) fields.get("angularData", null);
+    collisions = (ArrayList<Collision>) fields.get("collisions", null);
+    readForces(fields);
+    orientation = fields.get("orientation", 0f);
+    angularVelocity = fields.get("angularVelocity", 0f);
+    currentTorque = fields.get("currentTorque", 0f);
+    grounded = fields.get("grounded", false);
+    this.slot = slot;
+  }
+
+  /**
+   * Writes the waiting forces as lists of forces, as they were held before the accumulator; a
+   * waiting impulse is written as a force acting on the next update
+   */
+  private void writeForces(ObjectOutputStream.PutField fields) {
+    ForceAccumulator forces = this.forces;
+    ArrayList<Vector2> instant = new ArrayList<>();
+    float forceX = forces.getForceX();
+    float forceY = forces.getForceY();
+    if (forces.hasImpulse()) {
+      forceX += forces.getImpulseX() / Physics.TIMESTEP;
+      forceY += forces.getImpulseY() / Physics.TIMESTEP;
+    }
+    if (forceX != 0 || forceY != 0) {
+      instant.add(new Vector2(forceX, forceY));
+    }
+    ArrayList<ForceTime> timed = new ArrayList<>();
+    for (int i = 0; i < forces.getTimedCount(); i++) {
+      timed.add(new ForceTime(new Vector2(forces.getTimedForceX(i), forces.getTimedForceY(i)),
+          forces.getTicksLeft(i)));
+    }
+    fields.put("forces", instant);
+    fields.put("forceTimes", timed);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void readForces(ObjectInputStream.GetField fields) throws IOException {
+    forces = new ForceAccumulator();
+    summedForce = new float[2];
+    ArrayList<Vector2> instant = (ArrayList<Vector2>) fields.get("forces", null);
+    if (instant != null) {
+      for (Vector2 force : instant) {
+        forces.addForce(force.getX(), force.getY());
+      }
+    }
+    ArrayList<ForceTime> timed = (ArrayList<ForceTime>) fields.get("forceTimes", null);
+    if (timed != null) {
+      //Spent forces were never taken out of the list, and are dropped here
+      for (ForceTime force : timed) {
+        forces.addTimedForce(force.getForce().getX(), force.getForce().getY(),
+            force.getIterations());
+      }
+    }
+  }
+
+  private static Vector2 readVector(ObjectInputStream.GetField fields, String name)
+      throws IOException {
+    Vector2 vector = (Vector2) fields.get(name, null);
+    return vector == null ? Vector2.ZERO : vector;
   }
 
   // Getters and Setters
+
+  /**
+   * @return A copy of the body's velocity
+   */
   public Vector2 getVelocity() {
-    return velocity;
+    BodyStore.Slot slot = this.slot;
+    return new Vector2(slot.getVelocityX(), slot.getVelocityY());
+  }
+
+  /**
+   * @return The body's velocity along the X axis, read without allocating
+   */
+  public float getVelocityX() {
+    return slot.getVelocityX();
+  }
+
+  public float getVelocityY() {
+    return slot.getVelocityY();
   }
 
+  /**
+   * Sets the velocity, waking the body if it is set moving
+   *
+   * @param velocity The new velocity
+   */
   public void setVelocity(Vector2 velocity) {
-    this.velocity = velocity;
-    acceleration = Vector2.Zero();
+    BodyStore.Slot slot = this.slot;
+    slot.setVelocity(velocity.getX(), velocity.getY());
+    slot.setAcceleration(0, 0);
+    if (velocity.magnitude() >= Physics.SLEEP_VELOCITY) {
+      wakeUp();
+    }
+  }
+
+  // Sleeping
+
+  /**
+   * @return True if the body is asleep, skipped by the physics update and collision checks
+   */
+  public boolean isSleeping() {
+    return sleeping;
+  }
+
+  /**
+   * @return True if the body has been still long enough to be put to sleep
+   */
+  public boolean isStill() {
+    return !sleepDisabled && stillTicks >= Physics.SLEEP_TICKS;
+  }
+
+  /**
+   * Puts the body to sleep, stopping it where it is; done by the world once every body it is
+   * touching is still too
+   */
+  public void sleep() {
+    if (sleepDisabled || bodyType != RigidbodyType.DYNAMIC) {
+      return;
+    }
+    sleeping = true;
+    BodyStore.Slot slot = this.slot;
+    slot.setVelocity(0, 0);
+    slot.setAcceleration(0, 0);
+    slot.setLastAcceleration(0, 0);
+  }
+
+  /**
+   * Wakes the body, so it is updated again and must be still for a while before sleeping again
+   */
+  public void wakeUp() {
+    sleeping = false;
+    stillTicks = 0;
+  }
+
+  /**
+   * @param sleepAllowed False if the body must never be put to sleep, as for bodies moved by input
+   */
+  public void setSleepAllowed(boolean sleepAllowed) {
+    sleepDisabled = !sleepAllowed;
+    if (!sleepAllowed) {
+      wakeUp();
+    }
   }
 
   /**
@@ -315,26 +622,27 @@ public class Rigidbody extends Component implements Serializable {
 
   public void setType(RigidbodyType bodyType) {
     this.bodyType = bodyType;
+    wakeUp();
   }
 
   public float getMass() {
-    return mass;
+    return slot.getMass();
   }
 
   public void setMass(float mass) {
-    this.mass = mass;
+    slot.setMass(mass);
   }
 
   public float getInv_mass() {
-    return inv_mass;
+    return slot.getInvMass();
   }
 
   public float getGravityScale() {
-    return gravityScale;
+    return slot.getGravityScale();
   }
 
   public void setGravityScale(float gravityScale) {
-    this.gravityScale = gravityScale;
+    slot.setGravityScale(gravityScale);
   }
 
   public boolean isGrounded() {
@@ -362,11 +670,28 @@ public class Rigidbody extends Component implements Serializable {
   }
 
   public float getAirDrag() {
-    return airDrag;
+    return slot.getAirDrag();
   }
 
   public void setAirDrag(float airDrag) {
-    this.airDrag = airDrag;
+    slot.setAirDrag(airDrag);
+  }
+
+  /**
+   * @return Where the body's motion is held
+   */
+  public BodyStore.Slot getSlot() {
+    return slot;
+  }
+
+  /**
+   * Moves the body to another slot; used by the store the body is moved to, which has already
+   * copied the body's motion across
+   *
+   * @param slot The body's new slot
+   */
+  public void setSlot(BodyStore.Slot slot) {
+    this.slot = slot;
   }
 
   public float getOrientation() {
@@ -379,10 +704,16 @@ public class Rigidbody extends Component implements Serializable {
 }
 
 /**
- * Helper class to apply force over time without needed to thread/coroutine
+ * A force applied over time, as timed forces are written; held in a {@link ForceAccumulator}
+ * while the body is live
  */
 class ForceTime implements Serializable {
 
+  /**
+   * Pinned so bodies serialized by earlier builds can still be read
+   */
+  private static final long serialVersionUID = 201415099514587237L;
+
   private Vector2 force;
   private int iterations;
 
@@ -395,6 +726,10 @@ class ForceTime implements Serializable {
     return force;
   }
 
+  public int getIterations() {
+    return iterations;
+  }
+
   public boolean iterate() {
     if (iterations <= 0) {
       return false;
@@ -22,7 +22,7 @@ public class Crushing extends Behaviour {
   @Override
   public void OnCollisionEnter(Collision col) {
     if ((col.getCollidedObject() instanceof Player) && col.getNormalCollision()
-        .equals(Vector2.Down())) {
+        .equals(Vector2.DOWN)) {
       if (((Player) col.getCollidedObject()).isGrounded()) {
         ((Player) col.getCollidedObject()).deductHp(9999, parent);
       }
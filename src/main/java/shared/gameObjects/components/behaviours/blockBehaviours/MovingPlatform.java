@@ -39,7 +39,9 @@ public class MovingPlatform extends Behaviour {
   public void OnCollisionStay(Collision col) {
     if (((Rigidbody) col.getCollidedObject().getComponent(ComponentType.RIGIDBODY)).getBodyType()
         == RigidbodyType.DYNAMIC
-        && col.getNormalCollision().equals(Vector2.Up())) {
+        && col.getNormalCollision().equals(Vector2.UP)) {
+      //Kept awake while carried, so it falls once the platform moves out from under it
+      ((Rigidbody) col.getCollidedObject().getComponent(ComponentType.RIGIDBODY)).wakeUp();
       col.getCollidedObject().getTransform().translate(movementFactor);
     }
   }
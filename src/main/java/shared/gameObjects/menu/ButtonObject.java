@@ -65,7 +65,9 @@ public abstract class ButtonObject extends GameObject {
 
   public void setText(String text) {
     this.text = text;
-    button.setText(this.text);
+    if (button != null) {
+      button.setText(this.text);
+    }
   }
 
   public void doOnEnter(MouseEvent e) {
@@ -81,6 +83,10 @@ public abstract class ButtonObject extends GameObject {
   @Override
   public void initialise(Group root, Settings settings) {
     super.initialise(root, settings);
+    if (settings.getLevelHandler().isServer()) {
+      //Nobody clicks the server's buttons, and controls need a display
+      return;
+    }
     button = new Button(this.text, imageView);
     button.setFont(settings.getFont(30));
     button.setTextFill(Color.WHITE);
@@ -95,6 +101,9 @@ public abstract class ButtonObject extends GameObject {
   @Override
   public void render() {
     imageView.setImage(animation.getImage());
+    if (button == null) {
+      return;
+    }
     button.setTranslateX(getX());
     button.setTranslateY(getY());
     imageView.setTranslateX(0);
@@ -109,9 +118,11 @@ public abstract class ButtonObject extends GameObject {
 
   public void removeRender() {
     super.removeRender();
-    button.disarm();
-    root.getChildren().remove(button);
-    button = null;
+    if (button != null) {
+      button.disarm();
+      root.getChildren().remove(button);
+      button = null;
+    }
   }
 
   public Button getButton() {
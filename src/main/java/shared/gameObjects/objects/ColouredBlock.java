@@ -27,7 +27,7 @@ public abstract class ColouredBlock extends GameObject {
   @Override
   public void update() {
     super.update();
-    if (ObjectManager.currentActive == this.blockType) {
+    if (settings.getLevelHandler().getObjectManager().getCurrentActive() == this.blockType) {
       bc.setLayer(ColliderLayer.PLATFORM);
       this.animation.switchAnimation("active");
     } else {
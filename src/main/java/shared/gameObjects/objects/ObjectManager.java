@@ -3,7 +3,7 @@ package shared.gameObjects.objects;
 import shared.physics.Physics;
 
 /**
- * A general class to manage level-wide timers and effects
+ * A general class to manage level-wide timers and effects; each level handler has its own
  */
 public class ObjectManager {
 
@@ -14,13 +14,13 @@ public class ObjectManager {
   /**
    * The current active coloured block
    */
-  public static ColourBlock currentActive = ColourBlock.RED;
-  private static float colouredTimer = 3.0f;
+  private ColourBlock currentActive = ColourBlock.RED;
+  private float colouredTimer = 3.0f;
 
   /**
    * Updates the timers and content of the object manager
    */
-  public static void update() {
+  public void update() {
     colouredTimer -= Physics.TIMESTEP;
     if (colouredTimer <= 0) {
       colouredTimer = TIME_BETWEEN_COLOUR_SWAPS;
@@ -40,4 +40,11 @@ public class ObjectManager {
       }
     }
   }
+
+  /**
+   * @return The coloured block that is currently solid
+   */
+  public ColourBlock getCurrentActive() {
+    return currentActive;
+  }
 }
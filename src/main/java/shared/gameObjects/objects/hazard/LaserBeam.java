@@ -3,7 +3,6 @@ package shared.gameObjects.objects.hazard;
 import client.handlers.audioHandler.AudioHandler;
 import client.handlers.effectsHandler.Colour;
 import client.main.Client;
-import java.util.ArrayList;
 import java.util.UUID;
 import javafx.scene.effect.BlurType;
 import javafx.scene.effect.DropShadow;
@@ -13,10 +12,12 @@ import shared.gameObjects.Destructable;
 import shared.gameObjects.GameObject;
 import shared.gameObjects.Utils.ObjectType;
 import shared.gameObjects.components.BoxCollider;
+import shared.gameObjects.components.Collider;
 import shared.gameObjects.components.ComponentType;
 import shared.gameObjects.components.Rigidbody;
 import shared.physics.Physics;
-import shared.physics.data.Collision;
+import shared.physics.QueryFilter;
+import shared.physics.QueryResults;
 import shared.physics.types.ColliderLayer;
 import shared.physics.types.RigidbodyType;
 import shared.util.maths.Vector2;
@@ -35,6 +36,13 @@ public class LaserBeam extends GameObject implements Hazard {
   private BoxCollider bc;
   private Rectangle laser;
   private Colour colour;
+  /**
+   * Filters and buffer for the casts finding what the laser hits and where it ends; made when
+   * first needed, as lasers loaded from a map are not constructed
+   */
+  private transient QueryFilter targetFilter;
+  private transient QueryFilter blockingFilter;
+  private transient QueryResults laserResults;
 
   /**
    * Creates a Laser Beam Block object in the world
@@ -70,15 +78,13 @@ public class LaserBeam extends GameObject implements Hazard {
     }
 
     if (laserActive) {
-      ArrayList<Collision> collisions =
-          Physics.boxcastAll(
+      int hits =
+          settings.getLevelHandler().getPhysics().overlapBox(
               new Vector2(laser.getX(), laser.getY()),
               new Vector2(laser.getWidth(), laser.getHeight()),
-              false, false);
-      for (Collision c : collisions) {
-        if (c.getCollidedObject() instanceof Destructable) {
-          ((Destructable) c.getCollidedObject()).deductHp(9999, this);
-        }
+              targetFilter, laserResults);
+      for (int i = 0; i < hits; i++) {
+        ((Destructable) laserResults.getObject(i)).deductHp(9999, this);
       }
       colour.setR(colour.getR() - 2);
       colour.setB(colour.getB() + 1);
@@ -107,6 +113,12 @@ public class LaserBeam extends GameObject implements Hazard {
   }
 
   private void initialiseLaser() {
+    targetFilter = new QueryFilter().setPredicate(object -> object instanceof Destructable);
+    blockingFilter = new QueryFilter().ignore(this).setPredicate(object -> {
+      Rigidbody rb = (Rigidbody) object.getComponent(ComponentType.RIGIDBODY);
+      return rb != null && rb.getBodyType() == RigidbodyType.STATIC;
+    });
+    laserResults = new QueryResults();
     laser = new Rectangle();
     laser.setOpacity(0);
     recalculatePositions();
@@ -118,23 +130,17 @@ public class LaserBeam extends GameObject implements Hazard {
   private void recalculatePositions() {
     laser.setX(bc.getCorners()[1].getX() + bc.getSize().getX() * 0.28f);
     laser.setY(bc.getCentre().getY());
-    ArrayList<Collision> collisions =
-        Physics.boxcastAll(
+    int hits =
+        settings.getLevelHandler().getPhysics().overlapBox(
             new Vector2(laser.getX(), laser.getY()),
             new Vector2(transform.getSize().getX() * 0.44f, 1080),
-            false, false);
+            blockingFilter, laserResults);
     float closestPoint = 1100;
-    for (Collision c : collisions) {
-      if (c.getCollidedObject().getComponent(ComponentType.RIGIDBODY) != null) {
-        if (((Rigidbody) c.getCollidedObject().getComponent(ComponentType.RIGIDBODY)).getBodyType()
-            == RigidbodyType.STATIC
-            && c.getCollidedObject() != this) {
-          closestPoint =
-              c.getPointOfCollision().getY() < closestPoint
-                  ? c.getPointOfCollision().getY()
-                  : closestPoint;
-        }
-      }
+    for (int i = 0; i < hits; i++) {
+      //The laser stops at the top of the highest static object under it
+      Collider collider =
+          (Collider) laserResults.getObject(i).getComponent(ComponentType.COLLIDER);
+      closestPoint = Math.min(closestPoint, collider.getBounds().getMinY());
     }
     laser.setWidth(transform.getSize().getX() * 0.44f);
     laser.setHeight(closestPoint - laser.getY());
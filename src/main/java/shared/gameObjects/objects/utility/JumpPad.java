@@ -1,6 +1,5 @@
 package shared.gameObjects.objects.utility;
 
-import java.util.ArrayList;
 import java.util.UUID;
 import shared.gameObjects.GameObject;
 import shared.gameObjects.Utils.ObjectType;
@@ -8,6 +7,8 @@ import shared.gameObjects.components.BoxCollider;
 import shared.gameObjects.components.ComponentType;
 import shared.gameObjects.components.Rigidbody;
 import shared.physics.Physics;
+import shared.physics.QueryFilter;
+import shared.physics.QueryResults;
 import shared.physics.data.Collision;
 import shared.physics.types.ColliderLayer;
 import shared.physics.types.RigidbodyType;
@@ -24,6 +25,12 @@ public class JumpPad extends GameObject {
   private boolean spring, cooldown;
   private float timer;
   private Vector2 originalPosition;
+  /**
+   * Filter and buffer for the cast finding what the pad launches; made when first needed, as pads
+   * loaded from a map are not constructed
+   */
+  private transient QueryFilter launchFilter;
+  private transient QueryResults launchResults;
 
   /**
    * Constructs Jump Pad object
@@ -36,7 +43,7 @@ public class JumpPad extends GameObject {
     super(x, y, 50, 40, ObjectType.Bot, uuid);
     addComponent(new BoxCollider(this, ColliderLayer.PLATFORM, false));
     addComponent(new Rigidbody(0, this));
-    originalPosition = transform.getPos();
+    originalPosition = new Vector2(transform.getPos());
     timer = TIME_TO_JUMP;
   }
 
@@ -50,16 +57,22 @@ public class JumpPad extends GameObject {
         spring = false;
         cooldown = true;
         timer = TIME_TO_JUMP;
-        ArrayList<Collision> collisions =
-            Physics.boxcastAll(transform.getPos().add(Vector2.Up().mult(30)), transform.getSize(),
-                false, false);
-        for (Collision c : collisions) {
-          Rigidbody rb = (Rigidbody) c.getCollidedObject().getComponent(ComponentType.RIGIDBODY);
-          if (rb != null) {
-            if (rb.getBodyType() == RigidbodyType.DYNAMIC) {
-              rb.setVelocity(new Vector2(rb.getVelocity().getX(), SPRING_FORCE));
-            }
-          }
+        if (launchFilter == null) {
+          launchFilter = new QueryFilter().setPredicate(object -> {
+            Rigidbody rb = (Rigidbody) object.getComponent(ComponentType.RIGIDBODY);
+            return rb != null && rb.getBodyType() == RigidbodyType.DYNAMIC;
+          });
+          launchResults = new QueryResults();
+        }
+        int hits =
+            settings.getLevelHandler().getPhysics().overlapBox(
+                transform.getPos().add(Vector2.Up().mult(30)), transform.getSize(), launchFilter,
+                launchResults);
+        for (int i = 0; i < hits; i++) {
+          Rigidbody rb =
+              (Rigidbody) launchResults.getObject(i).getComponent(ComponentType.RIGIDBODY);
+          //Launched at the spring's speed however fast it was falling
+          rb.addImpulse(new Vector2(0, (SPRING_FORCE - rb.getVelocityY()) * rb.getMass()));
         }
       }
     } else {
@@ -82,7 +95,7 @@ public class JumpPad extends GameObject {
   @Override
   public void OnCollisionStay(Collision col) {
     super.OnCollisionEnter(col);
-    if (!cooldown && col.getNormalCollision().equals(Vector2.Up())) {
+    if (!cooldown && col.getNormalCollision().equals(Vector2.UP)) {
       spring = true;
     }
   }
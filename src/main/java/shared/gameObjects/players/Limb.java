@@ -14,6 +14,7 @@ import shared.gameObjects.Utils.ObjectType;
 import shared.gameObjects.components.BoxCollider;
 import shared.gameObjects.components.Rigidbody;
 import shared.handlers.levelHandler.LevelHandler;
+import shared.packets.ObjectState;
 import shared.physics.data.MaterialProperty;
 import shared.physics.types.ColliderLayer;
 import shared.physics.types.RigidbodyType;
@@ -24,6 +25,11 @@ import shared.util.maths.Vector2;
  */
 public abstract class Limb extends GameObject implements Destructable {
 
+  /**
+   * Pinned so maps and objects serialized by earlier builds can still be read
+   */
+  private static final long serialVersionUID = 8094725585244850300L;
+
   /**
    * The X-coordinate pivot for rotating the limb
    */
@@ -177,9 +183,11 @@ public abstract class Limb extends GameObject implements Destructable {
     }
     detachLimb();
     Random random = new Random();
-    rb.setVelocity(
+    //Flung off with the speed the impulse gives it, whatever it was doing while attached
+    Vector2 fling =
         new Vector2(1000 * (random.nextDouble() + 0.2) * (random.nextInt(4) - 1 > 0 ? 1 : -1),
-            1000 * (random.nextDouble() + 0.2) * (random.nextInt(3) - 1)));
+            1000 * (random.nextDouble() + 0.2) * (random.nextInt(3) - 1));
+    rb.addImpulse(fling.sub(rb.getVelocity()).mult(rb.getMass()));
   }
 
   public void reset() {
@@ -187,21 +195,17 @@ public abstract class Limb extends GameObject implements Destructable {
     limbHealth = limbMaxHealth;
   }
 
-  /**
-   * Contains the state of the object for sending over server Only contains items that need sending
-   * separate by commas
-   *
-   * @return State of object
-   */
-  public String getState() {
-    return objectUUID + ";" + id + ";" + (float) getX() + ";" + (float) getY() + ";" + isLeft;
+  @Override
+  public void writeState(ObjectState state) {
+    super.writeState(state);
+    state.putBoolean(isLeft);
   }
 
-  public void setState(String data, Boolean snap) {
-    String[] unpackedData = data.split(";");
-    setX(Double.parseDouble(unpackedData[2]));
-    setY(Double.parseDouble(unpackedData[3]));
-    this.isLeft = Boolean.parseBoolean(unpackedData[4]);
+  @Override
+  public void readState(ObjectState state, boolean snap) {
+    setX(state.getX());
+    setY(state.getY());
+    this.isLeft = state.getBoolean(2);
   }
 
   private void getBehaviour() {
@@ -2,7 +2,6 @@ package shared.gameObjects.players.Limbs;
 
 import client.main.Settings;
 import java.util.UUID;
-import javafx.application.Platform;
 import javafx.scene.Group;
 import javafx.scene.transform.Rotate;
 import shared.gameObjects.GameObject;
@@ -91,7 +90,7 @@ public class Arm extends Limb {
   public void removeRender() {
     if (imageView != null) {
       imageView.setImage(null);
-      Platform.runLater(
+      runOnRenderThread(
           () -> {
             root.getChildren().remove(imageView);
           }
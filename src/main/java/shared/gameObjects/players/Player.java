@@ -4,7 +4,6 @@ import client.handlers.effectsHandler.Particle;
 import client.main.Settings;
 import java.util.Random;
 import java.util.UUID;
-import javafx.application.Platform;
 import javafx.scene.Group;
 import javafx.scene.image.ImageView;
 import javafx.scene.paint.Color;
@@ -24,6 +23,7 @@ import shared.gameObjects.rendering.PointLighting;
 import shared.gameObjects.weapons.Punch;
 import shared.gameObjects.weapons.Weapon;
 import shared.handlers.levelHandler.GameState;
+import shared.packets.ObjectState;
 import shared.physics.data.MaterialProperty;
 import shared.physics.types.ColliderLayer;
 import shared.physics.types.RigidbodyType;
@@ -31,6 +31,11 @@ import shared.util.maths.Vector2;
 
 public class Player extends GameObject {
 
+  /**
+   * Pinned so maps and objects serialized by earlier builds can still be read
+   */
+  private static final long serialVersionUID = -2198681237514921433L;
+
   /**
    * The speed of the player in pixels per update frame
    */
@@ -129,6 +134,15 @@ public class Player extends GameObject {
   private Limb armRight;
   private Limb handLeft;
   private Limb handRight;
+  /**
+   * Number of limbs a player has
+   */
+  public static final int LIMB_COUNT = 8;
+  /**
+   * UUIDs and network IDs the limbs are built with when the player was spawned by the server
+   */
+  private transient UUID[] spawnLimbUUIDs;
+  private transient int[] spawnLimbNetworkIds;
   /**
    * Synchronise the animations for each limb.
    */
@@ -180,6 +194,8 @@ public class Player extends GameObject {
     this.bc = new BoxCollider(this, ColliderLayer.PLAYER, false);
     this.rb = new Rigidbody(RigidbodyType.DYNAMIC, 90, 11.67f, 0.2f,
         new MaterialProperty(0f, 0.1f, 0.05f), null, this);
+    //Driven by input every update, so never left to sleep
+    rb.setSleepAllowed(false);
     addComponent(bc);
     addComponent(rb);
     aimLeft = pointLeft = true;
@@ -299,14 +315,14 @@ public class Player extends GameObject {
     if (legLeft != null) {
       return;
     }
-    legLeft = new Leg(true, this, settings.getLevelHandler(), UUID.randomUUID());
-    legRight = new Leg(false, this, settings.getLevelHandler(), UUID.randomUUID());
-    body = new Body(this, settings.getLevelHandler(), UUID.randomUUID());
-    head = new Head(this, settings.getLevelHandler(), UUID.randomUUID());
-    armLeft = new Arm(true, this, settings.getLevelHandler(), UUID.randomUUID());
-    armRight = new Arm(false, this, settings.getLevelHandler(), UUID.randomUUID());
-    handLeft = new Hand(true, armLeft, this, settings.getLevelHandler(), UUID.randomUUID());
-    handRight = new Hand(false, armRight, this, settings.getLevelHandler(), UUID.randomUUID());
+    legLeft = new Leg(true, this, settings.getLevelHandler(), getSpawnLimbUUID(0));
+    legRight = new Leg(false, this, settings.getLevelHandler(), getSpawnLimbUUID(1));
+    body = new Body(this, settings.getLevelHandler(), getSpawnLimbUUID(2));
+    head = new Head(this, settings.getLevelHandler(), getSpawnLimbUUID(3));
+    armLeft = new Arm(true, this, settings.getLevelHandler(), getSpawnLimbUUID(4));
+    armRight = new Arm(false, this, settings.getLevelHandler(), getSpawnLimbUUID(5));
+    handLeft = new Hand(true, armLeft, this, settings.getLevelHandler(), getSpawnLimbUUID(6));
+    handRight = new Hand(false, armRight, this, settings.getLevelHandler(), getSpawnLimbUUID(7));
     addChild(legLeft);
     addChild(legRight);
     addChild(body);
@@ -315,6 +331,36 @@ public class Player extends GameObject {
     addChild(armRight);
     armRight.addChild(handRight);
     armLeft.addChild(handLeft);
+    if (spawnLimbNetworkIds != null) {
+      Limb[] limbs = getLimbsInSpawnOrder();
+      for (int i = 0; i < LIMB_COUNT; i++) {
+        limbs[i].setNetworkId(spawnLimbNetworkIds[i]);
+      }
+      updateSkinRender(currentSkin);
+    }
+  }
+
+  private UUID getSpawnLimbUUID(int index) {
+    return spawnLimbUUIDs == null ? UUID.randomUUID() : spawnLimbUUIDs[index];
+  }
+
+  /**
+   * Sets the UUIDs and network IDs of the limbs of a player spawned by the server, so the limbs
+   * built when it is initialised match the server's
+   *
+   * @param uuids UUIDs of the limbs, in the order of {@link #getLimbsInSpawnOrder()}
+   * @param networkIds Network IDs of the limbs, in the same order
+   */
+  public void setSpawnLimbs(UUID[] uuids, int[] networkIds) {
+    spawnLimbUUIDs = uuids;
+    spawnLimbNetworkIds = networkIds;
+  }
+
+  /**
+   * @return The limbs in the order they are sent when the player is spawned
+   */
+  public Limb[] getLimbsInSpawnOrder() {
+    return new Limb[]{legLeft, legRight, body, head, armLeft, armRight, handLeft, handRight};
   }
 
   /**
@@ -426,21 +472,19 @@ public class Player extends GameObject {
   }
 
   @Override
-  public String getState() {
-    return objectUUID + ";" + id + ";" + getX() + ";" + getY() + ";" + animation.getName() + ";"
-        + health + ";"
-        + lastInputCount + ";"
-        + throwHoldingKey;
+  public void writeState(ObjectState state) {
+    super.writeState(state);
+    state.putInt(health);
+    state.putInt(lastInputCount);
+    state.putBoolean(throwHoldingKey);
   }
 
   @Override
-  public void setState(String data, Boolean snap) {
-    super.setState(data, snap);
-    String[] unpackedData = data.split(";");
-    //this.animation.switchAnimation(unpackedData[4]);
-    this.health = Integer.parseInt(unpackedData[5]);
-    this.lastInputCount = Integer.parseInt(unpackedData[6]);
-    this.throwHoldingKey = Boolean.parseBoolean(unpackedData[7]);
+  public void readState(ObjectState state, boolean snap) {
+    super.readState(state, snap);
+    this.health = state.getInt(2);
+    this.lastInputCount = state.getInt(3);
+    this.throwHoldingKey = state.getBoolean(4);
   }
 
   /**
@@ -600,7 +644,7 @@ public class Player extends GameObject {
     if (imageView != null) {
       imageView.setImage(null);
       try {
-        Platform.runLater(
+        runOnRenderThread(
             () -> {
               root.getChildren().remove(imageView);
             }
@@ -12,7 +12,6 @@ import javafx.application.Platform;
 import javafx.scene.Group;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Text;
-import server.Server;
 import server.ai.Bot;
 import shared.gameObjects.GameObject;
 import shared.gameObjects.Utils.ObjectType;
@@ -113,7 +112,7 @@ public class Podium1 extends GameObject {
       score0.setFont(settings.getFont(64));
       root.getChildren().add(score0);
       if(settings.getLevelHandler().isServer()) {
-        settings.getLevelHandler().getServer().sendToClients(new PacketAward(AwardID.MONEY, FIRST_MONEY, players.get(0)).getData(), false);
+        settings.getLevelHandler().getRoom().sendToClients(new PacketAward(AwardID.MONEY, FIRST_MONEY, players.get(0)));
       } else {
         if(players.get(0).equals(settings.getLevelHandler().getClientPlayer())) settings.getData().addMoney(FIRST_MONEY);
       }
@@ -130,7 +129,7 @@ public class Podium1 extends GameObject {
       score1.setFont(settings.getFont(64));
       root.getChildren().add(score1);
       if(settings.getLevelHandler().isServer()) {
-        settings.getLevelHandler().getServer().sendToClients(new PacketAward(AwardID.MONEY, SECOND_MONEY, players.get(1)).getData(), false);
+        settings.getLevelHandler().getRoom().sendToClients(new PacketAward(AwardID.MONEY, SECOND_MONEY, players.get(1)));
       } else {
         if(players.get(1).equals(settings.getLevelHandler().getClientPlayer())) settings.getData().addMoney(SECOND_MONEY);
       }
@@ -147,7 +146,7 @@ public class Podium1 extends GameObject {
       score2.setFont(settings.getFont(64));
       root.getChildren().add(score2);
       if(settings.getLevelHandler().isServer()) {
-        settings.getLevelHandler().getServer().sendToClients(new PacketAward(AwardID.MONEY, THIRD_MONEY, players.get(2)).getData(), false);
+        settings.getLevelHandler().getRoom().sendToClients(new PacketAward(AwardID.MONEY, THIRD_MONEY, players.get(2)));
       } else {
         if(players.get(2).equals(settings.getLevelHandler().getClientPlayer())) settings.getData().addMoney(THIRD_MONEY);
       }
@@ -164,7 +163,7 @@ public class Podium1 extends GameObject {
       score3.setFont(settings.getFont(64));
       root.getChildren().add(score3);
       if(settings.getLevelHandler().isServer()) {
-        settings.getLevelHandler().getServer().sendToClients(new PacketAward(AwardID.MONEY, FOURTH_MONEY, players.get(3)).getData(), false);
+        settings.getLevelHandler().getRoom().sendToClients(new PacketAward(AwardID.MONEY, FOURTH_MONEY, players.get(3)));
       } else {
         if(players.get(3).equals(settings.getLevelHandler().getClientPlayer())) settings.getData().addMoney(FOURTH_MONEY);
       }
@@ -175,45 +174,46 @@ public class Podium1 extends GameObject {
     }
 
     //Go back
-    new java.util.Timer().schedule(
-        new java.util.TimerTask() {
-          @Override
-          public void run() {
-            Platform.runLater(new Runnable() {
-              @Override
-              public void run() {
-                if (settings.getLevelHandler().getClientPlayer() != null) {
-                  players.remove(settings.getLevelHandler().getClientPlayer());
-                }
-                players.forEach(player -> {
-                  player.removeRender();
-                });
-                players.clear();
-                if (settings.getLevelHandler().isServer()) {
-                  settings.getLevelHandler().changeMap(
-                      new Map("menus/main_menu.map",
-                          Path.convert("src/main/resources/menus/lobby.map")),
-                      true, true);
-                  Server.killServer();
-                } else {
-                  if (!Client.multiplayer)
-                    settings.getLevelHandler().changeMap(
-                        new Map("menus/main_menu.map",
-                            Path.convert("src/main/resources/menus/main_menu.map")),
-                        true, false);
-                }
-              }
-            });
-
-          }
-        }, 15000
-    );
+    Runnable goBack = () -> {
+      if (settings.getLevelHandler().getClientPlayer() != null) {
+        players.remove(settings.getLevelHandler().getClientPlayer());
+      }
+      players.forEach(player -> {
+        player.removeRender();
+      });
+      players.clear();
+      if (settings.getLevelHandler().isServer()) {
+        settings.getLevelHandler().changeMap(
+            new Map("menus/main_menu.map",
+                Path.convert("src/main/resources/menus/lobby.map")),
+            true, true);
+        settings.getLevelHandler().getRoom().close();
+      } else {
+        if (!Client.multiplayer)
+          settings.getLevelHandler().changeMap(
+              new Map("menus/main_menu.map",
+                  Path.convert("src/main/resources/menus/main_menu.map")),
+              true, false);
+      }
+    };
+    if (settings.getLevelHandler().isServer()) {
+      settings.getLevelHandler().getRoom().schedule(goBack, 15000);
+    } else {
+      new java.util.Timer().schedule(
+          new java.util.TimerTask() {
+            @Override
+            public void run() {
+              Platform.runLater(goBack);
+            }
+          }, 15000
+      );
+    }
   }
 
   @Override
   public void removeRender() {
     super.removeRender();
-    Platform.runLater(
+    runOnRenderThread(
         () -> {
           root.getChildren().remove(score0);
           root.getChildren().remove(score1);
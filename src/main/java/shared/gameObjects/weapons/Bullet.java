@@ -29,6 +29,11 @@ import shared.util.maths.Vector2;
  */
 public abstract class Bullet extends GameObject {
 
+  /**
+   * Pinned so maps and objects serialized by earlier builds can still be read
+   */
+  private static final long serialVersionUID = -8699289957319592135L;
+
   /**
    * True if this bullet collided with some other objects
    */
@@ -240,6 +245,17 @@ public abstract class Bullet extends GameObject {
   // Setters and Getters
   // -------------------
 
+  public Player getHolder() {
+    return holder;
+  }
+
+  /**
+   * @return Unit vector of the direction the bullet was fired in
+   */
+  public Vector2 getDirection() {
+    return vector;
+  }
+
   /**
    * Returns the width of this bullet
    */
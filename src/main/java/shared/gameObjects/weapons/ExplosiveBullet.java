@@ -3,7 +3,6 @@ package shared.gameObjects.weapons;
 import client.handlers.audioHandler.AudioHandler;
 import client.handlers.effectsHandler.ServerParticle;
 import client.main.Client;
-import java.util.ArrayList;
 import java.util.UUID;
 import shared.gameObjects.Destructable;
 import shared.gameObjects.GameObject;
@@ -11,7 +10,8 @@ import shared.gameObjects.Utils.ObjectType;
 import shared.gameObjects.components.ComponentType;
 import shared.gameObjects.components.Rigidbody;
 import shared.gameObjects.players.Player;
-import shared.physics.Physics;
+import shared.physics.QueryFilter;
+import shared.physics.QueryResults;
 import shared.physics.data.Collision;
 import shared.physics.types.RigidbodyType;
 import shared.util.Path;
@@ -86,7 +86,10 @@ public class ExplosiveBullet extends Bullet {
    *
    */
   public void OnCollisionEnter(Collision col) {
-    ArrayList<Collision> collision = Physics.circlecastAll(this.bc.getCentre(), radius);
+    //Explosions are rare enough that the buffer is not kept between them
+    QueryResults caught = new QueryResults();
+    int caughtCount = settings.getLevelHandler().getPhysics()
+        .overlapCircle(this.bc.getCentre(), radius, new QueryFilter(), caught);
     GameObject gCol = col.getCollidedObject();
     boolean remove = true;
 
@@ -106,8 +109,8 @@ public class ExplosiveBullet extends Bullet {
       }
     }
 
-    for (Collision c : collision) {
-      GameObject g = c.getCollidedObject();
+    for (int i = 0; i < caughtCount; i++) {
+      GameObject g = caught.getObject(i);
 
       // Skip if getCollidedObject gets removed accidentally
       if (g == null) {
@@ -133,7 +136,8 @@ public class ExplosiveBullet extends Bullet {
 
       if (body != null && body.getBodyType() == RigidbodyType.DYNAMIC) {
         Vector2 dir = g.getTransform().getPos().sub(bc.getCentre()).normalize();
-        body.move(dir.mult(pushPower), 0.1f);
+        // Enough momentum to cover pushPower in a tenth of a second, on top of its own
+        body.addImpulse(dir.mult(pushPower * body.getMass() / 0.1f));
       }
 
     }
@@ -4,9 +4,11 @@ import client.main.Settings;
 import java.util.UUID;
 import javafx.scene.Group;
 import shared.gameObjects.Utils.ObjectType;
+import shared.gameObjects.players.Limb;
 import shared.gameObjects.players.Player;
-import shared.physics.Physics;
-import shared.physics.data.Collision;
+import shared.packets.ObjectState;
+import shared.physics.QueryFilter;
+import shared.physics.QueryResults;
 import shared.util.maths.Vector2;
 
 /**
@@ -14,6 +16,11 @@ import shared.util.maths.Vector2;
  */
 public abstract class Gun extends Weapon {
 
+  /**
+   * Pinned so maps and objects serialized by earlier builds can still be read
+   */
+  private static final long serialVersionUID = -1123069673064021323L;
+
   /**
    * Segment of package name of blocks, to check if an object is instance of Blocks
    */
@@ -35,6 +42,13 @@ public abstract class Gun extends Weapon {
    */
   private double angle;
 
+  /**
+   * Filter and buffer for the cast checking if the gun is fired into the floor; made when first
+   * needed, as guns loaded from a map are not constructed
+   */
+  private transient QueryFilter floorFilter;
+  private transient QueryResults floorResults;
+
   /**
    * Constructor of the Gun class
    *
@@ -97,14 +111,19 @@ public abstract class Gun extends Weapon {
       double mouseX, double mouseY,
       Vector2 playerCentre) {
 
-    Collision raycast = Physics.raycastBullet(
+    if (floorFilter == null) {
+      floorFilter = new QueryFilter().setPredicate(object -> !(object instanceof Limb
+          || (object instanceof Player && object.equals(holder))));
+      floorResults = new QueryResults();
+    }
+    settings.getLevelHandler().getPhysics().raycast(
         playerCentre,
         new Vector2(mouseX - bulletX, mouseY - bulletY).normalize().mult(55),
-        this.holder,
-        false);
+        floorFilter,
+        floorResults);
 
     // Raycast first collider is floor
-    if (raycast != null && raycast.getCollidedObject().getClass().getPackage().getName()
+    if (!floorResults.isEmpty() && floorResults.getObject(0).getClass().getPackage().getName()
         .contains(blocksPackageName)) {
       return new double[] { holderHandPos[0], holderHandPos[1] + 20 };
     } else { // Not floor
@@ -112,24 +131,17 @@ public abstract class Gun extends Weapon {
     }
   }
 
-  /**
-   * Contains the state of the object for sending over server Only contains items that need sending
-   * separate by commas
-   *
-   * @return State of object
-   */
   @Override
-  public String getState() {
-    return objectUUID + ";" + id + ";" + (float) getX() + ";" + (float) getY() + ";"
-        + (float) angle;
+  public void writeState(ObjectState state) {
+    super.writeState(state);
+    state.putFloat((float) angle);
   }
 
   @Override
-  public void setState(String data, Boolean snap) {
-    String[] unpackedData = data.split(";");
-    setX(Double.parseDouble(unpackedData[2]));
-    setY(Double.parseDouble(unpackedData[3]));
-    this.angle = Double.parseDouble(unpackedData[4]);
+  public void readState(ObjectState state, boolean snap) {
+    setX(state.getX());
+    setY(state.getY());
+    this.angle = state.getFloat(2);
   }
 
   /**
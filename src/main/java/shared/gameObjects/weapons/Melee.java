@@ -7,12 +7,11 @@ import java.util.UUID;
 import javafx.scene.Group;
 import javafx.scene.transform.Rotate;
 import shared.gameObjects.Destructable;
-import shared.gameObjects.GameObject;
 import shared.gameObjects.Utils.ObjectType;
 import shared.gameObjects.components.Rigidbody;
 import shared.gameObjects.players.Player;
-import shared.physics.Physics;
-import shared.physics.data.Collision;
+import shared.physics.QueryFilter;
+import shared.physics.QueryResults;
 import shared.util.maths.Vector2;
 
 /**
@@ -68,6 +67,12 @@ public abstract class Melee extends Weapon {
    * Rotate for swinging the sword on attack
    */
   protected transient Rotate rotateAttack;
+  /**
+   * Filter and buffer for the cast finding what a swing hits; made when first needed, as weapons
+   * loaded from a map are not constructed
+   */
+  private transient QueryFilter hitFilter;
+  private transient QueryResults hitResults;
 
 
   /**
@@ -174,13 +179,18 @@ public abstract class Melee extends Weapon {
       this.collidedSet.clear();
 
       // Box cast on beginning of swing
-      ArrayList<Collision> collisions =
-          Physics.boxcastAll(
+      if (hitFilter == null) {
+        hitFilter = new QueryFilter().setPredicate(
+            object -> object instanceof Destructable && !isHolder(object));
+        hitResults = new QueryResults();
+      }
+      int hits =
+          settings.getLevelHandler().getPhysics().overlapBox(
               new Vector2((float) (holderHandPos[0] + (range * attackAngleSign)),
                   (float) (holderHandPos[1] - (getSizeY() / 2))),
               new Vector2((float) getSizeY() / 2, (float) getSizeY() / 2),
-              false,
-              false
+              hitFilter,
+              hitResults
           );
       // Box cast at end of swing
       /*collisions.addAll(
@@ -192,12 +202,12 @@ public abstract class Melee extends Weapon {
       );*/
       ArrayList<Destructable> objectsBeingHit = new ArrayList<>();
 
-      for (Collision c : collisions) {
-        GameObject g = c.getCollidedObject();
+      for (int i = 0; i < hits; i++) {
+        Destructable g = (Destructable) hitResults.getObject(i);
 
-        if (g instanceof Destructable && !isHolder(g) && !collidedSet.contains(g)) {
-          objectsBeingHit.add((Destructable) g);
-          collidedSet.add((Destructable) g);
+        if (!collidedSet.contains(g)) {
+          objectsBeingHit.add(g);
+          collidedSet.add(g);
         }
       }
 
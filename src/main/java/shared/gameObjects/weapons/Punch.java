@@ -2,14 +2,12 @@ package shared.gameObjects.weapons;
 
 import client.handlers.audioHandler.AudioHandler;
 import client.main.Client;
-import java.util.HashSet;
 import java.util.UUID;
 import shared.gameObjects.Destructable;
-import shared.gameObjects.GameObject;
 import shared.gameObjects.Utils.ObjectType;
 import shared.gameObjects.players.Player;
-import shared.physics.Physics;
-import shared.physics.data.Collision;
+import shared.physics.QueryFilter;
+import shared.physics.QueryResults;
 import shared.util.Path;
 import shared.util.maths.Vector2;
 
@@ -24,6 +22,12 @@ public class Punch extends Melee {
   private static double sizeX = 30, sizeY = 30;
   /** Range of punch */
   private static double range = 30;
+  /**
+   * Filter and buffer for the casts finding what a punch hits; made when first needed, as weapons
+   * loaded from a map are not constructed
+   */
+  private transient QueryFilter hitFilter;
+  private transient QueryResults hitResults;
 
   /**
    * Constructor for Punch
@@ -74,7 +78,11 @@ public class Punch extends Melee {
   public void fire(double mouseX, double mouseY) {
     if (this.canFire()) {
       Vector2 boxCastSize = new Vector2(10f, 10f);
-      HashSet<Collision> collisionSet = new HashSet<>();
+      if (hitFilter == null) {
+        hitFilter = new QueryFilter().setPredicate(
+            object -> object instanceof Destructable && !isHolder(object));
+        hitResults = new QueryResults();
+      }
 
       // Get the angle of punching
       Vector2 vPunch = new Vector2(mouseX - getGripX(), mouseY - getGripY());
@@ -85,23 +93,15 @@ public class Punch extends Melee {
       double deltaY = vPunch.getY() / numCast;
 
       for (int i = 0; i < numCast; i++) {
-        collisionSet.addAll(
-            new HashSet<>(
-                Physics.boxcastAll(
-                    new Vector2((float) (this.getGripX() + (i * deltaX)),
-                        (float) (this.getGripY() + (i * deltaY))),
-                    boxCastSize,
-                    false,
-                    false
-                )
-            )
+        int hits = settings.getLevelHandler().getPhysics().overlapBox(
+            new Vector2((float) (this.getGripX() + (i * deltaX)),
+                (float) (this.getGripY() + (i * deltaY))),
+            boxCastSize,
+            hitFilter,
+            hitResults
         );
-      }
-
-      for (Collision c : collisionSet) {
-        GameObject g = c.getCollidedObject();
-        if (g instanceof Destructable && !isHolder(g)) {
-          ((Destructable) g).deductHp(this.damage, holder);
+        for (int j = 0; j < hits; j++) {
+          ((Destructable) hitResults.getObject(j)).deductHp(this.damage, holder);
           new AudioHandler(settings, Client.musicActive).playSFX("PUNCH");
         }
       }
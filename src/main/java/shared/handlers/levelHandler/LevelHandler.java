@@ -14,15 +14,18 @@ import java.util.LinkedList;
 import java.util.Random;
 import java.util.UUID;
 import javafx.scene.Group;
-import server.Server;
+import server.Room;
 import server.ai.Bot;
 import shared.gameObjects.GameObject;
 import shared.gameObjects.MapDataObject;
 import shared.gameObjects.Utils.ObjectType;
 import shared.gameObjects.background.Background;
+import shared.gameObjects.objects.ObjectManager;
 import shared.gameObjects.players.Limb;
 import shared.gameObjects.players.Player;
 import shared.packets.PacketDelete;
+import shared.packets.SpawnDescriptor;
+import shared.physics.PhysicsWorld;
 import shared.util.Path;
 import shared.util.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
 import shared.util.maths.Vector2;
@@ -34,6 +37,7 @@ public class LevelHandler {
 
   private ConcurrentLinkedHashMap<UUID, GameObject> gameObjects;
   private ConcurrentLinkedHashMap<UUID, GameObject> toCreate;
+  private NetworkIdTable networkIds = new NetworkIdTable();
   private LinkedHashMap<UUID, Player> players;
   private LinkedHashMap<UUID, Limb> limbs;
   private LinkedHashMap<UUID, Bot> bots;
@@ -51,7 +55,9 @@ public class LevelHandler {
   private AudioHandler musicPlayer;
   private Settings settings;
   private boolean isServer;
-  private Server server;
+  private Room room;
+  private PhysicsWorld physics;
+  private final ObjectManager objectManager = new ObjectManager();
 
   /**
    * Constructs level handler for client
@@ -66,6 +72,7 @@ public class LevelHandler {
     this.settings = settings;
     gameObjects = new ConcurrentLinkedHashMap.Builder<UUID, GameObject>()
         .maximumWeightedCapacity(500).build();
+    physics = new PhysicsWorld(gameObjects);
     toCreate = new ConcurrentLinkedHashMap.Builder<UUID, GameObject>()
         .maximumWeightedCapacity(500).build();
     players = new LinkedHashMap<>();
@@ -87,17 +94,18 @@ public class LevelHandler {
   }
 
   /**
-   * Constructs level handler for server
+   * Constructs level handler for a room on the server
    *
-   * @param settings Settings attached to server
+   * @param settings Settings attached to the room
    * @param backgroundRoot root containing background images
    * @param gameRoot main game root containing all the objects
-   * @param server The server the handler is attached to
+   * @param room The room the handler is attached to
    */
-  public LevelHandler(Settings settings, Group backgroundRoot, Group gameRoot, Server server) {
+  public LevelHandler(Settings settings, Group backgroundRoot, Group gameRoot, Room room) {
     this.settings = settings;
     gameObjects = new ConcurrentLinkedHashMap.Builder<UUID, GameObject>()
         .maximumWeightedCapacity(500).build();
+    physics = new PhysicsWorld(gameObjects);
     players = new LinkedHashMap<>();
     toCreate = new ConcurrentLinkedHashMap.Builder<UUID, GameObject>()
         .maximumWeightedCapacity(500).build();
@@ -107,7 +115,9 @@ public class LevelHandler {
     this.isServer = true;
     this.backgroundRoot = backgroundRoot;
     this.gameRoot = gameRoot;
-    this.server = server;
+    this.room = room;
+    //Objects initialised with the lobby check whether they are on the server
+    settings.setLevelHandler(this);
     changeMap(new Map("LOBBY", Path.convert("src/main/resources/menus/lobby.map")),
         false, true);
     previousMap = null;
@@ -177,6 +187,7 @@ public class LevelHandler {
 
     // Create new game objects for map
     gameObjects = MapLoader.loadMap(map.getPath());
+    physics.setGameObjects(gameObjects);
     gameObjects.forEach(
         (key, gameObject) -> {
           gameObject.setSettings(settings);
@@ -205,7 +216,11 @@ public class LevelHandler {
     gameObjects.putAll(players);
     gameObjects.putAll(limbs);
     limbs.forEach((key, limbs) -> limbs.reset());
+    physics.bakeStaticGeometry();
     gameObjects.forEach((key, gameObject) -> gameObject.setSettings(settings));
+    if (isServer) {
+      gameObjects.forEach((key, gameObject) -> networkIds.assign(gameObject));
+    }
     gameState = map.getGameState() != null ? map.getGameState() : GameState.MAIN_MENU;
     players.forEach((key, player) -> {
       player.reset();
@@ -229,7 +244,7 @@ public class LevelHandler {
           break;
       }
     } else {
-      server.sendObjects(gameObjects);
+      room.sendObjects(gameObjects.values());
     }
     players.forEach((key, player) -> {
       player.reset();
@@ -274,10 +289,7 @@ public class LevelHandler {
     try {
       createObject(gameObject);
       if (isServer) {
-        ConcurrentLinkedHashMap<UUID, GameObject> temp = new ConcurrentLinkedHashMap.Builder<UUID, GameObject>()
-            .maximumWeightedCapacity(1).build();
-        temp.put(gameObject.getUUID(), gameObject);
-        server.sendObjects(temp);
+        room.sendObjects(Collections.singletonList(gameObject));
       }
     } catch (IllegalStateException e) {
       //System.out.println("AI - avoiding placement of object");
@@ -304,12 +316,51 @@ public class LevelHandler {
    * Creates game objects that are meant to be created from the previous loop
    */
   public void createObject(GameObject gameObject) {
-    if (!gameObjects.containsKey(gameObject.getUUID())) {
+    GameObject existing = gameObjects.get(gameObject.getUUID());
+    if (existing == null) {
       gameObject.initialise(gameRoot, settings);
       gameObjects.put(gameObject.getUUID(), gameObject);
+      existing = gameObject;
+    }
+    if (isServer) {
+      assignNetworkIds(existing);
+    } else if (gameObject.getNetworkId() != NetworkIdTable.NONE) {
+      //Objects the client already has, such as map objects, take on the server's ID
+      existing.setNetworkId(gameObject.getNetworkId());
+      networkIds.register(existing);
+    }
+  }
+
+  /**
+   * Creates an object the server has spawned, or gives the object the client already has, such as
+   * a map object, the server's network ID
+   *
+   * @param spawn Descriptor of the object sent by the server
+   */
+  public void spawnObject(SpawnDescriptor spawn) {
+    GameObject existing = gameObjects.get(spawn.getUUID());
+    if (existing == null) {
+      existing = toCreate.get(spawn.getUUID());
+    }
+    if (existing != null) {
+      if (spawn.getNetworkId() != NetworkIdTable.NONE) {
+        existing.setNetworkId(spawn.getNetworkId());
+        networkIds.register(existing);
+      }
+      return;
+    }
+    GameObject gameObject = SpawnRegistry.create(spawn, this);
+    if (gameObject != null) {
+      gameObject.setNetworkId(spawn.getNetworkId());
+      toCreate.put(gameObject.getUUID(), gameObject);
     }
   }
 
+  private void assignNetworkIds(GameObject gameObject) {
+    networkIds.assign(gameObject);
+    gameObject.getChildren().forEach(child -> assignNetworkIds(child));
+  }
+
   /**
    * Remove an existing bullet from game object list
    *
@@ -319,8 +370,11 @@ public class LevelHandler {
     gameObjects.values().remove(g);
     g.destroy();
     if (isServer) {
-      PacketDelete delete = new PacketDelete(g.getUUID());
-      server.sendToClients(delete.getData(), false);
+      PacketDelete delete = new PacketDelete(g.getNetworkId());
+      room.sendToClients(delete);
+      networkIds.release(g);
+    } else {
+      networkIds.unregister(g);
     }
     g = null;
   }
@@ -403,10 +457,7 @@ public class LevelHandler {
     createObject(newPlayer);
     newPlayer.updateSkinRender(skin);
     if (isServer) {
-      ConcurrentLinkedHashMap<UUID, GameObject> temp = new ConcurrentLinkedHashMap.Builder<UUID, GameObject>()
-          .maximumWeightedCapacity(1).build();
-      temp.put(newPlayer.getUUID(), newPlayer);
-      server.sendObjects(temp);
+      room.sendObjects(Collections.singletonList(newPlayer));
     }
   }
 
@@ -448,11 +499,43 @@ public class LevelHandler {
     return isServer;
   }
 
+  /**
+   * The network IDs of the game objects; assigned here on the server and mirrored on the client
+   *
+   * @return Network ID table
+   */
+  public NetworkIdTable getNetworkIds() {
+    return networkIds;
+  }
+
   public ConcurrentLinkedHashMap<UUID, GameObject> getToCreate() {
     return toCreate;
   }
 
-  public Server getServer() {
-    return server;
+  /**
+   * The room this level is played in; null on the client
+   *
+   * @return The room
+   */
+  public Room getRoom() {
+    return room;
+  }
+
+  /**
+   * The physics world holding the objects of this level
+   *
+   * @return Physics world
+   */
+  public PhysicsWorld getPhysics() {
+    return physics;
+  }
+
+  /**
+   * The level-wide timers and effects of this level
+   *
+   * @return Object manager
+   */
+  public ObjectManager getObjectManager() {
+    return objectManager;
   }
 }
@@ -0,0 +1,100 @@
+package shared.handlers.levelHandler;
+
+import shared.gameObjects.GameObject;
+
+/**
+ * Maps the 16 bit network IDs sent in packets to game objects. The server assigns an ID when an
+ * object is spawned and recycles it when the object is deleted; the client mirrors the IDs it is
+ * sent with each object.
+ */
+public class NetworkIdTable {
+
+  /**
+   * The ID of an object that has not been assigned one
+   */
+  public static final int NONE = 0;
+  /**
+   * The largest ID that fits in an unsigned short
+   */
+  public static final int MAX_ID = 0xFFFF;
+
+  private final GameObject[] objects = new GameObject[MAX_ID + 1];
+  //Released IDs, reused oldest first so a stale ID takes as long as possible to come back
+  private final int[] free = new int[MAX_ID];
+  private int freeHead;
+  private int freeCount;
+  private int nextId = NONE + 1;
+
+  /**
+   * Assigns an ID to an object if it does not already hold one from this table
+   *
+   * @param gameObject Object to assign an ID to
+   * @return The ID of the object
+   * @throws IllegalStateException if every ID is in use
+   */
+  public int assign(GameObject gameObject) {
+    int id = gameObject.getNetworkId();
+    if (id != NONE && objects[id] == gameObject) {
+      return id;
+    }
+    if (nextId <= MAX_ID) {
+      id = nextId++;
+    } else if (freeCount > 0) {
+      id = free[freeHead];
+      freeHead = (freeHead + 1) % free.length;
+      freeCount--;
+    } else {
+      throw new IllegalStateException("No free network IDs");
+    }
+    objects[id] = gameObject;
+    gameObject.setNetworkId(id);
+    return id;
+  }
+
+  /**
+   * Frees the ID of a deleted object so it can be reused
+   *
+   * @param gameObject Object that has been deleted
+   */
+  public void release(GameObject gameObject) {
+    int id = gameObject.getNetworkId();
+    if (id != NONE && objects[id] == gameObject) {
+      objects[id] = null;
+      free[(freeHead + freeCount) % free.length] = id;
+      freeCount++;
+    }
+  }
+
+  /**
+   * Records the ID the server sent with an object
+   *
+   * @param gameObject Object holding the server's ID
+   */
+  public void register(GameObject gameObject) {
+    if (gameObject.getNetworkId() != NONE) {
+      objects[gameObject.getNetworkId()] = gameObject;
+    }
+  }
+
+  /**
+   * Forgets the ID of an object removed on the client
+   *
+   * @param gameObject Object that has been removed
+   */
+  public void unregister(GameObject gameObject) {
+    int id = gameObject.getNetworkId();
+    if (id != NONE && objects[id] == gameObject) {
+      objects[id] = null;
+    }
+  }
+
+  /**
+   * Gets the object an ID refers to
+   *
+   * @param id Network ID of the object
+   * @return The object, null if the ID is not in use
+   */
+  public GameObject get(int id) {
+    return id > NONE && id <= MAX_ID ? objects[id] : null;
+  }
+}
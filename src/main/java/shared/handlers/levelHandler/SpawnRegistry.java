@@ -0,0 +1,233 @@
+package shared.handlers.levelHandler;
+
+import client.handlers.effectsHandler.ServerParticle;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.UUID;
+import server.ai.Bot;
+import shared.gameObjects.GameObject;
+import shared.gameObjects.players.Limb;
+import shared.gameObjects.players.Player;
+import shared.gameObjects.powerup.HealthPack;
+import shared.gameObjects.weapons.Bullet;
+import shared.gameObjects.weapons.CircleBullet;
+import shared.gameObjects.weapons.ExplosiveBullet;
+import shared.gameObjects.weapons.ExplosiveLauncher;
+import shared.gameObjects.weapons.FireBullet;
+import shared.gameObjects.weapons.Handgun;
+import shared.gameObjects.weapons.MachineGun;
+import shared.gameObjects.weapons.Sword;
+import shared.gameObjects.weapons.Uzi;
+import shared.gameObjects.weapons.Weapon;
+import shared.packets.PacketCodec;
+import shared.packets.SpawnDescriptor;
+import shared.util.maths.Vector2;
+
+/**
+ * Registry of the objects the server can spawn on the clients. Each kind of object has a writer for
+ * its type specific spawn parameters and a factory the client rebuilds the object with. Objects of
+ * a kind that is not registered, such as map objects the client loads itself, are sent without
+ * parameters so the client can only give the matching object it already has the network ID.
+ */
+public class SpawnRegistry {
+
+  /**
+   * Kind sent for objects that are not registered
+   */
+  public static final int NONE = 0xFFFF;
+
+  /**
+   * Writes the spawn parameters of an object
+   */
+  public interface Writer<T extends GameObject> {
+
+    void write(T gameObject, ByteBuffer params);
+  }
+
+  /**
+   * Rebuilds an object from its spawn descriptor
+   */
+  public interface Factory {
+
+    /**
+     * @param spawn Descriptor sent by the server
+     * @param levelHandler Level handler of the client, used to find the objects referenced
+     * @return The new object, null if it cannot be built yet
+     */
+    GameObject create(SpawnDescriptor spawn, LevelHandler levelHandler);
+  }
+
+  private static final HashMap<Class<?>, Integer> kinds = new HashMap<>();
+  private static final ArrayList<Writer<GameObject>> writers = new ArrayList<>();
+  private static final ArrayList<Factory> factories = new ArrayList<>();
+
+  static {
+    register(Player.class, SpawnRegistry::writePlayer,
+        (spawn, levelHandler) -> readPlayer(
+            new Player(spawn.getX(), spawn.getY(), spawn.getUUID()), spawn.getParams()));
+    register(Bot.class, SpawnRegistry::writePlayer,
+        (spawn, levelHandler) -> readPlayer(
+            new Bot(spawn.getX(), spawn.getY(), spawn.getUUID(), levelHandler), spawn.getParams()));
+
+    register(Handgun.class, SpawnRegistry::writeWeapon, (spawn, levelHandler) ->
+        new Handgun(spawn.getX(), spawn.getY(), PacketCodec.getString(spawn.getParams()),
+            getHolder(spawn, levelHandler), spawn.getUUID()));
+    register(Uzi.class, SpawnRegistry::writeWeapon, (spawn, levelHandler) ->
+        new Uzi(spawn.getX(), spawn.getY(), PacketCodec.getString(spawn.getParams()),
+            getHolder(spawn, levelHandler), spawn.getUUID()));
+    register(MachineGun.class, SpawnRegistry::writeWeapon, (spawn, levelHandler) ->
+        new MachineGun(spawn.getX(), spawn.getY(), PacketCodec.getString(spawn.getParams()),
+            getHolder(spawn, levelHandler), spawn.getUUID()));
+    register(ExplosiveLauncher.class, SpawnRegistry::writeWeapon, (spawn, levelHandler) ->
+        new ExplosiveLauncher(spawn.getX(), spawn.getY(),
+            PacketCodec.getString(spawn.getParams()), getHolder(spawn, levelHandler),
+            spawn.getUUID()));
+    register(Sword.class, SpawnRegistry::writeWeapon, (spawn, levelHandler) ->
+        new Sword(spawn.getX(), spawn.getY(), PacketCodec.getString(spawn.getParams()),
+            getHolder(spawn, levelHandler), spawn.getUUID()));
+
+    register(CircleBullet.class, SpawnRegistry::writeBullet, (spawn, levelHandler) -> {
+      Player holder = getHolder(spawn, levelHandler);
+      ByteBuffer params = spawn.getParams();
+      return holder == null ? null : new CircleBullet(spawn.getX(), spawn.getY(),
+          spawn.getX() + params.getFloat(), spawn.getY() + params.getFloat(), holder,
+          spawn.getUUID());
+    });
+    register(FireBullet.class, SpawnRegistry::writeBullet, (spawn, levelHandler) -> {
+      Player holder = getHolder(spawn, levelHandler);
+      ByteBuffer params = spawn.getParams();
+      return holder == null ? null : new FireBullet(spawn.getX(), spawn.getY(),
+          spawn.getX() + params.getFloat(), spawn.getY() + params.getFloat(), holder,
+          spawn.getUUID());
+    });
+    register(ExplosiveBullet.class, SpawnRegistry::writeBullet, (spawn, levelHandler) -> {
+      Player holder = getHolder(spawn, levelHandler);
+      ByteBuffer params = spawn.getParams();
+      return holder == null ? null : new ExplosiveBullet(spawn.getX(), spawn.getY(),
+          spawn.getX() + params.getFloat(), spawn.getY() + params.getFloat(), holder,
+          spawn.getUUID());
+    });
+
+    register(HealthPack.class, (healthPack, params) -> {
+    }, (spawn, levelHandler) -> new HealthPack(spawn.getX(), spawn.getY(), spawn.getUUID()));
+
+    register(ServerParticle.class, (particle, params) -> {
+      params.putFloat(particle.getVelocity().getX());
+      params.putFloat(particle.getVelocity().getY());
+      params.putFloat(particle.getAcceleration().getX());
+      params.putFloat(particle.getAcceleration().getY());
+      params.putFloat(particle.getLifetime());
+      PacketCodec.putString(params, particle.getParticleName());
+    }, (spawn, levelHandler) -> {
+      ByteBuffer params = spawn.getParams();
+      Vector2 velocity = new Vector2(params.getFloat(), params.getFloat());
+      Vector2 acceleration = new Vector2(params.getFloat(), params.getFloat());
+      float lifetime = params.getFloat();
+      return new ServerParticle(new Vector2(spawn.getX(), spawn.getY()), velocity, acceleration,
+          new Vector2(spawn.getSizeX(), spawn.getSizeY()), PacketCodec.getString(params),
+          lifetime);
+    });
+  }
+
+  /**
+   * Registers a kind of object that can be spawned; the kind is sent as the registration order,
+   * so the client and server must register the same kinds in the same order
+   *
+   * @param type Class of the object, subclasses must be registered separately
+   * @param writer Writes the spawn parameters of an object on the server
+   * @param factory Rebuilds the object on the client
+   */
+  @SuppressWarnings("unchecked")
+  public static <T extends GameObject> void register(Class<T> type, Writer<T> writer,
+      Factory factory) {
+    kinds.put(type, writers.size());
+    writers.add((Writer<GameObject>) writer);
+    factories.add(factory);
+  }
+
+  /**
+   * Writes the spawn descriptor of an object
+   *
+   * @param gameObject Object to describe
+   * @param buffer Buffer to write into
+   */
+  public static void write(GameObject gameObject, ByteBuffer buffer) {
+    Integer kind = kinds.get(gameObject.getClass());
+    Vector2 size = gameObject.getTransform().getSize();
+    int lengthPosition = SpawnDescriptor.writeHeader(buffer, kind == null ? NONE : kind,
+        gameObject.getId(), gameObject.getNetworkId(), gameObject.getUUID(),
+        (float) gameObject.getX(), (float) gameObject.getY(), size.getX(), size.getY());
+    if (kind != null) {
+      writers.get(kind).write(gameObject, buffer);
+    }
+    SpawnDescriptor.endParams(buffer, lengthPosition);
+  }
+
+  /**
+   * Rebuilds the object a spawn descriptor describes
+   *
+   * @param spawn Descriptor sent by the server
+   * @param levelHandler Level handler of the client
+   * @return The new object, null if the kind is not registered or the object cannot be built yet
+   */
+  public static GameObject create(SpawnDescriptor spawn, LevelHandler levelHandler) {
+    if (spawn.getKind() >= factories.size()) {
+      return null;
+    }
+    return factories.get(spawn.getKind()).create(spawn, levelHandler);
+  }
+
+  private static Player getHolder(SpawnDescriptor spawn, LevelHandler levelHandler) {
+    GameObject holder = levelHandler.getNetworkIds()
+        .get(spawn.getParams().getShort() & 0xFFFF);
+    return holder instanceof Player ? (Player) holder : null;
+  }
+
+  private static void putHolder(ByteBuffer params, Player holder) {
+    params.putShort((short) (holder == null ? NetworkIdTable.NONE : holder.getNetworkId()));
+  }
+
+  private static void writeWeapon(Weapon weapon, ByteBuffer params) {
+    putHolder(params, weapon.getHolder());
+    PacketCodec.putString(params, weapon.getName());
+  }
+
+  private static void writeBullet(Bullet bullet, ByteBuffer params) {
+    putHolder(params, bullet.getHolder());
+    params.putFloat(bullet.getDirection().getX());
+    params.putFloat(bullet.getDirection().getY());
+  }
+
+  /**
+   * Sends the name, skin and limbs of a player; the limbs are sent with the player as they can
+   * only be built by it
+   */
+  private static void writePlayer(Player player, ByteBuffer params) {
+    PacketCodec.putString(params, player.getUsername() == null ? "" : player.getUsername());
+    for (int skin : player.getCurrentSkin()) {
+      params.putInt(skin);
+    }
+    for (Limb limb : player.getLimbsInSpawnOrder()) {
+      PacketCodec.putUUID(params, limb.getUUID());
+      params.putShort((short) limb.getNetworkId());
+    }
+  }
+
+  private static Player readPlayer(Player player, ByteBuffer params) {
+    player.setUsername(PacketCodec.getString(params));
+    int[] skin = new int[player.getCurrentSkin().length];
+    for (int i = 0; i < skin.length; i++) {
+      skin[i] = params.getInt();
+    }
+    player.updateSkinRender(skin);
+    UUID[] limbUUIDs = new UUID[Player.LIMB_COUNT];
+    int[] limbNetworkIds = new int[Player.LIMB_COUNT];
+    for (int i = 0; i < Player.LIMB_COUNT; i++) {
+      limbUUIDs[i] = PacketCodec.getUUID(params);
+      limbNetworkIds[i] = params.getShort() & 0xFFFF;
+    }
+    player.setSpawnLimbs(limbUUIDs, limbNetworkIds);
+    return player;
+  }
+}
@@ -0,0 +1,82 @@
+package shared.packets;
+
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * Splits messages into datagrams. Every datagram carries a header of: message type, message
+ * sequence, fragment index and fragment count; messages larger than one datagram are split into
+ * fragments that a {@link Reassembler} puts back together. An instance reuses one datagram buffer
+ * and is not thread safe.
+ */
+public class Framer {
+
+  /**
+   * Message holding a packet encoded by the PacketCodec
+   */
+  public static final byte TYPE_PACKET = 0;
+  /**
+   * Message sent on the reliable ordered channel, wrapping a message of another type
+   */
+  public static final byte TYPE_RELIABLE = 2;
+  /**
+   * Size of the header in front of every fragment
+   */
+  public static final int HEADER_SIZE = 7;
+  /**
+   * Largest datagram sent; kept below common path MTUs so datagrams are not fragmented by IP
+   */
+  public static final int MAX_DATAGRAM_SIZE = 1200;
+  /**
+   * Largest amount of a message carried by one datagram
+   */
+  public static final int MAX_FRAGMENT_SIZE = MAX_DATAGRAM_SIZE - HEADER_SIZE;
+  /**
+   * Most fragments a message is split into; a datagram claiming more is dropped by the {@link
+   * Reassembler}, so a garbled header cannot make it hold a huge message
+   */
+  public static final int MAX_FRAGMENTS = 256;
+  /**
+   * Largest message that can be framed
+   */
+  public static final int MAX_MESSAGE_SIZE = MAX_FRAGMENT_SIZE * MAX_FRAGMENTS;
+
+  private final ByteBuffer datagram = ByteBuffer.allocate(MAX_DATAGRAM_SIZE);
+  private int sequence;
+
+  /**
+   * Frames a message into one or more datagrams
+   *
+   * @param type Type of the message
+   * @param message Buffer holding the message between its position and limit; left unchanged
+   * @param out Receives each datagram; only valid until it returns
+   */
+  public void frame(byte type, ByteBuffer message, Consumer<ByteBuffer> out) {
+    int length = message.remaining();
+    if (length > MAX_MESSAGE_SIZE) {
+      throw new IllegalArgumentException("Message of " + length + " bytes is too large to frame");
+    }
+    int count = Math.max(1, (length + MAX_FRAGMENT_SIZE - 1) / MAX_FRAGMENT_SIZE);
+    ByteBuffer body = message.duplicate();
+    short messageSequence = (short) sequence++;
+    for (int i = 0; i < count; i++) {
+      body.limit(Math.min(message.limit(), body.position() + MAX_FRAGMENT_SIZE));
+      datagram.clear();
+      datagram.put(type).putShort(messageSequence).putShort((short) i).putShort((short) count);
+      datagram.put(body);
+      datagram.flip();
+      out.accept(datagram);
+    }
+  }
+
+  /**
+   * Reads the message type of a datagram
+   *
+   * @param datagram Buffer positioned at the start of the datagram, with at least {@link
+   * #HEADER_SIZE} bytes remaining
+   * @return The type of the message the datagram belongs to
+   */
+  public static byte getType(ByteBuffer datagram) {
+    return datagram.get(datagram.position());
+  }
+}
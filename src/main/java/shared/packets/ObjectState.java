@@ -0,0 +1,191 @@
+package shared.packets;
+
+import java.nio.ByteBuffer;
+import shared.gameObjects.Utils.ObjectType;
+
+/**
+ * The networked state of a single game object. The state is a short list of fixed-width 32 bit
+ * fields; floats are stored by their raw bits so two states can be compared field by field and
+ * only the fields that differ from a baseline need to be sent.
+ */
+public class ObjectState {
+
+  /**
+   * The most fields a game object can send; fields 0 and 1 are always the X and Y position
+   */
+  public static final int MAX_FIELDS = 8;
+
+  private static final ObjectType[] TYPES = ObjectType.values();
+
+  private int networkId;
+  private ObjectType type;
+  private final int[] fields;
+  private int size;
+  private int changed;
+
+  public ObjectState() {
+    fields = new int[MAX_FIELDS];
+  }
+
+  /**
+   * Reads a state written by {@link #write(ByteBuffer, int)}. Only the fields in the changed mask
+   * hold a value; the rest must be taken from the baseline with {@link #applyTo(ObjectState)}.
+   *
+   * @param buffer Buffer positioned at the start of the state
+   * @throws IllegalArgumentException if the type or field count is out of range
+   */
+  public ObjectState(ByteBuffer buffer) {
+    this();
+    networkId = buffer.getShort() & 0xFFFF;
+    int typeId = buffer.get();
+    if (typeId < 0 || typeId >= TYPES.length) {
+      throw new IllegalArgumentException("Unknown object type " + typeId);
+    }
+    type = TYPES[typeId];
+    size = buffer.get();
+    if (size < 0 || size > MAX_FIELDS) {
+      throw new IllegalArgumentException("Bad field count " + size);
+    }
+    changed = buffer.get() & 0xFF;
+    for (int i = 0; i < size; i++) {
+      if ((changed & (1 << i)) != 0) {
+        fields[i] = buffer.getInt();
+      }
+    }
+  }
+
+  /**
+   * Clears the fields so the state can be reused for another object
+   *
+   * @param networkId Network ID of the object the state belongs to
+   * @param type Type of the object the state belongs to
+   */
+  public void reset(int networkId, ObjectType type) {
+    this.networkId = networkId;
+    this.type = type;
+    size = 0;
+  }
+
+  /**
+   * Writes every field of the state
+   *
+   * @param buffer Buffer to write into
+   */
+  public void write(ByteBuffer buffer) {
+    write(buffer, fullMask());
+  }
+
+  /**
+   * Writes the state as: network ID, type, field count, changed mask then each changed field
+   *
+   * @param buffer Buffer to write into
+   * @param mask Bit mask of the fields to write
+   */
+  public void write(ByteBuffer buffer, int mask) {
+    buffer.putShort((short) networkId);
+    buffer.put((byte) type.ordinal());
+    buffer.put((byte) size);
+    buffer.put((byte) mask);
+    for (int i = 0; i < size; i++) {
+      if ((mask & (1 << i)) != 0) {
+        buffer.putInt(fields[i]);
+      }
+    }
+  }
+
+  /**
+   * Compares this state against a baseline
+   *
+   * @param baseline State the receiver already has, can be null
+   * @return Bit mask of the fields that differ; every field if the baseline has a different shape
+   */
+  public int diff(ObjectState baseline) {
+    if (baseline == null || baseline.type != type || baseline.size != size) {
+      return fullMask();
+    }
+    int mask = 0;
+    for (int i = 0; i < size; i++) {
+      if (fields[i] != baseline.fields[i]) {
+        mask |= 1 << i;
+      }
+    }
+    return mask;
+  }
+
+  /**
+   * Rebuilds a full state by overwriting the changed fields of the target, which should hold a
+   * copy of the baseline this state was encoded against
+   *
+   * @param target State to write the changed fields into
+   */
+  public void applyTo(ObjectState target) {
+    target.networkId = networkId;
+    target.type = type;
+    target.size = size;
+    for (int i = 0; i < size; i++) {
+      if ((changed & (1 << i)) != 0) {
+        target.fields[i] = fields[i];
+      }
+    }
+  }
+
+  /**
+   * Copies another state into this one
+   *
+   * @param other State to copy
+   */
+  public void set(ObjectState other) {
+    networkId = other.networkId;
+    type = other.type;
+    size = other.size;
+    System.arraycopy(other.fields, 0, fields, 0, size);
+  }
+
+  private int fullMask() {
+    return (1 << size) - 1;
+  }
+
+  public void putFloat(float value) {
+    fields[size++] = Float.floatToIntBits(value);
+  }
+
+  public void putInt(int value) {
+    fields[size++] = value;
+  }
+
+  public void putBoolean(boolean value) {
+    fields[size++] = value ? 1 : 0;
+  }
+
+  public float getFloat(int index) {
+    return Float.intBitsToFloat(fields[index]);
+  }
+
+  public int getInt(int index) {
+    return fields[index];
+  }
+
+  public boolean getBoolean(int index) {
+    return fields[index] != 0;
+  }
+
+  public float getX() {
+    return getFloat(0);
+  }
+
+  public float getY() {
+    return getFloat(1);
+  }
+
+  public int getNetworkId() {
+    return networkId;
+  }
+
+  public ObjectType getType() {
+    return type;
+  }
+
+  public int size() {
+    return size;
+  }
+}
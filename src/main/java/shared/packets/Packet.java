@@ -1,5 +1,7 @@
 package shared.packets;
 
+import java.nio.ByteBuffer;
+
 /**
  * Base class for network packets
  */
@@ -10,10 +12,6 @@ public abstract class Packet {
    * packet is being sent.
    */
   protected int packetID;
-  /**
-   * Data contained in the packet to send
-   */
-  protected String data;
 
   /**
    * Base constructor (must be overriden to do anything)
@@ -22,17 +20,20 @@ public abstract class Packet {
   }
 
   /**
-   * Receive the string of data in byte form
+   * Writes the body of the packet; the opcode header is written by the PacketCodec
    *
-   * @return Byte array of data string
+   * @param buffer Buffer to write the packet body into
    */
-  public byte[] getData() {
-    return data.getBytes();
-  }
+  public abstract void write(ByteBuffer buffer);
 
-
-  public String getString() {
-    return data;
+  /**
+   * Encodes the packet into a new byte array. Prefer encoding with a PacketCodec on hot paths as
+   * it reuses its buffer.
+   *
+   * @return Byte array of the encoded packet
+   */
+  public byte[] getData() {
+    return PacketCodec.toByteArray(this);
   }
 
   public int getPacketID() {
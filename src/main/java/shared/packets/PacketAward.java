@@ -1,5 +1,6 @@
 package shared.packets;
 
+import java.nio.ByteBuffer;
 import java.util.UUID;
 import shared.gameObjects.players.Player;
 
@@ -12,17 +13,29 @@ public class PacketAward extends Packet{
   private int awardID;
 
   public PacketAward(AwardID id, int value, Player player) {
+    packetID = PacketID.AWARD.getID();
     this.awardID = id.getID();
     this.awardValue = value;
     this.playerUUID = player.getUUID();
-    data = packetID + "," + awardID + "," + awardValue + "," + playerUUID;
   }
 
-  public PacketAward(String data) {
-    String[] unpackedData = data.split(",");
-    this.awardID =  Integer.parseInt(unpackedData[1]);
-    this.awardValue =  Integer.parseInt(unpackedData[2]);
-    this.playerUUID = UUID.fromString(unpackedData[3]);
+  /**
+   * Constructs a packet from a received frame
+   *
+   * @param buffer Packet body received from sender
+   */
+  public PacketAward(ByteBuffer buffer) {
+    this.packetID = PacketID.AWARD.getID();
+    this.awardID = buffer.get();
+    this.awardValue = buffer.getInt();
+    this.playerUUID = PacketCodec.getUUID(buffer);
+  }
+
+  @Override
+  public void write(ByteBuffer buffer) {
+    buffer.put((byte) awardID);
+    buffer.putInt(awardValue);
+    PacketCodec.putUUID(buffer, playerUUID);
   }
 
   public int getAwardID() {
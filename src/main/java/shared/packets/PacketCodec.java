@@ -0,0 +1,175 @@
+package shared.packets;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Binary codec for network packets. Every frame starts with a one byte opcode (the PacketID)
+ * followed by the packet body written with fixed-width primitives. An instance owns a reusable
+ * buffer so encoding does not allocate; instances are not thread safe.
+ */
+public class PacketCodec {
+
+  /**
+   * Largest frame that can be encoded; frames larger than a datagram are split by the Framer
+   */
+  public static final int MAX_FRAME_SIZE = 65507;
+
+  /**
+   * Decoders for each packet type, keyed by the opcode found in the frame header
+   */
+  private static final EnumMap<PacketID, Function<ByteBuffer, Packet>> decoders =
+      new EnumMap<>(PacketID.class);
+
+  private static final ThreadLocal<PacketCodec> threadCodec = ThreadLocal
+      .withInitial(PacketCodec::new);
+
+  static {
+    register(PacketID.JOIN, PacketJoin::new);
+    register(PacketID.INPUT, PacketInput::new);
+    register(PacketID.MAP, PacketMap::new);
+    register(PacketID.PLAYERJOIN, PacketPlayerJoin::new);
+    register(PacketID.GAMESTATE, PacketGameState::new);
+    register(PacketID.DELETE, PacketDelete::new);
+    register(PacketID.RESEND, PacketReSend::new);
+    register(PacketID.AWARD, PacketAward::new);
+    register(PacketID.SNAPSHOTACK, PacketSnapshotAck::new);
+    register(PacketID.SPAWN, PacketSpawn::new);
+  }
+
+  private final ByteBuffer buffer;
+
+  /**
+   * Constructs a codec able to encode frames up to the maximum datagram size
+   */
+  public PacketCodec() {
+    this(MAX_FRAME_SIZE);
+  }
+
+  /**
+   * Constructs a codec with a given buffer capacity
+   *
+   * @param capacity The largest frame in bytes this codec can encode
+   */
+  public PacketCodec(int capacity) {
+    buffer = ByteBuffer.allocate(capacity);
+  }
+
+  /**
+   * Registers the decoder used to rebuild a packet from its body
+   *
+   * @param id The opcode of the packet
+   * @param decoder Function reading the packet body from a buffer
+   */
+  public static void register(PacketID id, Function<ByteBuffer, Packet> decoder) {
+    decoders.put(id, decoder);
+  }
+
+  /**
+   * Decodes a frame into a packet
+   *
+   * @param frame Buffer positioned at the opcode of the frame
+   * @return The decoded packet
+   * @throws IllegalArgumentException if the opcode is unknown or the frame is truncated
+   */
+  public static Packet decode(ByteBuffer frame) {
+    int opcode = frame.get() & 0xFF;
+    PacketID id = PacketID.fromID(opcode);
+    Function<ByteBuffer, Packet> decoder = id == null ? null : decoders.get(id);
+    if (decoder == null) {
+      throw new IllegalArgumentException("Unknown packet opcode " + opcode);
+    }
+    try {
+      return decoder.apply(frame);
+    } catch (BufferUnderflowException e) {
+      throw new IllegalArgumentException("Truncated " + id + " packet", e);
+    }
+  }
+
+  /**
+   * Decodes a frame held in a byte array
+   *
+   * @param data Array holding the frame
+   * @param offset Start of the frame in the array
+   * @param length Length of the frame
+   * @return The decoded packet
+   */
+  public static Packet decode(byte[] data, int offset, int length) {
+    return decode(ByteBuffer.wrap(data, offset, length));
+  }
+
+  /**
+   * Gets a codec owned by the calling thread, for code that may encode from several threads
+   *
+   * @return The calling thread's codec
+   */
+  public static PacketCodec forThread() {
+    return threadCodec.get();
+  }
+
+  /**
+   * Encodes a packet into a new array using a codec owned by the calling thread
+   *
+   * @param packet Packet to encode
+   * @return Byte array of the frame
+   */
+  public static byte[] toByteArray(Packet packet) {
+    ByteBuffer frame = threadCodec.get().encode(packet);
+    byte[] data = new byte[frame.remaining()];
+    frame.get(data);
+    return data;
+  }
+
+  /**
+   * Encodes a packet into the reusable buffer of this codec. The returned buffer is only valid
+   * until the next call to encode.
+   *
+   * @param packet Packet to encode
+   * @return Buffer flipped and ready to be read or sent
+   */
+  public ByteBuffer encode(Packet packet) {
+    buffer.clear();
+    buffer.put((byte) packet.getPacketID());
+    packet.write(buffer);
+    buffer.flip();
+    return buffer;
+  }
+
+  // Helpers for the non primitive types packets send
+
+  public static void putUUID(ByteBuffer buffer, UUID uuid) {
+    buffer.putLong(uuid.getMostSignificantBits());
+    buffer.putLong(uuid.getLeastSignificantBits());
+  }
+
+  public static UUID getUUID(ByteBuffer buffer) {
+    return new UUID(buffer.getLong(), buffer.getLong());
+  }
+
+  public static void putBoolean(ByteBuffer buffer, boolean value) {
+    buffer.put((byte) (value ? 1 : 0));
+  }
+
+  public static boolean getBoolean(ByteBuffer buffer) {
+    return buffer.get() != 0;
+  }
+
+  /**
+   * Writes a string as its UTF-8 bytes prefixed by an unsigned short length
+   */
+  public static void putString(ByteBuffer buffer, String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    buffer.putShort((short) bytes.length);
+    buffer.put(bytes);
+  }
+
+  public static String getString(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
@@ -1,68 +1,152 @@
 package shared.packets;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.List;
-import java.util.UUID;
-import shared.gameObjects.GameObject;
 
 /**
- * Base packet for sending the game state from Server to Client
+ * Base packet for sending the game state from Server to Client. The state is sent as a delta
+ * against a baseline snapshot the client has acknowledged, or in full if there is no baseline.
  */
 public class PacketGameState extends Packet {
 
-  private HashMap<UUID, String> gameObjects;
+  /**
+   * Baseline sequence sent when the packet holds a full snapshot
+   */
+  public static final int NO_BASELINE = -1;
+
+  private Snapshot snapshot;
+  private Snapshot baseline;
+  private int sequence;
+  private int baselineSequence;
+  private ArrayList<ObjectState> changed;
+  private ArrayList<Integer> removed;
   private int lastProcessedInput;
-  private boolean update = false;
 
   /**
-   * Constructs a packet that can be sent to the client to update all the game objects in a map
+   * Constructs a packet that can be sent to a client to update all the game objects in a map
    *
-   * @param gameObjects The list of game objects available
-   * @param sendAll Whether to send all data (true) or to only send data that has been updated in
-   * the last frame (false)
+   * @param snapshot The current state of the game objects
+   * @param baseline The last snapshot acknowledged by the client, null to send the full snapshot
+   * @param lastProcessedInput Sequence number of the client's last input applied by the server
    */
-  public PacketGameState(ArrayList<GameObject> gameObjects, boolean sendAll) {
+  public PacketGameState(Snapshot snapshot, Snapshot baseline, int lastProcessedInput) {
     packetID = PacketID.GAMESTATE.getID();
-    data = "" + packetID + "," + lastProcessedInput;
-    for (GameObject object : gameObjects) {
-      if (object.getState() != "" && object.isNetworkStateUpdate() || sendAll) {
-        update = true;
-        data += "," + object.getState();
+    this.snapshot = snapshot;
+    this.baseline = baseline;
+    this.lastProcessedInput = lastProcessedInput;
+    sequence = snapshot.getSequence();
+    baselineSequence = baseline == null ? NO_BASELINE : baseline.getSequence();
+  }
+
+  /**
+   * Constructs a packet from a received frame to update a client's game objects
+   *
+   * @param buffer Packet body received from sender
+   */
+  public PacketGameState(ByteBuffer buffer) {
+    this.packetID = PacketID.GAMESTATE.getID();
+    sequence = buffer.getInt();
+    baselineSequence = buffer.getInt();
+    lastProcessedInput = buffer.getInt();
+    int count = buffer.getShort() & 0xFFFF;
+    changed = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      changed.add(new ObjectState(buffer));
+    }
+    count = buffer.getShort() & 0xFFFF;
+    removed = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      removed.add(buffer.getShort() & 0xFFFF);
+    }
+  }
+
+  @Override
+  public void write(ByteBuffer buffer) {
+    buffer.putInt(sequence);
+    buffer.putInt(baselineSequence);
+    buffer.putInt(lastProcessedInput);
+
+    //Objects that changed since the baseline, unchanged objects are left out
+    int countPosition = buffer.position();
+    buffer.putShort((short) 0);
+    int count = 0;
+    for (int i = 0; i < snapshot.size(); i++) {
+      ObjectState state = snapshot.getState(i);
+      int mask = state.diff(baseline == null ? null : baseline.get(state.getNetworkId()));
+      if (mask != 0) {
+        state.write(buffer, mask);
+        count++;
       }
     }
+    buffer.putShort(countPosition, (short) count);
+
+    //Objects in the baseline that no longer exist
+    countPosition = buffer.position();
+    buffer.putShort((short) 0);
+    count = 0;
+    if (baseline != null) {
+      for (int i = 0; i < baseline.size(); i++) {
+        ObjectState state = baseline.getState(i);
+        if (snapshot.get(state.getNetworkId()) == null) {
+          buffer.putShort((short) state.getNetworkId());
+          count++;
+        }
+      }
+    }
+    buffer.putShort(countPosition, (short) count);
   }
 
   /**
-   * Constructs a packet from received data to update a client's game objects
+   * Rebuilds the full snapshot the server sent by applying this delta to the baseline
    *
-   * @param data Packet data received from sender
+   * @param baseline The snapshot matching {@link #getBaselineSequence()}, null for a full snapshot
+   * @param target Empty snapshot to fill in
    */
-  public PacketGameState(String data) {
-    gameObjects = new HashMap<>();
-    List<String> dataFilter = new ArrayList<>(Arrays.asList(data.split(",")));
-    dataFilter.removeAll(Collections.singleton("null"));
-    dataFilter.removeAll(Collections.singleton(""));
-    String[] unpackedData = dataFilter.toArray(new String[0]);
-    this.packetID = Integer.parseInt(unpackedData[0]);
-    lastProcessedInput = Integer.parseInt(unpackedData[1]);
-    for (int i = 2; i < unpackedData.length; i++) {
-      String[] unpackedData2 = unpackedData[i].split(";");
-      gameObjects.put(UUID.fromString(unpackedData2[0]), unpackedData[i]);
+  public void rebuild(Snapshot baseline, Snapshot target) {
+    if (baseline != null) {
+      for (int i = 0; i < baseline.size(); i++) {
+        target.add(baseline.getState(i));
+      }
+      for (int networkId : removed) {
+        target.remove(networkId);
+      }
+    }
+    for (ObjectState state : changed) {
+      ObjectState full = target.get(state.getNetworkId());
+      if (full == null) {
+        full = target.add(state.getNetworkId(), state.getType());
+      }
+      state.applyTo(full);
     }
   }
 
-  public HashMap<UUID, String> getGameObjects() {
-    return gameObjects;
+  /**
+   * @return The states that changed since the baseline, holding only the changed fields
+   */
+  public ArrayList<ObjectState> getChanged() {
+    return changed;
   }
 
-  public int getLastProcessedInput() {
-    return lastProcessedInput;
+  public ArrayList<Integer> getRemoved() {
+    return removed;
+  }
+
+  public int getSequence() {
+    return sequence;
   }
 
-  public boolean isUpdate() {
-    return update;
+  public int getBaselineSequence() {
+    return baselineSequence;
+  }
+
+  public boolean isDelta() {
+    return baselineSequence != NO_BASELINE;
+  }
+
+  /**
+   * @return Sequence number of the client's last input applied by the server
+   */
+  public int getLastProcessedInput() {
+    return lastProcessedInput;
   }
 }
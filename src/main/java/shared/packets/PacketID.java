@@ -48,7 +48,17 @@ public enum PacketID {
   /**
    * Sends an achievement or money
    */
-  AWARD(10);
+  AWARD(10),
+  /**
+   * Acknowledges a game state snapshot
+   */
+  SNAPSHOTACK(11),
+  /**
+   * Spawns objects on the client
+   */
+  SPAWN(12);
+
+  private static final PacketID[] VALUES = values();
 
   private int packetID;
 
@@ -64,4 +74,19 @@ public enum PacketID {
   public int getID() {
     return this.packetID;
   }
+
+  /**
+   * Gets the PacketID matching an int value read from the network
+   *
+   * @param id The int value of the packet ID
+   * @return The matching PacketID, null if the value is unknown
+   */
+  public static PacketID fromID(int id) {
+    for (PacketID packetID : VALUES) {
+      if (packetID.packetID == id) {
+        return packetID;
+      }
+    }
+    return null;
+  }
 }
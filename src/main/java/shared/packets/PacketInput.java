@@ -1,5 +1,6 @@
 package shared.packets;
 
+import java.nio.ByteBuffer;
 import java.util.UUID;
 
 /**
@@ -7,6 +8,11 @@ import java.util.UUID;
  */
 public class PacketInput extends Packet {
 
+  /**
+   * Bit flags used to pack the key states into a single byte
+   */
+  private static final int LEFT = 1, RIGHT = 1 << 1, JUMP = 1 << 2, CLICK = 1 << 3, THROW = 1 << 4;
+
   private boolean leftKey, rightKey, jumpKey, click, throwKey;
   private double x, y;
   private UUID uuid;
@@ -43,67 +49,41 @@ public class PacketInput extends Packet {
     this.throwKey = throwKey;
     this.x = x;
     this.y = y;
-    this.inputSequenceNumber = inputSequenceNumber;
-
-    data =
-        packetID
-            + ","
-            + uuid
-            + ","
-            + x
-            + ","
-            + y
-            + ","
-            + leftKey
-            + ","
-            + rightKey
-            + ","
-            + jumpKey
-            + ","
-            + click
-            + ","
-            + throwKey
-            + ","
-            + inputCount;
+    this.inputSequenceNumber = inputCount;
   }
 
   /**
-   * Constructs a packet from a string of data
+   * Constructs a packet from a received frame
    *
-   * @param data Packet data received from sender
+   * @param buffer Packet body received from sender
    */
-  public PacketInput(String data) {
-    String[] unpackedData = data.split(",");
-    this.packetID = Integer.parseInt(unpackedData[0]);
-    this.uuid = UUID.fromString(unpackedData[1]);
-    this.x = Double.parseDouble(unpackedData[2]);
-    this.y = Double.parseDouble(unpackedData[3]);
-    this.leftKey = Boolean.parseBoolean(unpackedData[4]);
-    this.rightKey = Boolean.parseBoolean(unpackedData[5]);
-    this.jumpKey = Boolean.parseBoolean(unpackedData[6]);
-    this.click = Boolean.parseBoolean(unpackedData[7]);
-    this.throwKey = Boolean.parseBoolean(unpackedData[8]);
-    this.inputSequenceNumber = Integer.parseInt(unpackedData[9]);
-    this.data =
-        packetID
-            + ","
-            + uuid
-            + ","
-            + x
-            + ","
-            + y
-            + ","
-            + leftKey
-            + ","
-            + rightKey
-            + ","
-            + jumpKey
-            + ","
-            + click
-            + ","
-            + throwKey
-            + ","
-            + inputSequenceNumber;
+  public PacketInput(ByteBuffer buffer) {
+    this.packetID = PacketID.INPUT.getID();
+    this.uuid = PacketCodec.getUUID(buffer);
+    this.x = buffer.getDouble();
+    this.y = buffer.getDouble();
+    byte keys = buffer.get();
+    this.leftKey = (keys & LEFT) != 0;
+    this.rightKey = (keys & RIGHT) != 0;
+    this.jumpKey = (keys & JUMP) != 0;
+    this.click = (keys & CLICK) != 0;
+    this.throwKey = (keys & THROW) != 0;
+    this.inputSequenceNumber = buffer.getInt();
+  }
+
+  @Override
+  public void write(ByteBuffer buffer) {
+    PacketCodec.putUUID(buffer, uuid);
+    buffer.putDouble(x);
+    buffer.putDouble(y);
+    int keys = 0;
+    keys |= leftKey ? LEFT : 0;
+    keys |= rightKey ? RIGHT : 0;
+    keys |= jumpKey ? JUMP : 0;
+    keys |= click ? CLICK : 0;
+    keys |= throwKey ? THROW : 0;
+    buffer.put((byte) keys);
+    buffer.putInt(inputSequenceNumber);
   }
 
   public boolean isLeftKey() {
@@ -1,5 +1,6 @@
 package shared.packets;
 
+import java.nio.ByteBuffer;
 import java.util.UUID;
 
 public class PacketJoin extends Packet {
@@ -44,34 +45,49 @@ public class PacketJoin extends Packet {
     this.handLeftUUID = handLeftUUID;
     this.handRightUUID = handRightUUID;
     this.playerSkin = playerSkin;
-    data = packetID + "," + x + "," + y + "," + uuid + "," + username + "," + legLeftUUID + ","
-        + legRightUUID + "," + bodyUUID + "," + armLeftUUID + "," + armRightUUID + "," + headUUID
-        + "," + handLeftUUID + "," + handRightUUID + "," + playerSkin[0] + "," + playerSkin[1] + "," + playerSkin[2] + "," + playerSkin[3];
   }
 
   /**
-   * Constructs a packet from a string of data
+   * Constructs a packet from a received frame
    *
-   * @param data Packet data received from sender
+   * @param buffer Packet body received from sender
    */
-  public PacketJoin(String data) {
-    String[] unpackedData = data.split(",");
-    this.packetID = Integer.parseInt(unpackedData[0]);
-    this.x = Double.parseDouble(unpackedData[1]);
-    this.y = Double.parseDouble(unpackedData[2]);
-    this.uuid = UUID.fromString(unpackedData[3]);
-    this.username = unpackedData[4];
-    this.legLeftUUID = UUID.fromString(unpackedData[5]);
-    this.legRightUUID = UUID.fromString(unpackedData[6]);
-    this.bodyUUID = UUID.fromString(unpackedData[7]);
-    this.armLeftUUID = UUID.fromString(unpackedData[8]);
-    this.armRightUUID = UUID.fromString(unpackedData[9]);
-    this.headUUID = UUID.fromString(unpackedData[10]);
-    this.handLeftUUID = UUID.fromString(unpackedData[11]);
-    this.handRightUUID = UUID.fromString(unpackedData[12]);
+  public PacketJoin(ByteBuffer buffer) {
+    this.packetID = PacketID.JOIN.getID();
+    this.x = buffer.getDouble();
+    this.y = buffer.getDouble();
+    this.uuid = PacketCodec.getUUID(buffer);
+    this.username = PacketCodec.getString(buffer);
+    this.legLeftUUID = PacketCodec.getUUID(buffer);
+    this.legRightUUID = PacketCodec.getUUID(buffer);
+    this.bodyUUID = PacketCodec.getUUID(buffer);
+    this.armLeftUUID = PacketCodec.getUUID(buffer);
+    this.armRightUUID = PacketCodec.getUUID(buffer);
+    this.headUUID = PacketCodec.getUUID(buffer);
+    this.handLeftUUID = PacketCodec.getUUID(buffer);
+    this.handRightUUID = PacketCodec.getUUID(buffer);
     this.playerSkin = new int[4];
     for (int i = 0; i < 4; i++) {
-      playerSkin[i] = Integer.parseInt(unpackedData[13 + i]);
+      playerSkin[i] = buffer.getInt();
+    }
+  }
+
+  @Override
+  public void write(ByteBuffer buffer) {
+    buffer.putDouble(x);
+    buffer.putDouble(y);
+    PacketCodec.putUUID(buffer, uuid);
+    PacketCodec.putString(buffer, username);
+    PacketCodec.putUUID(buffer, legLeftUUID);
+    PacketCodec.putUUID(buffer, legRightUUID);
+    PacketCodec.putUUID(buffer, bodyUUID);
+    PacketCodec.putUUID(buffer, armLeftUUID);
+    PacketCodec.putUUID(buffer, armRightUUID);
+    PacketCodec.putUUID(buffer, headUUID);
+    PacketCodec.putUUID(buffer, handLeftUUID);
+    PacketCodec.putUUID(buffer, handRightUUID);
+    for (int i = 0; i < 4; i++) {
+      buffer.putInt(playerSkin[i]);
     }
   }
 
@@ -1,5 +1,7 @@
 package shared.packets;
 
+import java.nio.ByteBuffer;
+
 /**
  * Packet that alerts the server a game object has been deleted
  */
@@ -11,18 +13,21 @@ public class PacketMap extends Packet {
   public PacketMap(String map, boolean i) {
     packetID = PacketID.MAP.getID();
     this.map = map;
-    data = packetID + "," + map;
   }
 
   /**
-   * Constructs a packet from a string of data
+   * Constructs a packet from a received frame
    *
-   * @param data Packet data received from sender
+   * @param buffer Packet body received from sender
    */
-  public PacketMap(String data) {
-    String[] unpackedData = data.split(",");
-    this.packetID = Integer.parseInt(unpackedData[0]);
-    this.map = unpackedData[1];
+  public PacketMap(ByteBuffer buffer) {
+    this.packetID = PacketID.MAP.getID();
+    this.map = PacketCodec.getString(buffer);
+  }
+
+  @Override
+  public void write(ByteBuffer buffer) {
+    PacketCodec.putString(buffer, map);
   }
 
   public String getMap() {
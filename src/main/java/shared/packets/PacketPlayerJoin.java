@@ -1,5 +1,6 @@
 package shared.packets;
 
+import java.nio.ByteBuffer;
 import java.util.UUID;
 
 public class PacketPlayerJoin extends Packet {
@@ -16,21 +17,27 @@ public class PacketPlayerJoin extends Packet {
     this.y = y;
     this.uuid = uuid;
     this.username = username;
-    data = packetID + "," + x + "," + y + "," + uuid + "," + username;
   }
 
   /**
-   * Constructs a packet from a string of data
+   * Constructs a packet from a received frame
    *
-   * @param data Packet data received from sender
+   * @param buffer Packet body received from sender
    */
-  public PacketPlayerJoin(String data) {
-    String[] unpackedData = data.split(",");
-    this.packetID = Integer.parseInt(unpackedData[0]);
-    this.x = Double.parseDouble(unpackedData[1]);
-    this.y = Double.parseDouble(unpackedData[2]);
-    this.uuid = UUID.fromString(unpackedData[3]);
-    this.username = unpackedData[4];
+  public PacketPlayerJoin(ByteBuffer buffer) {
+    this.packetID = PacketID.PLAYERJOIN.getID();
+    this.x = buffer.getDouble();
+    this.y = buffer.getDouble();
+    this.uuid = PacketCodec.getUUID(buffer);
+    this.username = PacketCodec.getString(buffer);
+  }
+
+  @Override
+  public void write(ByteBuffer buffer) {
+    buffer.putDouble(x);
+    buffer.putDouble(y);
+    PacketCodec.putUUID(buffer, uuid);
+    PacketCodec.putString(buffer, username);
   }
 
   public double getX() {
@@ -1,33 +1,40 @@
 package shared.packets;
 
-import java.util.UUID;
+import java.nio.ByteBuffer;
 
 /**
  * Packet that alerts the server a game object has been deleted
  */
 public class PacketReSend extends Packet {
 
-  private UUID gameObject;
+  private int gameObject;
 
-
-  public PacketReSend(UUID gameObject) {
+  /**
+   * Constructor
+   *
+   * @param gameObject Network ID of the object to resend
+   */
+  public PacketReSend(int gameObject) {
     packetID = PacketID.RESEND.getID();
     this.gameObject = gameObject;
-    data = packetID + "," + gameObject;
   }
 
   /**
-   * Constructs a packet from a string of data
+   * Constructs a packet from a received frame
    *
-   * @param data Packet data received from sender
+   * @param buffer Packet body received from sender
    */
-  public PacketReSend(String data) {
-    String[] unpackedData = data.split(",");
-    this.packetID = Integer.parseInt(unpackedData[0]);
-    this.gameObject = UUID.fromString(unpackedData[1]);
+  public PacketReSend(ByteBuffer buffer) {
+    this.packetID = PacketID.RESEND.getID();
+    this.gameObject = buffer.getShort() & 0xFFFF;
+  }
+
+  @Override
+  public void write(ByteBuffer buffer) {
+    buffer.putShort((short) gameObject);
   }
 
-  public UUID getGameobject() {
+  public int getGameobject() {
     return gameObject;
   }
 }
@@ -0,0 +1,67 @@
+package shared.packets;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Packet that tells the server the latest game state snapshot a client has received, so it can be
+ * used as the baseline for the next delta, or that the client needs the next game state in full as
+ * it lost the baseline of a delta. It also acknowledges the reliable channel.
+ */
+public class PacketSnapshotAck extends Packet {
+
+  private int sequence;
+  private int reliableExpected;
+  private int reliableReceived;
+
+  /**
+   * Constructor
+   *
+   * @param sequence Sequence of the latest snapshot received, or {@link
+   * PacketGameState#NO_BASELINE} to ask for the next game state in full
+   * @param reliableAcknowledgement Value from {@link ReliableReceiver#getAcknowledgement()}
+   */
+  public PacketSnapshotAck(int sequence, long reliableAcknowledgement) {
+    packetID = PacketID.SNAPSHOTACK.getID();
+    this.sequence = sequence;
+    this.reliableExpected = (int) (reliableAcknowledgement >>> 32);
+    this.reliableReceived = (int) reliableAcknowledgement;
+  }
+
+  /**
+   * Constructs a packet from a received frame
+   *
+   * @param buffer Packet body received from sender
+   */
+  public PacketSnapshotAck(ByteBuffer buffer) {
+    this.packetID = PacketID.SNAPSHOTACK.getID();
+    this.sequence = buffer.getInt();
+    this.reliableExpected = buffer.getShort() & 0xFFFF;
+    this.reliableReceived = buffer.getInt();
+  }
+
+  @Override
+  public void write(ByteBuffer buffer) {
+    buffer.putInt(sequence);
+    buffer.putShort((short) reliableExpected);
+    buffer.putInt(reliableReceived);
+  }
+
+  /**
+   * @return True if the client asks for the next game state in full
+   */
+  public boolean isFullRequest() {
+    return sequence == PacketGameState.NO_BASELINE;
+  }
+
+  public int getSequence() {
+    return sequence;
+  }
+
+  public int getReliableExpected() {
+    return reliableExpected;
+  }
+
+  public int getReliableReceived() {
+    return reliableReceived;
+  }
+}
@@ -0,0 +1,58 @@
+package shared.packets;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import shared.gameObjects.GameObject;
+import shared.handlers.levelHandler.SpawnRegistry;
+
+/**
+ * Packet telling the clients about objects the server has spawned, holding a spawn descriptor for
+ * each of them so a whole map can be spawned with a few packets
+ */
+public class PacketSpawn extends Packet {
+
+  /**
+   * The most objects sent in one packet, keeping the packet well inside the largest frame
+   */
+  public static final int MAX_SPAWNS = 128;
+
+  private Collection<GameObject> gameObjects;
+  private ArrayList<SpawnDescriptor> spawns;
+
+  /**
+   * Constructor
+   *
+   * @param gameObjects Objects to spawn, no more than {@link #MAX_SPAWNS}
+   */
+  public PacketSpawn(Collection<GameObject> gameObjects) {
+    packetID = PacketID.SPAWN.getID();
+    this.gameObjects = gameObjects;
+  }
+
+  /**
+   * Constructs a packet from a received frame
+   *
+   * @param buffer Packet body received from sender
+   */
+  public PacketSpawn(ByteBuffer buffer) {
+    packetID = PacketID.SPAWN.getID();
+    int count = buffer.getShort() & 0xFFFF;
+    spawns = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      spawns.add(new SpawnDescriptor(buffer));
+    }
+  }
+
+  @Override
+  public void write(ByteBuffer buffer) {
+    buffer.putShort((short) gameObjects.size());
+    for (GameObject gameObject : gameObjects) {
+      SpawnRegistry.write(gameObject, buffer);
+    }
+  }
+
+  public ArrayList<SpawnDescriptor> getSpawns() {
+    return spawns;
+  }
+}
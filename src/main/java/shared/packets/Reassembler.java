@@ -0,0 +1,99 @@
+package shared.packets;
+
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+
+/**
+ * Puts together messages split into datagrams by a {@link Framer}. Fragments may arrive in any
+ * order; a message whose fragments do not all arrive is dropped once its slot is needed by a newer
+ * message. Single datagram messages are returned without copying.
+ */
+public class Reassembler {
+
+  /**
+   * Number of partially received messages that can be held at once
+   */
+  public static final int SLOTS = 16;
+
+  private final Slot[] slots = new Slot[SLOTS];
+
+  public Reassembler() {
+    for (int i = 0; i < SLOTS; i++) {
+      slots[i] = new Slot();
+    }
+  }
+
+  /**
+   * Adds a received datagram
+   *
+   * @param datagram Buffer holding the datagram between its position and limit
+   * @return The complete message between its position and limit, or null if the message is not
+   * complete yet or the datagram is malformed. Only valid until the next call.
+   */
+  public ByteBuffer accept(ByteBuffer datagram) {
+    if (datagram.remaining() < Framer.HEADER_SIZE) {
+      return null;
+    }
+    int start = datagram.position();
+    int sequence = datagram.getShort(start + 1) & 0xFFFF;
+    int index = datagram.getShort(start + 3) & 0xFFFF;
+    int count = datagram.getShort(start + 5) & 0xFFFF;
+    if (count == 0 || count > Framer.MAX_FRAGMENTS || index >= count) {
+      return null;
+    }
+    ByteBuffer body = datagram.duplicate();
+    body.position(start + Framer.HEADER_SIZE);
+    if (count == 1) {
+      return body;
+    }
+    if (body.remaining() > Framer.MAX_FRAGMENT_SIZE
+        || (index < count - 1 && body.remaining() != Framer.MAX_FRAGMENT_SIZE)) {
+      return null;
+    }
+
+    Slot slot = slots[sequence % SLOTS];
+    if (slot.sequence != sequence || slot.count != count) {
+      slot.reset(sequence, count);
+    }
+    if (slot.received.get(index)) {
+      return null;
+    }
+    slot.received.set(index);
+    int offset = index * Framer.MAX_FRAGMENT_SIZE;
+    slot.ensureCapacity(offset + body.remaining());
+    if (index == count - 1) {
+      slot.length = offset + body.remaining();
+    }
+    body.get(slot.data, offset, body.remaining());
+    if (slot.received.cardinality() < count) {
+      return null;
+    }
+    ByteBuffer message = ByteBuffer.wrap(slot.data, 0, slot.length);
+    slot.reset(-1, 0);
+    return message;
+  }
+
+  private static class Slot {
+
+    private final BitSet received = new BitSet();
+    private byte[] data = new byte[Framer.MAX_FRAGMENT_SIZE * 4];
+    private int sequence = -1;
+    private int count;
+    private int length;
+
+    private void reset(int sequence, int count) {
+      this.sequence = sequence;
+      this.count = count;
+      length = 0;
+      received.clear();
+    }
+
+    private void ensureCapacity(int capacity) {
+      if (capacity > data.length) {
+        byte[] grown = new byte[Math.max(capacity, data.length * 2)];
+        System.arraycopy(data, 0, grown, 0, data.length);
+        data = grown;
+      }
+    }
+  }
+}
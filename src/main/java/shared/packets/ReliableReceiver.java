@@ -0,0 +1,90 @@
+package shared.packets;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Receiving side of a reliable ordered channel. Messages are delivered exactly once and in
+ * sequence order; messages that arrive early are held until the gap before them is filled.
+ */
+public class ReliableReceiver {
+
+  /**
+   * How far ahead of the next expected sequence a message can be held
+   */
+  public static final int WINDOW = 256;
+
+  /**
+   * Receives each message delivered by the channel
+   */
+  public interface Delivery {
+
+    /**
+     * @param type Framer type of the message
+     * @param message Buffer holding the message; only valid until the method returns
+     */
+    void deliver(byte type, ByteBuffer message);
+  }
+
+  private final byte[][] held = new byte[WINDOW][];
+  private final byte[] heldTypes = new byte[WINDOW];
+  private int expected;
+  private volatile long acknowledgement;
+
+  /**
+   * Receives a message body sent by a {@link ReliableSender}
+   *
+   * @param body Buffer holding the body between its position and limit
+   * @param delivery Receives the messages that are now in order
+   */
+  public void receive(ByteBuffer body, Delivery delivery) {
+    if (body.remaining() < ReliableSender.HEADER_SIZE) {
+      return;
+    }
+    int ahead = (short) ((body.getShort() & 0xFFFF) - (expected & 0xFFFF));
+    byte type = body.get();
+    if (ahead < 0 || ahead >= WINDOW) {
+      //Already delivered, or too far ahead to hold; it will be resent
+      updateAcknowledgement();
+      return;
+    }
+    if (ahead == 0) {
+      delivery.deliver(type, body);
+      expected++;
+      int slot = expected % WINDOW;
+      while (held[slot] != null) {
+        delivery.deliver(heldTypes[slot], ByteBuffer.wrap(held[slot]));
+        held[slot] = null;
+        expected++;
+        slot = expected % WINDOW;
+      }
+    } else {
+      int slot = (expected + ahead) % WINDOW;
+      if (held[slot] == null) {
+        held[slot] = new byte[body.remaining()];
+        heldTypes[slot] = type;
+        body.get(held[slot]);
+      }
+    }
+    updateAcknowledgement();
+  }
+
+  private void updateAcknowledgement() {
+    int received = 0;
+    for (int i = 0; i < 32; i++) {
+      if (held[(expected + 1 + i) % WINDOW] != null) {
+        received |= 1 << i;
+      }
+    }
+    acknowledgement = ((long) (expected & 0xFFFF) << 32) | (received & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Gets what to acknowledge as one value, so another thread reads a consistent pair
+   *
+   * @return The next sequence expected in the high 32 bits; the low 32 bits have bit i set if
+   * sequence expected + 1 + i is held
+   */
+  public long getAcknowledgement() {
+    return acknowledgement;
+  }
+}
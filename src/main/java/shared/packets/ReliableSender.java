@@ -0,0 +1,94 @@
+package shared.packets;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Sending side of a reliable ordered channel. Each message is given the next channel sequence and
+ * kept until the receiver acknowledges it, being sent again whenever the resend interval passes.
+ * Message bodies are: sequence (unsigned short), message type, then the message.
+ */
+public class ReliableSender {
+
+  /**
+   * Time to wait for an acknowledgement before sending a message again
+   */
+  public static final long RESEND_INTERVAL = 200;
+  /**
+   * Size of the body header in front of each message
+   */
+  public static final int HEADER_SIZE = 3;
+
+  private final ArrayDeque<Pending> pending = new ArrayDeque<>();
+  private int nextSequence;
+
+  /**
+   * Sends a message on the channel
+   *
+   * @param type Framer type of the message
+   * @param message Buffer holding the message between its position and limit; left unchanged
+   * @param now Current time in milliseconds
+   * @param out Receives the body to send
+   */
+  public void send(byte type, ByteBuffer message, long now, Consumer<ByteBuffer> out) {
+    ByteBuffer body = ByteBuffer.allocate(HEADER_SIZE + message.remaining());
+    body.putShort((short) nextSequence).put(type).put(message.duplicate()).flip();
+    Pending sent = new Pending(nextSequence & 0xFFFF, body, now);
+    nextSequence++;
+    pending.add(sent);
+    out.accept(body.duplicate());
+  }
+
+  /**
+   * Sends again every message that has waited longer than the resend interval
+   *
+   * @param now Current time in milliseconds
+   * @param out Receives each body to send
+   */
+  public void resend(long now, Consumer<ByteBuffer> out) {
+    for (Pending message : pending) {
+      if (now - message.sent >= RESEND_INTERVAL) {
+        message.sent = now;
+        out.accept(message.body.duplicate());
+      }
+    }
+  }
+
+  /**
+   * Removes the messages the receiver has acknowledged
+   *
+   * @param expected Next sequence the receiver is waiting for; everything before has arrived
+   * @param received Bit i is set if sequence expected + 1 + i has arrived out of order
+   */
+  public void acknowledge(int expected, int received) {
+    Iterator<Pending> iterator = pending.iterator();
+    while (iterator.hasNext()) {
+      int ahead = (short) (iterator.next().sequence - expected);
+      if (ahead < 0 || (ahead > 0 && ahead <= 32 && (received & (1 << (ahead - 1))) != 0)) {
+        iterator.remove();
+      }
+    }
+  }
+
+  /**
+   * @return Number of messages not yet acknowledged
+   */
+  public int getPendingCount() {
+    return pending.size();
+  }
+
+  private static class Pending {
+
+    private final int sequence;
+    private final ByteBuffer body;
+    private long sent;
+
+    private Pending(int sequence, ByteBuffer body, long sent) {
+      this.sequence = sequence;
+      this.body = body;
+      this.sent = sent;
+    }
+  }
+}
@@ -0,0 +1,131 @@
+package shared.packets;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import shared.gameObjects.Utils.ObjectType;
+import shared.handlers.levelHandler.NetworkIdTable;
+
+/**
+ * The networked state of every game object at one server tick. States are looked up in an array
+ * indexed by network ID and listed in a second array, and are pooled, so a snapshot can be refilled
+ * each tick without allocating.
+ */
+public class Snapshot {
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  /**
+   * The state of each object, indexed by network ID
+   */
+  private ObjectState[] byId = new ObjectState[INITIAL_CAPACITY];
+  /**
+   * Where each object's state is in {@link #states}, indexed by network ID
+   */
+  private int[] indices = new int[INITIAL_CAPACITY];
+  private ObjectState[] states = new ObjectState[INITIAL_CAPACITY];
+  private int size = 0;
+  private final ArrayList<ObjectState> pool = new ArrayList<>();
+  private int sequence = -1;
+
+  /**
+   * Empties the snapshot so it can be reused for a new tick
+   *
+   * @param sequence Sequence number of the new tick
+   */
+  public void clear(int sequence) {
+    this.sequence = sequence;
+    for (int i = 0; i < size; i++) {
+      ObjectState state = states[i];
+      byId[state.getNetworkId()] = null;
+      pool.add(state);
+      states[i] = null;
+    }
+    size = 0;
+  }
+
+  /**
+   * Adds an empty state for an object to the snapshot, replacing any state it had
+   *
+   * @param networkId Network ID of the object
+   * @param type Type of the object
+   * @return The state to be filled in
+   */
+  public ObjectState add(int networkId, ObjectType type) {
+    if (networkId < 0 || networkId > NetworkIdTable.MAX_ID) {
+      throw new IllegalArgumentException("Network ID " + networkId + " is out of range");
+    }
+    if (networkId >= byId.length) {
+      int capacity = byId.length;
+      while (capacity <= networkId) {
+        capacity *= 2;
+      }
+      byId = Arrays.copyOf(byId, capacity);
+      indices = Arrays.copyOf(indices, capacity);
+    }
+    remove(networkId);
+    if (size == states.length) {
+      states = Arrays.copyOf(states, size * 2);
+    }
+    ObjectState state = pool.isEmpty() ? new ObjectState() : pool.remove(pool.size() - 1);
+    state.reset(networkId, type);
+    byId[networkId] = state;
+    indices[networkId] = size;
+    states[size++] = state;
+    return state;
+  }
+
+  /**
+   * Adds a copy of a state to the snapshot
+   *
+   * @param other State to copy
+   * @return The copied state
+   */
+  public ObjectState add(ObjectState other) {
+    ObjectState state = add(other.getNetworkId(), other.getType());
+    state.set(other);
+    return state;
+  }
+
+  /**
+   * @return The state of an object, null if the snapshot has none
+   */
+  public ObjectState get(int networkId) {
+    return networkId >= 0 && networkId < byId.length ? byId[networkId] : null;
+  }
+
+  /**
+   * Removes an object from the snapshot
+   *
+   * @param networkId Network ID of the object
+   */
+  public void remove(int networkId) {
+    ObjectState state = get(networkId);
+    if (state == null) {
+      return;
+    }
+    byId[networkId] = null;
+    //The last state is moved into the gap
+    int index = indices[networkId];
+    ObjectState last = states[--size];
+    states[index] = last;
+    indices[last.getNetworkId()] = index;
+    states[size] = null;
+    pool.add(state);
+  }
+
+  /**
+   * @param index Index of the state, below {@link #size()}
+   * @return The state at that index; indices change as states are removed
+   */
+  public ObjectState getState(int index) {
+    return states[index];
+  }
+
+  public int getSequence() {
+    return sequence;
+  }
+
+  public int size() {
+    return size;
+  }
+}
@@ -0,0 +1,70 @@
+package shared.packets;
+
+/**
+ * Ring of the most recent snapshots, used as the baselines that game state deltas are encoded
+ * against. Slots are reused once the ring wraps around.
+ */
+public class SnapshotBuffer {
+
+  /**
+   * Number of snapshots kept by default; a baseline older than this has to be resent in full
+   */
+  public static final int DEFAULT_CAPACITY = 32;
+
+  private final Snapshot[] snapshots;
+
+  public SnapshotBuffer() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Constructs a ring holding a fixed number of snapshots
+   *
+   * @param capacity Number of snapshots to keep
+   */
+  public SnapshotBuffer(int capacity) {
+    snapshots = new Snapshot[capacity];
+    for (int i = 0; i < capacity; i++) {
+      snapshots[i] = new Snapshot();
+    }
+  }
+
+  /**
+   * Gets an empty snapshot for a new sequence, overwriting the oldest one in the ring
+   *
+   * @param sequence Sequence number of the new snapshot
+   * @return The cleared snapshot
+   */
+  public Snapshot next(int sequence) {
+    Snapshot snapshot = snapshots[Math.floorMod(sequence, snapshots.length)];
+    snapshot.clear(sequence);
+    return snapshot;
+  }
+
+  /**
+   * Gets a snapshot if it is still held in the ring
+   *
+   * @param sequence Sequence number of the snapshot
+   * @return The snapshot, or null if it was never stored or has been overwritten
+   */
+  public Snapshot get(int sequence) {
+    if (sequence < 0) {
+      return null;
+    }
+    Snapshot snapshot = snapshots[Math.floorMod(sequence, snapshots.length)];
+    return snapshot.getSequence() == sequence ? snapshot : null;
+  }
+
+  /**
+   * Empties every snapshot in the ring
+   */
+  public void clear() {
+    for (Snapshot snapshot : snapshots) {
+      snapshot.clear(-1);
+    }
+  }
+
+  public int capacity() {
+    return snapshots.length;
+  }
+}
@@ -0,0 +1,116 @@
+package shared.packets;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import shared.gameObjects.Utils.ObjectType;
+
+/**
+ * Compact record describing an object the server has spawned, from which the client rebuilds the
+ * object with the factory registered for its kind. Records are written as: kind, type, network ID,
+ * UUID, position, size, then the type specific parameters prefixed by their length.
+ */
+public class SpawnDescriptor {
+
+  private static final ObjectType[] TYPES = ObjectType.values();
+
+  private final int kind;
+  private final ObjectType type;
+  private final int networkId;
+  private final UUID uuid;
+  private final float x;
+  private final float y;
+  private final float sizeX;
+  private final float sizeY;
+  private final ByteBuffer params;
+
+  /**
+   * Reads a record, leaving the buffer positioned at the start of the next one
+   *
+   * @param buffer Buffer positioned at the start of the record
+   */
+  public SpawnDescriptor(ByteBuffer buffer) {
+    kind = buffer.getShort() & 0xFFFF;
+    type = TYPES[buffer.get()];
+    networkId = buffer.getShort() & 0xFFFF;
+    uuid = PacketCodec.getUUID(buffer);
+    x = buffer.getFloat();
+    y = buffer.getFloat();
+    sizeX = buffer.getFloat();
+    sizeY = buffer.getFloat();
+    int length = buffer.getShort() & 0xFFFF;
+    ByteBuffer slice = buffer.duplicate();
+    slice.limit(slice.position() + length);
+    params = slice.slice();
+    buffer.position(buffer.position() + length);
+  }
+
+  /**
+   * Writes everything but the parameters of a record
+   *
+   * @return Position of the parameter length, to be passed to {@link #endParams(ByteBuffer, int)}
+   * once the parameters are written
+   */
+  public static int writeHeader(ByteBuffer buffer, int kind, ObjectType type, int networkId,
+      UUID uuid, float x, float y, float sizeX, float sizeY) {
+    buffer.putShort((short) kind);
+    buffer.put((byte) type.ordinal());
+    buffer.putShort((short) networkId);
+    PacketCodec.putUUID(buffer, uuid);
+    buffer.putFloat(x);
+    buffer.putFloat(y);
+    buffer.putFloat(sizeX);
+    buffer.putFloat(sizeY);
+    int lengthPosition = buffer.position();
+    buffer.putShort((short) 0);
+    return lengthPosition;
+  }
+
+  /**
+   * Fills in the length of the parameters written since the header
+   *
+   * @param buffer Buffer positioned at the end of the parameters
+   * @param lengthPosition Position returned by the header
+   */
+  public static void endParams(ByteBuffer buffer, int lengthPosition) {
+    buffer.putShort(lengthPosition, (short) (buffer.position() - lengthPosition - 2));
+  }
+
+  public int getKind() {
+    return kind;
+  }
+
+  public ObjectType getType() {
+    return type;
+  }
+
+  public int getNetworkId() {
+    return networkId;
+  }
+
+  public UUID getUUID() {
+    return uuid;
+  }
+
+  public float getX() {
+    return x;
+  }
+
+  public float getY() {
+    return y;
+  }
+
+  public float getSizeX() {
+    return sizeX;
+  }
+
+  public float getSizeY() {
+    return sizeY;
+  }
+
+  /**
+   * @return The type specific parameters, read by the factory of the kind
+   */
+  public ByteBuffer getParams() {
+    return params;
+  }
+}
@@ -0,0 +1,566 @@
+package shared.physics;
+
+import java.util.Arrays;
+import java.util.Collection;
+import shared.gameObjects.GameObject;
+import shared.gameObjects.components.ComponentType;
+import shared.gameObjects.components.Rigidbody;
+
+/**
+ * The motion of many rigidbodies, held in one primitive array per value and indexed by body id, so
+ * stepping the bodies reads memory in order rather than following vectors through each component.
+ * A world keeps the bodies of its objects in one store. A body in no world, such as one being
+ * built, left behind by a world or simulated by the AI, is in no store: its slot holds its motion
+ * itself, so only whoever handles that body ever touches it.
+ *
+ * <p>Bodies are reached through {@link Slot}s, which stay fixed while a body is in a store. Only
+ * the world's thread adds bodies to its store or writes their motion; other threads, such as the
+ * AI reading the bodies it simulates against, may only read. A read racing the store growing sees
+ * the value from before it grew. A slot let go when its body leaves the store keeps that body's
+ * last values until the store's next {@link #update(Collection)}, as ids freed in one update are
+ * only handed out again from the next.
+ */
+public final class BodyStore {
+
+  private float[] velocityX;
+  private float[] velocityY;
+  private float[] accelerationX;
+  private float[] accelerationY;
+  private float[] lastAccelerationX;
+  private float[] lastAccelerationY;
+  /**
+   * Force summed for the next step
+   */
+  private float[] forceX;
+  private float[] forceY;
+  /**
+   * Distance queued by moves for the next step
+   */
+  private float[] moveX;
+  private float[] moveY;
+  /**
+   * Distance the body moved in its last step
+   */
+  private float[] stepX;
+  private float[] stepY;
+  private float[] mass;
+  private float[] invMass;
+  private float[] gravityScale;
+  private float[] airDrag;
+
+  private Slot[] slots;
+  /**
+   * Pass each body was last seen in by {@link #update(Collection)}
+   */
+  private int[] seen;
+  private int pass = 0;
+  /**
+   * Bodies being stepped by {@link #step()}
+   */
+  private boolean[] stepping;
+  /**
+   * Ids below this have been handed out; of those freed, the free ones can be handed out again and
+   * the freed ones only from the next update
+   */
+  private int used = 0;
+  private int[] freeIds;
+  private int free = 0;
+  private int[] freedIds;
+  private int freed = 0;
+
+  /**
+   * Constructs an empty store
+   */
+  public BodyStore() {
+    this(16);
+  }
+
+  /**
+   * Constructs an empty store
+   *
+   * @param capacity Bodies the store holds before growing
+   */
+  public BodyStore(int capacity) {
+    resize(Math.max(1, capacity));
+  }
+
+  /**
+   * Makes a slot for a body in no world, holding the body's motion itself
+   *
+   * @param body Body the slot is for
+   * @return The body's slot, at rest and with no mass
+   */
+  public static Slot detached(Rigidbody body) {
+    return new Slot(null, -1, body);
+  }
+
+  /**
+   * Adds a body to the store, at rest and with no mass
+   *
+   * @param body Body to add
+   * @return The body's slot
+   */
+  public Slot add(Rigidbody body) {
+    int id;
+    if (free > 0) {
+      id = freeIds[--free];
+    } else {
+      if (used == slots.length) {
+        resize(used * 2);
+      }
+      id = used++;
+    }
+    velocityX[id] = 0;
+    velocityY[id] = 0;
+    accelerationX[id] = 0;
+    accelerationY[id] = 0;
+    lastAccelerationX[id] = 0;
+    lastAccelerationY[id] = 0;
+    forceX[id] = 0;
+    forceY[id] = 0;
+    moveX[id] = 0;
+    moveY[id] = 0;
+    stepX[id] = 0;
+    stepY[id] = 0;
+    mass[id] = 0;
+    invMass[id] = 0;
+    gravityScale[id] = 0;
+    airDrag[id] = 0;
+    seen[id] = pass;
+    Slot slot = new Slot(this, id, body);
+    slots[id] = slot;
+    return slot;
+  }
+
+  /**
+   * Frees a body's id, to be handed out again from the next update
+   */
+  private void remove(int id) {
+    slots[id] = null;
+    freedIds[freed++] = id;
+  }
+
+  /**
+   * Takes in the bodies of a world's objects and lets go of those no longer in it, each body let go
+   * holding its motion in its own slot again. Ids freed by the last update are handed out again
+   * from this one.
+   *
+   * @param objects Every object in the world
+   */
+  public void update(Collection<GameObject> objects) {
+    System.arraycopy(freedIds, 0, freeIds, free, freed);
+    free += freed;
+    freed = 0;
+    pass++;
+    for (GameObject object : objects) {
+      Rigidbody body = (Rigidbody) object.getComponent(ComponentType.RIGIDBODY);
+      if (body == null) {
+        continue;
+      }
+      Slot slot = body.getSlot();
+      if (slot.store != this) {
+        slot = slot.moveTo(this);
+        body.setSlot(slot);
+      }
+      seen[slot.id] = pass;
+    }
+    for (int id = 0; id < used; id++) {
+      Slot slot = slots[id];
+      if (slot != null && seen[id] != pass) {
+        slot.body.setSlot(slot.moveTo(null));
+      }
+    }
+  }
+
+  /**
+   * @return Bodies in the store
+   */
+  public int size() {
+    return used - free - freed;
+  }
+
+  private void resize(int capacity) {
+    velocityX = grow(velocityX, capacity);
+    velocityY = grow(velocityY, capacity);
+    accelerationX = grow(accelerationX, capacity);
+    accelerationY = grow(accelerationY, capacity);
+    lastAccelerationX = grow(lastAccelerationX, capacity);
+    lastAccelerationY = grow(lastAccelerationY, capacity);
+    forceX = grow(forceX, capacity);
+    forceY = grow(forceY, capacity);
+    moveX = grow(moveX, capacity);
+    moveY = grow(moveY, capacity);
+    stepX = grow(stepX, capacity);
+    stepY = grow(stepY, capacity);
+    mass = grow(mass, capacity);
+    invMass = grow(invMass, capacity);
+    gravityScale = grow(gravityScale, capacity);
+    airDrag = grow(airDrag, capacity);
+    slots = slots == null ? new Slot[capacity] : Arrays.copyOf(slots, capacity);
+    seen = seen == null ? new int[capacity] : Arrays.copyOf(seen, capacity);
+    stepping = stepping == null ? new boolean[capacity] : Arrays.copyOf(stepping, capacity);
+    freeIds = freeIds == null ? new int[capacity] : Arrays.copyOf(freeIds, capacity);
+    freedIds = freedIds == null ? new int[capacity] : Arrays.copyOf(freedIds, capacity);
+  }
+
+  private static float[] grow(float[] values, int capacity) {
+    return values == null ? new float[capacity] : Arrays.copyOf(values, capacity);
+  }
+
+  /**
+   * Steps every body due a step this update together: the forces on each are summed, then the
+   * bodies are integrated in one pass over the arrays, then each object is moved by its body's
+   * step. Run once the update's collisions have been checked, before the objects are updated.
+   */
+  public void step() {
+    int used = this.used;
+    Slot[] slots = this.slots;
+    boolean[] stepping = this.stepping;
+    for (int id = 0; id < used; id++) {
+      Slot slot = slots[id];
+      stepping[id] = slot != null && slot.body.prepareStep();
+    }
+    integrate(0, used, stepping);
+    for (int id = 0; id < used; id++) {
+      if (stepping[id]) {
+        slots[id].body.finishStep();
+      }
+    }
+  }
+
+  /**
+   * Steps the motion of dynamic bodies by one update under the force summed for each, leaving the
+   * distance each moved in its step
+   *
+   * @param from First id stepped
+   * @param to Id after the last stepped
+   * @param only Ids in the range to step, or null to step them all
+   */
+  private void integrate(int from, int to, boolean[] only) {
+    float[] velocityX = this.velocityX;
+    float[] velocityY = this.velocityY;
+    float[] accelerationX = this.accelerationX;
+    float[] accelerationY = this.accelerationY;
+    float[] lastAccelerationX = this.lastAccelerationX;
+    float[] lastAccelerationY = this.lastAccelerationY;
+    float[] forceX = this.forceX;
+    float[] forceY = this.forceY;
+    float[] moveX = this.moveX;
+    float[] moveY = this.moveY;
+    float[] stepX = this.stepX;
+    float[] stepY = this.stepY;
+    float[] mass = this.mass;
+    float dt = Physics.TIMESTEP;
+    float dtSquared = dt * dt;
+    for (int id = from; id < to; id++) {
+      if (only != null && !only[id]) {
+        continue;
+      }
+      lastAccelerationX[id] = accelerationX[id];
+      lastAccelerationY[id] = accelerationY[id];
+      float ax = (lastAccelerationX[id] + forceX[id] / mass[id]) / 2;
+      float ay = (lastAccelerationY[id] + forceY[id] / mass[id]) / 2;
+      accelerationX[id] = ax;
+      accelerationY[id] = ay;
+
+      float vx = slow(velocityX[id] + ax * dt);
+      float vy = velocityY[id] + ay * dt;
+      velocityX[id] = vx;
+      velocityY[id] = vy;
+
+      stepX[id] = moveX[id] + (vx * dt + ax * 0.5f * dtSquared);
+      stepY[id] = moveY[id] + (vy * dt + ay * 0.5f * dtSquared);
+      moveX[id] = 0;
+      moveY[id] = 0;
+    }
+  }
+
+  /**
+   * Slows a body's sideways velocity by the friction every body moves against
+   */
+  private static float slow(float vx) {
+    if (Math.abs(vx) < Physics.X_THRESHOLD) {
+      return 0;
+    }
+    return vx + (vx > 0 ? -Physics.X_THRESHOLD : Physics.X_THRESHOLD);
+  }
+
+  /**
+   * A body's place in a store, through which its motion is read and changed. The slot of a body in
+   * no store holds the body's motion itself.
+   */
+  public static final class Slot {
+
+    private static final int VELOCITY_X = 0;
+    private static final int VELOCITY_Y = 1;
+    private static final int ACCELERATION_X = 2;
+    private static final int ACCELERATION_Y = 3;
+    private static final int LAST_ACCELERATION_X = 4;
+    private static final int LAST_ACCELERATION_Y = 5;
+    private static final int FORCE_X = 6;
+    private static final int FORCE_Y = 7;
+    private static final int MOVE_X = 8;
+    private static final int MOVE_Y = 9;
+    private static final int STEP_X = 10;
+    private static final int STEP_Y = 11;
+    private static final int MASS = 12;
+    private static final int INV_MASS = 13;
+    private static final int GRAVITY_SCALE = 14;
+    private static final int AIR_DRAG = 15;
+    private static final int VALUES = 16;
+
+    private final BodyStore store;
+    private final int id;
+    private final Rigidbody body;
+    /**
+     * The body's motion, if it is in no store
+     */
+    private final float[] own;
+
+    private Slot(BodyStore store, int id, Rigidbody body) {
+      this.store = store;
+      this.id = id;
+      this.body = body;
+      own = store == null ? new float[VALUES] : null;
+    }
+
+    /**
+     * Moves the body to another store, or out of its store, taking its motion with it
+     *
+     * @param to Store moved to, or null to hold the motion in the body's own slot
+     * @return The body's new slot
+     */
+    private Slot moveTo(BodyStore to) {
+      Slot slot = to == null ? detached(body) : to.add(body);
+      slot.setVelocity(getVelocityX(), getVelocityY());
+      slot.setAcceleration(getAccelerationX(), getAccelerationY());
+      slot.setLastAcceleration(getLastAccelerationX(), getLastAccelerationY());
+      slot.setForce(getForceX(), getForceY());
+      slot.setMove(getMoveX(), getMoveY());
+      slot.setStep(getStepX(), getStepY());
+      slot.setMass(getMass());
+      slot.setInvMass(getInvMass());
+      slot.setGravityScale(getGravityScale());
+      slot.setAirDrag(getAirDrag());
+      if (store != null) {
+        store.remove(id);
+      }
+      return slot;
+    }
+
+    /**
+     * Steps the body by one update under the force set for it
+     */
+    public void integrate() {
+      float[] own = this.own;
+      if (own == null) {
+        store.integrate(id, id + 1, null);
+        return;
+      }
+      float dt = Physics.TIMESTEP;
+      float dtSquared = dt * dt;
+      own[LAST_ACCELERATION_X] = own[ACCELERATION_X];
+      own[LAST_ACCELERATION_Y] = own[ACCELERATION_Y];
+      float ax = (own[LAST_ACCELERATION_X] + own[FORCE_X] / own[MASS]) / 2;
+      float ay = (own[LAST_ACCELERATION_Y] + own[FORCE_Y] / own[MASS]) / 2;
+      own[ACCELERATION_X] = ax;
+      own[ACCELERATION_Y] = ay;
+      float vx = slow(own[VELOCITY_X] + ax * dt);
+      float vy = own[VELOCITY_Y] + ay * dt;
+      own[VELOCITY_X] = vx;
+      own[VELOCITY_Y] = vy;
+      own[STEP_X] = own[MOVE_X] + (vx * dt + ax * 0.5f * dtSquared);
+      own[STEP_Y] = own[MOVE_Y] + (vy * dt + ay * 0.5f * dtSquared);
+      own[MOVE_X] = 0;
+      own[MOVE_Y] = 0;
+    }
+
+    /**
+     * @return The store the body is in, or null if it is in none
+     */
+    public BodyStore getStore() {
+      return store;
+    }
+
+    public float getVelocityX() {
+      return own == null ? store.velocityX[id] : own[VELOCITY_X];
+    }
+
+    public float getVelocityY() {
+      return own == null ? store.velocityY[id] : own[VELOCITY_Y];
+    }
+
+    public void setVelocity(float x, float y) {
+      if (own == null) {
+        store.velocityX[id] = x;
+        store.velocityY[id] = y;
+      } else {
+        own[VELOCITY_X] = x;
+        own[VELOCITY_Y] = y;
+      }
+    }
+
+    public float getAccelerationX() {
+      return own == null ? store.accelerationX[id] : own[ACCELERATION_X];
+    }
+
+    public float getAccelerationY() {
+      return own == null ? store.accelerationY[id] : own[ACCELERATION_Y];
+    }
+
+    public void setAcceleration(float x, float y) {
+      if (own == null) {
+        store.accelerationX[id] = x;
+        store.accelerationY[id] = y;
+      } else {
+        own[ACCELERATION_X] = x;
+        own[ACCELERATION_Y] = y;
+      }
+    }
+
+    public float getLastAccelerationX() {
+      return own == null ? store.lastAccelerationX[id] : own[LAST_ACCELERATION_X];
+    }
+
+    public float getLastAccelerationY() {
+      return own == null ? store.lastAccelerationY[id] : own[LAST_ACCELERATION_Y];
+    }
+
+    public void setLastAcceleration(float x, float y) {
+      if (own == null) {
+        store.lastAccelerationX[id] = x;
+        store.lastAccelerationY[id] = y;
+      } else {
+        own[LAST_ACCELERATION_X] = x;
+        own[LAST_ACCELERATION_Y] = y;
+      }
+    }
+
+    public float getForceX() {
+      return own == null ? store.forceX[id] : own[FORCE_X];
+    }
+
+    public float getForceY() {
+      return own == null ? store.forceY[id] : own[FORCE_Y];
+    }
+
+    /**
+     * Sets the force the next step is taken under
+     */
+    public void setForce(float x, float y) {
+      if (own == null) {
+        store.forceX[id] = x;
+        store.forceY[id] = y;
+      } else {
+        own[FORCE_X] = x;
+        own[FORCE_Y] = y;
+      }
+    }
+
+    public float getMoveX() {
+      return own == null ? store.moveX[id] : own[MOVE_X];
+    }
+
+    public float getMoveY() {
+      return own == null ? store.moveY[id] : own[MOVE_Y];
+    }
+
+    /**
+     * Adds to the distance the body moves in its next step, on top of its motion
+     */
+    public void addMove(float x, float y) {
+      if (own == null) {
+        store.moveX[id] += x;
+        store.moveY[id] += y;
+      } else {
+        own[MOVE_X] += x;
+        own[MOVE_Y] += y;
+      }
+    }
+
+    /**
+     * Replaces the distance queued for the next step, as when the body is put back as it was
+     */
+    public void setMove(float x, float y) {
+      if (own == null) {
+        store.moveX[id] = x;
+        store.moveY[id] = y;
+      } else {
+        own[MOVE_X] = x;
+        own[MOVE_Y] = y;
+      }
+    }
+
+    /**
+     * @return Distance the body moved in its last step
+     */
+    public float getStepX() {
+      return own == null ? store.stepX[id] : own[STEP_X];
+    }
+
+    public float getStepY() {
+      return own == null ? store.stepY[id] : own[STEP_Y];
+    }
+
+    /**
+     * Sets the distance the body moved in its last step, as when the body is put back as it was
+     */
+    public void setStep(float x, float y) {
+      if (own == null) {
+        store.stepX[id] = x;
+        store.stepY[id] = y;
+      } else {
+        own[STEP_X] = x;
+        own[STEP_Y] = y;
+      }
+    }
+
+    public float getMass() {
+      return own == null ? store.mass[id] : own[MASS];
+    }
+
+    public void setMass(float mass) {
+      if (own == null) {
+        store.mass[id] = mass;
+      } else {
+        own[MASS] = mass;
+      }
+    }
+
+    public float getInvMass() {
+      return own == null ? store.invMass[id] : own[INV_MASS];
+    }
+
+    public void setInvMass(float invMass) {
+      if (own == null) {
+        store.invMass[id] = invMass;
+      } else {
+        own[INV_MASS] = invMass;
+      }
+    }
+
+    public float getGravityScale() {
+      return own == null ? store.gravityScale[id] : own[GRAVITY_SCALE];
+    }
+
+    public void setGravityScale(float gravityScale) {
+      if (own == null) {
+        store.gravityScale[id] = gravityScale;
+      } else {
+        own[GRAVITY_SCALE] = gravityScale;
+      }
+    }
+
+    public float getAirDrag() {
+      return own == null ? store.airDrag[id] : own[AIR_DRAG];
+    }
+
+    public void setAirDrag(float airDrag) {
+      if (own == null) {
+        store.airDrag[id] = airDrag;
+      } else {
+        own[AIR_DRAG] = airDrag;
+      }
+    }
+  }
+}
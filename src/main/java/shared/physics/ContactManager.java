@@ -0,0 +1,433 @@
+package shared.physics;
+
+import java.util.Arrays;
+import shared.gameObjects.GameObject;
+import shared.gameObjects.components.Collider;
+import shared.gameObjects.components.ComponentType;
+import shared.gameObjects.components.Rigidbody;
+import shared.physics.data.Collision;
+import shared.physics.types.RigidbodyType;
+
+/**
+ * The pairs of objects touching in a world, kept from one update to the next so each object can be
+ * told when it starts touching another, every update it still touches it, and the update it stops.
+ * Objects report what they touch as their collisions are checked; once every object has been
+ * checked, {@link #endPass()} finds the pairs no longer touching and sends their exit events.
+ *
+ * <p>A pair is kept for each way round, the object told first, in an open addressing table keyed
+ * by the two objects' contact ids packed into a long. An object is also given an entry of its own,
+ * with no other object, marking the last update its collisions were checked, so pairs of objects
+ * that have left the world are dropped without telling them they stopped touching.
+ *
+ * <p>Dynamic bodies touching each other are grouped into islands at the end of each pass. Once
+ * every body of an island has been still for a while the whole island is put to sleep, and it is
+ * woken as soon as any body of it is. A sleeping object {@link #rest(GameObject) rests} rather than
+ * having its collisions checked, keeping its pairs until it wakes or what it rests against leaves
+ * the world.
+ *
+ * <p>The collisions passed to the event methods are pooled and reused once the events return, so
+ * must not be kept by them.
+ */
+public final class ContactManager {
+
+  /**
+   * Must be a power of two
+   */
+  private static final int INITIAL_CAPACITY = 64;
+  private static final long EMPTY = 0;
+  private static final long REMOVED = -1;
+  /**
+   * Keeps the first object's id of a pair's key, giving the key of that object's own entry
+   */
+  private static final long OWN_KEY_MASK = 0xffffffff00000000L;
+
+  private long[] keys = new long[INITIAL_CAPACITY];
+  private GameObject[] selves = new GameObject[INITIAL_CAPACITY];
+  private GameObject[] others = new GameObject[INITIAL_CAPACITY];
+  /**
+   * Last pass the pair touched, or the object's collisions were checked for its own entry
+   */
+  private int[] touched = new int[INITIAL_CAPACITY];
+  /**
+   * Last pass the pair's bodies were pushed apart
+   */
+  private int[] resolved = new int[INITIAL_CAPACITY];
+  /**
+   * True once the pair's enter event has been sent; for an object's own entry, true if it is
+   * resting this pass
+   */
+  private boolean[] touching = new boolean[INITIAL_CAPACITY];
+  private boolean[] triggers = new boolean[INITIAL_CAPACITY];
+  /**
+   * Entries in the table, and entries plus the slots of removed ones
+   */
+  private int size = 0;
+  private int used = 0;
+
+  /**
+   * Pairs that stopped touching this pass, sent their exit events once the table has been swept
+   */
+  private GameObject[] exitSelves = new GameObject[INITIAL_CAPACITY];
+  private GameObject[] exitOthers = new GameObject[INITIAL_CAPACITY];
+  private boolean[] exitTriggers = new boolean[INITIAL_CAPACITY];
+  private int exits = 0;
+
+  /**
+   * For each object's own entry, its dynamic body, and the entry its island is joined to; only
+   * used while the islands are found
+   */
+  private Rigidbody[] bodies = new Rigidbody[INITIAL_CAPACITY];
+  private int[] islands = new int[INITIAL_CAPACITY];
+  private boolean[] restless = new boolean[INITIAL_CAPACITY];
+
+  /**
+   * Collisions free to be passed to event methods; more are made if events cause more events
+   */
+  private Collision[] pool = new Collision[4];
+  private int pooled = 0;
+
+  private int pass = 1;
+
+  /**
+   * Marks an object's collisions as checked this pass; pairs of it not touched by the end of the
+   * pass are then exited
+   *
+   * @param self Object whose collisions are being checked
+   */
+  public void begin(GameObject self) {
+    int index = slot(key(self.getContactId(), 0), self, null);
+    touched[index] = pass;
+    touching[index] = false;
+  }
+
+  /**
+   * Marks a sleeping object as resting this pass, keeping its pairs without checking them
+   *
+   * @param self Sleeping object
+   */
+  public void rest(GameObject self) {
+    int index = slot(key(self.getContactId(), 0), self, null);
+    touched[index] = pass;
+    touching[index] = true;
+  }
+
+  /**
+   * Records an object touching another this pass, sending the enter event if they were not
+   * touching before and the stay event every time
+   *
+   * @param self Object told of the collision
+   * @param other Object touched
+   * @param col Self's collider that touched
+   * @param otherCol The other object's collider
+   * @param isTrigger True if self's collider is a trigger
+   */
+  public void touch(GameObject self, GameObject other, Collider col, Collider otherCol,
+      boolean isTrigger) {
+    int index = slot(key(self.getContactId(), other.getContactId()), self, other);
+    boolean entered = !touching[index];
+    touching[index] = true;
+    touched[index] = pass;
+    triggers[index] = isTrigger;
+
+    Collision event = acquire();
+    event.set(other, col, otherCol);
+    if (isTrigger) {
+      if (entered) {
+        self.OnTriggerEnter(event);
+      }
+      self.OnTriggerStay(event);
+    } else {
+      if (entered) {
+        self.OnCollisionEnter(event);
+      }
+      self.OnCollisionStay(event);
+    }
+    release(event);
+  }
+
+  /**
+   * Claims the resolving of a collision between two objects' bodies for this pass
+   *
+   * @param self Object resolving the collision
+   * @param other Object collided with
+   * @return False if the other object already resolved this collision this pass
+   */
+  public boolean resolve(GameObject self, GameObject other) {
+    int reverse = find(key(other.getContactId(), self.getContactId()));
+    if (reverse >= 0 && resolved[reverse] == pass) {
+      return false;
+    }
+    int index = slot(key(self.getContactId(), other.getContactId()), self, other);
+    resolved[index] = pass;
+    return true;
+  }
+
+  /**
+   * Ends a pass over the world's collisions: drops the pairs not touched this pass, sending exit
+   * events for those whose objects' collisions were checked, then puts islands of still bodies to
+   * sleep and wakes the rest
+   */
+  public void endPass() {
+    for (int i = 0; i < keys.length; i++) {
+      long key = keys[i];
+      if (key == EMPTY || key == REMOVED || touched[i] == pass) {
+        continue;
+      }
+      int own = find(key & OWN_KEY_MASK);
+      if (others[i] != null && own >= 0 && touched[own] == pass) {
+        if (touching[own]) {
+          if (inPass(others[i])) {
+            continue;
+          }
+          //What it rests against has left the world, so it may fall
+          wake(selves[i]);
+        }
+        if (touching[i]) {
+          addExit(selves[i], others[i], triggers[i]);
+        }
+      }
+      remove(i);
+    }
+    if ((used - size) * 4 > keys.length) {
+      rehash(keys.length);
+    }
+    updateIslands();
+
+    for (int i = 0; i < exits; i++) {
+      Collision event = acquire();
+      event.set(exitOthers[i]);
+      if (exitTriggers[i]) {
+        exitSelves[i].OnTriggerExit(event);
+      } else {
+        exitSelves[i].OnCollisionExit(event);
+      }
+      release(event);
+      exitSelves[i] = null;
+      exitOthers[i] = null;
+    }
+    exits = 0;
+    pass++;
+  }
+
+  /**
+   * Forgets every pair without sending any events, used when a new level is loaded
+   */
+  public void clear() {
+    Arrays.fill(keys, EMPTY);
+    Arrays.fill(selves, null);
+    Arrays.fill(others, null);
+    size = 0;
+    used = 0;
+  }
+
+  /**
+   * @return Pairs kept, each way round, plus the entries of objects checked
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return True if the object's collisions were checked, or it rested, this pass
+   */
+  private boolean inPass(GameObject object) {
+    int index = find(key(object.getContactId(), 0));
+    return index >= 0 && touched[index] == pass;
+  }
+
+  private static void wake(GameObject object) {
+    Rigidbody rb = (Rigidbody) object.getComponent(ComponentType.RIGIDBODY);
+    if (rb != null) {
+      rb.wakeUp();
+    }
+  }
+
+  /**
+   * Joins the dynamic bodies touching each other into islands, with a union-find over the
+   * objects' own entries. An island with any body awake and moving is woken; the rest sleep.
+   */
+  private void updateIslands() {
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i] == EMPTY || keys[i] == REMOVED || others[i] != null) {
+        continue;
+      }
+      Rigidbody rb = (Rigidbody) selves[i].getComponent(ComponentType.RIGIDBODY);
+      if (rb != null && rb.getBodyType() == RigidbodyType.DYNAMIC) {
+        bodies[i] = rb;
+        islands[i] = i;
+        restless[i] = false;
+      }
+    }
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i] == EMPTY || keys[i] == REMOVED || others[i] == null || !touching[i]
+          || triggers[i]) {
+        continue;
+      }
+      int a = find(keys[i] & OWN_KEY_MASK);
+      int b = find(key(others[i].getContactId(), 0));
+      if (a >= 0 && b >= 0 && bodies[a] != null && bodies[b] != null) {
+        islands[island(a)] = island(b);
+      }
+    }
+    for (int i = 0; i < keys.length; i++) {
+      if (bodies[i] != null && !bodies[i].isSleeping() && !bodies[i].isStill()) {
+        restless[island(i)] = true;
+      }
+    }
+    for (int i = 0; i < keys.length; i++) {
+      Rigidbody rb = bodies[i];
+      if (rb == null) {
+        continue;
+      }
+      if (restless[island(i)]) {
+        if (rb.isSleeping()) {
+          rb.wakeUp();
+        }
+      } else if (!rb.isSleeping()) {
+        rb.sleep();
+      }
+      bodies[i] = null;
+    }
+  }
+
+  /**
+   * @return The entry an island is known by, halving the path to it on the way
+   */
+  private int island(int index) {
+    while (islands[index] != index) {
+      islands[index] = islands[islands[index]];
+      index = islands[index];
+    }
+    return index;
+  }
+
+  private static long key(int selfId, int otherId) {
+    return ((long) selfId << 32) | (otherId & 0xffffffffL);
+  }
+
+  private static int hash(long key) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+
+  /**
+   * @return Index of the key's entry, -1 if it has none
+   */
+  private int find(long key) {
+    int mask = keys.length - 1;
+    for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+      if (keys[i] == key) {
+        return i;
+      }
+      if (keys[i] == EMPTY) {
+        return -1;
+      }
+    }
+  }
+
+  /**
+   * @return Index of the key's entry, added if it has none
+   */
+  private int slot(long key, GameObject self, GameObject other) {
+    int index = find(key);
+    if (index >= 0) {
+      return index;
+    }
+    if ((used + 1) * 4 > keys.length * 3) {
+      rehash(size * 2 + 2 > keys.length ? keys.length * 2 : keys.length);
+    }
+    int mask = keys.length - 1;
+    index = hash(key) & mask;
+    while (keys[index] != EMPTY && keys[index] != REMOVED) {
+      index = (index + 1) & mask;
+    }
+    if (keys[index] == EMPTY) {
+      used++;
+    }
+    size++;
+    keys[index] = key;
+    selves[index] = self;
+    others[index] = other;
+    touched[index] = 0;
+    resolved[index] = 0;
+    touching[index] = false;
+    triggers[index] = false;
+    return index;
+  }
+
+  private void remove(int index) {
+    keys[index] = REMOVED;
+    selves[index] = null;
+    others[index] = null;
+    size--;
+  }
+
+  /**
+   * Moves every entry into a table of the given capacity, dropping the slots of removed entries
+   */
+  private void rehash(int capacity) {
+    long[] oldKeys = keys;
+    GameObject[] oldSelves = selves;
+    GameObject[] oldOthers = others;
+    int[] oldTouched = touched;
+    int[] oldResolved = resolved;
+    boolean[] oldTouching = touching;
+    boolean[] oldTriggers = triggers;
+    keys = new long[capacity];
+    selves = new GameObject[capacity];
+    others = new GameObject[capacity];
+    touched = new int[capacity];
+    resolved = new int[capacity];
+    touching = new boolean[capacity];
+    triggers = new boolean[capacity];
+    bodies = new Rigidbody[capacity];
+    islands = new int[capacity];
+    restless = new boolean[capacity];
+    int mask = capacity - 1;
+    for (int i = 0; i < oldKeys.length; i++) {
+      long key = oldKeys[i];
+      if (key == EMPTY || key == REMOVED) {
+        continue;
+      }
+      int index = hash(key) & mask;
+      while (keys[index] != EMPTY) {
+        index = (index + 1) & mask;
+      }
+      keys[index] = key;
+      selves[index] = oldSelves[i];
+      others[index] = oldOthers[i];
+      touched[index] = oldTouched[i];
+      resolved[index] = oldResolved[i];
+      touching[index] = oldTouching[i];
+      triggers[index] = oldTriggers[i];
+    }
+    used = size;
+  }
+
+  private void addExit(GameObject self, GameObject other, boolean isTrigger) {
+    if (exits == exitSelves.length) {
+      exitSelves = Arrays.copyOf(exitSelves, exits * 2);
+      exitOthers = Arrays.copyOf(exitOthers, exits * 2);
+      exitTriggers = Arrays.copyOf(exitTriggers, exits * 2);
+    }
+    exitSelves[exits] = self;
+    exitOthers[exits] = other;
+    exitTriggers[exits] = isTrigger;
+    exits++;
+  }
+
+  private Collision acquire() {
+    if (pooled == 0) {
+      return new Collision();
+    }
+    return pool[--pooled];
+  }
+
+  private void release(Collision event) {
+    event.set(null);
+    if (pooled == pool.length) {
+      pool = Arrays.copyOf(pool, pooled * 2);
+    }
+    pool[pooled++] = event;
+  }
+}
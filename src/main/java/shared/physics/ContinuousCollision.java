@@ -0,0 +1,118 @@
+package shared.physics;
+
+import java.util.Collection;
+import shared.gameObjects.GameObject;
+import shared.gameObjects.components.Collider;
+import shared.gameObjects.components.Component;
+import shared.gameObjects.components.ComponentType;
+import shared.gameObjects.components.Rigidbody;
+import shared.physics.data.AABB;
+import shared.physics.types.ColliderLayer;
+import shared.physics.types.RigidbodyType;
+import shared.util.maths.Vector2;
+
+/**
+ * Stops projectiles passing through what lies between where they were and where their last step
+ * left them. Bodies step a whole update at a time and collisions are only found where bodies end
+ * up, so anything moving further than its own size in one update can skip past thin objects.
+ * Bodies on the {@link ColliderLayer#PROJECTILE} layer that have moved that far have their
+ * collider's bounds swept back along the step; if anything was hit on the way, the body is moved
+ * back to just past where it first hit, and the collision checks that follow find the hit as
+ * usual. Other bodies are left to those checks alone, so only fast projectiles pay for the sweep.
+ */
+final class ContinuousCollision {
+
+  private final PhysicsWorld world;
+  private final QueryFilter filter = new QueryFilter(0);
+  private final QueryResults results = new QueryResults();
+  private final Vector2 sourcePos = new Vector2(0, 0);
+  private final Vector2 size = new Vector2(0, 0);
+  private final Vector2 motion = new Vector2(0, 0);
+  private final Vector2 back = new Vector2(0, 0);
+
+  /**
+   * The body being swept, and the bounds it started its step at; objects already touching those
+   * bounds are left to the collision checks
+   */
+  private GameObject sweeping;
+  private float startMinX;
+  private float startMinY;
+  private float startMaxX;
+  private float startMaxY;
+
+  /**
+   * Constructor
+   *
+   * @param world World the projectiles are swept through
+   */
+  ContinuousCollision(PhysicsWorld world) {
+    this.world = world;
+    filter.setPredicate(object -> object != sweeping
+        && !Overlap.box(startMinX, startMinY, startMaxX, startMaxY,
+        (Collider) object.getComponent(ComponentType.COLLIDER)));
+  }
+
+  /**
+   * Sweeps every fast projectile along its last step; run once the broadphase is up to date with
+   * where the bodies ended up
+   *
+   * @param objects Every object in the world
+   * @return True if any projectile was moved back, so the broadphase needs updating again
+   */
+  boolean update(Collection<GameObject> objects) {
+    boolean moved = false;
+    for (GameObject object : objects) {
+      Collider collider = (Collider) object.getComponent(ComponentType.COLLIDER);
+      if (collider == null || collider.getLayer() != ColliderLayer.PROJECTILE
+          || collider.isTrigger()) {
+        continue;
+      }
+      Rigidbody rb = (Rigidbody) object.getComponent(ComponentType.RIGIDBODY);
+      if (rb == null || rb.getBodyType() != RigidbodyType.DYNAMIC || rb.isSleeping()) {
+        continue;
+      }
+      moved |= sweep(object, collider, rb.getSlot());
+    }
+    sweeping = null;
+    results.clear();
+    return moved;
+  }
+
+  /**
+   * @return True if the body was moved back to what it hit
+   */
+  private boolean sweep(GameObject object, Collider collider, BodyStore.Slot slot) {
+    float stepX = slot.getStepX();
+    float stepY = slot.getStepY();
+    AABB bounds = collider.getBounds();
+    float width = bounds.getMaxX() - bounds.getMinX();
+    float height = bounds.getMaxY() - bounds.getMinY();
+    //A step no longer than the body itself leaves the bounds it started and ended at covering
+    //the whole of its path
+    if (Math.abs(stepX) <= width && Math.abs(stepY) <= height) {
+      return false;
+    }
+    sweeping = object;
+    startMinX = bounds.getMinX() - stepX;
+    startMinY = bounds.getMinY() - stepY;
+    startMaxX = bounds.getMaxX() - stepX;
+    startMaxY = bounds.getMaxY() - stepY;
+    filter.setLayerMask(QueryFilter.collidingWith(collider.getLayer()));
+    if (!world.sweepBox(sourcePos.set(startMinX, startMinY), size.set(width, height),
+        motion.set(stepX, stepY), filter, results)) {
+      return false;
+    }
+    float length = (float) Math.sqrt(stepX * stepX + stepY * stepY);
+    float reached = Math.min(1, (results.getDistance(0) + Physics.CONTINUOUS_SKIN) / length);
+    if (reached >= 1) {
+      return false;
+    }
+    object.getTransform().translate(back.set(-stepX * (1 - reached), -stepY * (1 - reached)));
+    for (Component component : object.getComponents()) {
+      if (component.getComponentType() == ComponentType.COLLIDER) {
+        component.update();
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,201 @@
+package shared.physics;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The forces and impulses waiting to act on one body. Forces spread over time are kept in a
+ * fixed number of slots of primitive arrays, each counting down the updates it has left and freed
+ * as soon as it runs out, so the cost of a body's forces never grows however many it is given over
+ * a match. A timed force given while every slot is taken pushes out the one closest to running
+ * out, whose remaining push is given to the body at once as an impulse instead.
+ *
+ * <p>Forces act through the body's next step; impulses change its velocity directly, before the
+ * step.
+ */
+public final class ForceAccumulator {
+
+  /**
+   * Timed forces a body can have acting at once
+   */
+  public static final int CAPACITY = 8;
+  /**
+   * Bytes {@link #save(ByteBuffer)} writes at most
+   */
+  public static final int MAX_SAVED_BYTES = 4 * 4 + 1 + CAPACITY * 12;
+
+  private final float[] timedX = new float[CAPACITY];
+  private final float[] timedY = new float[CAPACITY];
+  private final int[] ticksLeft = new int[CAPACITY];
+  private int timed = 0;
+
+  /**
+   * Forces acting for the next update only
+   */
+  private float forceX = 0;
+  private float forceY = 0;
+  private float impulseX = 0;
+  private float impulseY = 0;
+
+  /**
+   * Adds a force acting for the next update only
+   */
+  public void addForce(float x, float y) {
+    forceX += x;
+    forceY += y;
+  }
+
+  /**
+   * Adds a force acting for a number of updates
+   *
+   * @param x Force applied each update
+   * @param y Force applied each update
+   * @param ticks Updates the force acts for
+   */
+  public void addTimedForce(float x, float y, int ticks) {
+    if (ticks <= 0) {
+      return;
+    }
+    if (timed == CAPACITY) {
+      int soonest = 0;
+      for (int i = 1; i < timed; i++) {
+        if (ticksLeft[i] < ticksLeft[soonest]) {
+          soonest = i;
+        }
+      }
+      float time = ticksLeft[soonest] * Physics.TIMESTEP;
+      addImpulse(timedX[soonest] * time, timedY[soonest] * time);
+      remove(soonest);
+    }
+    timedX[timed] = x;
+    timedY[timed] = y;
+    ticksLeft[timed] = ticks;
+    timed++;
+  }
+
+  /**
+   * Adds an impulse, changing the body's momentum at once
+   */
+  public void addImpulse(float x, float y) {
+    impulseX += x;
+    impulseY += y;
+  }
+
+  /**
+   * Sums the forces acting for one update, counting down the timed forces and freeing those that
+   * run out, and forgets the forces that only acted for this update
+   *
+   * @param out The summed force is written here, as { x, y }
+   */
+  public void step(float[] out) {
+    float x = 0;
+    float y = 0;
+    int i = 0;
+    while (i < timed) {
+      x += timedX[i];
+      y += timedY[i];
+      if (--ticksLeft[i] <= 0) {
+        remove(i);
+      } else {
+        i++;
+      }
+    }
+    out[0] = x + forceX;
+    out[1] = y + forceY;
+    forceX = 0;
+    forceY = 0;
+  }
+
+  /**
+   * Frees a timed force's slot, moving the last timed force into it
+   */
+  private void remove(int index) {
+    timed--;
+    timedX[index] = timedX[timed];
+    timedY[index] = timedY[timed];
+    ticksLeft[index] = ticksLeft[timed];
+  }
+
+  /**
+   * @return True if an impulse is waiting to be applied
+   */
+  public boolean hasImpulse() {
+    return impulseX != 0 || impulseY != 0;
+  }
+
+  public float getImpulseX() {
+    return impulseX;
+  }
+
+  public float getImpulseY() {
+    return impulseY;
+  }
+
+  /**
+   * Forgets the impulse, once it has been applied
+   */
+  public void clearImpulse() {
+    impulseX = 0;
+    impulseY = 0;
+  }
+
+  /**
+   * @return Timed forces acting
+   */
+  public int getTimedCount() {
+    return timed;
+  }
+
+  public float getTimedForceX(int index) {
+    return timedX[index];
+  }
+
+  public float getTimedForceY(int index) {
+    return timedY[index];
+  }
+
+  public int getTicksLeft(int index) {
+    return ticksLeft[index];
+  }
+
+  /**
+   * Writes every force and impulse waiting, for {@link #load(ByteBuffer)} to put back
+   *
+   * @param out Buffer written to, with at least {@link #MAX_SAVED_BYTES} left
+   */
+  public void save(ByteBuffer out) {
+    out.putFloat(forceX).putFloat(forceY).putFloat(impulseX).putFloat(impulseY);
+    out.put((byte) timed);
+    for (int i = 0; i < timed; i++) {
+      out.putFloat(timedX[i]).putFloat(timedY[i]).putInt(ticksLeft[i]);
+    }
+  }
+
+  /**
+   * Replaces the forces and impulses waiting with those written by {@link #save(ByteBuffer)}
+   *
+   * @param in Buffer read from
+   */
+  public void load(ByteBuffer in) {
+    forceX = in.getFloat();
+    forceY = in.getFloat();
+    impulseX = in.getFloat();
+    impulseY = in.getFloat();
+    timed = in.get();
+    for (int i = 0; i < timed; i++) {
+      timedX[i] = in.getFloat();
+      timedY[i] = in.getFloat();
+      ticksLeft[i] = in.getInt();
+    }
+  }
+
+  /**
+   * @return The force acting for the next update only
+   */
+  public float getForceX() {
+    return forceX;
+  }
+
+  public float getForceY() {
+    return forceY;
+  }
+}
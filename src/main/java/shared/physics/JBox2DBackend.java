@@ -0,0 +1,277 @@
+package shared.physics;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.jbox2d.callbacks.TreeCallback;
+import org.jbox2d.callbacks.TreeRayCastCallback;
+import org.jbox2d.collision.RayCastInput;
+import org.jbox2d.collision.broadphase.DynamicTree;
+import org.jbox2d.common.Vec2;
+import shared.gameObjects.GameObject;
+import shared.gameObjects.components.Collider;
+import shared.gameObjects.components.ComponentType;
+import shared.physics.data.AABB;
+
+/**
+ * A backend keeping the objects in JBox2D's dynamic AABB tree, the broadphase Box2D itself uses.
+ * The tree is balanced as objects are added and moved, so it suits worlds whose objects are
+ * spread unevenly or vary widely in size better than a uniform grid, and objects are only moved
+ * in it once they leave the slightly grown bounds they were filed under.
+ *
+ * <p>The tree is not safe to read while it changes, or from two threads at once: even a query
+ * walks it with a stack the tree keeps for every query. Every use of it therefore holds its lock,
+ * and this backend does not parallelize; worlds using it test their narrow phase on the updating
+ * thread. Objects whose bounds are not finite are kept out of the tree and tested by every query.
+ */
+public class JBox2DBackend implements PhysicsBackend {
+
+  private final DynamicTree tree = new DynamicTree();
+  private final CopyOnWriteArrayList<Proxy> unbounded = new CopyOnWriteArrayList<>();
+  /**
+   * The entry of each object in the backend
+   */
+  private final HashMap<UUID, Proxy> proxies = new HashMap<>();
+  private int updateCount = 0;
+
+  /**
+   * Scratch space for the tree, only used while holding its lock
+   */
+  private final org.jbox2d.collision.AABB box = new org.jbox2d.collision.AABB();
+  private final Vec2 displacement = new Vec2();
+  private final RayCastInput input = new RayCastInput();
+  private final Query query = new Query();
+  private final Cast cast = new Cast();
+
+  @Override
+  public void update(Iterable<GameObject> objects) {
+    synchronized (tree) {
+      updateCount++;
+      for (GameObject object : objects) {
+        Collider collider = (Collider) object.getComponent(ComponentType.COLLIDER);
+        if (collider == null || object.isStaticGeometry()) {
+          continue;
+        }
+        AABB bounds = collider.getBounds();
+        Proxy proxy = proxies.get(object.getUUID());
+        if (proxy == null || proxy.object != object) {
+          if (proxy != null) {
+            remove(proxy);
+          }
+          proxy = new Proxy(object);
+          proxies.put(object.getUUID(), proxy);
+          insert(proxy, bounds);
+        } else if (proxy.bounds != bounds) {
+          move(proxy, bounds);
+        }
+        proxy.lastUpdate = updateCount;
+      }
+      Iterator<Proxy> iterator = proxies.values().iterator();
+      while (iterator.hasNext()) {
+        Proxy proxy = iterator.next();
+        if (proxy.lastUpdate != updateCount) {
+          remove(proxy);
+          iterator.remove();
+        }
+      }
+    }
+  }
+
+  @Override
+  public void query(float minX, float minY, float maxX, float maxY, List<GameObject> found) {
+    for (Proxy proxy : unbounded) {
+      if (proxy.bounds.overlaps(minX, minY, maxX, maxY)) {
+        found.add(proxy.object);
+      }
+    }
+    if (!Float.isFinite(minX) || !Float.isFinite(minY) || !Float.isFinite(maxX)
+        || !Float.isFinite(maxY)) {
+      //The tree can only be searched with a finite box
+      synchronized (tree) {
+        for (Proxy proxy : proxies.values()) {
+          if (proxy.id != DynamicTree.NULL_NODE
+              && proxy.bounds.overlaps(minX, minY, maxX, maxY)) {
+            found.add(proxy.object);
+          }
+        }
+      }
+      return;
+    }
+    synchronized (tree) {
+      box.lowerBound.set(minX, minY);
+      box.upperBound.set(maxX, maxY);
+      query.set(minX, minY, maxX, maxY, found);
+      tree.query(query, box);
+      query.found = null;
+    }
+  }
+
+  @Override
+  public void raycast(Ray ray) {
+    for (Proxy proxy : unbounded) {
+      ray.test(proxy.object);
+    }
+    float originX = ray.getOriginX();
+    float originY = ray.getOriginY();
+    float dirX = ray.getDirX();
+    float dirY = ray.getDirY();
+    if (!Float.isFinite(originX) || !Float.isFinite(originY) || !Float.isFinite(dirX)
+        || !Float.isFinite(dirY)) {
+      return;
+    }
+    synchronized (tree) {
+      if (dirX == 0 && dirY == 0) {
+        //The tree cannot cast a ray of no length, so the objects at its source are tested
+        box.lowerBound.set(originX, originY);
+        box.upperBound.set(originX, originY);
+        cast.ray = ray;
+        tree.query(cast, box);
+      } else {
+        input.p1.set(originX, originY);
+        input.p2.set(originX + dirX, originY + dirY);
+        input.maxFraction = 1;
+        cast.ray = ray;
+        tree.raycast(cast, input);
+      }
+      cast.ray = null;
+    }
+  }
+
+  @Override
+  public void clear() {
+    synchronized (tree) {
+      for (Proxy proxy : proxies.values()) {
+        remove(proxy);
+      }
+      proxies.clear();
+    }
+  }
+
+  @Override
+  public int size() {
+    synchronized (tree) {
+      return proxies.size();
+    }
+  }
+
+  @Override
+  public boolean isParallel() {
+    return false;
+  }
+
+  private void insert(Proxy proxy, AABB bounds) {
+    proxy.bounds = bounds;
+    if (!isFinite(bounds)) {
+      proxy.id = DynamicTree.NULL_NODE;
+      unbounded.add(proxy);
+      return;
+    }
+    setBox(bounds);
+    proxy.id = tree.createProxy(box, proxy);
+  }
+
+  private void move(Proxy proxy, AABB bounds) {
+    if (proxy.id == DynamicTree.NULL_NODE || !isFinite(bounds)) {
+      remove(proxy);
+      insert(proxy, bounds);
+      return;
+    }
+    //The tree grows the bounds it files an object under in the direction it is moving
+    displacement.set(bounds.getMinX() - proxy.bounds.getMinX(),
+        bounds.getMinY() - proxy.bounds.getMinY());
+    proxy.bounds = bounds;
+    setBox(bounds);
+    tree.moveProxy(proxy.id, box, displacement);
+  }
+
+  private void remove(Proxy proxy) {
+    if (proxy.id == DynamicTree.NULL_NODE) {
+      unbounded.remove(proxy);
+    } else {
+      tree.destroyProxy(proxy.id);
+      proxy.id = DynamicTree.NULL_NODE;
+    }
+  }
+
+  private void setBox(AABB bounds) {
+    box.lowerBound.set(bounds.getMinX(), bounds.getMinY());
+    box.upperBound.set(bounds.getMaxX(), bounds.getMaxY());
+  }
+
+  private static boolean isFinite(AABB bounds) {
+    return Float.isFinite(bounds.getMinX()) && Float.isFinite(bounds.getMinY())
+        && Float.isFinite(bounds.getMaxX()) && Float.isFinite(bounds.getMaxY());
+  }
+
+  /**
+   * An object's entry in the backend; only read and changed while holding the tree's lock, apart
+   * from the bounds of unbounded objects, which are never changed once filed
+   */
+  private static final class Proxy {
+
+    private final GameObject object;
+    private volatile AABB bounds;
+    /**
+     * Id of the object in the tree, or NULL_NODE if it is kept out of the tree
+     */
+    private int id = DynamicTree.NULL_NODE;
+    private int lastUpdate;
+
+    private Proxy(GameObject object) {
+      this.object = object;
+    }
+  }
+
+  /**
+   * Collects the objects the tree finds whose own bounds overlap the box searched, as the tree
+   * only knows the grown bounds it filed them under
+   */
+  private final class Query implements TreeCallback {
+
+    private float minX;
+    private float minY;
+    private float maxX;
+    private float maxY;
+    private List<GameObject> found;
+
+    private void set(float minX, float minY, float maxX, float maxY, List<GameObject> found) {
+      this.minX = minX;
+      this.minY = minY;
+      this.maxX = maxX;
+      this.maxY = maxY;
+      this.found = found;
+    }
+
+    @Override
+    public boolean treeCallback(int id) {
+      Proxy proxy = (Proxy) tree.getUserData(id);
+      if (proxy.bounds.overlaps(minX, minY, maxX, maxY)) {
+        found.add(proxy.object);
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Tests the ray against each object the tree finds along it, shortening the part of the ray
+   * still searched to its nearest hit
+   */
+  private final class Cast implements TreeRayCastCallback, TreeCallback {
+
+    private Ray ray;
+
+    @Override
+    public float raycastCallback(RayCastInput input, int id) {
+      ray.test(((Proxy) tree.getUserData(id)).object);
+      return Math.min(input.maxFraction, ray.getHitFraction());
+    }
+
+    @Override
+    public boolean treeCallback(int id) {
+      ray.test(((Proxy) tree.getUserData(id)).object);
+      return true;
+    }
+  }
+}
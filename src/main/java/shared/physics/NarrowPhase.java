@@ -0,0 +1,140 @@
+package shared.physics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import shared.gameObjects.GameObject;
+import shared.gameObjects.components.Collider;
+import shared.gameObjects.components.Component;
+import shared.gameObjects.components.ComponentType;
+import shared.gameObjects.components.Rigidbody;
+
+/**
+ * Finds the objects every collider in a world is touching before the world's collision checks
+ * are run. Colliders only move when their objects update, so what they touch is fixed for the
+ * whole of the checks and can be found for every collider at once; worlds with many colliders
+ * have them split into batches tested on a {@link ForkJoinPool}. The checks then run on the
+ * updating thread in the usual order, reading what was found, so the collisions resolved and the
+ * methods called are the same whether or not the tests were run in parallel.
+ */
+final class NarrowPhase {
+
+  /**
+   * Colliders tested by one task; worlds with no more than this are tested on the updating thread
+   */
+  static final int BATCH_SIZE = 64;
+
+  private final PhysicsWorld world;
+  private final ForkJoinPool pool;
+  /**
+   * The colliders tested this update, and the objects each is touching
+   */
+  private final ArrayList<Collider> colliders = new ArrayList<>();
+  private final ArrayList<ArrayList<GameObject>> found = new ArrayList<>();
+  private final IdentityHashMap<Collider, ArrayList<GameObject>> touching =
+      new IdentityHashMap<>();
+
+  /**
+   * Constructor
+   *
+   * @param world World whose broadphase the colliders are tested against
+   * @param pool Pool the batches are tested on
+   */
+  NarrowPhase(PhysicsWorld world, ForkJoinPool pool) {
+    this.world = world;
+    this.pool = pool;
+  }
+
+  /**
+   * Finds what each collider that will be checked this update is touching, as of the last
+   * broadphase update
+   *
+   * @param objects Every object in the world
+   * @param parallel Whether the world's backend can be queried from the pool's threads at once
+   */
+  void update(Collection<GameObject> objects, boolean parallel) {
+    clear();
+    for (GameObject object : objects) {
+      Rigidbody rb = (Rigidbody) object.getComponent(ComponentType.RIGIDBODY);
+      if (rb != null && rb.isSleeping()) {
+        continue;
+      }
+      for (Component component : object.getComponents()) {
+        if (component.getComponentType() != ComponentType.COLLIDER) {
+          continue;
+        }
+        Collider collider = (Collider) component;
+        if (rb != null || collider.isTrigger()) {
+          colliders.add(collider);
+        }
+      }
+    }
+    while (found.size() < colliders.size()) {
+      found.add(new ArrayList<>());
+    }
+    if (!parallel || colliders.size() <= BATCH_SIZE) {
+      test(0, colliders.size());
+    } else {
+      pool.invoke(new Batch(0, colliders.size()));
+    }
+    for (int i = 0; i < colliders.size(); i++) {
+      touching.put(colliders.get(i), found.get(i));
+    }
+  }
+
+  /**
+   * @param collider Collider being checked
+   * @return The objects the collider was found to be touching, null if it was not tested this
+   * update
+   */
+  ArrayList<GameObject> get(Collider collider) {
+    return touching.get(collider);
+  }
+
+  /**
+   * Forgets what was found, once the update's checks are done
+   */
+  void clear() {
+    touching.clear();
+    colliders.clear();
+  }
+
+  private void test(int from, int to) {
+    for (int i = from; i < to; i++) {
+      ArrayList<GameObject> list = found.get(i);
+      list.clear();
+      world.findTouching(colliders.get(i), list);
+    }
+  }
+
+  /**
+   * A run of colliders, split in half until small enough to test
+   */
+  private final class Batch extends RecursiveAction {
+
+    /**
+     * Batches are never serialized; pinned as RecursiveAction is serializable
+     */
+    private static final long serialVersionUID = 8821546390570798370L;
+
+    private final int from;
+    private final int to;
+
+    Batch(int from, int to) {
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= BATCH_SIZE) {
+        test(from, to);
+        return;
+      }
+      int middle = (from + to) >>> 1;
+      invokeAll(new Batch(from, middle), new Batch(middle, to));
+    }
+  }
+}
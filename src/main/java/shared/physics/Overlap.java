@@ -0,0 +1,130 @@
+package shared.physics;
+
+import shared.gameObjects.components.BoxCollider;
+import shared.gameObjects.components.CircleCollider;
+import shared.gameObjects.components.Collider;
+import shared.util.maths.Vector2;
+
+/**
+ * Tests for a query shape overlapping a collider, worked out on the shape's numbers directly so
+ * that no collider has to be made for the shape. Like the collider tests, shapes touching on an
+ * edge overlap; edge colliders are never found.
+ */
+final class Overlap {
+
+  private Overlap() {
+  }
+
+  /**
+   * @param minX Left edge of the box
+   * @param minY Top edge of the box
+   * @param maxX Right edge of the box
+   * @param maxY Bottom edge of the box
+   * @param collider Collider to test
+   * @return True if the axis-aligned box overlaps the collider
+   */
+  static boolean box(float minX, float minY, float maxX, float maxY, Collider collider) {
+    switch (collider.getColliderType()) {
+      case BOX:
+        return box(minX, minY, maxX, maxY, (BoxCollider) collider);
+      case CIRCLE:
+        CircleCollider circle = (CircleCollider) collider;
+        float x = circle.getCentre().getX();
+        float y = circle.getCentre().getY();
+        float dx = x - Math.max(minX, Math.min(x, maxX));
+        float dy = y - Math.max(minY, Math.min(y, maxY));
+        return dx * dx + dy * dy <= circle.getRadius() * circle.getRadius();
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Separating axis test between an axis-aligned box and a possibly rotated box collider
+   */
+  private static boolean box(float minX, float minY, float maxX, float maxY, BoxCollider box) {
+    Vector2[] corners = box.getCorners();
+    //Along the world axes, the axes of the query box
+    float boxMinX = Float.POSITIVE_INFINITY;
+    float boxMinY = Float.POSITIVE_INFINITY;
+    float boxMaxX = Float.NEGATIVE_INFINITY;
+    float boxMaxY = Float.NEGATIVE_INFINITY;
+    for (Vector2 corner : corners) {
+      boxMinX = Math.min(boxMinX, corner.getX());
+      boxMinY = Math.min(boxMinY, corner.getY());
+      boxMaxX = Math.max(boxMaxX, corner.getX());
+      boxMaxY = Math.max(boxMaxY, corner.getY());
+    }
+    if (boxMaxX < minX || maxX < boxMinX || boxMaxY < minY || maxY < boxMinY) {
+      return false;
+    }
+    //Along the collider's own axes
+    return overlapAlong(corners, corners[3].getX() - corners[0].getX(),
+        corners[3].getY() - corners[0].getY(), minX, minY, maxX, maxY)
+        && overlapAlong(corners, corners[1].getX() - corners[0].getX(),
+        corners[1].getY() - corners[0].getY(), minX, minY, maxX, maxY);
+  }
+
+  /**
+   * @return True if the box collider's corners and the axis-aligned box overlap once
+   * projected onto the axis
+   */
+  private static boolean overlapAlong(Vector2[] corners, float axisX, float axisY, float minX,
+      float minY, float maxX, float maxY) {
+    if (axisX == 0 && axisY == 0) {
+      return true;
+    }
+    float colliderMin = Float.POSITIVE_INFINITY;
+    float colliderMax = Float.NEGATIVE_INFINITY;
+    for (Vector2 corner : corners) {
+      float projection = corner.getX() * axisX + corner.getY() * axisY;
+      colliderMin = Math.min(colliderMin, projection);
+      colliderMax = Math.max(colliderMax, projection);
+    }
+    //The box's extent along the axis comes from its corners furthest along each way
+    float centre = (minX + maxX) * 0.5f * axisX + (minY + maxY) * 0.5f * axisY;
+    float reach = Math.abs(axisX) * (maxX - minX) * 0.5f + Math.abs(axisY) * (maxY - minY) * 0.5f;
+    return !(colliderMax < centre - reach || centre + reach < colliderMin);
+  }
+
+  /**
+   * @param x Centre of the circle
+   * @param y Centre of the circle
+   * @param radius Radius of the circle
+   * @param collider Collider to test
+   * @return True if the circle overlaps the collider
+   */
+  static boolean circle(float x, float y, float radius, Collider collider) {
+    switch (collider.getColliderType()) {
+      case BOX:
+        Vector2[] corners = ((BoxCollider) collider).getCorners();
+        float ux = corners[3].getX() - corners[0].getX();
+        float uy = corners[3].getY() - corners[0].getY();
+        float vx = corners[1].getX() - corners[0].getX();
+        float vy = corners[1].getY() - corners[0].getY();
+        //Closest point of the box to the centre, as fractions along the box's edges
+        float mx = x - corners[0].getX();
+        float my = y - corners[0].getY();
+        float u = clampedFraction(mx * ux + my * uy, ux * ux + uy * uy);
+        float v = clampedFraction(mx * vx + my * vy, vx * vx + vy * vy);
+        float dx = mx - u * ux - v * vx;
+        float dy = my - u * uy - v * vy;
+        return dx * dx + dy * dy <= radius * radius;
+      case CIRCLE:
+        CircleCollider circle = (CircleCollider) collider;
+        float cx = circle.getCentre().getX() - x;
+        float cy = circle.getCentre().getY() - y;
+        float reach = radius + circle.getRadius();
+        return cx * cx + cy * cy < reach * reach;
+      default:
+        return false;
+    }
+  }
+
+  private static float clampedFraction(float dot, float lengthSquared) {
+    if (lengthSquared == 0) {
+      return 0;
+    }
+    return Math.max(0, Math.min(1, dot / lengthSquared));
+  }
+}
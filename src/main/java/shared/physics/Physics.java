@@ -2,30 +2,14 @@ package shared.physics;
 
 import client.main.Client;
 import client.main.Settings;
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.UUID;
 import javafx.application.Platform;
 import javafx.scene.shape.Line;
 import javafx.scene.shape.Rectangle;
-import server.ai.Bot;
-import shared.gameObjects.GameObject;
-import shared.gameObjects.components.BoxCollider;
-import shared.gameObjects.components.CircleCollider;
-import shared.gameObjects.components.Collider;
-import shared.gameObjects.components.ComponentType;
-import shared.gameObjects.components.EdgeCollider;
-import shared.gameObjects.players.Limb;
-import shared.gameObjects.players.Player;
-import shared.gameObjects.weapons.Bullet;
-import shared.gameObjects.weapons.Weapon;
-import shared.physics.data.Collision;
-import shared.physics.data.DynamicCollision;
-import shared.util.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
 import shared.util.maths.Vector2;
 
 /**
- * @author fxa579 The singleton class respomsible for raycasting and physics constants/equations
+ * @author fxa579 The singleton class respomsible for physics constants/equations; the objects
+ * and the raycasts against them belong to each {@link PhysicsWorld}
  */
 public class Physics {
 
@@ -38,9 +22,30 @@ public class Physics {
    */
   public static final float TIMESTEP = 1f / 60;
   /**
-   * The number of increments that exist in a raycast's edge collider.
+   * The size of the broadphase's cells, matching the grid maps are built on
    */
-  private static final int RAYCAST_INC = 100;
+  public static final float BROADPHASE_CELL_SIZE = 40f;
+  /**
+   * System property choosing the backend new worlds use: "grid", the default, or "jbox2d"
+   */
+  public static final String BACKEND_PROPERTY = "physics.backend";
+  /**
+   * Speed below which a dynamic body counts as still
+   */
+  public static final float SLEEP_VELOCITY = 5f;
+  /**
+   * Updates a body must stay still for before it can be put to sleep
+   */
+  public static final int SLEEP_TICKS = 30;
+  /**
+   * Speed taken off a dynamic body's horizontal velocity every update
+   */
+  public static final float X_THRESHOLD = 10f;
+  /**
+   * Distance a projectile stopped by the continuous tests is left past the surface it hit, so the
+   * collider tests that follow find it touching
+   */
+  public static final float CONTINUOUS_SKIN = 1f;
   /**
    * Global setting to show colliders while in game (For Debugging)
    */
@@ -49,7 +54,6 @@ public class Physics {
    * Settings objects of client (For Debugging)
    */
   public static Settings settings;
-  public static ConcurrentLinkedHashMap<UUID, GameObject> gameObjects;
   /*
    * Order: DEFAULT, PLAYER, OBJECT, PLATFORM, PARTICLE, COLLECTABLE, LIMBS
    */
@@ -67,206 +71,25 @@ public class Physics {
    */
   public static boolean[][] COLLISION_LAYERS = {DEFAULT, PLAYER, OBJECT, PLATFORM, PARTICLES,
       COLLECTABLE, LIMBS, PROJECTILE};
-  /**
-   * A concurrent map used to synchronize collision updates.
-   */
-
-
-  private static ArrayList<DynamicCollision> collisions = new ArrayList<>();
-
-  private Physics(Settings settings) {
-    gameObjects = new ConcurrentLinkedHashMap.Builder<UUID, GameObject>()
-        .maximumWeightedCapacity(500).build();
-    this.settings = settings;
-  }
-
-  /**
-   * Casts a ray that interacts with colliders, returning the first collider it hits.
-   *
-   * @param sourcePos The point to start casting the ray
-   * @param lengthAndDirection The length and direction of the ray
-   * @param showCollider True to visualise the ray
-   * @return The first collider hit in the path, null if nothing was hit.
-   */
-  public static Collision raycast(Vector2 sourcePos, Vector2 lengthAndDirection,
-      boolean showCollider) {
-    EdgeCollider castCollider = new EdgeCollider(false);
-    Collision collision = null;
-    ArrayList<Collision> collisions = new ArrayList<>();
-    Vector2 incrementVal = lengthAndDirection.div(RAYCAST_INC);
-    for (int i = 0; i <= RAYCAST_INC; i++) {
-      castCollider.addNode(sourcePos.add(incrementVal.mult(i)));
-    }
-
-    if (showCollider) {
-      Platform.runLater(
-          () -> {
-            drawCast(castCollider.getNodes().get(0).getX(), castCollider.getNodes().get(0).getY(),
-                castCollider.getNodes().get(castCollider.getNodes().size() - 1).getX(),
-                castCollider.getNodes().get(castCollider.getNodes().size() - 1).getY(), "#00ff00");
-          }
-      );
-
-    }
-
-    Iterator<GameObject> iter = gameObjects.values().iterator();
-    while (iter.hasNext()) {
-      GameObject object = iter.next();
-      if (object instanceof Bullet) {
-        continue;
-      }
-
-      if (object.getComponent(ComponentType.COLLIDER) != null) {
-        collision =
-            new Collision(
-                object, castCollider, (Collider) object.getComponent(ComponentType.COLLIDER));
-        if (collision.isCollided()) {
-          collisions.add(collision);
-        }
-      }
-    }
-    if (collisions.size() > 0) {
-      Collision toRet = collisions.get(0);
-      for (Collision c : collisions) {
-        toRet = c.getPointOfCollision().sub(sourcePos).magnitude() <= toRet.getPointOfCollision()
-            .sub(sourcePos).magnitude() ? c : toRet;
-      }
-      return toRet;
-    } else {
-      return null;
-    }
-  }
-
-  /**
-   * Casts a ray that interacts with colliders, returning the first collider it hits, ignoring
-   * Limbs.
-   *
-   * @param sourcePos The point to start casting the ray
-   * @param lengthAndDirection The length and direction of the ray
-   * @param objects GameObjects to search for
-   * @param bot Bot that starts the raycast
-   * @param showCollider True to visualise the ray
-   * @return The first collider hit in the path, null if nothing was hit.
-   */
-  public static Collision raycastAi(Vector2 sourcePos, Vector2 lengthAndDirection,
-      ArrayList<GameObject> objects, Bot bot, boolean showCollider) {
-
-    Iterator<GameObject> iter;
-    if (objects == null) {
-      iter = gameObjects.values().iterator();
-    } else {
-      iter = objects.iterator();
-    }
-
-    EdgeCollider castCollider = new EdgeCollider(false);
-    Collision collision = null;
-    ArrayList<Collision> collisions = new ArrayList<>();
-    Vector2 incrementVal = lengthAndDirection.div(RAYCAST_INC);
-    for (int i = 0; i <= RAYCAST_INC; i++) {
-      castCollider.addNode(sourcePos.add(incrementVal.mult(i)));
-    }
-
-    if (showCollider) {
-      Platform.runLater(
-          () -> {
-            drawCast(castCollider.getNodes().get(0).getX(), castCollider.getNodes().get(0).getY(),
-                castCollider.getNodes().get(castCollider.getNodes().size() - 1).getX(),
-                castCollider.getNodes().get(castCollider.getNodes().size() - 1).getY(), "#00ff00");
-          }
-      );
-
-    }
-
-    while (iter.hasNext()) {
-      GameObject object = iter.next();
-
-      if (object instanceof Limb || object instanceof Bullet) {
-        continue;
-      }
-
-      if (object.getComponent(ComponentType.COLLIDER) != null) {
-        collision =
-            new Collision(
-                object, castCollider, (Collider) object.getComponent(ComponentType.COLLIDER));
 
-        boolean botHolder = false;
-        if (object instanceof Weapon) {
-          Weapon tempWeap = (Weapon) object;
-          botHolder = tempWeap.getHolder() == bot;
-        }
-
-        if (collision.isCollided() && !(object == bot || object.getParent() == bot || botHolder)) {
-          collisions.add(collision);
-        }
-      }
-    }
-    if (collisions.size() > 0) {
-      Collision toRet = collisions.get(0);
-      for (Collision c : collisions) {
-        toRet = c.getPointOfCollision().sub(sourcePos).magnitude() <= toRet.getPointOfCollision()
-            .sub(sourcePos).magnitude() ? c : toRet;
-      }
-      return toRet;
-    } else {
-      return null;
-    }
+  private Physics() {
   }
 
   /**
-   * Cast a ray which interacts with colliders in the world, ignoring Limbs and holder of weapon
+   * Makes the backend named by the {@link #BACKEND_PROPERTY} system property, so a deployment can
+   * pick the one that runs fastest for it
    *
-   * @param sourcePos Source of ray
-   * @param lengthAndDirection Length and direction of the ray
-   * @param holder Holder of the weapon which starts the raycast
-   * @param showCollider True to visualise the ray on cast
-   * @return First collision if there is one, null otherwise
-   */
-  public static Collision raycastBullet(Vector2 sourcePos, Vector2 lengthAndDirection,
-      Player holder, boolean showCollider) {
-    EdgeCollider castCollider = new EdgeCollider(false);
-    Collision collision = null;
-    ArrayList<Collision> collisions = new ArrayList<>();
-    Vector2 incrementVal = lengthAndDirection.div(RAYCAST_INC);
-    for (int i = 0; i <= RAYCAST_INC; i++) {
-      castCollider.addNode(sourcePos.add(incrementVal.mult(i)));
-    }
-
-    if (showCollider) {
-      Platform.runLater(
-          () -> {
-            drawCast(castCollider.getNodes().get(0).getX(), castCollider.getNodes().get(0).getY(),
-                castCollider.getNodes().get(castCollider.getNodes().size() - 1).getX(),
-                castCollider.getNodes().get(castCollider.getNodes().size() - 1).getY(), "#00ff00");
-          }
-      );
-
-    }
-
-    Iterator<GameObject> iter = gameObjects.values().iterator();
-    while (iter.hasNext()) {
-      GameObject object = iter.next();
-      if (object instanceof Limb || (object instanceof Player && object.equals(holder))) {
-        continue;
-      }
-
-      if (object.getComponent(ComponentType.COLLIDER) != null) {
-        collision =
-            new Collision(
-                object, castCollider, (Collider) object.getComponent(ComponentType.COLLIDER));
-        if (collision.isCollided()) {
-          collisions.add(collision);
-        }
-      }
-    }
-    if (collisions.size() > 0) {
-      Collision toRet = collisions.get(0);
-      for (Collision c : collisions) {
-        toRet = c.getPointOfCollision().sub(sourcePos).magnitude() <= toRet.getPointOfCollision()
-            .sub(sourcePos).magnitude() ? c : toRet;
-      }
-      return toRet;
-    } else {
-      return null;
+   * @return A new, empty backend
+   */
+  public static PhysicsBackend createBackend() {
+    String name = System.getProperty(BACKEND_PROPERTY, "grid");
+    switch (name.toLowerCase()) {
+      case "grid":
+        return new SpatialGrid(BROADPHASE_CELL_SIZE);
+      case "jbox2d":
+        return new JBox2DBackend();
+      default:
+        throw new IllegalArgumentException("Unknown physics backend: " + name);
     }
   }
 
@@ -305,197 +128,4 @@ public class Physics {
   public static void drawCircleCast(Vector2 centre, float radius) {
 
   }
-
-  /**
-   * Casts a ray that interacts with colliders, returning all colliders hit.
-   *
-   * @param sourcePos The point to start casting the ray
-   * @param lengthAndDirection The length and direction of the ray
-   * @param showCast True to visualise the ray
-   * @return All colliders hit in the path, empty if nothing was hit.
-   */
-  public static ArrayList<Collision> raycastAll(Vector2 sourcePos, Vector2 lengthAndDirection,
-      boolean showCast) {
-    EdgeCollider castCollider = new EdgeCollider(false);
-    Collision collision = null;
-    ArrayList<Collision> collisions = new ArrayList<>();
-    Vector2 incrementVal = lengthAndDirection.div(RAYCAST_INC);
-    for (int i = 0; i <= RAYCAST_INC; i++) {
-      castCollider.addNode(sourcePos.add(incrementVal.mult(i)));
-    }
-
-    if (showCast) {
-      Platform.runLater(
-          () -> {
-            drawCast(
-                castCollider.getNodes().get(0).getX(),
-                castCollider.getNodes().get(0).getY(),
-                castCollider.getNodes().get(castCollider.getNodes().size() - 1).getX(),
-                castCollider.getNodes().get(castCollider.getNodes().size() - 1).getY(),
-                "#00ff00");
-          });
-    }
-
-    for (GameObject object : gameObjects.values()) {
-      if (object.getComponent(ComponentType.COLLIDER) != null) {
-        collision =
-            new Collision(
-                object, castCollider, (Collider) object.getComponent(ComponentType.COLLIDER));
-        if (collision.isCollided()) {
-          collisions.add(collision);
-        }
-      }
-    }
-    return collisions;
-  }
-
-  /**
-   * Creates a box collider that returns the first collision it hits
-   *
-   * @param sourcePos The top-right corner of the box
-   * @param size The extents of the box
-   * @return The first collider hit in the path, null if nothing was hit
-   */
-  public static Collision boxcast(Vector2 sourcePos, Vector2 size) {
-    BoxCollider castCollider = new BoxCollider(sourcePos, size);
-    Collision collision;
-    ArrayList<Collision> collisions = new ArrayList<>();
-
-    Iterator<GameObject> iter = gameObjects.values().iterator();
-    while (iter.hasNext()) {
-      GameObject object = iter.next();
-
-      if (object instanceof Limb) {
-        continue;
-      }
-
-      if (object.getComponent(ComponentType.COLLIDER) != null) {
-        collision =
-            new Collision(
-                object, castCollider, (Collider) object.getComponent(ComponentType.COLLIDER));
-        if (collision.isCollided()) {
-          collisions.add(collision);
-        }
-      }
-    }
-    if (collisions.size() > 0) {
-      Collision toRet = collisions.get(0);
-      for (Collision c : collisions) {
-        toRet = c.getPointOfCollision().sub(sourcePos).magnitude() <= toRet.getPointOfCollision()
-            .sub(sourcePos).magnitude() ? c : toRet;
-      }
-      return toRet;
-    } else {
-      return null;
-    }
-  }
-
-  /**
-   * Creates a box collider that returns all collisions it hits
-   *
-   * @param sourcePos The top-right corner of the box
-   * @param size The extents of the box
-   * @param showCast True to visualise the ray
-   * @param ignoreLimbs True to ignore Limbs
-   * @return All colliders hit in the path, empty if nothing was hit
-   */
-  public static ArrayList<Collision> boxcastAll(Vector2 sourcePos, Vector2 size, boolean showCast,
-      boolean ignoreLimbs) {
-    BoxCollider castCollider = new BoxCollider(sourcePos, size);
-    Collision collision;
-    ArrayList<Collision> collisions = new ArrayList<>();
-
-    if (showCast) {
-      drawBoxCast(sourcePos, size);
-    }
-
-    Iterator<GameObject> iter = gameObjects.values().iterator();
-    while (iter.hasNext()) {
-      GameObject object = iter.next();
-
-      if (object instanceof Limb && ignoreLimbs) {
-        continue;
-      }
-
-      if (object.getComponent(ComponentType.COLLIDER) != null) {
-        collision =
-            new Collision(
-                object, castCollider, (Collider) object.getComponent(ComponentType.COLLIDER));
-        if (collision.isCollided()) {
-          collisions.add(collision);
-        }
-      }
-    }
-    return collisions;
-  }
-
-  /**
-   * Creates a circle collider that returns the first collision it hits
-   *
-   * @param sourcePos The centre of the circle
-   * @param radius The radius of the circle stretched from its centre
-   * @return The first collider hit in the path. null if nothing was hit
-   */
-  public static Collision circlecast(Vector2 sourcePos, float radius) {
-    Collision collision = null;
-    CircleCollider castCollider = new CircleCollider(sourcePos, radius);
-    for (GameObject object : gameObjects.values()) {
-      if (object.getComponent(ComponentType.COLLIDER) != null) {
-        collision =
-            new Collision(
-                object, castCollider, (Collider) object.getComponent(ComponentType.COLLIDER));
-        if (collision.isCollided()) {
-          return collision;
-        }
-      }
-    }
-    return null;
-  }
-
-  /**
-   * Creates a circle collider that returns the all collisions it hits
-   *
-   * @param sourcePos The centre of the circle
-   * @param radius The radius of the circle stretched from its centre
-   * @return All colliders hit in the path. empty if nothing was hit
-   */
-  public static ArrayList<Collision> circlecastAll(Vector2 sourcePos, float radius) {
-    Collision collision = null;
-    ArrayList<Collision> collisions = new ArrayList<>();
-    CircleCollider castCollider = new CircleCollider(sourcePos, radius);
-    for (GameObject object : gameObjects.values()) {
-      if (object.getComponent(ComponentType.COLLIDER) != null) {
-        if (object.getComponent(ComponentType.COLLIDER) != null) {
-          collision =
-              new Collision(
-                  object, castCollider, (Collider) object.getComponent(ComponentType.COLLIDER));
-          if (collision.isCollided()) {
-            collisions.add(collision);
-          }
-        }
-      }
-    }
-    return collisions;
-  }
-
-  /**
-   * Used by collision system to add a DynamicCollision if no duplicate existss
-   */
-  public static boolean addCollision(DynamicCollision dcol) {
-    for (DynamicCollision c : collisions) {
-      if (c.getBodyA() == dcol.getBodyB() && c.getBodyB() == dcol.getBodyA()) {
-        return false;
-      }
-    }
-    collisions.add(dcol);
-    return true;
-  }
-
-  /**
-   * Method to safely clear the collisions list.
-   */
-  public static void clearCollisions() {
-    collisions.clear();
-  }
-
 }
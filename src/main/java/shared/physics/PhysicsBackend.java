@@ -0,0 +1,67 @@
+package shared.physics;
+
+import java.util.List;
+import shared.gameObjects.GameObject;
+
+/**
+ * The part of a {@link PhysicsWorld} that keeps track of where its moving colliders are, so only
+ * the objects near a collider, a query or a ray need testing exactly. The world, its components
+ * and the exact tests are the same whichever backend is used, so backends can be swapped per
+ * deployment and measured against each other.
+ *
+ * <p>Backends are updated by the thread updating the world, and may be queried from other
+ * threads at the same time (the AI's path finding); those queries see the backend as it was at
+ * its last update.
+ *
+ * @see SpatialGrid
+ * @see JBox2DBackend
+ */
+public interface PhysicsBackend {
+
+  /**
+   * Brings the backend up to date with the objects and their colliders' current bounds. Baked
+   * static objects are left to the {@link StaticGeometry}. Objects missing from the given objects,
+   * that no longer have a collider or that have been baked are removed.
+   *
+   * @param objects Every object in the world
+   */
+  void update(Iterable<GameObject> objects);
+
+  /**
+   * Finds the objects whose colliders' bounds overlap the box with the given edges, adding each
+   * to found once
+   *
+   * @param minX Left edge of the box to search
+   * @param minY Top edge of the box to search
+   * @param maxX Right edge of the box to search
+   * @param maxY Bottom edge of the box to search
+   * @param found List the objects are added to
+   */
+  void query(float minX, float minY, float maxX, float maxY, List<GameObject> found);
+
+  /**
+   * Tests a ray against the objects it may hit, stopping once nothing left can be nearer than its
+   * nearest hit
+   *
+   * @param ray Ray to cast, which keeps the nearest hit
+   */
+  void raycast(Ray ray);
+
+  /**
+   * Removes every object from the backend
+   */
+  void clear();
+
+  /**
+   * @return Number of objects in the backend
+   */
+  int size();
+
+  /**
+   * @return Whether queries from several threads at once run side by side, rather than waiting
+   * on each other; the narrow phase is only split across threads for backends that do
+   */
+  default boolean isParallel() {
+    return true;
+  }
+}
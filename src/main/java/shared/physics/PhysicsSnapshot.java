@@ -0,0 +1,134 @@
+package shared.physics;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import shared.gameObjects.GameObject;
+import shared.gameObjects.Utils.Transform;
+import shared.gameObjects.components.Component;
+import shared.gameObjects.components.ComponentType;
+import shared.gameObjects.components.Rigidbody;
+import shared.physics.types.RigidbodyType;
+import shared.util.maths.Vector2;
+import shared.util.maths.Vector2Pool;
+
+/**
+ * The moving bodies of a world as they were at one moment: where each was, how it was moving,
+ * whether it was grounded or asleep and the forces waiting to act on it. The state is written into
+ * a byte buffer kept from one capture to the next, so a planner or rollback can checkpoint the
+ * world every step and rewind to it without allocating.
+ *
+ * <p>Only dynamic bodies are captured, as nothing else is moved by the simulation. Restoring puts
+ * the captured bodies back; objects added since are left where they are.
+ */
+public final class PhysicsSnapshot {
+
+  /**
+   * Bytes written for each body, at most
+   */
+  private static final int BODY_BYTES = 3 * 4 + Rigidbody.MAX_MOTION_BYTES;
+
+  private ByteBuffer buffer;
+  private GameObject[] objects;
+  private int bodies = 0;
+
+  /**
+   * Constructs an empty snapshot
+   */
+  public PhysicsSnapshot() {
+    this(16);
+  }
+
+  /**
+   * Constructs an empty snapshot
+   *
+   * @param capacity Bodies the snapshot holds before growing
+   */
+  public PhysicsSnapshot(int capacity) {
+    capacity = Math.max(1, capacity);
+    buffer = ByteBuffer.allocate(capacity * BODY_BYTES);
+    objects = new GameObject[capacity];
+    buffer.flip();
+  }
+
+  /**
+   * Captures the dynamic bodies of some objects, replacing what was captured before
+   *
+   * @param objects Objects to capture
+   */
+  public void capture(Iterable<GameObject> objects) {
+    ByteBuffer buffer = this.buffer;
+    buffer.clear();
+    int bodies = 0;
+    for (GameObject object : objects) {
+      Rigidbody body = (Rigidbody) object.getComponent(ComponentType.RIGIDBODY);
+      if (body == null || body.getBodyType() != RigidbodyType.DYNAMIC) {
+        continue;
+      }
+      if (bodies == this.objects.length) {
+        grow();
+        buffer = this.buffer;
+      }
+      this.objects[bodies++] = object;
+      Transform transform = object.getTransform();
+      buffer.putFloat(transform.getPos().getX()).putFloat(transform.getPos().getY());
+      buffer.putFloat(transform.getRot());
+      body.saveMotion(buffer);
+    }
+    //Let go of objects captured before, so they can be collected
+    if (bodies < this.bodies) {
+      Arrays.fill(this.objects, bodies, this.bodies, null);
+    }
+    this.bodies = bodies;
+    buffer.flip();
+  }
+
+  /**
+   * Puts every captured body back as it was captured, and works out its colliders again. The
+   * snapshot is kept, so it can be restored again.
+   */
+  public void restore() {
+    ByteBuffer buffer = this.buffer;
+    buffer.rewind();
+    Vector2Pool pool = Vector2Pool.get();
+    int mark = pool.mark();
+    Vector2 pos = pool.take(0, 0);
+    for (int i = 0; i < bodies; i++) {
+      GameObject object = objects[i];
+      Transform transform = object.getTransform();
+      transform.setPos(pos.set(buffer.getFloat(), buffer.getFloat()));
+      transform.setRot(buffer.getFloat());
+      ((Rigidbody) object.getComponent(ComponentType.RIGIDBODY)).loadMotion(buffer);
+      for (Component component : object.getComponents()) {
+        if (component.getComponentType() == ComponentType.COLLIDER) {
+          component.update();
+        }
+      }
+    }
+    pool.release(mark);
+  }
+
+  /**
+   * @return Bodies captured
+   */
+  public int getBodies() {
+    return bodies;
+  }
+
+  /**
+   * @return Bytes the captured bodies take up
+   */
+  public int getSize() {
+    return buffer.limit();
+  }
+
+  /**
+   * Doubles the bodies the snapshot holds, keeping those written so far
+   */
+  private void grow() {
+    objects = Arrays.copyOf(objects, objects.length * 2);
+    ByteBuffer grown = ByteBuffer.allocate(objects.length * BODY_BYTES);
+    buffer.flip();
+    grown.put(buffer);
+    buffer = grown;
+  }
+}
@@ -0,0 +1,464 @@
+package shared.physics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import shared.gameObjects.GameObject;
+import shared.gameObjects.components.Collider;
+import shared.gameObjects.components.ComponentType;
+import shared.gameObjects.components.Rigidbody;
+import shared.physics.data.AABB;
+import shared.physics.data.DynamicCollision;
+import shared.util.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import shared.util.maths.Vector2;
+
+/**
+ * The objects one level simulates and the collisions between them. Every level handler owns its
+ * own world, so the raycasts and collisions of one match never see the objects of another.
+ */
+public class PhysicsWorld {
+
+  private ConcurrentLinkedHashMap<UUID, GameObject> gameObjects;
+  /**
+   * Pairs of objects touching, kept between updates for their enter, stay and exit events
+   */
+  private final ContactManager contacts = new ContactManager();
+  /**
+   * Broadphase finding the objects each collider may be touching
+   */
+  private final PhysicsBackend backend;
+  /**
+   * The level's static colliders, baked when the level is loaded
+   */
+  private volatile StaticGeometry staticGeometry = StaticGeometry.EMPTY;
+  /**
+   * The motion of the rigidbodies of the objects in the world
+   */
+  private final BodyStore bodies = new BodyStore();
+  /**
+   * What each collider is touching, found before the update's collision checks
+   */
+  private final NarrowPhase narrowPhase = new NarrowPhase(this, ForkJoinPool.commonPool());
+  /**
+   * Sweeps fast projectiles back along their steps so they cannot pass through thin objects
+   */
+  private final ContinuousCollision continuous = new ContinuousCollision(this);
+  /**
+   * Scratch list and collision reused by the update's collision checks
+   */
+  private final ArrayList<GameObject> touchingScratch = new ArrayList<>();
+  private final DynamicCollision resolver = new DynamicCollision();
+  /**
+   * Collision pairs tested and casts made, counted from every thread for profiling
+   */
+  private final LongAdder pairTests = new LongAdder();
+  private final LongAdder raycasts = new LongAdder();
+
+  /**
+   * Constructor
+   *
+   * @param gameObjects Objects in the world
+   */
+  public PhysicsWorld(ConcurrentLinkedHashMap<UUID, GameObject> gameObjects) {
+    this(gameObjects, Physics.createBackend());
+  }
+
+  /**
+   * Constructor
+   *
+   * @param gameObjects Objects in the world
+   * @param backend Broadphase the world keeps its moving colliders in
+   */
+  public PhysicsWorld(ConcurrentLinkedHashMap<UUID, GameObject> gameObjects,
+      PhysicsBackend backend) {
+    this.gameObjects = gameObjects;
+    this.backend = backend;
+  }
+
+  /**
+   * @return Objects in the world
+   */
+  public ConcurrentLinkedHashMap<UUID, GameObject> getGameObjects() {
+    return gameObjects;
+  }
+
+  /**
+   * Replaces the objects in the world, used when a new level is loaded
+   *
+   * @param gameObjects Objects in the world
+   */
+  public void setGameObjects(ConcurrentLinkedHashMap<UUID, GameObject> gameObjects) {
+    this.gameObjects = gameObjects;
+    staticGeometry = StaticGeometry.EMPTY;
+    backend.clear();
+    narrowPhase.clear();
+    contacts.clear();
+  }
+
+  /**
+   * Bakes the static colliders of the objects in the world, run once the level is loaded. The
+   * baked objects are left out of the backend from then on.
+   */
+  public void bakeStaticGeometry() {
+    staticGeometry = StaticGeometry.bake(gameObjects.values());
+  }
+
+  /**
+   * Finds what each collider is touching, splitting the tests across cores in large worlds whose
+   * backend can be queried in parallel; run after the broadphase update and before the objects'
+   * collisions are checked
+   */
+  public void updateNarrowPhase() {
+    narrowPhase.update(gameObjects.values(), backend.isParallel());
+  }
+
+  /**
+   * Brings the broadphase up to date with where the objects' colliders are now, and the body store
+   * with the objects now in the world; run before the objects' collisions are checked each update.
+   * Fast projectiles that passed something on their last step are moved back to it first.
+   */
+  public void updateBroadphase() {
+    staticGeometry.releaseMoved();
+    backend.update(gameObjects.values());
+    if (continuous.update(gameObjects.values())) {
+      backend.update(gameObjects.values());
+    }
+    bodies.update(gameObjects.values());
+  }
+
+  /**
+   * Captures the moving bodies in the world, to be put back by {@link #restore(PhysicsSnapshot)}
+   *
+   * @param snapshot Snapshot written over
+   */
+  public void snapshot(PhysicsSnapshot snapshot) {
+    snapshot.capture(gameObjects.values());
+  }
+
+  /**
+   * Puts the world's moving bodies back as they were captured, and brings the broadphase up to
+   * date with them; run between updates, as the contacts are only found again by the next one
+   *
+   * @param snapshot Snapshot taken of this world
+   */
+  public void restore(PhysicsSnapshot snapshot) {
+    snapshot.restore();
+    backend.update(gameObjects.values());
+  }
+
+  /**
+   * Finds the objects that may be colliding with a collider, as of the last broadphase update.
+   * Baked static objects are only looked for when the collider is not baked itself, as nothing
+   * comes of static objects touching each other.
+   *
+   * @param collider Collider to find objects near
+   * @return Objects whose colliders' bounds overlap the collider's bounds
+   */
+  public ArrayList<GameObject> getCandidates(Collider collider) {
+    ArrayList<GameObject> candidates = new ArrayList<>();
+    findCandidates(collider, candidates);
+    return candidates;
+  }
+
+  /**
+   * Finds the objects whose first collider a collider is touching, for the update's collision
+   * checks. What was found by the narrow phase is used when the collider was tested in it; others
+   * are tested now, into a list reused by the next call.
+   *
+   * @param collider Collider being checked
+   * @return Objects the collider is touching; not to be changed or kept
+   */
+  public ArrayList<GameObject> getTouching(Collider collider) {
+    ArrayList<GameObject> touching = narrowPhase.get(collider);
+    if (touching == null) {
+      touching = touchingScratch;
+      touching.clear();
+      findTouching(collider, touching);
+    }
+    return touching;
+  }
+
+  /**
+   * Adds the objects whose first collider a collider is touching to a list; safe to run on many
+   * threads at once, as it only reads the broadphase and the colliders
+   */
+  void findTouching(Collider collider, ArrayList<GameObject> found) {
+    findCandidates(collider, found);
+    pairTests.add(found.size());
+    int kept = 0;
+    for (int i = 0; i < found.size(); i++) {
+      GameObject object = found.get(i);
+      Collider other = (Collider) object.getComponent(ComponentType.COLLIDER);
+      if (other != null && Collider.haveCollided(collider, other)) {
+        found.set(kept++, object);
+      }
+    }
+    for (int i = found.size() - 1; i >= kept; i--) {
+      found.remove(i);
+    }
+  }
+
+  private void findCandidates(Collider collider, List<GameObject> candidates) {
+    AABB bounds = collider.getBounds();
+    backend.query(bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY(),
+        candidates);
+    if (collider.getParent() == null || !collider.getParent().isStaticGeometry()) {
+      staticGeometry.query(bounds, candidates);
+    }
+  }
+
+  /**
+   * @return The level's baked static colliders
+   */
+  public StaticGeometry getStaticGeometry() {
+    return staticGeometry;
+  }
+
+  /**
+   * Casts a ray, finding the first object it hits
+   *
+   * @param sourcePos The point to start casting the ray
+   * @param lengthAndDirection The length and direction of the ray
+   * @param filter Objects the ray can hit
+   * @param results Buffer cleared and given the hit, if any
+   * @return True if anything was hit
+   */
+  public boolean raycast(Vector2 sourcePos, Vector2 lengthAndDirection, QueryFilter filter,
+      QueryResults results) {
+    results.clear();
+    raycasts.increment();
+    Ray ray = results.ray;
+    ray.set(sourcePos.getX(), sourcePos.getY(), lengthAndDirection.getX(),
+        lengthAndDirection.getY(), 0, 0, 0, filter);
+    backend.raycast(ray);
+    staticGeometry.raycast(ray);
+    return ray.writeHit(results);
+  }
+
+  /**
+   * Casts a ray, finding every object it hits
+   *
+   * @param sourcePos The point to start casting the ray
+   * @param lengthAndDirection The length and direction of the ray
+   * @param filter Objects the ray can hit
+   * @param results Buffer cleared and given the hits, nearest first
+   * @return Number of objects hit
+   */
+  public int raycastAll(Vector2 sourcePos, Vector2 lengthAndDirection, QueryFilter filter,
+      QueryResults results) {
+    results.clear();
+    raycasts.increment();
+    Ray ray = results.ray;
+    ray.set(sourcePos.getX(), sourcePos.getY(), lengthAndDirection.getX(),
+        lengthAndDirection.getY(), 0, 0, 0, filter);
+    ArrayList<GameObject> candidates = findCandidates(ray.getMinX(), ray.getMinY(),
+        ray.getMaxX(), ray.getMaxY(), results);
+    for (int i = 0; i < candidates.size(); i++) {
+      GameObject object = candidates.get(i);
+      float fraction = ray.intersect(object);
+      if (fraction <= 1) {
+        results.add(object, ray.getPointX(fraction), ray.getPointY(fraction), ray.getNormalX(),
+            ray.getNormalY(), ray.getDistance(fraction));
+      }
+    }
+    candidates.clear();
+    results.sortByDistance();
+    return results.size();
+  }
+
+  /**
+   * Finds the objects overlapping an axis-aligned box
+   *
+   * @param sourcePos The top-left corner of the box
+   * @param size The extents of the box
+   * @param filter Objects that can be found
+   * @param results Buffer cleared and given the objects found
+   * @return Number of objects found
+   */
+  public int overlapBox(Vector2 sourcePos, Vector2 size, QueryFilter filter,
+      QueryResults results) {
+    results.clear();
+    float minX = Math.min(sourcePos.getX(), sourcePos.getX() + size.getX());
+    float minY = Math.min(sourcePos.getY(), sourcePos.getY() + size.getY());
+    float maxX = Math.max(sourcePos.getX(), sourcePos.getX() + size.getX());
+    float maxY = Math.max(sourcePos.getY(), sourcePos.getY() + size.getY());
+    ArrayList<GameObject> candidates = findCandidates(minX, minY, maxX, maxY, results);
+    for (int i = 0; i < candidates.size(); i++) {
+      GameObject object = candidates.get(i);
+      Collider collider = (Collider) object.getComponent(ComponentType.COLLIDER);
+      if (filter.accepts(object, collider)
+          && Overlap.box(minX, minY, maxX, maxY, collider)) {
+        results.add(object, 0, 0, 0, 0, 0);
+      }
+    }
+    candidates.clear();
+    return results.size();
+  }
+
+  /**
+   * Finds the objects overlapping a circle
+   *
+   * @param centre The centre of the circle
+   * @param radius The radius of the circle
+   * @param filter Objects that can be found
+   * @param results Buffer cleared and given the objects found
+   * @return Number of objects found
+   */
+  public int overlapCircle(Vector2 centre, float radius, QueryFilter filter,
+      QueryResults results) {
+    results.clear();
+    float x = centre.getX();
+    float y = centre.getY();
+    ArrayList<GameObject> candidates =
+        findCandidates(x - radius, y - radius, x + radius, y + radius, results);
+    for (int i = 0; i < candidates.size(); i++) {
+      GameObject object = candidates.get(i);
+      Collider collider = (Collider) object.getComponent(ComponentType.COLLIDER);
+      if (filter.accepts(object, collider) && Overlap.circle(x, y, radius, collider)) {
+        results.add(object, 0, 0, 0, 0, 0);
+      }
+    }
+    candidates.clear();
+    return results.size();
+  }
+
+  /**
+   * Sweeps an axis-aligned box along a path, finding the first object it hits
+   *
+   * @param sourcePos The top-left corner of the box at the start of the path
+   * @param size The extents of the box
+   * @param motion The length and direction of the path
+   * @param filter Objects the box can hit
+   * @param results Buffer cleared and given the hit, if any, with the point the box's centre had
+   * reached
+   * @return True if anything was hit
+   */
+  public boolean sweepBox(Vector2 sourcePos, Vector2 size, Vector2 motion, QueryFilter filter,
+      QueryResults results) {
+    float halfWidth = Math.abs(size.getX()) * 0.5f;
+    float halfHeight = Math.abs(size.getY()) * 0.5f;
+    return sweep(Math.min(sourcePos.getX(), sourcePos.getX() + size.getX()) + halfWidth,
+        Math.min(sourcePos.getY(), sourcePos.getY() + size.getY()) + halfHeight, motion,
+        halfWidth, halfHeight, 0, filter, results);
+  }
+
+  /**
+   * Sweeps a circle along a path, finding the first object it hits
+   *
+   * @param centre The centre of the circle at the start of the path
+   * @param radius The radius of the circle
+   * @param motion The length and direction of the path
+   * @param filter Objects the circle can hit
+   * @param results Buffer cleared and given the hit, if any, with the point the circle's centre
+   * had reached
+   * @return True if anything was hit
+   */
+  public boolean sweepCircle(Vector2 centre, float radius, Vector2 motion, QueryFilter filter,
+      QueryResults results) {
+    return sweep(centre.getX(), centre.getY(), motion, 0, 0, radius, filter, results);
+  }
+
+  private boolean sweep(float x, float y, Vector2 motion, float halfWidth, float halfHeight,
+      float radius, QueryFilter filter, QueryResults results) {
+    results.clear();
+    raycasts.increment();
+    Ray ray = results.ray;
+    ray.set(x, y, motion.getX(), motion.getY(), halfWidth, halfHeight, radius, filter);
+    //Backends only cast along the centre of the path, so their objects along the whole path are
+    //tested instead
+    ArrayList<GameObject> candidates = results.candidates;
+    backend.query(ray.getMinX(), ray.getMinY(), ray.getMaxX(), ray.getMaxY(), candidates);
+    for (int i = 0; i < candidates.size(); i++) {
+      ray.test(candidates.get(i));
+    }
+    candidates.clear();
+    staticGeometry.raycast(ray);
+    return ray.writeHit(results);
+  }
+
+  /**
+   * Finds the objects in the backend and the static geometry whose bounds overlap a box, as of the
+   * last broadphase update
+   *
+   * @param results Buffer whose scratch list the objects are put in; cleared by the caller after
+   * @return The scratch list
+   */
+  private ArrayList<GameObject> findCandidates(float minX, float minY, float maxX, float maxY,
+      QueryResults results) {
+    ArrayList<GameObject> candidates = results.candidates;
+    candidates.clear();
+    backend.query(minX, minY, maxX, maxY, candidates);
+    staticGeometry.query(minX, minY, maxX, maxY, candidates);
+    return candidates;
+  }
+
+  /**
+   * Used by collision system to add a DynamicCollision if no duplicate exists
+   *
+   * @return False if the pair's collision has already been added this update
+   */
+  public boolean addCollision(DynamicCollision dcol) {
+    return contacts.resolve(dcol.getBodyA().getParent(), dcol.getBodyB().getParent());
+  }
+
+  /**
+   * Resolves a collision between two dynamic bodies for the update's collision checks, reusing
+   * one collision for every pair
+   *
+   * @param bodyA Body whose collisions are being checked
+   * @param bodyB Body it is touching
+   * @return False if the pair's collision has already been added this update
+   */
+  public boolean resolveCollision(Rigidbody bodyA, Rigidbody bodyB) {
+    resolver.set(bodyA, bodyB);
+    return contacts.resolve(bodyA.getParent(), bodyB.getParent());
+  }
+
+  /**
+   * Steps the world's moving bodies together, run after {@link #endCollisionPass()} and before the
+   * objects are updated; a body not stepped here, such as one outside any world, is stepped by its
+   * own update instead
+   */
+  public void step() {
+    bodies.step();
+  }
+
+  /**
+   * Ends the update's collision checks, sending the exit events of objects that stopped touching;
+   * run once every object's collisions have been checked
+   */
+  public void endCollisionPass() {
+    narrowPhase.clear();
+    contacts.endPass();
+  }
+
+  /**
+   * @return Collision pairs tested since the world was made
+   */
+  public long getPairTests() {
+    return pairTests.sum();
+  }
+
+  /**
+   * @return Rays cast and shapes swept since the world was made
+   */
+  public long getRaycasts() {
+    return raycasts.sum();
+  }
+
+  /**
+   * @return The motion of the rigidbodies in the world, as of the last broadphase update
+   */
+  public BodyStore getBodies() {
+    return bodies;
+  }
+
+  /**
+   * @return Pairs of objects touching, as of the last collision checks
+   */
+  public ContactManager getContacts() {
+    return contacts;
+  }
+}
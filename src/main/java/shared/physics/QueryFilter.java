@@ -0,0 +1,132 @@
+package shared.physics;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.function.Predicate;
+import shared.gameObjects.GameObject;
+import shared.gameObjects.components.Collider;
+import shared.physics.types.ColliderLayer;
+
+/**
+ * Decides which objects a query against a {@link PhysicsWorld} can find: those whose collider is
+ * on a layer in the filter's layer mask, that are not ignored and that pass its predicate, if it
+ * has one. Triggers are skipped unless asked for.
+ *
+ * <p>A filter is owned by whoever makes the queries and can be kept and reused between them; it
+ * must not be changed while a query using it is running.
+ */
+public final class QueryFilter {
+
+  /**
+   * Mask holding every layer
+   */
+  public static final int ALL_LAYERS = ~0;
+
+  private int layerMask;
+  private boolean hitTriggers = false;
+  private final Set<GameObject> ignored = Collections.newSetFromMap(new IdentityHashMap<>());
+  private Predicate<GameObject> predicate;
+
+  /**
+   * Filter finding everything a collider on the DEFAULT layer would collide with, the objects the
+   * casts have always found
+   */
+  public QueryFilter() {
+    this(collidingWith(ColliderLayer.DEFAULT));
+  }
+
+  /**
+   * Constructor
+   *
+   * @param layerMask Layers the filter finds, as made by {@link #layerMask(ColliderLayer...)}
+   */
+  public QueryFilter(int layerMask) {
+    this.layerMask = layerMask;
+  }
+
+  /**
+   * @param layers Layers to put in a mask
+   * @return Mask holding the given layers
+   */
+  public static int layerMask(ColliderLayer... layers) {
+    int mask = 0;
+    for (ColliderLayer layer : layers) {
+      mask |= 1 << layer.toInt();
+    }
+    return mask;
+  }
+
+  /**
+   * @param layer Layer colliding
+   * @return Mask holding the layers the given layer collides with
+   */
+  public static int collidingWith(ColliderLayer layer) {
+    int mask = 0;
+    for (ColliderLayer other : ColliderLayer.values()) {
+      if (Collider.canCollideWithLayer(layer, other)) {
+        mask |= 1 << other.toInt();
+      }
+    }
+    return mask;
+  }
+
+  /**
+   * Tests if a query using this filter can find an object
+   *
+   * @param object Object to test
+   * @param collider The object's collider
+   * @return True if the object can be found
+   */
+  public boolean accepts(GameObject object, Collider collider) {
+    return collider != null
+        && (layerMask & (1 << collider.getLayer().toInt())) != 0
+        && (hitTriggers || !collider.isTrigger())
+        && !ignored.contains(object)
+        && (predicate == null || predicate.test(object));
+  }
+
+  /**
+   * Ignores an object in every query using this filter, until {@link #clearIgnored()}
+   *
+   * @param object Object to ignore
+   * @return This filter
+   */
+  public QueryFilter ignore(GameObject object) {
+    ignored.add(object);
+    return this;
+  }
+
+  /**
+   * Stops ignoring every object ignored so far
+   *
+   * @return This filter
+   */
+  public QueryFilter clearIgnored() {
+    ignored.clear();
+    return this;
+  }
+
+  public QueryFilter setLayerMask(int layerMask) {
+    this.layerMask = layerMask;
+    return this;
+  }
+
+  public QueryFilter setHitTriggers(boolean hitTriggers) {
+    this.hitTriggers = hitTriggers;
+    return this;
+  }
+
+  /**
+   * @param predicate Test every object found must pass, null to find objects regardless
+   * @return This filter
+   */
+  public QueryFilter setPredicate(Predicate<GameObject> predicate) {
+    this.predicate = predicate;
+    return this;
+  }
+
+  public int getLayerMask() {
+    return layerMask;
+  }
+}
@@ -0,0 +1,153 @@
+package shared.physics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import shared.gameObjects.GameObject;
+import shared.physics.data.Collision;
+import shared.util.maths.Vector2;
+
+/**
+ * A buffer the queries of a {@link PhysicsWorld} write what they find to. It is owned by whoever
+ * makes the queries and reused between them, growing to the most results any one query has found,
+ * so once warmed up queries allocate nothing. Each query clears the buffer before writing to it.
+ *
+ * <p>Casts and sweeps write, for each object hit, the point on the cast where it was hit, the
+ * outward normal of the surface hit and the distance along the cast. Overlap queries only find
+ * objects; their points, normals and distances are left at zero.
+ *
+ * <p>A buffer must only be used by one thread at a time.
+ */
+public final class QueryResults {
+
+  private static final int INITIAL_CAPACITY = 8;
+
+  private GameObject[] objects = new GameObject[INITIAL_CAPACITY];
+  private float[] pointX = new float[INITIAL_CAPACITY];
+  private float[] pointY = new float[INITIAL_CAPACITY];
+  private float[] normalX = new float[INITIAL_CAPACITY];
+  private float[] normalY = new float[INITIAL_CAPACITY];
+  private float[] distance = new float[INITIAL_CAPACITY];
+  private int size = 0;
+
+  /**
+   * Scratch space for the queries writing to this buffer
+   */
+  final ArrayList<GameObject> candidates = new ArrayList<>();
+  final Ray ray = new Ray();
+
+  /**
+   * Forgets every result, keeping the space they used
+   */
+  public void clear() {
+    Arrays.fill(objects, 0, size, null);
+    size = 0;
+  }
+
+  void add(GameObject object, float x, float y, float nx, float ny, float dist) {
+    if (size == objects.length) {
+      int capacity = size * 2;
+      objects = Arrays.copyOf(objects, capacity);
+      pointX = Arrays.copyOf(pointX, capacity);
+      pointY = Arrays.copyOf(pointY, capacity);
+      normalX = Arrays.copyOf(normalX, capacity);
+      normalY = Arrays.copyOf(normalY, capacity);
+      distance = Arrays.copyOf(distance, capacity);
+    }
+    objects[size] = object;
+    pointX[size] = x;
+    pointY[size] = y;
+    normalX[size] = nx;
+    normalY[size] = ny;
+    distance[size] = dist;
+    size++;
+  }
+
+  /**
+   * Sorts the results nearest first. Casts rarely hit more than a handful of objects, so an
+   * insertion sort over the buffer's own arrays is used rather than anything that allocates.
+   */
+  void sortByDistance() {
+    for (int i = 1; i < size; i++) {
+      GameObject object = objects[i];
+      float x = pointX[i];
+      float y = pointY[i];
+      float nx = normalX[i];
+      float ny = normalY[i];
+      float dist = distance[i];
+      int j = i - 1;
+      while (j >= 0 && distance[j] > dist) {
+        objects[j + 1] = objects[j];
+        pointX[j + 1] = pointX[j];
+        pointY[j + 1] = pointY[j];
+        normalX[j + 1] = normalX[j];
+        normalY[j + 1] = normalY[j];
+        distance[j + 1] = distance[j];
+        j--;
+      }
+      objects[j + 1] = object;
+      pointX[j + 1] = x;
+      pointY[j + 1] = y;
+      normalX[j + 1] = nx;
+      normalY[j + 1] = ny;
+      distance[j + 1] = dist;
+    }
+  }
+
+  /**
+   * Builds a collision from a result; allocates, so is for callers that need one to keep
+   *
+   * @param index Index of the result
+   * @return The result as a collision
+   */
+  public Collision toCollision(int index) {
+    return new Collision(objects[index], new Vector2(pointX[index], pointY[index]),
+        new Vector2(normalX[index], normalY[index]), distance[index]);
+  }
+
+  /**
+   * Tests if an object is among the results
+   *
+   * @param object Object to look for
+   * @return True if the object was found
+   */
+  public boolean contains(GameObject object) {
+    for (int i = 0; i < size; i++) {
+      if (objects[i] == object) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public GameObject getObject(int index) {
+    return objects[index];
+  }
+
+  public float getPointX(int index) {
+    return pointX[index];
+  }
+
+  public float getPointY(int index) {
+    return pointY[index];
+  }
+
+  public float getNormalX(int index) {
+    return normalX[index];
+  }
+
+  public float getNormalY(int index) {
+    return normalY[index];
+  }
+
+  public float getDistance(int index) {
+    return distance[index];
+  }
+}
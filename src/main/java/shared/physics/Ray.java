@@ -0,0 +1,401 @@
+package shared.physics;
+
+import shared.gameObjects.GameObject;
+import shared.gameObjects.components.BoxCollider;
+import shared.gameObjects.components.CircleCollider;
+import shared.gameObjects.components.Collider;
+import shared.gameObjects.components.ComponentType;
+import shared.physics.data.AABB;
+import shared.physics.data.Collision;
+import shared.util.maths.Vector2;
+
+/**
+ * A ray cast through a world, and the nearest object it has been found to hit so far. Boxes are
+ * hit with a slab test along their own (possibly rotated) axes and circles by solving where the
+ * ray meets them, so every hit is exact. Distances along the ray are kept as fractions of its
+ * length, 0 at the source and 1 at the end.
+ *
+ * <p>A ray can also sweep an unrotated box or a circle along its length, in which case every
+ * collider is grown by the shape swept. Boxes grown by a circle, and circles grown by a box, are
+ * grown as boxes, so their corners are hit a little early.
+ */
+public final class Ray {
+
+  private float originX;
+  private float originY;
+  private float dirX;
+  private float dirY;
+  /**
+   * Half the size of the box swept, 0 when not sweeping a box
+   */
+  private float halfWidth;
+  private float halfHeight;
+  /**
+   * Radius of the circle swept, 0 when not sweeping a circle
+   */
+  private float radius;
+  private QueryFilter filter;
+
+  private GameObject hitObject;
+  private float hitFraction = Float.POSITIVE_INFINITY;
+  private float hitNormalX;
+  private float hitNormalY;
+
+  /**
+   * The part of the ray inside every slab clipped against so far, and the outward normal of the
+   * face where it enters them
+   */
+  private float enter;
+  private float exit;
+  private float normalX;
+  private float normalY;
+
+  /**
+   * Constructor
+   *
+   * @param sourcePos The point the ray starts from
+   * @param lengthAndDirection The length and direction of the ray
+   * @param filter Objects the ray can hit
+   */
+  public Ray(Vector2 sourcePos, Vector2 lengthAndDirection, QueryFilter filter) {
+    set(sourcePos.getX(), sourcePos.getY(), lengthAndDirection.getX(), lengthAndDirection.getY(),
+        0, 0, 0, filter);
+  }
+
+  /**
+   * Ray to be set before use, so one ray can be reused by many queries
+   */
+  Ray() {
+  }
+
+  /**
+   * Starts a new cast, forgetting any hit found
+   *
+   * @param originX Source of the ray
+   * @param originY Source of the ray
+   * @param dirX Length and direction of the ray
+   * @param dirY Length and direction of the ray
+   * @param halfWidth Half the width of the box swept, 0 if none
+   * @param halfHeight Half the height of the box swept, 0 if none
+   * @param radius Radius of the circle swept, 0 if none
+   * @param filter Objects the ray can hit
+   */
+  void set(float originX, float originY, float dirX, float dirY, float halfWidth,
+      float halfHeight, float radius, QueryFilter filter) {
+    this.originX = originX;
+    this.originY = originY;
+    this.dirX = dirX;
+    this.dirY = dirY;
+    this.halfWidth = halfWidth;
+    this.halfHeight = halfHeight;
+    this.radius = radius;
+    this.filter = filter;
+    hitObject = null;
+    hitFraction = Float.POSITIVE_INFINITY;
+  }
+
+  /**
+   * Tests the ray against an object, keeping it as the hit if it is nearer than any found so far
+   *
+   * @param object Object to test
+   * @return True if the object is the nearest hit so far
+   */
+  public boolean test(GameObject object) {
+    if (object == hitObject) {
+      return false;
+    }
+    float fraction = intersect(object);
+    if (fraction < hitFraction) {
+      hitFraction = fraction;
+      hitObject = object;
+      hitNormalX = normalX;
+      hitNormalY = normalY;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Finds where the ray first hits an object, leaving the normal of the surface hit in
+   * {@link #getNormalX()} and {@link #getNormalY()}
+   *
+   * @param object Object to test
+   * @return Fraction of the ray's length at which it hits, infinity if it misses or the filter
+   * does not accept the object
+   */
+  public float intersect(GameObject object) {
+    Collider collider = (Collider) object.getComponent(ComponentType.COLLIDER);
+    if (!filter.accepts(object, collider)) {
+      return Float.POSITIVE_INFINITY;
+    }
+    normalX = 0;
+    normalY = 0;
+    float fraction;
+    switch (collider.getColliderType()) {
+      case BOX:
+        fraction = intersect((BoxCollider) collider);
+        break;
+      case CIRCLE:
+        fraction = intersect((CircleCollider) collider);
+        break;
+      default:
+        return Float.POSITIVE_INFINITY;
+    }
+    if (normalX == 0 && normalY == 0) {
+      //Started inside, so face back along the ray
+      float length = (float) Math.sqrt(dirX * dirX + dirY * dirY);
+      if (length > 0) {
+        normalX = -dirX / length;
+        normalY = -dirY / length;
+      }
+    }
+    return fraction;
+  }
+
+  private float intersect(BoxCollider box) {
+    Vector2[] corners = box.getCorners();
+    float centreX = (corners[0].getX() + corners[2].getX()) * 0.5f;
+    float centreY = (corners[0].getY() + corners[2].getY()) * 0.5f;
+    float ux = corners[3].getX() - corners[0].getX();
+    float uy = corners[3].getY() - corners[0].getY();
+    float vx = corners[1].getX() - corners[0].getX();
+    float vy = corners[1].getY() - corners[0].getY();
+    float width = (float) Math.sqrt(ux * ux + uy * uy);
+    float height = (float) Math.sqrt(vx * vx + vy * vy);
+    if (width > 0) {
+      ux /= width;
+      uy /= width;
+    } else {
+      ux = 1;
+      uy = 0;
+    }
+    if (height > 0) {
+      vx /= height;
+      vy /= height;
+    } else {
+      vx = -uy;
+      vy = ux;
+    }
+    float mx = originX - centreX;
+    float my = originY - centreY;
+    enter = 0;
+    exit = 1;
+    if (clip(mx * ux + my * uy, dirX * ux + dirY * uy, width * 0.5f + grownBy(ux, uy), ux, uy)
+        && clip(mx * vx + my * vy, dirX * vx + dirY * vy, height * 0.5f + grownBy(vx, vy), vx,
+        vy)) {
+      return enter;
+    }
+    return Float.POSITIVE_INFINITY;
+  }
+
+  /**
+   * @param axisX Axis of a slab
+   * @param axisY Axis of a slab
+   * @return How far the shape swept reaches along the axis
+   */
+  private float grownBy(float axisX, float axisY) {
+    return Math.abs(axisX) * halfWidth + Math.abs(axisY) * halfHeight + radius;
+  }
+
+  private float intersect(CircleCollider circle) {
+    float centreX = circle.getCentre().getX();
+    float centreY = circle.getCentre().getY();
+    if (halfWidth > 0 || halfHeight > 0) {
+      enter = 0;
+      exit = 1;
+      float reach = circle.getRadius() + radius;
+      if (clip(originX - centreX, dirX, reach + halfWidth, 1, 0)
+          && clip(originY - centreY, dirY, reach + halfHeight, 0, 1)) {
+        return enter;
+      }
+      return Float.POSITIVE_INFINITY;
+    }
+    float mx = originX - centreX;
+    float my = originY - centreY;
+    float reach = circle.getRadius() + radius;
+    float c = mx * mx + my * my - reach * reach;
+    if (c <= 0) {
+      //Starts inside the circle
+      return 0;
+    }
+    float a = dirX * dirX + dirY * dirY;
+    float b = mx * dirX + my * dirY;
+    if (a == 0 || b > 0) {
+      return Float.POSITIVE_INFINITY;
+    }
+    float discriminant = b * b - a * c;
+    if (discriminant < 0) {
+      return Float.POSITIVE_INFINITY;
+    }
+    float fraction = (-b - (float) Math.sqrt(discriminant)) / a;
+    if (fraction > 1) {
+      return Float.POSITIVE_INFINITY;
+    }
+    fraction = Math.max(0, fraction);
+    normalX = (mx + dirX * fraction) / reach;
+    normalY = (my + dirY * fraction) / reach;
+    return fraction;
+  }
+
+  /**
+   * Finds where the ray, grown by any shape swept, enters an axis-aligned box; used to skip parts
+   * of the broadphase the ray does not reach
+   *
+   * @param bounds Box to test
+   * @return Fraction of the ray's length at which it enters the box, infinity if it misses
+   */
+  float intersect(AABB bounds) {
+    float halfX = (bounds.getMaxX() - bounds.getMinX()) * 0.5f;
+    float halfY = (bounds.getMaxY() - bounds.getMinY()) * 0.5f;
+    enter = 0;
+    exit = 1;
+    if (clip(originX - bounds.getMinX() - halfX, dirX, halfX + halfWidth + radius, 1, 0)
+        && clip(originY - bounds.getMinY() - halfY, dirY, halfY + halfHeight + radius, 0, 1)) {
+      return enter;
+    }
+    return Float.POSITIVE_INFINITY;
+  }
+
+  /**
+   * Clips the part of the ray kept so far to one slab, the space within a half extent of a
+   * centre line
+   *
+   * @param origin Ray's source along the slab's axis, relative to its centre
+   * @param direction Ray's direction along the slab's axis
+   * @param halfExtent Half the slab's width
+   * @param axisX The slab's axis
+   * @param axisY The slab's axis
+   * @return False if nothing of the ray is left
+   */
+  private boolean clip(float origin, float direction, float halfExtent, float axisX,
+      float axisY) {
+    if (direction == 0) {
+      return Math.abs(origin) <= halfExtent;
+    }
+    float near = (-halfExtent - origin) / direction;
+    float far = (halfExtent - origin) / direction;
+    if (near > far) {
+      float temp = near;
+      near = far;
+      far = temp;
+    }
+    if (near > enter) {
+      enter = near;
+      float sign = direction > 0 ? -1 : 1;
+      normalX = sign * axisX;
+      normalY = sign * axisY;
+    }
+    exit = Math.min(exit, far);
+    return enter <= exit;
+  }
+
+  /**
+   * Builds the collision for a hit on an object; allocates, so is for callers that need a
+   * collision to keep
+   *
+   * @param object Object hit
+   * @param fraction Fraction of the ray's length at which it hit
+   * @return The collision, with the point on the ray where it hit, the outward normal of the
+   * surface hit and the distance along the ray
+   */
+  public Collision toCollision(GameObject object, float fraction) {
+    intersect(object);
+    return new Collision(object, new Vector2(getPointX(fraction), getPointY(fraction)),
+        new Vector2(normalX, normalY), getDistance(fraction));
+  }
+
+  /**
+   * Writes the nearest hit found, if any, to a buffer
+   *
+   * @param results Buffer to add the hit to
+   * @return True if there was a hit
+   */
+  boolean writeHit(QueryResults results) {
+    if (hitObject == null) {
+      return false;
+    }
+    results.add(hitObject, getPointX(hitFraction), getPointY(hitFraction), hitNormalX,
+        hitNormalY, getDistance(hitFraction));
+    return true;
+  }
+
+  /**
+   * @return The bounds of the whole ray, grown by any shape swept
+   */
+  public AABB getBounds() {
+    return new AABB(getMinX(), getMinY(), getMaxX(), getMaxY());
+  }
+
+  float getMinX() {
+    return Math.min(originX, originX + dirX) - halfWidth - radius;
+  }
+
+  float getMinY() {
+    return Math.min(originY, originY + dirY) - halfHeight - radius;
+  }
+
+  float getMaxX() {
+    return Math.max(originX, originX + dirX) + halfWidth + radius;
+  }
+
+  float getMaxY() {
+    return Math.max(originY, originY + dirY) + halfHeight + radius;
+  }
+
+  /**
+   * @return The nearest hit found, null if nothing has been hit
+   */
+  public Collision getHit() {
+    if (hitObject == null) {
+      return null;
+    }
+    return new Collision(hitObject, new Vector2(getPointX(hitFraction), getPointY(hitFraction)),
+        new Vector2(hitNormalX, hitNormalY), getDistance(hitFraction));
+  }
+
+  /**
+   * @return Fraction of the ray's length to the nearest hit, infinity if nothing has been hit
+   */
+  public float getHitFraction() {
+    return hitFraction;
+  }
+
+  /**
+   * @return Normal of the surface found by the last intersect
+   */
+  public float getNormalX() {
+    return normalX;
+  }
+
+  public float getNormalY() {
+    return normalY;
+  }
+
+  float getPointX(float fraction) {
+    return originX + dirX * fraction;
+  }
+
+  float getPointY(float fraction) {
+    return originY + dirY * fraction;
+  }
+
+  float getDistance(float fraction) {
+    return fraction * (float) Math.sqrt(dirX * dirX + dirY * dirY);
+  }
+
+  float getOriginX() {
+    return originX;
+  }
+
+  float getOriginY() {
+    return originY;
+  }
+
+  float getDirX() {
+    return dirX;
+  }
+
+  float getDirY() {
+    return dirY;
+  }
+}
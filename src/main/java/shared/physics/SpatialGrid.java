@@ -0,0 +1,477 @@
+package shared.physics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import shared.gameObjects.GameObject;
+import shared.gameObjects.components.Collider;
+import shared.gameObjects.components.ComponentType;
+import shared.physics.data.AABB;
+
+/**
+ * The broadphase; a uniform grid that files every object with a collider under each cell its
+ * collider's bounds cover, so only the objects sharing a cell with a collider need the exact
+ * collision tests. The grid is kept up to date by {@link #update(Iterable)} on the simulation
+ * thread, which only moves an object between cells when its bounds leave the cells it is filed
+ * under. Cells are kept in an open addressing table keyed by a primitive long, each holding a
+ * plain array of its objects, so queries allocate nothing.
+ *
+ * <p>Only the simulation thread changes the grid. Queries may also be made from other threads (the
+ * AI's path finding); these see the grid as it was at the last update, or part way through it, and
+ * may miss an object on the update it crosses a cell. The table is replaced whole when it grows,
+ * so such a query always walks one table.
+ */
+public class SpatialGrid implements PhysicsBackend {
+
+  /**
+   * Objects covering more cells than this are kept in one list checked by every query, rather
+   * than filed under every cell
+   */
+  static final int MAX_CELLS_PER_OBJECT = 64;
+  private static final int INITIAL_CELLS = 256;
+
+  private final float cellSize;
+  private volatile Cells cells = new Cells(INITIAL_CELLS);
+  private final Cell oversized = new Cell();
+  /**
+   * The entry of each object in the grid
+   */
+  private final ConcurrentHashMap<UUID, Proxy> proxies = new ConcurrentHashMap<>();
+  private int updateCount = 0;
+
+  /**
+   * Constructor
+   *
+   * @param cellSize Width and height of each cell in pixels
+   */
+  public SpatialGrid(float cellSize) {
+    this.cellSize = cellSize;
+  }
+
+  /**
+   * Brings the grid up to date with the objects and their colliders' current bounds. Baked static
+   * objects are left to the {@link StaticGeometry}. Objects missing from the given objects, that no
+   * longer have a collider or that have been baked are removed.
+   *
+   * @param objects Every object in the world
+   */
+  @Override
+  public void update(Iterable<GameObject> objects) {
+    updateCount++;
+    for (GameObject object : objects) {
+      Collider collider = (Collider) object.getComponent(ComponentType.COLLIDER);
+      if (collider == null || object.isStaticGeometry()) {
+        continue;
+      }
+      AABB bounds = collider.getBounds();
+      Proxy proxy = proxies.get(object.getUUID());
+      if (proxy == null || proxy.object != object) {
+        if (proxy != null) {
+          remove(proxy);
+        }
+        proxy = new Proxy(object);
+        proxies.put(object.getUUID(), proxy);
+        proxy.placement = place(bounds);
+        insert(proxy, proxy.placement);
+      } else if (proxy.placement.bounds != bounds) {
+        Placement placement = place(bounds);
+        if (placement.sameCells(proxy.placement)) {
+          proxy.placement = placement;
+        } else {
+          remove(proxy);
+          proxy.placement = placement;
+          insert(proxy, placement);
+        }
+      }
+      proxy.lastUpdate = updateCount;
+    }
+    Iterator<Proxy> iterator = proxies.values().iterator();
+    while (iterator.hasNext()) {
+      Proxy proxy = iterator.next();
+      if (proxy.lastUpdate != updateCount) {
+        remove(proxy);
+        iterator.remove();
+      }
+    }
+  }
+
+  /**
+   * Removes every object from the grid
+   */
+  @Override
+  public void clear() {
+    proxies.clear();
+    cells = new Cells(INITIAL_CELLS);
+    oversized.clear();
+  }
+
+  /**
+   * Finds the objects whose colliders' bounds overlap the given bounds. These are only
+   * candidates; whether the colliders touch is left to the narrow phase.
+   *
+   * @param bounds Bounds to search
+   * @return Each object found, once
+   */
+  public ArrayList<GameObject> query(AABB bounds) {
+    ArrayList<GameObject> found = new ArrayList<>();
+    query(bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY(), found);
+    return found;
+  }
+
+  /**
+   * Finds the objects whose colliders' bounds overlap the box with the given edges, adding each
+   * to found once
+   *
+   * @param minX Left edge of the box to search
+   * @param minY Top edge of the box to search
+   * @param maxX Right edge of the box to search
+   * @param maxY Bottom edge of the box to search
+   * @param found List the objects are added to
+   */
+  @Override
+  public void query(float minX, float minY, float maxX, float maxY, List<GameObject> found) {
+    Proxy[] members = oversized.members;
+    for (int i = 0, count = Math.min(oversized.count, members.length); i < count; i++) {
+      Proxy proxy = members[i];
+      if (proxy == null) {
+        continue;
+      }
+      Placement placement = proxy.placement;
+      if (placement.oversized && placement.bounds.overlaps(minX, minY, maxX, maxY)) {
+        found.add(proxy.object);
+      }
+    }
+    boolean finite = Float.isFinite(minX) && Float.isFinite(minY) && Float.isFinite(maxX)
+        && Float.isFinite(maxY);
+    long fromX = finite ? (long) Math.floor(minX / cellSize) : 0;
+    long fromY = finite ? (long) Math.floor(minY / cellSize) : 0;
+    long toX = finite ? (long) Math.floor(maxX / cellSize) : 0;
+    long toY = finite ? (long) Math.floor(maxY / cellSize) : 0;
+    if (!finite || (toX - fromX + 1) * (toY - fromY + 1) > MAX_CELLS_PER_OBJECT) {
+      //Searching that many cells costs more than checking every object
+      for (Proxy proxy : proxies.values()) {
+        Placement placement = proxy.placement;
+        if (!placement.oversized && placement.bounds.overlaps(minX, minY, maxX, maxY)) {
+          found.add(proxy.object);
+        }
+      }
+      return;
+    }
+    Cells cells = this.cells;
+    for (int x = (int) fromX; x <= toX; x++) {
+      for (int y = (int) fromY; y <= toY; y++) {
+        Cell cell = cells.get(key(x, y));
+        if (cell == null) {
+          continue;
+        }
+        members = cell.members;
+        for (int i = 0, count = Math.min(cell.count, members.length); i < count; i++) {
+          Proxy proxy = members[i];
+          if (proxy == null) {
+            continue;
+          }
+          Placement placement = proxy.placement;
+          //An object filed under several searched cells is only reported from the first of them
+          if (!placement.oversized
+              && x == Math.max(fromX, placement.minX)
+              && y == Math.max(fromY, placement.minY)
+              && placement.bounds.overlaps(minX, minY, maxX, maxY)) {
+            found.add(proxy.object);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Casts a ray through the grid, testing the objects in each cell it crosses in order from its
+   * source. Stops at the first cell the ray leaves beyond its nearest hit, as nothing further on
+   * can be nearer.
+   *
+   * @param ray Ray to cast, which keeps the nearest hit
+   */
+  @Override
+  public void raycast(Ray ray) {
+    test(ray, oversized);
+    float originX = ray.getOriginX();
+    float originY = ray.getOriginY();
+    float dirX = ray.getDirX();
+    float dirY = ray.getDirY();
+    if (!Float.isFinite(originX) || !Float.isFinite(originY) || !Float.isFinite(dirX)
+        || !Float.isFinite(dirY)) {
+      return;
+    }
+    int x = (int) Math.floor(originX / cellSize);
+    int y = (int) Math.floor(originY / cellSize);
+    int endX = (int) Math.floor((originX + dirX) / cellSize);
+    int endY = (int) Math.floor((originY + dirY) / cellSize);
+    int stepX = dirX > 0 ? 1 : dirX < 0 ? -1 : 0;
+    int stepY = dirY > 0 ? 1 : dirY < 0 ? -1 : 0;
+    //Fraction of the ray at which it crosses into the next column and row of cells
+    float nextX = stepX == 0 ? Float.POSITIVE_INFINITY
+        : ((x + (stepX > 0 ? 1 : 0)) * cellSize - originX) / dirX;
+    float nextY = stepY == 0 ? Float.POSITIVE_INFINITY
+        : ((y + (stepY > 0 ? 1 : 0)) * cellSize - originY) / dirY;
+    float deltaX = stepX == 0 ? Float.POSITIVE_INFINITY : cellSize / Math.abs(dirX);
+    float deltaY = stepY == 0 ? Float.POSITIVE_INFINITY : cellSize / Math.abs(dirY);
+    int cellsLeft = Math.abs(endX - x) + Math.abs(endY - y);
+    Cells cells = this.cells;
+    while (true) {
+      Cell cell = cells.get(key(x, y));
+      if (cell != null) {
+        test(ray, cell);
+      }
+      if (cellsLeft-- <= 0 || ray.getHitFraction() <= Math.min(nextX, nextY)) {
+        return;
+      }
+      if (nextX < nextY) {
+        x += stepX;
+        nextX += deltaX;
+      } else {
+        y += stepY;
+        nextY += deltaY;
+      }
+    }
+  }
+
+  private static void test(Ray ray, Cell cell) {
+    Proxy[] members = cell.members;
+    for (int i = 0, count = Math.min(cell.count, members.length); i < count; i++) {
+      Proxy proxy = members[i];
+      if (proxy != null) {
+        ray.test(proxy.object);
+      }
+    }
+  }
+
+  /**
+   * @return Number of objects in the grid
+   */
+  @Override
+  public int size() {
+    return proxies.size();
+  }
+
+  private void insert(Proxy proxy, Placement placement) {
+    if (placement.oversized) {
+      oversized.add(proxy);
+      return;
+    }
+    for (int x = placement.minX; x <= placement.maxX; x++) {
+      for (int y = placement.minY; y <= placement.maxY; y++) {
+        cell(key(x, y)).add(proxy);
+      }
+    }
+  }
+
+  private void remove(Proxy proxy) {
+    Placement placement = proxy.placement;
+    if (placement.oversized) {
+      oversized.remove(proxy);
+    } else {
+      Cells cells = this.cells;
+      for (int x = placement.minX; x <= placement.maxX; x++) {
+        for (int y = placement.minY; y <= placement.maxY; y++) {
+          Cell cell = cells.get(key(x, y));
+          if (cell != null) {
+            cell.remove(proxy);
+          }
+        }
+      }
+    }
+  }
+
+  private Placement place(AABB bounds) {
+    if (!Float.isFinite(bounds.getMinX()) || !Float.isFinite(bounds.getMinY())
+        || !Float.isFinite(bounds.getMaxX()) || !Float.isFinite(bounds.getMaxY())) {
+      return new Placement(bounds, 0, 0, 0, 0, true);
+    }
+    long minX = (long) Math.floor(bounds.getMinX() / cellSize);
+    long minY = (long) Math.floor(bounds.getMinY() / cellSize);
+    long maxX = (long) Math.floor(bounds.getMaxX() / cellSize);
+    long maxY = (long) Math.floor(bounds.getMaxY() / cellSize);
+    boolean oversized = (maxX - minX + 1) * (maxY - minY + 1) > MAX_CELLS_PER_OBJECT;
+    return new Placement(bounds, (int) minX, (int) minY, (int) maxX, (int) maxY, oversized);
+  }
+
+  /**
+   * @return The cell with the given key, added if the grid has none. Emptied cells are kept until
+   * the table next grows, which drops them, so objects moving back and forth reuse their cells.
+   */
+  private Cell cell(long key) {
+    Cells cells = this.cells;
+    Cell cell = cells.get(key);
+    if (cell != null) {
+      return cell;
+    }
+    if ((cells.used + 1) * 4 > cells.keys.length * 3) {
+      cells = cells.rehash();
+      this.cells = cells;
+    }
+    return cells.add(key);
+  }
+
+  private static long key(int x, int y) {
+    return ((long) x << 32) | (y & 0xffffffffL);
+  }
+
+  private static int hash(long key) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+
+  /**
+   * The objects filed under one cell. Only the simulation thread changes it; a query on another
+   * thread racing a change may see a member missing, twice or as a gap.
+   */
+  private static final class Cell {
+
+    private Proxy[] members = new Proxy[4];
+    private int count = 0;
+
+    private void add(Proxy proxy) {
+      if (count == members.length) {
+        members = Arrays.copyOf(members, count * 2);
+      }
+      members[count++] = proxy;
+    }
+
+    private void remove(Proxy proxy) {
+      for (int i = 0; i < count; i++) {
+        if (members[i] == proxy) {
+          //Shifted down rather than swapped, so the objects are still found in the order filed
+          System.arraycopy(members, i + 1, members, i, --count - i);
+          members[count] = null;
+          return;
+        }
+      }
+    }
+
+    private void clear() {
+      Arrays.fill(members, 0, count, null);
+      count = 0;
+    }
+  }
+
+  /**
+   * An open addressing table of cells keyed by their column and row, using linear probing. Cells
+   * are never removed from a table; a table is only added to until it is replaced.
+   */
+  private static final class Cells {
+
+    private final long[] keys;
+    private final Cell[] cells;
+    private int used = 0;
+
+    private Cells(int capacity) {
+      keys = new long[capacity];
+      cells = new Cell[capacity];
+    }
+
+    /**
+     * @return The cell with the given key, null if there is none
+     */
+    private Cell get(long key) {
+      int mask = keys.length - 1;
+      for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+        Cell cell = cells[i];
+        if (cell == null || keys[i] == key) {
+          return cell;
+        }
+      }
+    }
+
+    private Cell add(long key) {
+      int mask = keys.length - 1;
+      int index = hash(key) & mask;
+      while (cells[index] != null) {
+        index = (index + 1) & mask;
+      }
+      Cell cell = new Cell();
+      keys[index] = key;
+      cells[index] = cell;
+      used++;
+      return cell;
+    }
+
+    /**
+     * @return A new table holding this table's cells that are not empty, twice the size if they
+     * would fill more than half of one the same size
+     */
+    private Cells rehash() {
+      int occupied = 0;
+      for (Cell cell : cells) {
+        if (cell != null && cell.count > 0) {
+          occupied++;
+        }
+      }
+      Cells table = new Cells(occupied * 2 + 2 > keys.length ? keys.length * 2 : keys.length);
+      int mask = table.keys.length - 1;
+      for (int i = 0; i < keys.length; i++) {
+        Cell cell = cells[i];
+        if (cell == null || cell.count == 0) {
+          continue;
+        }
+        int index = hash(keys[i]) & mask;
+        while (table.cells[index] != null) {
+          index = (index + 1) & mask;
+        }
+        table.keys[index] = keys[i];
+        table.cells[index] = cell;
+        table.used++;
+      }
+      return table;
+    }
+  }
+
+  /**
+   * An object's entry in the grid
+   */
+  private static final class Proxy {
+
+    private final GameObject object;
+    /**
+     * Where the object is now, read by queries on any thread
+     */
+    private volatile Placement placement;
+    /**
+     * The last update the object was seen in, only used by the simulation thread
+     */
+    private int lastUpdate;
+
+    private Proxy(GameObject object) {
+      this.object = object;
+    }
+  }
+
+  /**
+   * The bounds of a collider and the cells they cover. Never changed once made, so queries on
+   * other threads always see a consistent placement.
+   */
+  private static final class Placement {
+
+    private final AABB bounds;
+    private final int minX;
+    private final int minY;
+    private final int maxX;
+    private final int maxY;
+    private final boolean oversized;
+
+    private Placement(AABB bounds, int minX, int minY, int maxX, int maxY, boolean oversized) {
+      this.bounds = bounds;
+      this.minX = minX;
+      this.minY = minY;
+      this.maxX = maxX;
+      this.maxY = maxY;
+      this.oversized = oversized;
+    }
+
+    private boolean sameCells(Placement other) {
+      return oversized == other.oversized && minX == other.minX && minY == other.minY
+          && maxX == other.maxX && maxY == other.maxY;
+    }
+  }
+}
@@ -0,0 +1,370 @@
+package shared.physics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import shared.gameObjects.GameObject;
+import shared.gameObjects.components.Collider;
+import shared.gameObjects.components.ComponentType;
+import shared.gameObjects.components.Rigidbody;
+import shared.physics.data.AABB;
+import shared.physics.types.ColliderType;
+import shared.physics.types.RigidbodyType;
+
+/**
+ * The static colliders of a level, baked once when the level is loaded into a bounding volume
+ * hierarchy. Unrotated blocks lined up edge to edge are merged into one larger box first, so a
+ * floor of many blocks is a single leaf of the tree; the blocks are still kept so collisions are
+ * reported against the block actually touched. Never changed once baked, so it may be queried from
+ * any thread.
+ *
+ * <p>A baked object that is moved after all (a jump pad being squished, say) is released back to
+ * the broadphase grid by {@link #releaseMoved()}; the tree then skips it.
+ */
+public final class StaticGeometry {
+
+  /**
+   * Geometry with nothing baked, used before a level is loaded
+   */
+  public static final StaticGeometry EMPTY = new StaticGeometry(new Leaf[0]);
+
+  /**
+   * How far apart two block edges can be while still counting as lined up
+   */
+  private static final float MERGE_TOLERANCE = 0.01f;
+
+  private final Leaf[] leaves;
+  private final Member[] members;
+  private final AABB[] nodeBounds;
+  /**
+   * Second child of each node; the first child is always the node after it
+   */
+  private final int[] nodeRight;
+  /**
+   * Leaf held by each node, -1 for nodes with children
+   */
+  private final int[] nodeLeaf;
+  private int nodeCount = 0;
+
+  private StaticGeometry(Leaf[] leaves) {
+    this.leaves = leaves;
+    ArrayList<Member> all = new ArrayList<>();
+    for (Leaf leaf : leaves) {
+      all.addAll(Arrays.asList(leaf.members));
+    }
+    members = all.toArray(new Member[0]);
+    int size = Math.max(0, leaves.length * 2 - 1);
+    nodeBounds = new AABB[size];
+    nodeRight = new int[size];
+    nodeLeaf = new int[size];
+    Integer[] order = new Integer[leaves.length];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    if (leaves.length > 0) {
+      build(order, 0, leaves.length);
+    }
+  }
+
+  /**
+   * Bakes the static objects of a level. An object is baked if it has a static rigidbody, a single
+   * collider and no behaviours that could move it; each baked object is marked as static geometry.
+   *
+   * @param objects Every object in the level
+   * @return The baked geometry
+   */
+  public static StaticGeometry bake(Iterable<GameObject> objects) {
+    ArrayList<Member> boxes = new ArrayList<>();
+    ArrayList<Leaf> leaves = new ArrayList<>();
+    for (GameObject object : objects) {
+      if (!canBake(object)) {
+        continue;
+      }
+      Member member = new Member(object);
+      object.setStaticGeometry(true);
+      Collider collider = (Collider) object.getComponent(ComponentType.COLLIDER);
+      if (collider.getColliderType() == ColliderType.BOX && member.rotation == 0) {
+        boxes.add(member);
+      } else {
+        leaves.add(new Leaf(member.bounds, new Member[]{member}));
+      }
+    }
+    leaves.addAll(merge(boxes));
+    return new StaticGeometry(leaves.toArray(new Leaf[0]));
+  }
+
+  private static boolean canBake(GameObject object) {
+    Rigidbody rb = (Rigidbody) object.getComponent(ComponentType.RIGIDBODY);
+    return rb != null
+        && rb.getBodyType() == RigidbodyType.STATIC
+        && !object.isDestroyed()
+        && object.getComponents(ComponentType.COLLIDER).size() == 1
+        && object.getComponents(ComponentType.BEHAVIOUR).isEmpty();
+  }
+
+  /**
+   * Merges boxes lined up edge to edge; first into rows of boxes with the same top and bottom,
+   * then rows with the same sides into columns
+   *
+   * @param boxes Unrotated boxes to merge
+   * @return Leaves holding the merged boxes
+   */
+  private static List<Leaf> merge(List<Member> boxes) {
+    ArrayList<Leaf> rows = new ArrayList<>();
+    boxes.sort(Comparator.comparingDouble((Member m) -> m.bounds.getMinY())
+        .thenComparingDouble(m -> m.bounds.getMaxY())
+        .thenComparingDouble(m -> m.bounds.getMinX()));
+    ArrayList<Member> run = new ArrayList<>();
+    AABB runBounds = null;
+    for (Member box : boxes) {
+      AABB b = box.bounds;
+      if (runBounds != null
+          && close(b.getMinY(), runBounds.getMinY()) && close(b.getMaxY(), runBounds.getMaxY())
+          && b.getMinX() <= runBounds.getMaxX() + MERGE_TOLERANCE) {
+        runBounds = new AABB(runBounds.getMinX(), runBounds.getMinY(),
+            Math.max(runBounds.getMaxX(), b.getMaxX()), runBounds.getMaxY());
+      } else {
+        if (runBounds != null) {
+          rows.add(new Leaf(runBounds, run.toArray(new Member[0])));
+          run.clear();
+        }
+        runBounds = b;
+      }
+      run.add(box);
+    }
+    if (runBounds != null) {
+      rows.add(new Leaf(runBounds, run.toArray(new Member[0])));
+    }
+
+    ArrayList<Leaf> columns = new ArrayList<>();
+    rows.sort(Comparator.comparingDouble((Leaf l) -> l.bounds.getMinX())
+        .thenComparingDouble(l -> l.bounds.getMaxX())
+        .thenComparingDouble(l -> l.bounds.getMinY()));
+    Leaf column = null;
+    for (Leaf row : rows) {
+      AABB b = row.bounds;
+      if (column != null
+          && close(b.getMinX(), column.bounds.getMinX())
+          && close(b.getMaxX(), column.bounds.getMaxX())
+          && b.getMinY() <= column.bounds.getMaxY() + MERGE_TOLERANCE) {
+        int length = column.members.length;
+        Member[] joined = Arrays.copyOf(column.members, length + row.members.length);
+        System.arraycopy(row.members, 0, joined, length, row.members.length);
+        column = new Leaf(new AABB(column.bounds.getMinX(), column.bounds.getMinY(),
+            column.bounds.getMaxX(), Math.max(column.bounds.getMaxY(), b.getMaxY())), joined);
+      } else {
+        if (column != null) {
+          columns.add(column);
+        }
+        column = row;
+      }
+    }
+    if (column != null) {
+      columns.add(column);
+    }
+    return columns;
+  }
+
+  private static boolean close(float a, float b) {
+    return Math.abs(a - b) <= MERGE_TOLERANCE;
+  }
+
+  /**
+   * Builds the tree over the given leaves, splitting each node's leaves in half along the longer
+   * side of its box
+   *
+   * @param order Indices of the leaves, reordered as the tree is built
+   * @param start First leaf of the node in order
+   * @param end One past the node's last leaf in order
+   * @return Index of the node built
+   */
+  private int build(Integer[] order, int start, int end) {
+    int node = nodeCount++;
+    float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY;
+    float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY;
+    for (int i = start; i < end; i++) {
+      AABB b = leaves[order[i]].bounds;
+      minX = Math.min(minX, b.getMinX());
+      minY = Math.min(minY, b.getMinY());
+      maxX = Math.max(maxX, b.getMaxX());
+      maxY = Math.max(maxY, b.getMaxY());
+    }
+    nodeBounds[node] = new AABB(minX, minY, maxX, maxY);
+    if (end - start == 1) {
+      nodeLeaf[node] = order[start];
+      return node;
+    }
+    nodeLeaf[node] = -1;
+    Comparator<Integer> byCentre = maxX - minX >= maxY - minY
+        ? Comparator.comparingDouble(i -> leaves[i].bounds.getMinX() + leaves[i].bounds.getMaxX())
+        : Comparator.comparingDouble(i -> leaves[i].bounds.getMinY() + leaves[i].bounds.getMaxY());
+    Arrays.sort(order, start, end, byCentre);
+    int middle = (start + end) / 2;
+    build(order, start, middle);
+    nodeRight[node] = build(order, middle, end);
+    return node;
+  }
+
+  /**
+   * Finds the baked objects whose colliders' bounds overlap the given bounds, adding them to found
+   *
+   * @param bounds Bounds to search
+   * @param found List the objects are added to
+   */
+  public void query(AABB bounds, List<GameObject> found) {
+    query(bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY(), found);
+  }
+
+  /**
+   * Finds the baked objects whose colliders' bounds overlap the box with the given edges, adding
+   * them to found
+   *
+   * @param minX Left edge of the box to search
+   * @param minY Top edge of the box to search
+   * @param maxX Right edge of the box to search
+   * @param maxY Bottom edge of the box to search
+   * @param found List the objects are added to
+   */
+  public void query(float minX, float minY, float maxX, float maxY, List<GameObject> found) {
+    if (nodeCount > 0) {
+      query(0, minX, minY, maxX, maxY, found);
+    }
+  }
+
+  private void query(int node, float minX, float minY, float maxX, float maxY,
+      List<GameObject> found) {
+    if (!nodeBounds[node].overlaps(minX, minY, maxX, maxY)) {
+      return;
+    }
+    int leaf = nodeLeaf[node];
+    if (leaf < 0) {
+      query(node + 1, minX, minY, maxX, maxY, found);
+      query(nodeRight[node], minX, minY, maxX, maxY, found);
+      return;
+    }
+    for (Member member : leaves[leaf].members) {
+      GameObject object = member.object;
+      if (object.isStaticGeometry() && !object.isDestroyed()
+          && member.bounds.overlaps(minX, minY, maxX, maxY)) {
+        found.add(object);
+      }
+    }
+  }
+
+  /**
+   * Casts a ray through the tree, visiting the nearer child of each node first and skipping
+   * nodes the ray only reaches beyond its nearest hit
+   *
+   * @param ray Ray to cast, which keeps the nearest hit
+   */
+  public void raycast(Ray ray) {
+    if (nodeCount > 0 && ray.intersect(nodeBounds[0]) < ray.getHitFraction()) {
+      raycast(0, ray);
+    }
+  }
+
+  private void raycast(int node, Ray ray) {
+    int leaf = nodeLeaf[node];
+    if (leaf >= 0) {
+      for (Member member : leaves[leaf].members) {
+        GameObject object = member.object;
+        if (object.isStaticGeometry() && !object.isDestroyed()) {
+          ray.test(object);
+        }
+      }
+      return;
+    }
+    int near = node + 1;
+    int far = nodeRight[node];
+    float nearEnter = ray.intersect(nodeBounds[near]);
+    float farEnter = ray.intersect(nodeBounds[far]);
+    if (farEnter < nearEnter) {
+      int temp = near;
+      near = far;
+      far = temp;
+      float tempEnter = nearEnter;
+      nearEnter = farEnter;
+      farEnter = tempEnter;
+    }
+    if (nearEnter < ray.getHitFraction()) {
+      raycast(near, ray);
+    }
+    if (farEnter < ray.getHitFraction()) {
+      raycast(far, ray);
+    }
+  }
+
+  /**
+   * Releases the baked objects that have been moved, resized or rotated since they were baked, so
+   * their colliders are updated again and the broadphase grid tracks them from now on
+   */
+  public void releaseMoved() {
+    for (Member member : members) {
+      GameObject object = member.object;
+      if (object.isStaticGeometry() && member.hasMoved()) {
+        object.setStaticGeometry(false);
+      }
+    }
+  }
+
+  /**
+   * @return Number of leaves in the tree, each a box merged from one or more blocks
+   */
+  public int getLeafCount() {
+    return leaves.length;
+  }
+
+  /**
+   * @return Number of objects baked
+   */
+  public int getObjectCount() {
+    return members.length;
+  }
+
+  /**
+   * A baked object, with its collider's bounds and its transform as it was when baked
+   */
+  private static final class Member {
+
+    private final GameObject object;
+    private final AABB bounds;
+    private final float x;
+    private final float y;
+    private final float width;
+    private final float height;
+    private final float rotation;
+
+    private Member(GameObject object) {
+      this.object = object;
+      this.bounds = ((Collider) object.getComponent(ComponentType.COLLIDER)).getBounds();
+      this.x = object.getTransform().getPos().getX();
+      this.y = object.getTransform().getPos().getY();
+      this.width = object.getTransform().getSize().getX();
+      this.height = object.getTransform().getSize().getY();
+      this.rotation = object.getTransform().getRot();
+    }
+
+    private boolean hasMoved() {
+      return object.getTransform().getPos().getX() != x
+          || object.getTransform().getPos().getY() != y
+          || object.getTransform().getSize().getX() != width
+          || object.getTransform().getSize().getY() != height
+          || object.getTransform().getRot() != rotation;
+    }
+  }
+
+  /**
+   * A leaf of the tree; a box merged from the bounds of one or more baked objects
+   */
+  private static final class Leaf {
+
+    private final AABB bounds;
+    private final Member[] members;
+
+    private Leaf(AABB bounds, Member[] members) {
+      this.bounds = bounds;
+      this.members = members;
+    }
+  }
+}
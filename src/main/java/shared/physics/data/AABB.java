@@ -0,0 +1,68 @@
+package shared.physics.data;
+
+/**
+ * An axis-aligned bounding box, the smallest box lined up with the world axes that holds a
+ * collider. Used by the broadphase to rule out pairs of colliders that cannot touch.
+ */
+public final class AABB {
+
+  private final float minX;
+  private final float minY;
+  private final float maxX;
+  private final float maxY;
+
+  /**
+   * Constructor
+   *
+   * @param minX Left edge
+   * @param minY Top edge
+   * @param maxX Right edge
+   * @param maxY Bottom edge
+   */
+  public AABB(float minX, float minY, float maxX, float maxY) {
+    this.minX = minX;
+    this.minY = minY;
+    this.maxX = maxX;
+    this.maxY = maxY;
+  }
+
+  /**
+   * Tests if two boxes overlap; boxes that only touch on an edge count as overlapping, as the
+   * narrow phase treats touching colliders as colliding
+   *
+   * @param other Box to test against
+   * @return True if the boxes overlap
+   */
+  public boolean overlaps(AABB other) {
+    return overlaps(other.minX, other.minY, other.maxX, other.maxY);
+  }
+
+  /**
+   * Tests if the box overlaps the box with the given edges, counting touching edges as overlapping
+   *
+   * @param minX Left edge of the other box
+   * @param minY Top edge of the other box
+   * @param maxX Right edge of the other box
+   * @param maxY Bottom edge of the other box
+   * @return True if the boxes overlap
+   */
+  public boolean overlaps(float minX, float minY, float maxX, float maxY) {
+    return this.minX <= maxX && minX <= this.maxX && this.minY <= maxY && minY <= this.maxY;
+  }
+
+  public float getMinX() {
+    return minX;
+  }
+
+  public float getMinY() {
+    return minY;
+  }
+
+  public float getMaxX() {
+    return maxX;
+  }
+
+  public float getMaxY() {
+    return maxY;
+  }
+}
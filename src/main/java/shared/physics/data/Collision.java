@@ -17,6 +17,14 @@ public class Collision {
   private float penDepth;
   private Vector2 pointOfCollision;
   private boolean collided;
+  /**
+   * Distance along the ray to the point hit, for collisions found by a raycast
+   */
+  private float distance;
+  /**
+   * Vector reused for the point of each collision set between boxes
+   */
+  private Vector2 point;
 
   /**
    * Container for collision class; holds data on the object collided with only
@@ -30,11 +38,65 @@ public class Collision {
     resolveCollision(colA, colB);
   }
 
+  /**
+   * Container for a ray hitting an object
+   *
+   * @param collidedObject The object hit
+   * @param pointOfCollision The point the ray hit
+   * @param normalCollision The outward normal of the surface hit
+   * @param distance Distance along the ray to the point hit
+   */
+  public Collision(GameObject collidedObject, Vector2 pointOfCollision, Vector2 normalCollision,
+      float distance) {
+    this.collidedObject = collidedObject;
+    this.pointOfCollision = pointOfCollision;
+    this.normalCollision = normalCollision;
+    this.distance = distance;
+    this.collided = true;
+  }
+
+  /**
+   * Empty collision, to be set before use so one can be reused for many events
+   */
+  public Collision() {
+  }
+
+  /**
+   * Sets this to a collision between two colliders already known to be touching
+   *
+   * @param collidedObject The object collided with
+   * @param colA The collider doing the colliding
+   * @param colB The collider attached to the collidedObject
+   */
+  public void set(GameObject collidedObject, Collider colA, Collider colB) {
+    set(collidedObject);
+    collided = true;
+    calculateData(colA, colB);
+  }
+
+  /**
+   * Sets this to hold the object collided with only, as for an object no longer touching
+   *
+   * @param collidedObject The object collided with
+   */
+  public void set(GameObject collidedObject) {
+    this.collidedObject = collidedObject;
+    normalCollision = null;
+    pointOfCollision = null;
+    penDepth = 0;
+    distance = 0;
+    collided = false;
+  }
+
   private void resolveCollision(Collider a, Collider b) {
     if (!(Collider.haveCollided(a, b))) {
       return;
     }
     collided = true;
+    calculateData(a, b);
+  }
+
+  private void calculateData(Collider a, Collider b) {
     switch (a.getColliderType()) {
       case BOX:
         switch (b.getColliderType()) {
@@ -75,27 +137,31 @@ public class Collision {
 
   //Assumes the boxes are not rotated
   private void calculateData(BoxCollider a, BoxCollider b) {
-    Vector2 n = b.getCentre().sub(a.getCentre());
-    float x_overlap = a.getSize().getX() * 0.5f + b.getSize().getX() * 0.5f - Math.abs(n.getX());
-    float y_overlap = a.getSize().getY() * 0.5f + b.getSize().getY() * 0.5f - Math.abs(n.getY());
-
-    Vector2 penetrationDistance = new Vector2(x_overlap, y_overlap);
-    if (penetrationDistance.getX() < penetrationDistance.getY()) {
-      if (n.getX() < 0) {
-        normalCollision = Vector2.Left();
+    float nx = b.getCentre().getX() - a.getCentre().getX();
+    float ny = b.getCentre().getY() - a.getCentre().getY();
+    float x_overlap = a.getSize().getX() * 0.5f + b.getSize().getX() * 0.5f - Math.abs(nx);
+    float y_overlap = a.getSize().getY() * 0.5f + b.getSize().getY() * 0.5f - Math.abs(ny);
+
+    if (x_overlap < y_overlap) {
+      if (nx < 0) {
+        normalCollision = Vector2.LEFT;
       } else {
-        normalCollision = Vector2.Right();
+        normalCollision = Vector2.RIGHT;
       }
       penDepth = x_overlap;
     } else {
-      if (n.getY() < 0) {
-        normalCollision = Vector2.Up();
+      if (ny < 0) {
+        normalCollision = Vector2.UP;
       } else {
-        normalCollision = Vector2.Down();
+        normalCollision = Vector2.DOWN;
       }
       penDepth = y_overlap;
     }
-    pointOfCollision = b.getCentre().sub(normalCollision.mult(penDepth));
+    if (point == null) {
+      point = new Vector2(0, 0);
+    }
+    pointOfCollision = point.set(b.getCentre().getX() - normalCollision.getX() * penDepth,
+        b.getCentre().getY() - normalCollision.getY() * penDepth);
   }
 
   private void calculateData(BoxCollider a, CircleCollider b) {
@@ -163,4 +229,8 @@ public class Collision {
   public boolean isCollided() {
     return collided;
   }
+
+  public float getDistance() {
+    return distance;
+  }
 }
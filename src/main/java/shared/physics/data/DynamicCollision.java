@@ -8,6 +8,7 @@ import shared.gameObjects.components.Rigidbody;
 import shared.gameObjects.weapons.Bullet;
 import shared.physics.types.RigidbodyType;
 import shared.util.maths.Vector2;
+import shared.util.maths.Vector2Pool;
 
 /**
  * @author fxa579 Processes and manages collisions happening with two Dynamic Rigidbodies. Used in
@@ -35,6 +36,11 @@ public class DynamicCollision {
    * Penetration depth as a float
    */
   protected float penetrationDepth;
+  /**
+   * Vectors reused for the normal and penetration of each collision processed
+   */
+  private final Vector2 normal = new Vector2(0, 0);
+  private final Vector2 penetration = new Vector2(0, 0);
 
   /**
    * Constructs and processes a Dynamic Collision
@@ -43,8 +49,27 @@ public class DynamicCollision {
    * @param bodyB Second body involved in Collision
    */
   public DynamicCollision(Rigidbody bodyA, Rigidbody bodyB) {
+    set(bodyA, bodyB);
+  }
+
+  /**
+   * Empty collision, to be set before use so one can process the collisions of many pairs
+   */
+  public DynamicCollision() {
+  }
+
+  /**
+   * Processes a collision between two bodies, replacing the collision last held
+   *
+   * @param bodyA First body involved in Collision
+   * @param bodyB Second body involved in Collision
+   */
+  public void set(Rigidbody bodyA, Rigidbody bodyB) {
     this.bodyA = bodyA;
     this.bodyB = bodyB;
+    collisionNormal = null;
+    penetrationDistance = null;
+    penetrationDepth = 0;
     calculateCollisionValues();
     process();
   }
@@ -80,27 +105,28 @@ public class DynamicCollision {
 
   private void resolveCollision(BoxCollider boxA, BoxCollider boxB) {
     //TODO Fix Up Rotation Pen Depth
-    Vector2 n = boxB.getCentre().sub(boxA.getCentre());
+    float nx = boxB.getCentre().getX() - boxA.getCentre().getX();
+    float ny = boxB.getCentre().getY() - boxA.getCentre().getY();
     float x_overlap =
-        boxA.getSize().getX() * 0.5f + boxB.getSize().getX() * 0.5f - Math.abs(n.getX());
+        boxA.getSize().getX() * 0.5f + boxB.getSize().getX() * 0.5f - Math.abs(nx);
     float y_overlap =
-        boxA.getSize().getY() * 0.5f + boxB.getSize().getY() * 0.5f - Math.abs(n.getY());
+        boxA.getSize().getY() * 0.5f + boxB.getSize().getY() * 0.5f - Math.abs(ny);
 
-    penetrationDistance = new Vector2(x_overlap, y_overlap);
-    if (penetrationDistance.getX() < penetrationDistance.getY()) {
-      if (n.getX() < 0) {
-        collisionNormal = Vector2.Left();
+    penetrationDistance = penetration.set(x_overlap, y_overlap);
+    if (x_overlap < y_overlap) {
+      if (nx < 0) {
+        collisionNormal = Vector2.LEFT;
       } else {
         collisionNormal =
-            bodyB.getBodyType() == RigidbodyType.STATIC ? Vector2.Right() : Vector2.Zero();
+            bodyB.getBodyType() == RigidbodyType.STATIC ? Vector2.RIGHT : Vector2.ZERO;
       }
       penetrationDepth = x_overlap;
     } else {
-      if (n.getY() < 0) {
-        collisionNormal = Vector2.Up();
+      if (ny < 0) {
+        collisionNormal = Vector2.UP;
         bodyB.setGrounded(!(bodyA.getParent() instanceof Bullet));
       } else {
-        collisionNormal = Vector2.Down();
+        collisionNormal = Vector2.DOWN;
         bodyA.setGrounded(!(bodyB.getParent() instanceof Bullet));
       }
       penetrationDepth = y_overlap;
@@ -108,79 +134,59 @@ public class DynamicCollision {
   }
 
   private void resolveCollision(BoxCollider boxA, CircleCollider circB) {
-
-    Vector2 n = circB.getCentre().sub(boxA.getCentre());
-    Vector2 extents = boxA.getSize().mult(0.5f);
-    Vector2 closestPoint = n.clamp(extents.mult(-1), extents);
-    boolean inside = false;
-
-    if (n.equals(closestPoint)) {
-      inside = true;
-      if (Math.abs(n.getX()) > Math.abs(n.getY())) {
-        closestPoint =
-            new Vector2(
-                closestPoint.getX() > 0 ? extents.getX() : extents.getX() * -1,
-                closestPoint.getY());
-      } else {
-        closestPoint =
-            new Vector2(
-                closestPoint.getX(),
-                closestPoint.getY() < 0 ? extents.getY() : extents.getY() * -1);
-      }
-    }
-
-    Vector2 normal = n.sub(closestPoint);
-    float d = normal.magnitude();
-    if (inside) {
-      collisionNormal = n.mult(-1);
-      penetrationDepth = circB.getRadius() - d;
-    } else {
-      collisionNormal = n;
-      penetrationDepth = circB.getRadius() - d;
-    }
+    resolveBoxCircle(circB.getCentre().getX() - boxA.getCentre().getX(),
+        circB.getCentre().getY() - boxA.getCentre().getY(), boxA, circB);
   }
 
   private void resolveCollision(CircleCollider circA, CircleCollider circB) {
   }
 
   private void resolveCollision(CircleCollider circB, BoxCollider boxA) {
-    Vector2 n = boxA.getCentre().sub(circB.getCentre());
-    Vector2 extents = boxA.getSize().mult(0.5f);
-    Vector2 closestPoint = n.clamp(extents.mult(-1), extents);
+    resolveBoxCircle(boxA.getCentre().getX() - circB.getCentre().getX(),
+        boxA.getCentre().getY() - circB.getCentre().getY(), boxA, circB);
+  }
+
+  /**
+   * Finds the normal and depth of a box and circle touching
+   *
+   * @param nx Vector between the centres of the box and circle
+   * @param ny Vector between the centres of the box and circle
+   */
+  private void resolveBoxCircle(float nx, float ny, BoxCollider boxA, CircleCollider circB) {
+    float extentX = boxA.getSize().getX() * 0.5f;
+    float extentY = boxA.getSize().getY() * 0.5f;
+    float closestX = Math.max(extentX * -1, Math.min(extentX, nx));
+    float closestY = Math.max(extentY * -1, Math.min(extentY, ny));
     boolean inside = false;
 
-    if (n.equals(closestPoint)) {
+    if (nx == closestX && ny == closestY) {
       inside = true;
-      if (Math.abs(n.getX()) > Math.abs(n.getY())) {
-        closestPoint =
-            new Vector2(
-                closestPoint.getX() > 0 ? extents.getX() : extents.getX() * -1,
-                closestPoint.getY());
+      if (Math.abs(nx) > Math.abs(ny)) {
+        closestX = closestX > 0 ? extentX : extentX * -1;
       } else {
-        closestPoint =
-            new Vector2(
-                closestPoint.getX(),
-                closestPoint.getY() < 0 ? extents.getY() : extents.getY() * -1);
+        closestY = closestY < 0 ? extentY : extentY * -1;
       }
     }
 
-    Vector2 normal = n.sub(closestPoint);
-    float d = normal.magnitude();
+    float dx = Math.abs(nx - closestX);
+    float dy = Math.abs(ny - closestY);
+    float d = 0.96f * Math.max(dx, dy) + 0.4f * Math.min(dx, dy);
     if (inside) {
-      collisionNormal = n.mult(-1);
-      penetrationDepth = circB.getRadius() - d;
+      collisionNormal = normal.set(nx * -1, ny * -1);
     } else {
-      collisionNormal = n;
-      penetrationDepth = circB.getRadius() - d;
+      collisionNormal = normal.set(nx, ny);
     }
+    penetrationDepth = circB.getRadius() - d;
   }
 
   /**
    * Processes the collision, adjusting the velocities and positions
    */
   protected void process() {
-    Vector2 velocityCol = bodyB.getVelocity().sub(bodyA.getVelocity());
-    float vOnNormal = velocityCol.dot(collisionNormal);
+    float velocityAX = bodyA.getVelocityX();
+    float velocityAY = bodyA.getVelocityY();
+    float vOnNormal = (bodyB.getVelocityX() - velocityAX) * collisionNormal.getX()
+        + (bodyB.getVelocityY() - velocityAY) * collisionNormal.getY();
     if (vOnNormal > 0) {
       return;
     }
@@ -189,30 +195,35 @@ public class DynamicCollision {
     float j = -1 * (1 + e) * vOnNormal;
     j /= bodyA.getInv_mass() + bodyB.getInv_mass();
 
-    Vector2 impulse = collisionNormal.mult(j);
-    bodyA.setVelocity(bodyA.getVelocity().sub(impulse.mult(bodyA.getInv_mass())));
-    bodyB.setVelocity(bodyB.getVelocity().add(impulse.mult(bodyB.getInv_mass())));
-
-    Vector2 positionCorrection = positionCorrection();
-    bodyA.correctPosition(positionCorrection.mult(-1 * bodyA.getInv_mass()));
-    bodyB.correctPosition(positionCorrection.mult(bodyB.getInv_mass()));
+    float impulseX = collisionNormal.getX() * j;
+    float impulseY = collisionNormal.getY() * j;
+    Vector2Pool pool = Vector2Pool.get();
+    int mark = pool.mark();
+    bodyA.setVelocity(pool.take(velocityAX - impulseX * bodyA.getInv_mass(),
+        velocityAY - impulseY * bodyA.getInv_mass()));
+    bodyB.setVelocity(pool.take(bodyB.getVelocityX() + impulseX * bodyB.getInv_mass(),
+        bodyB.getVelocityY() + impulseY * bodyB.getInv_mass()));
+
+    float correction = positionCorrection();
+    float correctionX = collisionNormal.getX() * correction;
+    float correctionY = collisionNormal.getY() * correction;
+    bodyA.correctPosition(pool.take(correctionX * (-1 * bodyA.getInv_mass()),
+        correctionY * (-1 * bodyA.getInv_mass())));
+    bodyB.correctPosition(
+        pool.take(correctionX * bodyB.getInv_mass(), correctionY * bodyB.getInv_mass()));
+    pool.release(mark);
   }
 
   /**
-   * Calculates the distance needed to translate the objects as a Vector2
+   * Calculates the distance needed to translate the objects along the collision normal
    */
-  protected Vector2 positionCorrection() {
+  protected float positionCorrection() {
     float percent = 0.8f;
     float slop = 0.08f;
 
-    Vector2 correction =
-        collisionNormal.mult(
-            Math.max(penetrationDepth - slop, 0.0f)
-                / (bodyA.getInv_mass() + bodyB.getInv_mass())
-                * percent);
-
-    return correction;
-    // return penetrationDistance;
+    return Math.max(penetrationDepth - slop, 0.0f)
+        / (bodyA.getInv_mass() + bodyB.getInv_mass())
+        * percent;
   }
 
   public Rigidbody getBodyA() {
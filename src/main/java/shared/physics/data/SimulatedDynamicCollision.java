@@ -2,6 +2,7 @@ package shared.physics.data;
 
 import shared.gameObjects.components.Rigidbody;
 import shared.util.maths.Vector2;
+import shared.util.maths.Vector2Pool;
 
 /**
  * Processes and manages collisions happening with two Dynamic Rigidbodies, but only alters the
@@ -21,8 +22,10 @@ public class SimulatedDynamicCollision extends DynamicCollision {
 
   @Override
   public void process() {
-    Vector2 velocityCol = bodyB.getVelocity().sub(bodyA.getVelocity());
-    float vOnNormal = velocityCol.dot(collisionNormal);
+    float velocityAX = bodyA.getVelocityX();
+    float velocityAY = bodyA.getVelocityY();
+    float vOnNormal = (bodyB.getVelocityX() - velocityAX) * collisionNormal.getX()
+        + (bodyB.getVelocityY() - velocityAY) * collisionNormal.getY();
     if (vOnNormal > 0) {
       return;
     }
@@ -31,10 +34,16 @@ public class SimulatedDynamicCollision extends DynamicCollision {
     float j = -1 * (1 + e) * vOnNormal;
     j /= bodyA.getInv_mass() + bodyB.getInv_mass();
 
-    Vector2 impulse = collisionNormal.mult(j);
-    bodyA.setVelocity(bodyA.getVelocity().sub(impulse.mult(bodyA.getInv_mass())));
+    Vector2Pool pool = Vector2Pool.get();
+    int mark = pool.mark();
+    bodyA.setVelocity(
+        pool.take(velocityAX - collisionNormal.getX() * j * bodyA.getInv_mass(),
+            velocityAY - collisionNormal.getY() * j * bodyA.getInv_mass()));
 
-    Vector2 positionCorrection = positionCorrection();
-    bodyA.correctPosition(positionCorrection.mult(-1 * bodyA.getInv_mass()));
+    float correction = positionCorrection();
+    bodyA.correctPosition(
+        pool.take(collisionNormal.getX() * correction * (-1 * bodyA.getInv_mass()),
+            collisionNormal.getY() * correction * (-1 * bodyA.getInv_mass())));
+    pool.release(mark);
   }
 }
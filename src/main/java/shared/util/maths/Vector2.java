@@ -4,9 +4,45 @@ import java.io.Serializable;
 
 /**
  * @author fxa579 Base class for Vector mathematics in 2-Dimensions
+ *
+ * <p>The methods such as {@link #add(Vector2)} return a new vector, leaving this one as it is.
+ * Each has a companion ending in Local, such as {@link #addLocal(Vector2)}, that changes this
+ * vector instead and returns it, for code run every update that should not allocate. Vectors
+ * changed in place must be owned by the code changing them; the constants such as {@link #ZERO}
+ * are shared, so cannot be changed.
  */
 public class Vector2 implements Serializable {
 
+  /**
+   * Pinned so maps and objects serialized by earlier builds can still be read
+   */
+  private static final long serialVersionUID = 8197672796472623063L;
+
+  /**
+   * (0, 0)
+   */
+  public static final Vector2 ZERO = new Constant(0, 0);
+  /**
+   * (1, 1)
+   */
+  public static final Vector2 UNIT = new Constant(1, 1);
+  /**
+   * (1, 0)
+   */
+  public static final Vector2 RIGHT = new Constant(1, 0);
+  /**
+   * (-1, 0)
+   */
+  public static final Vector2 LEFT = new Constant(-1, 0);
+  /**
+   * (0, 1)
+   */
+  public static final Vector2 DOWN = new Constant(0, 1);
+  /**
+   * (0, -1)
+   */
+  public static final Vector2 UP = new Constant(0, -1);
+
   private float x;
   private float y;
 
@@ -43,6 +79,16 @@ public class Vector2 implements Serializable {
     this.y = (float) y;
   }
 
+  /**
+   * Constructs a copy of a vector
+   *
+   * @param vector Vector to copy
+   */
+  public Vector2(Vector2 vector) {
+    this.x = vector.getX();
+    this.y = vector.getY();
+  }
+
   /**
    * Constructs a 2D Vector of floats from a class-generated string
    *
@@ -241,13 +287,26 @@ public class Vector2 implements Serializable {
     return a * (Math.max(ax, by)) + b * (Math.min(ax, by));
   }
 
+  /**
+   * Approximates the magnitude of a vector given by its elements, as {@link #magnitude()} does
+   *
+   * @param x X-Value of Vector
+   * @param y Y-Value of Vector
+   * @return Approximated Magnitude of Vector as float
+   */
+  public static float magnitude(float x, float y) {
+    float ax = Math.abs(x);
+    float by = Math.abs(y);
+    return 0.96f * Math.max(ax, by) + 0.4f * Math.min(ax, by);
+  }
+
   /**
    * Approximates the magnitude of a vector
    *
    * @return Approximated Magnitude of Vectors as float
    */
   public float magnitude() {
-    return magnitude(Vector2.Zero());
+    return magnitude(ZERO);
   }
 
   /**
@@ -278,7 +337,7 @@ public class Vector2 implements Serializable {
    * @return The angle between 0 and 180 between the vector and the world space
    */
   public float angle() {
-    return angleBetween(Zero());
+    return angleBetween(ZERO);
   }
 
   /**
@@ -358,6 +417,134 @@ public class Vector2 implements Serializable {
         x * Math.cos(angle) - y * Math.sin(angle), x * Math.sin(angle) + y * Math.cos(angle));
   }
 
+  // In-place methods
+
+  /**
+   * Sets both elements of the vector
+   *
+   * @return This vector
+   */
+  public Vector2 set(float x, float y) {
+    setX(x);
+    setY(y);
+    return this;
+  }
+
+  /**
+   * Sets the vector to match another
+   *
+   * @return This vector
+   */
+  public Vector2 set(Vector2 vector) {
+    return set(vector.getX(), vector.getY());
+  }
+
+  /**
+   * Adds the corresponding elements of another vector to this one
+   *
+   * @return This vector
+   */
+  public Vector2 addLocal(Vector2 vector) {
+    return set(getX() + vector.getX(), getY() + vector.getY());
+  }
+
+  /**
+   * Adds to each element of the vector
+   *
+   * @return This vector
+   */
+  public Vector2 addLocal(float x, float y) {
+    return set(getX() + x, getY() + y);
+  }
+
+  /**
+   * Adds another vector multiplied by a scalar to this one
+   *
+   * @return This vector
+   */
+  public Vector2 addScaledLocal(Vector2 vector, float scalar) {
+    return set(getX() + vector.getX() * scalar, getY() + vector.getY() * scalar);
+  }
+
+  /**
+   * Subtracts the corresponding elements of another vector from this one
+   *
+   * @return This vector
+   */
+  public Vector2 subLocal(Vector2 vector) {
+    return set(getX() - vector.getX(), getY() - vector.getY());
+  }
+
+  /**
+   * Multiplies both elements of the vector by a scalar
+   *
+   * @return This vector
+   */
+  public Vector2 multLocal(float scalar) {
+    return set(getX() * scalar, getY() * scalar);
+  }
+
+  /**
+   * Multiplies the corresponding elements of the vectors
+   *
+   * @return This vector
+   */
+  public Vector2 multLocal(Vector2 vector) {
+    return set(getX() * vector.getX(), getY() * vector.getY());
+  }
+
+  /**
+   * Divides both elements of the vector by a scalar
+   *
+   * @return This vector
+   */
+  public Vector2 divLocal(float scalar) {
+    return set(getX() / scalar, getY() / scalar);
+  }
+
+  /**
+   * Clamps the vector between the two values
+   *
+   * @return This vector
+   */
+  public Vector2 clampLocal(Vector2 min, Vector2 max) {
+    return set(Math.max(min.getX(), Math.min(max.getX(), getX())),
+        Math.max(min.getY(), Math.min(max.getY(), getY())));
+  }
+
+  /**
+   * Normalizes the vector, using the same approximate magnitude as {@link #normalize()}
+   *
+   * @return This vector
+   */
+  public Vector2 normalizeLocal() {
+    return divLocal(magnitude());
+  }
+
+  /**
+   * Turns the vector into its normal
+   *
+   * @return This vector
+   */
+  public Vector2 normalLocal() {
+    return set(-getY(), getX());
+  }
+
+  /**
+   * Rotates the vector by the corresponding amount
+   *
+   * @param rotation The amount IN DEGREES to rotate the vector
+   * @return This vector
+   */
+  public Vector2 applyRotationLocal(float rotation) {
+    float angle = (float) Math.toRadians(rotation);
+    double cos = Math.cos(angle);
+    double sin = Math.sin(angle);
+    float x = getX();
+    float y = getY();
+    return set((float) (x * cos - y * sin), (float) (x * sin + y * cos));
+  }
+
   @Override
   public String toString() {
     return "X:" + getX() + ":Y:" + getY();
@@ -397,4 +584,36 @@ public class Vector2 implements Serializable {
     setX(x);
     setY(y);
   }
+
+  /**
+   * A vector shared as a constant, which cannot be changed
+   */
+  private static final class Constant extends Vector2 {
+
+    /**
+     * Never written, as it is replaced by a plain vector; pinned all the same
+     */
+    private static final long serialVersionUID = 5578457163808246679L;
+
+    private Constant(float x, float y) {
+      super(x, y);
+    }
+
+    @Override
+    public void setX(float x) {
+      throw new UnsupportedOperationException("Vector2 constants cannot be changed");
+    }
+
+    @Override
+    public void setY(float y) {
+      throw new UnsupportedOperationException("Vector2 constants cannot be changed");
+    }
+
+    /**
+     * Written as a plain vector, so what reads it back can change it
+     */
+    private Object writeReplace() {
+      return new Vector2(this);
+    }
+  }
 }
@@ -0,0 +1,74 @@
+package shared.util.maths;
+
+import java.util.Arrays;
+
+/**
+ * Scratch vectors for working values that do not outlive a method, so code run every update can do
+ * its vector maths without allocating. Each thread has its own pool, taken from with {@link
+ * #take(float, float)} and given back by releasing to a {@link #mark()} made beforehand:
+ *
+ * <pre>
+ *   Vector2Pool pool = Vector2Pool.get();
+ *   int mark = pool.mark();
+ *   Vector2 impulse = pool.take(normal.getX() * j, normal.getY() * j);
+ *   ...
+ *   pool.release(mark);
+ * </pre>
+ *
+ * <p>A vector taken must not be kept once released, as it will be handed out again.
+ */
+public final class Vector2Pool {
+
+  private static final ThreadLocal<Vector2Pool> POOLS = ThreadLocal.withInitial(Vector2Pool::new);
+
+  private Vector2[] vectors = new Vector2[16];
+  private int taken = 0;
+
+  private Vector2Pool() {
+  }
+
+  /**
+   * @return The calling thread's pool
+   */
+  public static Vector2Pool get() {
+    return POOLS.get();
+  }
+
+  /**
+   * @return Mark to release back to once the vectors taken after it are finished with
+   */
+  public int mark() {
+    return taken;
+  }
+
+  /**
+   * Takes a scratch vector, growing the pool if every vector is taken
+   *
+   * @param x X-Value of Vector
+   * @param y Y-Value of Vector
+   * @return The vector, set to the values given
+   */
+  public Vector2 take(float x, float y) {
+    if (taken == vectors.length) {
+      vectors = Arrays.copyOf(vectors, taken * 2);
+    }
+    Vector2 vector = vectors[taken];
+    if (vector == null) {
+      vector = new Vector2(x, y);
+      vectors[taken] = vector;
+    } else {
+      vector.set(x, y);
+    }
+    taken++;
+    return vector;
+  }
+
+  /**
+   * Gives back every vector taken since the mark
+   *
+   * @param mark Mark made before the vectors were taken
+   */
+  public void release(int mark) {
+    taken = mark;
+  }
+}
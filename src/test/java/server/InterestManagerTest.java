@@ -0,0 +1,68 @@
+package server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.UUID;
+import org.junit.Test;
+import shared.gameObjects.TestObject;
+import shared.gameObjects.Utils.ObjectType;
+import shared.packets.ObjectState;
+import shared.packets.Snapshot;
+
+public class InterestManagerTest {
+
+  private InterestManager interest = new InterestManager();
+  private TestObject viewer = new TestObject(0, 0, ObjectType.Player, UUID.randomUUID());
+
+  private ObjectState state(int networkId, ObjectType type, float x) {
+    ObjectState state = new ObjectState();
+    state.reset(networkId, type);
+    state.putFloat(x);
+    state.putFloat(0);
+    return state;
+  }
+
+  @Test
+  public void nearObjectsSentEveryUpdate() {
+    assertEquals(1, interest.getSendInterval(state(1, ObjectType.Weapon, 100), viewer));
+    assertEquals(1, interest.getSendInterval(state(1, ObjectType.Weapon, 5000), null));
+  }
+
+  @Test
+  public void farObjectsSentLessOften() {
+    int weapon = interest.getSendInterval(state(1, ObjectType.Weapon, 1200), viewer);
+    int bullet = interest.getSendInterval(state(1, ObjectType.Bullet, 1200), viewer);
+    assertEquals(4, weapon);
+    assertEquals(2, bullet);
+    assertEquals(InterestManager.MAX_INTERVAL,
+        interest.getSendInterval(state(1, ObjectType.Weapon, 100000), viewer));
+  }
+
+  @Test
+  public void hiddenTypesNeverSent() {
+    assertEquals(0, interest.getSendInterval(state(1, ObjectType.Fist, 0), viewer));
+  }
+
+  @Test
+  public void buildViewKeepsLastSentStateUntilDue() {
+    Snapshot previous = new Snapshot();
+    previous.add(state(4, ObjectType.Weapon, 1200));
+    Snapshot world = new Snapshot();
+    world.add(state(4, ObjectType.Weapon, 1210));
+    world.add(state(5, ObjectType.Weapon, 1200));
+    world.add(state(6, ObjectType.Fist, 0));
+
+    Snapshot view = new Snapshot();
+    interest.buildView(world, previous, view, viewer, 1);
+    //Not due, so the client keeps the state it was last sent
+    assertEquals(1200, view.get(4).getX(), 0);
+    //Never sent before, so sent straight away
+    assertEquals(1200, view.get(5).getX(), 0);
+    assertNull(view.get(6));
+
+    view.clear(0);
+    interest.buildView(world, previous, view, viewer, 4);
+    assertEquals(1210, view.get(4).getX(), 0);
+  }
+}
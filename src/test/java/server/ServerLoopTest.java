@@ -0,0 +1,66 @@
+package server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class ServerLoopTest {
+
+  private static final long TICK = 1000000000L / 60;
+
+  private ServerLoop loop = new ServerLoop(() -> {
+  }, 60);
+
+  @Test
+  public void noTickBeforeDue() {
+    loop.setNextTick(1000);
+    assertEquals(0, loop.ticksDue(999));
+    assertEquals(1, loop.ticksDue(1000));
+    assertEquals(0, loop.ticksDue(1000 + TICK - 1));
+    assertEquals(1, loop.ticksDue(1000 + TICK));
+  }
+
+  @Test
+  public void lateTicksCaughtUp() {
+    loop.setNextTick(0);
+    assertEquals(3, loop.ticksDue(2 * TICK));
+    assertEquals(0, loop.ticksDue(3 * TICK - 1));
+    assertEquals(1, loop.ticksDue(3 * TICK));
+    assertEquals(0, loop.getDroppedTicks());
+  }
+
+  @Test
+  public void backlogBeyondLimitDropped() {
+    loop.setNextTick(0);
+    long now = 20 * TICK;
+    assertEquals(ServerLoop.MAX_CATCH_UP_TICKS, loop.ticksDue(now));
+    assertEquals(21 - ServerLoop.MAX_CATCH_UP_TICKS, loop.getDroppedTicks());
+    //The schedule restarts from now rather than trying to run the dropped ticks
+    assertEquals(0, loop.ticksDue(now + TICK - 1));
+    assertEquals(1, loop.ticksDue(now + TICK));
+  }
+
+  @Test
+  public void loopsShareAPool() throws InterruptedException {
+    ScheduledThreadPoolExecutor pool = new ScheduledThreadPoolExecutor(1);
+    CountDownLatch first = new CountDownLatch(5);
+    CountDownLatch second = new CountDownLatch(5);
+    ServerLoop failing = new ServerLoop(() -> {
+      first.countDown();
+      throw new IllegalStateException("Bad tick");
+    }, 200);
+    ServerLoop other = new ServerLoop(second::countDown, 200);
+    failing.start(pool);
+    other.start(pool);
+    //A tick that throws does not stop its loop, and neither loop holds the only thread
+    assertTrue(first.await(5, TimeUnit.SECONDS));
+    assertTrue(second.await(5, TimeUnit.SECONDS));
+    failing.stop();
+    other.stop();
+    pool.shutdownNow();
+  }
+}
@@ -0,0 +1,107 @@
+package server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.DataOutputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import shared.packets.PacketCodec;
+import shared.packets.PacketSnapshotAck;
+
+public class ServerTransportTest {
+
+  private DatagramSocket client;
+  private ServerTransport transport;
+
+  @Before
+  public void setUp() throws Exception {
+    client = new DatagramSocket(0);
+    client.setSoTimeout(2000);
+    transport = new ServerTransport(0, client.getLocalPort());
+    new Thread(transport).start();
+  }
+
+  @After
+  public void tearDown() {
+    transport.shutdown();
+    client.close();
+  }
+
+  private ServerTransport.Received waitForPacket() throws InterruptedException {
+    for (int i = 0; i < 200; i++) {
+      ServerTransport.Received received = transport.poll();
+      if (received != null) {
+        return received;
+      }
+      Thread.sleep(10);
+    }
+    return null;
+  }
+
+  @Test
+  public void receivesFramesAndDisconnects() throws Exception {
+    Socket socket = new Socket(InetAddress.getLoopbackAddress(), transport.getLocalPort());
+    DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+    byte[] frame = new PacketSnapshotAck(7, 0).getData();
+    //Two frames in one write, split across the length prefix of the second
+    ByteBuffer both = ByteBuffer.allocate(2 * (4 + frame.length));
+    both.putInt(frame.length).put(frame).putInt(frame.length).put(frame);
+    out.write(both.array(), 0, 6 + frame.length);
+    out.flush();
+    Thread.sleep(50);
+    out.write(both.array(), 6 + frame.length, both.capacity() - 6 - frame.length);
+    out.flush();
+
+    for (int i = 0; i < 2; i++) {
+      ServerTransport.Received received = waitForPacket();
+      assertEquals(7, ((PacketSnapshotAck) received.getPacket()).getSequence());
+    }
+    socket.close();
+    assertNull(waitForPacket().getPacket());
+  }
+
+  @Test
+  public void framesSplitOnTwoConnectionsKeptApart() throws Exception {
+    Socket first = new Socket(InetAddress.getLoopbackAddress(), transport.getLocalPort());
+    Socket second = new Socket(InetAddress.getLoopbackAddress(), transport.getLocalPort());
+    byte[] frame = new PacketSnapshotAck(5, 0).getData();
+    ByteBuffer framed = ByteBuffer.allocate(4 + frame.length);
+    framed.putInt(frame.length).put(frame);
+    //Both connections are read part way through a frame before either finishes it
+    for (Socket socket : new Socket[]{first, second}) {
+      socket.getOutputStream().write(framed.array(), 0, 3 + frame.length / 2);
+      socket.getOutputStream().flush();
+    }
+    Thread.sleep(50);
+    for (Socket socket : new Socket[]{first, second}) {
+      socket.getOutputStream().write(framed.array(), 3 + frame.length / 2,
+          framed.capacity() - 3 - frame.length / 2);
+      socket.getOutputStream().flush();
+    }
+
+    for (int i = 0; i < 2; i++) {
+      ServerTransport.Received received = waitForPacket();
+      assertEquals(5, ((PacketSnapshotAck) received.getPacket()).getSequence());
+    }
+    first.close();
+    second.close();
+  }
+
+  @Test
+  public void sendsQueuedDatagrams() throws Exception {
+    ByteBuffer frame = PacketCodec.forThread().encode(new PacketSnapshotAck(3, 0));
+    transport.send(InetAddress.getLoopbackAddress(), frame);
+    DatagramPacket packet = new DatagramPacket(new byte[64], 64);
+    client.receive(packet);
+    PacketSnapshotAck ack = (PacketSnapshotAck) PacketCodec
+        .decode(packet.getData(), 0, packet.getLength());
+    assertEquals(3, ack.getSequence());
+  }
+}
@@ -0,0 +1,53 @@
+package server.profiling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class HistogramTest {
+
+  @Test
+  public void bucketsCoverEveryValueInOrder() {
+    int last = -1;
+    for (long value = 0; value < 100000; value++) {
+      int index = Histogram.bucketIndex(value);
+      assertTrue(index == last || index == last + 1);
+      assertTrue(Histogram.highestInBucket(index) >= value);
+      last = index;
+    }
+    assertEquals(Histogram.MAX_VALUE,
+        Histogram.highestInBucket(Histogram.bucketIndex(Histogram.MAX_VALUE)));
+  }
+
+  @Test
+  public void percentilesWithinBucketWidth() {
+    Histogram histogram = new Histogram();
+    for (long value = 1; value <= 1000; value++) {
+      histogram.record(value * 1000);
+    }
+    assertEquals(1000, histogram.getCount());
+    assertEquals(500500, histogram.getMean(), 0.001);
+    assertEquals(1000, histogram.getMin());
+    assertEquals(1000000, histogram.getMax());
+    assertEquals(500000, histogram.getValueAtPercentile(50), 500000 / 16);
+    assertEquals(990000, histogram.getValueAtPercentile(99), 990000 / 16);
+    assertEquals(1000000, histogram.getValueAtPercentile(100));
+  }
+
+  @Test
+  public void addedAndResetHistograms() {
+    Histogram a = new Histogram();
+    Histogram b = new Histogram();
+    a.record(5);
+    b.record(7);
+    b.record(-3);
+    a.add(b);
+    assertEquals(3, a.getCount());
+    assertEquals(0, a.getMin());
+    assertEquals(7, a.getMax());
+    a.reset();
+    assertEquals(0, a.getCount());
+    assertEquals(0, a.getValueAtPercentile(50));
+  }
+}
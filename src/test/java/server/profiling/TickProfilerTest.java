@@ -0,0 +1,70 @@
+package server.profiling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import server.profiling.TickProfiler.Phase;
+import server.profiling.TickProfiler.Window;
+import shared.gameObjects.Utils.ObjectType;
+
+public class TickProfilerTest {
+
+  private final TickProfiler profiler = new TickProfiler(10, 2);
+
+  private void tick(int n) {
+    long time = profiler.startTick();
+    profiler.lap(Phase.BROADPHASE, time);
+    profiler.recordUpdate(ObjectType.Player, 2000);
+    profiler.endTick(n * 5L, n * 2L);
+  }
+
+  @Test
+  public void onlyFullWindowsReported() {
+    for (int i = 0; i < 9; i++) {
+      tick(i);
+    }
+    assertEquals(0, profiler.getTicks());
+    tick(9);
+    Window window = profiler.snapshot();
+    assertEquals(10, window.getTicks());
+    assertEquals(10, window.getPhase(Phase.TICK).getCount());
+    assertEquals(10, window.getPhase(Phase.BROADPHASE).getCount());
+    assertEquals(0, window.getPhase(Phase.UPDATE).getCount());
+    assertEquals(2000, window.getUpdates(ObjectType.Player).getMean(), 0);
+    //Counts are taken between ticks, so the first tick has none
+    assertEquals(9, window.getPairTests().getCount());
+    assertEquals(5, window.getPairTests().getMax());
+    assertEquals(2, window.getRaycasts().getMin());
+  }
+
+  @Test
+  public void oldestWindowsDropped() {
+    for (int i = 0; i < 45; i++) {
+      tick(i);
+    }
+    //Two full windows are kept, and the fifth is still being filled
+    assertEquals(20, profiler.getTicks());
+  }
+
+  @Test
+  public void reportDumpedToFile() throws Exception {
+    for (int i = 0; i < 10; i++) {
+      tick(i);
+    }
+    File file = File.createTempFile("ticks", ".txt");
+    file.deleteOnExit();
+    profiler.dump(file.getPath());
+    List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+    assertEquals("10 ticks", lines.get(0));
+    assertTrue(lines.stream().anyMatch(line -> line.startsWith("BROADPHASE")));
+    assertTrue(lines.stream().anyMatch(line -> line.startsWith("Player")));
+    assertTrue(lines.stream().noneMatch(line -> line.startsWith("Bullet")));
+    assertTrue(Arrays.asList(profiler.getReport().split("\\R")).contains(lines.get(1)));
+  }
+}
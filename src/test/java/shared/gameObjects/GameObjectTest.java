@@ -13,13 +13,14 @@ import shared.gameObjects.components.Component;
 import shared.gameObjects.components.ComponentType;
 import shared.gameObjects.components.Rigidbody;
 import shared.gameObjects.components.behaviours.ObjectShake;
-import shared.physics.Physics;
+import shared.physics.PhysicsWorld;
 import shared.physics.types.ColliderLayer;
 import shared.util.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
 
 public class GameObjectTest {
 
   static TestObject object1, object2;
+  static PhysicsWorld world;
 
   @Before
   public void setUp() throws Exception {
@@ -34,14 +35,15 @@ public class GameObjectTest {
     ConcurrentLinkedHashMap<UUID, GameObject> objects = new ConcurrentLinkedHashMap.Builder<UUID, GameObject>()
         .maximumWeightedCapacity(500).build();
     objects.put(UUID.randomUUID(), object2);
-    Physics.gameObjects = objects;
+    world = new PhysicsWorld(objects);
   }
 
   @Test
   public void updateCollisionEnter() {
     object1.update();
     object2.update();
-    object1.updateCollision();
+    world.updateBroadphase();
+    object1.updateCollision(world);
     assertEquals(1, object1.test);
   }
 
@@ -49,9 +51,10 @@ public class GameObjectTest {
   public void updateCollisionStay() {
     object1.update();
     object2.update();
-    object1.updateCollision();
-    object1.updateCollision();
-    object1.updateCollision();
+    world.updateBroadphase();
+    object1.updateCollision(world);
+    object1.updateCollision(world);
+    object1.updateCollision(world);
     assertEquals(3, object1.testStay);
   }
 
@@ -59,12 +62,15 @@ public class GameObjectTest {
   public void updateCollisionExit() {
     object1.update();
     object2.update();
-    object1.updateCollision();
+    world.updateBroadphase();
+    object1.updateCollision(world);
+    world.endCollisionPass();
     ((Collider) object1.getComponent(ComponentType.COLLIDER)).setLayer(ColliderLayer.PARTICLE);
     object1.update();
     object1.update();
-    object1.updateCollision();
-    object1.updateCollision();
+    object1.updateCollision(world);
+    object1.updateCollision(world);
+    world.endCollisionPass();
     assertEquals(2, object1.test);
   }
 
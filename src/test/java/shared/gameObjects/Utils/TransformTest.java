@@ -1,6 +1,7 @@
 package shared.gameObjects.Utils;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.BeforeClass;
@@ -34,4 +35,19 @@ public class TransformTest {
     object.getTransform().scale(new Vector2(2, 2));
     assertTrue(object.getTransform().getSize().equals(new Vector2(20, 20)));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void versionMovedOnlyByChanges() {
+    Transform transform = new TestObject().getTransform();
+    long version = transform.getVersion();
+    transform.translate(new Vector2(0, 0));
+    transform.setRot(transform.getRot());
+    transform.setPos(new Vector2(transform.getPos()));
+    assertEquals(version, transform.getVersion());
+    transform.translate(new Vector2(1, 0));
+    assertNotEquals(version, transform.getVersion());
+    version = transform.getVersion();
+    transform.setRot(30);
+    assertNotEquals(version, transform.getVersion());
+  }
+}
@@ -1,6 +1,7 @@
 package shared.gameObjects.components;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.UUID;
@@ -9,7 +10,10 @@ import org.junit.Test;
 import shared.gameObjects.GameObject;
 import shared.gameObjects.TestObject;
 import shared.gameObjects.Utils.ObjectType;
-import shared.physics.Physics;
+import shared.physics.PhysicsWorld;
+import shared.physics.QueryFilter;
+import shared.physics.QueryResults;
+import shared.physics.data.AABB;
 import shared.util.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
 import shared.util.maths.Vector2;
 
@@ -18,6 +22,8 @@ public class ColliderTest {
   private static BoxCollider boxA, boxB, boxC;
   private static CircleCollider circleD, circleE, circleF;
   private static TestObject a, b, c, d, e, f;
+  private static PhysicsWorld world;
+  private final QueryResults results = new QueryResults();
 
   @BeforeClass
   public static void InitColliders() {
@@ -50,7 +56,8 @@ public class ColliderTest {
     objects.put(UUID.randomUUID(), d);
     objects.put(UUID.randomUUID(), e);
     objects.put(UUID.randomUUID(), f);
-    Physics.gameObjects = objects;
+    world = new PhysicsWorld(objects);
+    world.updateBroadphase();
   }
 
   @Test
@@ -89,28 +96,43 @@ public class ColliderTest {
 
   @Test
   public void raycast() {
-    assertTrue(Physics.raycast(Vector2.Zero(), new Vector2(12, 12), false) != null);
+    assertTrue(world.raycast(Vector2.Zero(), new Vector2(12, 12), new QueryFilter(), results));
   }
 
   @Test
   public void raycastClosest() {
-    assertTrue(
-        Physics.raycast(Vector2.Zero(), new Vector2(12, 12), false).getCollidedObject().equals(a));
+    world.raycast(Vector2.Zero(), new Vector2(12, 12), new QueryFilter(), results);
+    assertTrue(results.getObject(0).equals(a));
   }
 
   @Test
   public void raycastAll() {
-    assertEquals(4, Physics.raycastAll(Vector2.Zero(), new Vector2(12, 12), false).size(), 0);
+    assertEquals(4,
+        world.raycastAll(Vector2.Zero(), new Vector2(12, 12), new QueryFilter(), results), 0);
   }
 
   @Test
   public void boxcast() {
-    assertEquals(2, Physics.boxcastAll(new Vector2(0, 0), new Vector2(4, 4), false, false).size(),
-        0);
+    assertEquals(2,
+        world.overlapBox(new Vector2(0, 0), new Vector2(4, 4), new QueryFilter(), results), 0);
   }
 
   @Test
   public void circlecast() {
-    assertEquals(2, Physics.circlecastAll(new Vector2(0, 0), 4).size(), 0);
+    assertEquals(2, world.overlapCircle(new Vector2(0, 0), 4, new QueryFilter(), results), 0);
+  }
+
+  @Test
+  public void shapeOnlyWorkedOutWhenMoved() {
+    TestObject object = new TestObject(0, 0, 2, 2, ObjectType.Player, UUID.randomUUID());
+    BoxCollider box = new BoxCollider(object, false);
+    object.addComponent(box);
+    AABB bounds = box.getBounds();
+    box.update();
+    assertSame(bounds, box.getBounds());
+    object.getTransform().translate(new Vector2(5, 0));
+    box.update();
+    assertEquals(6, box.getCentre().getX(), 0);
+    assertEquals(5, box.getBounds().getMinX(), 0);
   }
 }
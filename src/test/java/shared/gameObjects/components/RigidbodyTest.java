@@ -1,12 +1,15 @@
 package shared.gameObjects.components;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import java.util.UUID;
 import org.junit.Before;
 import org.junit.Test;
 import shared.gameObjects.TestObject;
 import shared.gameObjects.Utils.ObjectType;
+import shared.physics.Physics;
 import shared.physics.data.AngularData;
 import shared.physics.data.MaterialProperty;
 import shared.physics.types.RigidbodyType;
@@ -86,6 +89,15 @@ public class RigidbodyTest {
     assertEquals(3, a.getX(), 4);
   }
 
+  @Test
+  public void addImpulse() {
+    rbA.setGrounded(true);
+    rbA.addImpulse(new Vector2(30, 0));
+    rbA.update();
+    //Less the slowing every grounded update
+    assertEquals(30 - Physics.X_THRESHOLD, rbA.getVelocity().getX(), 0.001);
+  }
+
   @Test
   public void addDistanceNoTime() {
     assertEquals(a.getTransform().getPos().getY(), 2, 0);
@@ -103,4 +115,36 @@ public class RigidbodyTest {
     }
     assertEquals(52, a.getY(), 0.1);
   }
+
+  @Test
+  public void sleepingBodyNotMovedUntilWoken() {
+    for (int i = 0; i < Physics.SLEEP_TICKS; i++) {
+      assertFalse(rbA.isStill());
+      rbA.setGrounded(true);
+      rbA.update();
+    }
+    assertTrue(rbA.isStill());
+    rbA.sleep();
+    for (int i = 0; i < 60; i++) {
+      rbA.update();
+    }
+    assertEquals(2, a.getY(), 0);
+    rbA.addForce(new Vector2(0, 100));
+    assertFalse(rbA.isSleeping());
+    assertFalse(rbA.isStill());
+    rbA.update();
+    assertTrue(a.getY() > 2);
+  }
+
+  @Test
+  public void sleepDisallowed() {
+    rbA.setSleepAllowed(false);
+    for (int i = 0; i < Physics.SLEEP_TICKS * 2; i++) {
+      rbA.setGrounded(true);
+      rbA.update();
+    }
+    assertFalse(rbA.isStill());
+    rbA.sleep();
+    assertFalse(rbA.isSleeping());
+  }
 }
@@ -0,0 +1,54 @@
+package shared.handlers.levelHandler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+import shared.gameObjects.TestObject;
+
+public class NetworkIdTableTest {
+
+  private NetworkIdTable table = new NetworkIdTable();
+
+  @Test
+  public void assignIsStable() {
+    TestObject object = new TestObject();
+    int id = table.assign(object);
+    assertEquals(id, table.assign(object));
+    assertEquals(id, object.getNetworkId());
+    assertSame(object, table.get(id));
+  }
+
+  @Test
+  public void releasedIdsAreRecycledOldestFirst() {
+    TestObject[] objects = new TestObject[NetworkIdTable.MAX_ID];
+    for (int i = 0; i < objects.length; i++) {
+      objects[i] = new TestObject();
+      table.assign(objects[i]);
+    }
+    table.release(objects[10]);
+    table.release(objects[3]);
+    assertNull(table.get(objects[10].getNetworkId()));
+    assertEquals(objects[10].getNetworkId(), table.assign(new TestObject()));
+    assertEquals(objects[3].getNetworkId(), table.assign(new TestObject()));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void exhaustedTableThrows() {
+    for (int i = 0; i <= NetworkIdTable.MAX_ID; i++) {
+      table.assign(new TestObject());
+    }
+  }
+
+  @Test
+  public void clientMirrorsServerIds() {
+    TestObject object = new TestObject();
+    object.setNetworkId(42);
+    table.register(object);
+    assertSame(object, table.get(42));
+    table.unregister(object);
+    assertNull(table.get(42));
+    assertNull(table.get(NetworkIdTable.NONE));
+  }
+}
@@ -0,0 +1,65 @@
+package shared.handlers.levelHandler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.UUID;
+import org.junit.Test;
+import shared.gameObjects.GameObject;
+import shared.gameObjects.TestObject;
+import shared.gameObjects.Utils.ObjectType;
+import shared.gameObjects.weapons.Handgun;
+import shared.packets.PacketCodec;
+import shared.packets.PacketSpawn;
+import shared.packets.SpawnDescriptor;
+
+public class SpawnRegistryTest {
+
+  private NetworkIdTable networkIds = new NetworkIdTable();
+
+  private ArrayList<SpawnDescriptor> roundTrip(ArrayList<GameObject> objects) {
+    objects.forEach(networkIds::assign);
+    ByteBuffer frame = PacketCodec.forThread().encode(new PacketSpawn(objects));
+    return ((PacketSpawn) PacketCodec.decode(frame)).getSpawns();
+  }
+
+  @Test
+  public void registeredObjectSendsParams() {
+    UUID uuid = UUID.randomUUID();
+    Handgun handgun = new Handgun(10, 20, "HandGun@SpawnRegistryTest", null, uuid);
+    ArrayList<GameObject> objects = new ArrayList<>();
+    objects.add(handgun);
+    SpawnDescriptor spawn = roundTrip(objects).get(0);
+
+    assertNotEquals(SpawnRegistry.NONE, spawn.getKind());
+    assertEquals(ObjectType.Weapon, spawn.getType());
+    assertEquals(handgun.getNetworkId(), spawn.getNetworkId());
+    assertEquals(uuid, spawn.getUUID());
+    assertEquals(10, spawn.getX(), 0);
+    assertEquals(20, spawn.getY(), 0);
+    assertEquals(handgun.getTransform().getSize().getX(), spawn.getSizeX(), 0);
+    assertEquals(NetworkIdTable.NONE, spawn.getParams().getShort() & 0xFFFF);
+    assertEquals("HandGun@SpawnRegistryTest", PacketCodec.getString(spawn.getParams()));
+  }
+
+  @Test
+  public void unregisteredObjectOnlySendsIdentity() {
+    ArrayList<GameObject> objects = new ArrayList<>();
+    objects.add(new TestObject());
+    objects.add(new Handgun(0, 0, "HandGun@SpawnRegistryTest", null, UUID.randomUUID()));
+    objects.add(new TestObject());
+    ArrayList<SpawnDescriptor> spawns = roundTrip(objects);
+
+    assertEquals(3, spawns.size());
+    for (int i = 0; i < objects.size(); i++) {
+      assertEquals(objects.get(i).getUUID(), spawns.get(i).getUUID());
+      assertEquals(objects.get(i).getNetworkId(), spawns.get(i).getNetworkId());
+    }
+    assertEquals(SpawnRegistry.NONE, spawns.get(0).getKind());
+    assertEquals(0, spawns.get(0).getParams().remaining());
+    assertNull(SpawnRegistry.create(spawns.get(0), null));
+  }
+}
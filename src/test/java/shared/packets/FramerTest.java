@@ -0,0 +1,94 @@
+package shared.packets;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+import org.junit.Test;
+
+public class FramerTest {
+
+  private Framer framer = new Framer();
+  private Reassembler reassembler = new Reassembler();
+
+  private ArrayList<ByteBuffer> frame(byte type, byte[] message) {
+    ArrayList<ByteBuffer> datagrams = new ArrayList<>();
+    framer.frame(type, ByteBuffer.wrap(message), datagram -> {
+      ByteBuffer copy = ByteBuffer.allocate(datagram.remaining());
+      copy.put(datagram).flip();
+      datagrams.add(copy);
+    });
+    return datagrams;
+  }
+
+  private byte[] message(int length) {
+    byte[] message = new byte[length];
+    new Random(length).nextBytes(message);
+    return message;
+  }
+
+  private byte[] toArray(ByteBuffer buffer) {
+    byte[] data = new byte[buffer.remaining()];
+    buffer.get(data);
+    return data;
+  }
+
+  @Test
+  public void smallMessageIsOneDatagram() {
+    byte[] message = message(100);
+    ArrayList<ByteBuffer> datagrams = frame(Framer.TYPE_PACKET, message);
+    assertEquals(1, datagrams.size());
+    assertEquals(Framer.HEADER_SIZE + 100, datagrams.get(0).remaining());
+    assertEquals(Framer.TYPE_PACKET, Framer.getType(datagrams.get(0)));
+    assertArrayEquals(message, toArray(reassembler.accept(datagrams.get(0))));
+  }
+
+  @Test
+  public void largeMessageReassembledOutOfOrder() {
+    byte[] message = message(Framer.MAX_FRAGMENT_SIZE * 4 + 10);
+    ArrayList<ByteBuffer> datagrams = frame(Framer.TYPE_RELIABLE, message);
+    assertEquals(5, datagrams.size());
+    Collections.shuffle(datagrams, new Random(1));
+    for (int i = 0; i < datagrams.size() - 1; i++) {
+      assertTrue(datagrams.get(i).remaining() <= Framer.MAX_DATAGRAM_SIZE);
+      assertNull(reassembler.accept(datagrams.get(i)));
+    }
+    assertArrayEquals(message, toArray(reassembler.accept(datagrams.get(4))));
+  }
+
+  @Test
+  public void lostFragmentDropsMessage() {
+    ArrayList<ByteBuffer> lost = frame(Framer.TYPE_RELIABLE, message(3000));
+    lost.remove(1);
+    lost.forEach(datagram -> assertNull(reassembler.accept(datagram)));
+
+    //Later messages are unaffected
+    byte[] message = message(2500);
+    ByteBuffer result = null;
+    for (ByteBuffer datagram : frame(Framer.TYPE_RELIABLE, message)) {
+      result = reassembler.accept(datagram);
+    }
+    assertArrayEquals(message, toArray(result));
+  }
+
+  @Test
+  public void duplicateAndMalformedDatagramsIgnored() {
+    ArrayList<ByteBuffer> datagrams = frame(Framer.TYPE_RELIABLE, message(2000));
+    assertNull(reassembler.accept(datagrams.get(0).duplicate()));
+    assertNull(reassembler.accept(datagrams.get(0)));
+    assertNull(reassembler.accept(ByteBuffer.allocate(3)));
+  }
+
+  @Test
+  public void fragmentCountOverMaximumIgnored() {
+    ArrayList<ByteBuffer> datagrams = frame(Framer.TYPE_RELIABLE, message(2000));
+    ByteBuffer garbled = datagrams.get(0);
+    garbled.putShort(5, (short) (Framer.MAX_FRAGMENTS + 1));
+    assertNull(reassembler.accept(garbled));
+  }
+}
@@ -1,12 +1,16 @@
 package shared.packets;
 
 import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertSame;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.UUID;
 import org.junit.Test;
 import shared.gameObjects.GameObject;
 import shared.gameObjects.TestObject;
+import shared.gameObjects.Utils.ObjectType;
+import shared.handlers.levelHandler.NetworkIdTable;
 
 public class PacketTest {
 
@@ -19,13 +23,14 @@ public class PacketTest {
   private boolean throwHolding = true;
   private String username = "TheBigMJ";
   private UUID uuid = UUID.randomUUID();
+  private NetworkIdTable networkIds = new NetworkIdTable();
 
 
   @Test
   public void InputPacketTest() {
     PacketInput input = new PacketInput(x, y, leftKey, rightKey, jumpKey, click, throwHolding, uuid,
         0);
-    PacketInput output = new PacketInput(input.getString());
+    PacketInput output = (PacketInput) PacketCodec.decode(ByteBuffer.wrap(input.getData()));
     assertEquals(PacketID.INPUT.getID(), output.packetID);
     assertEquals(output.getX(), x);
     assertEquals(output.getY(), y);
@@ -43,7 +48,7 @@ public class PacketTest {
         UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
         UUID.randomUUID(), UUID.randomUUID(), new int[4]);
     byte[] packetData = out.getData();
-    PacketJoin in = new PacketJoin(new String(packetData));
+    PacketJoin in = (PacketJoin) PacketCodec.decode(ByteBuffer.wrap(packetData));
     assertEquals(PacketID.JOIN.getID(), in.packetID);
     assertEquals(in.getX(), x);
     assertEquals(in.getY(), y);
@@ -51,17 +56,28 @@ public class PacketTest {
     assertEquals(in.getClientID(), uuid);
   }
 
+  private Snapshot capture(SnapshotBuffer snapshots, int sequence, ArrayList<GameObject> objects) {
+    Snapshot snapshot = snapshots.next(sequence);
+    for (GameObject object : objects) {
+      object.writeState(snapshot.add(networkIds.assign(object), object.getId()));
+    }
+    return snapshot;
+  }
+
   @Test
   public void GameStatePacketTestSendAll() {
     ArrayList<GameObject> objects = new ArrayList<>();
     objects.add(new TestObject());
     objects.add(new TestObject());
+    SnapshotBuffer snapshots = new SnapshotBuffer();
 
-    Packet out = new PacketGameState(objects, true);
+    Packet out = new PacketGameState(capture(snapshots, 0, objects), null, 7);
     byte[] packetData = out.getData();
-    PacketGameState in = new PacketGameState(new String(packetData));
+    PacketGameState in = (PacketGameState) PacketCodec.decode(ByteBuffer.wrap(packetData));
     assertEquals(PacketID.GAMESTATE.getID(), in.packetID);
-    assertEquals(objects.size(), in.getGameObjects().size());
+    assertEquals(false, in.isDelta());
+    assertEquals(objects.size(), in.getChanged().size());
+    assertEquals(7, in.getLastProcessedInput());
   }
 
   @Test
@@ -69,11 +85,119 @@ public class PacketTest {
     ArrayList<GameObject> objects = new ArrayList<>();
     objects.add(new TestObject());
     objects.add(new TestObject());
+    SnapshotBuffer snapshots = new SnapshotBuffer();
+    Snapshot baseline = capture(snapshots, 0, objects);
 
-    Packet out = new PacketGameState(objects, false);
+    Packet out = new PacketGameState(capture(snapshots, 1, objects), baseline, 0);
     byte[] packetData = out.getData();
-    PacketGameState in = new PacketGameState(new String(packetData));
+    PacketGameState in = (PacketGameState) PacketCodec.decode(ByteBuffer.wrap(packetData));
     assertEquals(PacketID.GAMESTATE.getID(), in.packetID);
-    assertEquals(0, in.getGameObjects().size());
+    assertEquals(0, in.getBaselineSequence());
+    assertEquals(0, in.getChanged().size());
+    assertEquals(0, in.getRemoved().size());
+  }
+
+  @Test
+  public void GameStatePacketTestDeltaRebuild() {
+    ArrayList<GameObject> objects = new ArrayList<>();
+    GameObject moved = new TestObject();
+    GameObject removed = new TestObject();
+    objects.add(moved);
+    objects.add(new TestObject());
+    objects.add(removed);
+    SnapshotBuffer server = new SnapshotBuffer();
+    SnapshotBuffer client = new SnapshotBuffer();
+    Snapshot serverBaseline = capture(server, 0, objects);
+    Snapshot clientBaseline = client.next(0);
+    for (int i = 0; i < serverBaseline.size(); i++) {
+      clientBaseline.add(serverBaseline.getState(i));
+    }
+
+    moved.setX(x);
+    objects.remove(removed);
+    PacketGameState out = new PacketGameState(capture(server, 1, objects), serverBaseline, 0);
+    byte[] packetData = out.getData();
+    PacketGameState in = (PacketGameState) PacketCodec.decode(ByteBuffer.wrap(packetData));
+    assertEquals(1, in.getChanged().size());
+    assertEquals(removed.getNetworkId(), (int) in.getRemoved().get(0));
+
+    Snapshot rebuilt = client.next(in.getSequence());
+    in.rebuild(client.get(in.getBaselineSequence()), rebuilt);
+    assertEquals(2, rebuilt.size());
+    assertEquals((float) x, rebuilt.get(moved.getNetworkId()).getX());
+    assertEquals(0, rebuilt.get(moved.getNetworkId()).diff(server.get(1).get(moved.getNetworkId())));
+  }
+
+  @Test
+  public void SnapshotBufferOverwriteTest() {
+    SnapshotBuffer snapshots = new SnapshotBuffer(4);
+    snapshots.next(1);
+    assertSame(snapshots.get(1), snapshots.next(5));
+    assertEquals(null, snapshots.get(1));
+    assertEquals(null, snapshots.get(-1));
+  }
+
+  @Test
+  public void SnapshotRemoveTest() {
+    Snapshot snapshot = new Snapshot();
+    snapshot.add(3, ObjectType.Bot);
+    snapshot.add(NetworkIdTable.MAX_ID, ObjectType.Bot);
+    snapshot.add(10, ObjectType.Bot);
+    snapshot.remove(3);
+    assertEquals(2, snapshot.size());
+    assertEquals(null, snapshot.get(3));
+    assertEquals(NetworkIdTable.MAX_ID, snapshot.get(NetworkIdTable.MAX_ID).getNetworkId());
+    int sum = 0;
+    for (int i = 0; i < snapshot.size(); i++) {
+      sum += snapshot.getState(i).getNetworkId();
+    }
+    assertEquals(NetworkIdTable.MAX_ID + 10, sum);
+    snapshot.clear(1);
+    assertEquals(0, snapshot.size());
+    assertEquals(null, snapshot.get(10));
+  }
+
+  @Test
+  public void CodecReusesBufferTest() {
+    PacketCodec codec = new PacketCodec();
+    ByteBuffer first = codec.encode(new PacketDelete(NetworkIdTable.MAX_ID));
+    assertEquals(PacketID.DELETE.getID(), first.get(0));
+    assertEquals(3, first.limit());
+    assertEquals(NetworkIdTable.MAX_ID, ((PacketDelete) PacketCodec.decode(first)).getGameobject());
+    first.rewind();
+    ByteBuffer second = codec.encode(new PacketMap("map", true));
+    assertSame(first, second);
+    PacketMap in = (PacketMap) PacketCodec.decode(second);
+    assertEquals("map", in.getMap());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void UnknownOpcodeTest() {
+    PacketCodec.decode(new byte[]{(byte) 200}, 0, 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void TruncatedFrameTest() {
+    byte[] data = new PacketDelete(1).getData();
+    PacketCodec.decode(data, 0, data.length - 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void BadObjectTypeTest() {
+    ArrayList<GameObject> objects = new ArrayList<>();
+    objects.add(new TestObject());
+    byte[] data = new PacketGameState(capture(new SnapshotBuffer(), 0, objects), null, 0).getData();
+    //Opcode, three ints and the state count come before the state's network ID and type
+    data[1 + 12 + 2 + 2] = (byte) -1;
+    PacketCodec.decode(data, 0, data.length);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void BadFieldCountTest() {
+    ArrayList<GameObject> objects = new ArrayList<>();
+    objects.add(new TestObject());
+    byte[] data = new PacketGameState(capture(new SnapshotBuffer(), 0, objects), null, 0).getData();
+    data[1 + 12 + 2 + 3] = (byte) (ObjectState.MAX_FIELDS + 1);
+    PacketCodec.decode(data, 0, data.length);
   }
 }
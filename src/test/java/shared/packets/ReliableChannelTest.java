@@ -0,0 +1,108 @@
+package shared.packets;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+
+public class ReliableChannelTest {
+
+  private ReliableSender sender = new ReliableSender();
+  private ReliableReceiver receiver = new ReliableReceiver();
+  private ArrayList<ByteBuffer> sent = new ArrayList<>();
+  private ArrayList<Integer> delivered = new ArrayList<>();
+
+  private void send(int value, long now) {
+    ByteBuffer message = ByteBuffer.allocate(4).putInt(value);
+    message.flip();
+    sender.send(Framer.TYPE_PACKET, message, now, this::capture);
+  }
+
+  private void capture(ByteBuffer body) {
+    ByteBuffer copy = ByteBuffer.allocate(body.remaining());
+    copy.put(body).flip();
+    sent.add(copy);
+  }
+
+  private void receive(ByteBuffer body) {
+    receiver.receive(body.duplicate(), (type, message) -> {
+      assertEquals(Framer.TYPE_PACKET, type);
+      delivered.add(message.getInt());
+    });
+  }
+
+  private void acknowledge() {
+    long ack = receiver.getAcknowledgement();
+    sender.acknowledge((int) (ack >>> 32), (int) ack);
+  }
+
+  @Test
+  public void deliveredInOrderDespiteReordering() {
+    for (int i = 0; i < 5; i++) {
+      send(i, 0);
+    }
+    Collections.reverse(sent);
+    sent.forEach(this::receive);
+    assertEquals(Arrays.asList(0, 1, 2, 3, 4), delivered);
+  }
+
+  @Test
+  public void duplicatesDeliveredOnce() {
+    send(1, 0);
+    send(2, 0);
+    receive(sent.get(0));
+    receive(sent.get(0));
+    receive(sent.get(1));
+    receive(sent.get(1));
+    assertEquals(Arrays.asList(1, 2), delivered);
+  }
+
+  @Test
+  public void selectiveAckRemovesHeldMessages() {
+    for (int i = 0; i < 4; i++) {
+      send(i, 0);
+    }
+    //The first message is lost
+    receive(sent.get(1));
+    receive(sent.get(3));
+    assertEquals(0, delivered.size());
+    acknowledge();
+    assertEquals(2, sender.getPendingCount());
+
+    sent.clear();
+    sender.resend(ReliableSender.RESEND_INTERVAL, this::capture);
+    assertEquals(2, sent.size());
+    sent.forEach(this::receive);
+    assertEquals(Arrays.asList(0, 1, 2, 3), delivered);
+    acknowledge();
+    assertEquals(0, sender.getPendingCount());
+  }
+
+  @Test
+  public void resentOnlyAfterInterval() {
+    send(1, 100);
+    sent.clear();
+    sender.resend(100 + ReliableSender.RESEND_INTERVAL - 1, this::capture);
+    assertEquals(0, sent.size());
+    sender.resend(100 + ReliableSender.RESEND_INTERVAL, this::capture);
+    assertEquals(1, sent.size());
+    sender.resend(100 + ReliableSender.RESEND_INTERVAL + 1, this::capture);
+    assertEquals(1, sent.size());
+  }
+
+  @Test
+  public void acknowledgementRoundTrip() {
+    send(0, 0);
+    send(1, 0);
+    send(2, 0);
+    receive(sent.get(2));
+    PacketSnapshotAck ack = (PacketSnapshotAck) PacketCodec.decode(
+        PacketCodec.forThread().encode(new PacketSnapshotAck(9, receiver.getAcknowledgement())));
+    assertEquals(9, ack.getSequence());
+    assertEquals(0, ack.getReliableExpected());
+    assertEquals(0b10, ack.getReliableReceived());
+  }
+}
@@ -0,0 +1,187 @@
+package shared.physics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import org.junit.Before;
+import org.junit.Test;
+import shared.gameObjects.GameObject;
+import shared.gameObjects.TestObject;
+import shared.gameObjects.Utils.ObjectType;
+import shared.gameObjects.components.BoxCollider;
+import shared.gameObjects.components.ComponentType;
+import shared.gameObjects.components.Rigidbody;
+import shared.physics.data.MaterialProperty;
+import shared.physics.types.RigidbodyType;
+import shared.util.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import shared.util.maths.Vector2;
+
+public class BodyStoreTest {
+
+  private BodyStore store;
+  private TestObject object;
+  private Rigidbody body;
+
+  @Before
+  public void setUp() {
+    store = new BodyStore(1);
+    object = new TestObject(0, 0, ObjectType.Bot, UUID.randomUUID());
+    body = new Rigidbody(RigidbodyType.DYNAMIC, 2, 1, 0, new MaterialProperty(0, 0, 0), null,
+        object);
+    object.addComponent(body);
+  }
+
+  @Test
+  public void motionKeptMovingInAndOut() {
+    body.setVelocity(new Vector2(30, -40));
+    store.update(Collections.singletonList(object));
+    assertSame(store, body.getSlot().getStore());
+    assertEquals(30, body.getVelocityX(), 0);
+    assertEquals(2, body.getMass(), 0);
+    assertEquals(0.5f, body.getInv_mass(), 0);
+
+    store.update(Collections.emptyList());
+    assertNotSame(store, body.getSlot().getStore());
+    //Bodies left behind hold their motion in their own slot
+    assertNull(body.getSlot().getStore());
+    assertEquals(-40, body.getVelocityY(), 0);
+    assertEquals(0, store.size());
+  }
+
+  @Test
+  public void storeGrowsAndReusesIds() {
+    List<GameObject> objects = new ArrayList<>();
+    for (int i = 0; i < 40; i++) {
+      TestObject other = new TestObject(0, 0, ObjectType.Bot, UUID.randomUUID());
+      Rigidbody rb = new Rigidbody(RigidbodyType.DYNAMIC, i + 1, 1, 0,
+          new MaterialProperty(0, 0, 0), null, other);
+      other.addComponent(rb);
+      objects.add(other);
+    }
+    store.update(objects);
+    assertEquals(40, store.size());
+    for (int i = 0; i < objects.size(); i++) {
+      Rigidbody rb = (Rigidbody) objects.get(i).getComponent(ComponentType.RIGIDBODY);
+      assertEquals(i + 1, rb.getMass(), 0);
+    }
+    objects.subList(0, 20).clear();
+    store.update(objects);
+    objects.add(object);
+    store.update(objects);
+    assertEquals(21, store.size());
+    assertEquals(2, body.getMass(), 0);
+  }
+
+  @Test
+  public void slotLetGoKeepsItsBody() {
+    body.setVelocity(new Vector2(30, 0));
+    store.update(Collections.singletonList(object));
+    BodyStore.Slot old = body.getSlot();
+    //A body entering as another leaves is not handed the freed id
+    TestObject other = new TestObject(0, 0, ObjectType.Bot, UUID.randomUUID());
+    Rigidbody rb = new Rigidbody(RigidbodyType.DYNAMIC, 1, 1, 0, new MaterialProperty(0, 0, 0),
+        null, other);
+    other.addComponent(rb);
+    rb.setVelocity(new Vector2(99, 0));
+    store.update(Collections.singletonList(other));
+    assertEquals(30, old.getVelocityX(), 0);
+    assertEquals(1, store.size());
+  }
+
+  @Test
+  public void stepMatchesMotion() {
+    store.update(Collections.singletonList(object));
+    body.update();
+    //Falling from rest under gravity alone
+    float acceleration = Physics.GRAVITY / 2;
+    assertEquals(acceleration * Physics.TIMESTEP, body.getVelocityY(), 0.0001);
+    assertEquals(body.getVelocityY() * Physics.TIMESTEP
+            + acceleration * 0.5f * Physics.TIMESTEP * Physics.TIMESTEP, object.getY(), 0.0001);
+  }
+
+  @Test
+  public void storeStepsBodiesOnce() {
+    store.update(Collections.singletonList(object));
+    store.step();
+    double y = object.getY();
+    float velocityY = body.getVelocityY();
+    body.update();
+    //Stepped by the store already, so the update leaves it where it is
+    assertEquals(y, object.getY(), 0);
+    assertEquals(velocityY, body.getVelocityY(), 0);
+    float acceleration = Physics.GRAVITY / 2;
+    assertEquals(acceleration * Physics.TIMESTEP, velocityY, 0.0001);
+    //Stepping itself once the store no longer does
+    body.update();
+    assertEquals(velocityY + (acceleration + Physics.GRAVITY) / 2 * Physics.TIMESTEP,
+        body.getVelocityY(), 0.0001);
+  }
+
+  @Test
+  public void groundedUnderWorldStep() {
+    GameObject floor = new GameObject(0, 200, 400, 40, ObjectType.Bot, UUID.randomUUID()) {
+    };
+    floor.addComponent(new BoxCollider(floor, false));
+    floor.addComponent(new Rigidbody(0, floor));
+    GameObject box = new GameObject(100, 140, 40, 40, ObjectType.Bot, UUID.randomUUID()) {
+    };
+    box.addComponent(new BoxCollider(box, false));
+    Rigidbody rb = new Rigidbody(RigidbodyType.DYNAMIC, 2, 1, 0, new MaterialProperty(0, 0, 0),
+        null, box);
+    box.addComponent(rb);
+    ConcurrentLinkedHashMap<UUID, GameObject> objects =
+        new ConcurrentLinkedHashMap.Builder<UUID, GameObject>().maximumWeightedCapacity(10).build();
+    objects.put(floor.getUUID(), floor);
+    objects.put(box.getUUID(), box);
+    PhysicsWorld world = new PhysicsWorld(objects);
+
+    int groundedTicks = 0;
+    for (int tick = 0; tick < 120; tick++) {
+      world.updateBroadphase();
+      world.updateNarrowPhase();
+      objects.values().forEach(object -> object.updateCollision(world));
+      world.endCollisionPass();
+      world.step();
+      //Read as a player reads it, after the step and before its own update
+      if (rb.isGrounded()) {
+        groundedTicks++;
+      }
+      objects.values().forEach(GameObject::update);
+    }
+    //Landed within 40 ticks, then grounded on every tick after
+    assertTrue(groundedTicks > 75);
+    assertEquals(160, box.getY(), 1);
+    assertEquals(0, rb.getVelocityY(), 1);
+  }
+
+  @Test
+  public void serializedBodyKeepsMotion() throws Exception {
+    body.setVelocity(new Vector2(12, 34));
+    body.setGravityScale(3);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(body);
+    }
+    Rigidbody read;
+    try (ObjectInputStream in =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      read = (Rigidbody) in.readObject();
+    }
+    assertEquals(12, read.getVelocityX(), 0);
+    assertEquals(34, read.getVelocityY(), 0);
+    assertEquals(3, read.getGravityScale(), 0);
+    assertEquals(0.5f, read.getInv_mass(), 0);
+    assertEquals(RigidbodyType.DYNAMIC, read.getBodyType());
+  }
+}
@@ -0,0 +1,236 @@
+package shared.physics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.UUID;
+import org.junit.Before;
+import org.junit.Test;
+import shared.gameObjects.GameObject;
+import shared.gameObjects.Utils.ObjectType;
+import shared.gameObjects.components.Behaviour;
+import shared.gameObjects.components.BoxCollider;
+import shared.gameObjects.components.Collider;
+import shared.gameObjects.components.ComponentType;
+import shared.gameObjects.components.Rigidbody;
+import shared.physics.data.Collision;
+import shared.physics.data.MaterialProperty;
+import shared.physics.types.RigidbodyType;
+import shared.util.maths.Vector2;
+
+public class ContactManagerTest {
+
+  private ContactManager contacts;
+  private GameObject a, b;
+  private Collider colA, colB;
+  private Recorder events;
+
+  @Before
+  public void setUp() {
+    contacts = new ContactManager();
+    a = new Plain(0, 0);
+    b = new Plain(10, 10);
+    colA = new BoxCollider(a, false);
+    colB = new BoxCollider(b, false);
+    a.addComponent(colA);
+    b.addComponent(colB);
+    events = new Recorder(a);
+    a.addComponent(events);
+  }
+
+  @Test
+  public void enterOnceStayEveryPassExitWhenNotTouched() {
+    for (int i = 0; i < 3; i++) {
+      contacts.begin(a);
+      contacts.touch(a, b, colA, colB, false);
+      contacts.endPass();
+    }
+    assertEquals(1, events.enter);
+    assertEquals(3, events.stay);
+    assertEquals(0, events.exit);
+    contacts.begin(a);
+    contacts.endPass();
+    assertEquals(1, events.exit);
+    assertSame(b, events.last);
+    contacts.begin(a);
+    contacts.touch(a, b, colA, colB, false);
+    contacts.endPass();
+    assertEquals(2, events.enter);
+  }
+
+  @Test
+  public void triggerExitSentToTriggerMethods() {
+    contacts.begin(a);
+    contacts.touch(a, b, colA, colB, true);
+    contacts.endPass();
+    contacts.begin(a);
+    contacts.endPass();
+    assertEquals(1, events.triggerEnter);
+    assertEquals(1, events.triggerExit);
+    assertEquals(0, events.enter);
+    assertEquals(0, events.exit);
+  }
+
+  @Test
+  public void objectsNoLongerCheckedDroppedWithoutExit() {
+    contacts.begin(a);
+    contacts.touch(a, b, colA, colB, false);
+    contacts.endPass();
+    contacts.endPass();
+    assertEquals(0, events.exit);
+    assertEquals(0, contacts.size());
+  }
+
+  @Test
+  public void pairResolvedOncePerPass() {
+    assertTrue(contacts.resolve(a, b));
+    assertFalse(contacts.resolve(b, a));
+    contacts.endPass();
+    assertTrue(contacts.resolve(b, a));
+  }
+
+  @Test
+  public void tableGrowsAndEmpties() {
+    GameObject[] objects = new GameObject[500];
+    for (int i = 0; i < objects.length; i++) {
+      objects[i] = new Plain(0, 0);
+    }
+    contacts.begin(a);
+    for (GameObject object : objects) {
+      assertTrue(contacts.resolve(object, a));
+      contacts.touch(a, object, colA, colB, false);
+    }
+    contacts.endPass();
+    assertEquals(objects.length, events.enter);
+    assertEquals(objects.length + 1, contacts.size());
+    contacts.begin(a);
+    contacts.endPass();
+    assertEquals(objects.length, events.exit);
+    assertEquals(1, contacts.size());
+  }
+
+  @Test
+  public void islandSleepsOnceEveryBodyStill() {
+    Rigidbody rbA = stillBody(a);
+    Rigidbody rbB = stillBody(b);
+    rbA.wakeUp();
+    touchBoth();
+    assertFalse(rbA.isSleeping());
+    assertFalse(rbB.isSleeping());
+    stillBody(a);
+    touchBoth();
+    assertTrue(rbA.isSleeping());
+    assertTrue(rbB.isSleeping());
+
+    //Sleeping objects rest, keeping their pairs, and wake together
+    contacts.rest(a);
+    contacts.rest(b);
+    contacts.endPass();
+    assertTrue(rbB.isSleeping());
+    assertEquals(4, contacts.size());
+    rbA.addForce(new Vector2(0, 100));
+    contacts.begin(a);
+    contacts.touch(a, b, colA, colB, false);
+    contacts.rest(b);
+    contacts.endPass();
+    assertFalse(rbB.isSleeping());
+    assertEquals(1, events.enter);
+  }
+
+  @Test
+  public void sleeperWokenWhenSupportLeaves() {
+    Rigidbody rbA = stillBody(a);
+    stillBody(b);
+    touchBoth();
+    assertTrue(rbA.isSleeping());
+    contacts.rest(a);
+    contacts.endPass();
+    assertFalse(rbA.isSleeping());
+    assertEquals(1, events.exit);
+  }
+
+  /**
+   * Gives an object a dynamic body that has been still long enough to sleep
+   */
+  private static Rigidbody stillBody(GameObject object) {
+    Rigidbody rb = (Rigidbody) object.getComponent(ComponentType.RIGIDBODY);
+    if (rb == null) {
+      rb = new Rigidbody(RigidbodyType.DYNAMIC, 1, 1, 0, new MaterialProperty(0, 0, 0), null,
+          object);
+      object.addComponent(rb);
+    }
+    for (int i = 0; i < Physics.SLEEP_TICKS; i++) {
+      rb.setGrounded(true);
+      rb.update();
+    }
+    return rb;
+  }
+
+  private void touchBoth() {
+    contacts.begin(a);
+    contacts.touch(a, b, colA, colB, false);
+    contacts.begin(b);
+    contacts.touch(b, a, colB, colA, false);
+    contacts.endPass();
+  }
+
+  /**
+   * Object passing every event on to its behaviours
+   */
+  private static class Plain extends GameObject {
+
+    Plain(int x, int y) {
+      super(x, y, 20, 20, ObjectType.Bot, UUID.randomUUID());
+    }
+
+    @Override
+    public void update() {
+    }
+
+    @Override
+    public void render() {
+    }
+
+    @Override
+    public void initialiseAnimation() {
+    }
+  }
+
+  private static class Recorder extends Behaviour {
+
+    int enter, stay, exit, triggerEnter, triggerExit;
+    GameObject last;
+
+    Recorder(GameObject parent) {
+      super(parent);
+    }
+
+    @Override
+    public void OnCollisionEnter(Collision col) {
+      enter++;
+    }
+
+    @Override
+    public void OnCollisionStay(Collision col) {
+      stay++;
+    }
+
+    @Override
+    public void OnCollisionExit(Collision col) {
+      exit++;
+      last = col.getCollidedObject();
+    }
+
+    @Override
+    public void OnTriggerEnter(Collision col) {
+      triggerEnter++;
+    }
+
+    @Override
+    public void OnTriggerExit(Collision col) {
+      triggerExit++;
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package shared.physics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.UUID;
+import org.junit.Before;
+import org.junit.Test;
+import shared.gameObjects.GameObject;
+import shared.gameObjects.TestObject;
+import shared.gameObjects.Utils.ObjectType;
+import shared.gameObjects.components.BoxCollider;
+import shared.gameObjects.components.Collider;
+import shared.gameObjects.components.ComponentType;
+import shared.gameObjects.components.Rigidbody;
+import shared.physics.data.AngularData;
+import shared.physics.data.MaterialProperty;
+import shared.physics.types.ColliderLayer;
+import shared.physics.types.RigidbodyType;
+import shared.util.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import shared.util.maths.Vector2;
+
+public class ContinuousCollisionTest {
+
+  private ConcurrentLinkedHashMap<UUID, GameObject> objects;
+  private PhysicsWorld world;
+  private TestObject platform;
+
+  @Before
+  public void setUp() {
+    objects = new ConcurrentLinkedHashMap.Builder<UUID, GameObject>().maximumWeightedCapacity(500)
+        .build();
+    //A platform thinner than any step the bodies below take
+    platform = new TestObject(0, 200, 400, 4, ObjectType.Bot, UUID.randomUUID());
+    platform.addComponent(new Rigidbody(0, platform));
+    platform.addComponent(new BoxCollider(platform, false));
+    objects.put(platform.getUUID(), platform);
+    world = new PhysicsWorld(objects);
+  }
+
+  private TestObject body(ColliderLayer layer) {
+    TestObject body = new TestObject(100, 100, 10, 10, ObjectType.Bullet, UUID.randomUUID());
+    body.addComponent(new Rigidbody(RigidbodyType.DYNAMIC, 1, 0, 0,
+        new MaterialProperty(0, 0, 0), new AngularData(0, 0, 0, 0), body));
+    body.addComponent(new BoxCollider(body, layer, false));
+    objects.put(body.getUUID(), body);
+    world.updateBroadphase();
+    return body;
+  }
+
+  /**
+   * Steps a body as its update would, moving it the given distance
+   */
+  private static void step(TestObject body, float distanceY) {
+    Rigidbody rb = (Rigidbody) body.getComponent(ComponentType.RIGIDBODY);
+    rb.move(new Vector2(0, distanceY));
+    rb.update();
+    body.getComponent(ComponentType.COLLIDER).update();
+  }
+
+  @Test
+  public void fastProjectileStoppedAtPlatform() {
+    TestObject bullet = body(ColliderLayer.PROJECTILE);
+    step(bullet, 300);
+    world.updateBroadphase();
+    //Its bottom is left just past the platform's top
+    assertEquals(200 - 10 + Physics.CONTINUOUS_SKIN, bullet.getY(), 0.01);
+    Collider collider = (Collider) bullet.getComponent(ComponentType.COLLIDER);
+    assertTrue(world.getTouching(collider).contains(platform));
+  }
+
+  @Test
+  public void otherBodiesLeftToStep() {
+    TestObject crate = body(ColliderLayer.OBJECT);
+    step(crate, 300);
+    world.updateBroadphase();
+    assertEquals(400, crate.getY(), 0.01);
+  }
+
+  @Test
+  public void projectileMissingEverythingNotMoved() {
+    TestObject bullet = body(ColliderLayer.PROJECTILE);
+    step(bullet, -90);
+    world.updateBroadphase();
+    assertEquals(10, bullet.getY(), 0.01);
+  }
+}
@@ -0,0 +1,58 @@
+package shared.physics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class ForceAccumulatorTest {
+
+  private final ForceAccumulator forces = new ForceAccumulator();
+  private final float[] sum = new float[2];
+
+  @Test
+  public void timedForcesFreedWhenSpent() {
+    forces.addTimedForce(1, 2, 3);
+    forces.addTimedForce(10, 0, 1);
+    forces.addForce(100, 0);
+    forces.step(sum);
+    assertEquals(111, sum[0], 0);
+    assertEquals(2, sum[1], 0);
+    assertEquals(1, forces.getTimedCount());
+    forces.step(sum);
+    forces.step(sum);
+    assertEquals(1, sum[0], 0);
+    assertEquals(0, forces.getTimedCount());
+    forces.step(sum);
+    assertEquals(0, sum[0], 0);
+    assertEquals(0, sum[1], 0);
+  }
+
+  @Test
+  public void fullBufferPushesSoonestOutAsImpulse() {
+    for (int i = 0; i < ForceAccumulator.CAPACITY; i++) {
+      forces.addTimedForce(1, 0, 10 + i);
+    }
+    assertFalse(forces.hasImpulse());
+    forces.addTimedForce(0, 5, 100);
+    assertEquals(ForceAccumulator.CAPACITY, forces.getTimedCount());
+    assertTrue(forces.hasImpulse());
+    assertEquals(10 * Physics.TIMESTEP, forces.getImpulseX(), 1e-6);
+    forces.clearImpulse();
+    assertFalse(forces.hasImpulse());
+  }
+
+  @Test
+  public void neverGrowsPastCapacity() {
+    for (int i = 0; i < 10000; i++) {
+      forces.addTimedForce(1, 0, 60);
+      forces.step(sum);
+    }
+    assertEquals(ForceAccumulator.CAPACITY, forces.getTimedCount());
+    for (int i = 0; i < 60; i++) {
+      forces.step(sum);
+    }
+    assertEquals(0, forces.getTimedCount());
+  }
+}
@@ -0,0 +1,117 @@
+package shared.physics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.Before;
+import org.junit.Test;
+import shared.gameObjects.GameObject;
+import shared.gameObjects.TestObject;
+import shared.gameObjects.Utils.ObjectType;
+import shared.gameObjects.components.BoxCollider;
+import shared.gameObjects.components.CircleCollider;
+import shared.util.maths.Vector2;
+
+public class JBox2DBackendTest {
+
+  private JBox2DBackend backend;
+  private TestObject a, b, far;
+  private BoxCollider boxA;
+
+  private static TestObject box(int x, int y, int size) {
+    TestObject object = new TestObject(x, y, size, size, ObjectType.Player, UUID.randomUUID());
+    object.addComponent(new BoxCollider(object, false));
+    return object;
+  }
+
+  private ArrayList<GameObject> query(float minX, float minY, float maxX, float maxY) {
+    ArrayList<GameObject> found = new ArrayList<>();
+    backend.query(minX, minY, maxX, maxY, found);
+    return found;
+  }
+
+  @Before
+  public void setUp() {
+    backend = new JBox2DBackend();
+    a = box(10, 10, 20);
+    b = box(25, 25, 20);
+    far = new TestObject(400, 400, 10, 10, ObjectType.Player, UUID.randomUUID());
+    far.addComponent(new CircleCollider(far, 5, false));
+    boxA = (BoxCollider) a.getComponents().get(0);
+  }
+
+  @Test
+  public void queryFindsOnlyNearbyObjects() {
+    backend.update(Arrays.asList(a, b, far));
+    ArrayList<GameObject> found = query(10, 10, 30, 30);
+    assertTrue(found.contains(a));
+    assertTrue(found.contains(b));
+    assertFalse(found.contains(far));
+  }
+
+  @Test
+  public void movedObjectsRefiled() {
+    backend.update(Arrays.asList(a, b, far));
+    a.getTransform().setPos(new Vector2(390, 390));
+    boxA.update();
+    backend.update(Arrays.asList(a, b, far));
+    ArrayList<GameObject> found = query(390, 390, 410, 410);
+    assertTrue(found.contains(far));
+    assertFalse(found.contains(b));
+    assertFalse(query(0, 0, 50, 50).contains(a));
+    //Moved within the bounds it was filed under, it is only found where it is now
+    a.getTransform().setPos(new Vector2(390.05f, 390));
+    boxA.update();
+    backend.update(Arrays.asList(a, b, far));
+    assertFalse(query(389, 389, 390.01f, 411).contains(a));
+  }
+
+  @Test
+  public void removedObjectsDropped() {
+    backend.update(Arrays.asList(a, b));
+    backend.update(Collections.singletonList(a));
+    assertEquals(1, backend.size());
+    assertFalse(query(10, 10, 30, 30).contains(b));
+  }
+
+  @Test
+  public void raycastFindsNearestHit() {
+    backend.update(Arrays.asList(a, b, far));
+    Ray ray = new Ray(new Vector2(0, 40), new Vector2(500, 0), new QueryFilter());
+    backend.raycast(ray);
+    assertSame(b, ray.getHit().getCollidedObject());
+    ray = new Ray(new Vector2(300, 405), new Vector2(200, 0), new QueryFilter());
+    backend.raycast(ray);
+    assertSame(far, ray.getHit().getCollidedObject());
+  }
+
+  @Test
+  public void findsWhatGridFinds() {
+    Random random = new Random(7);
+    ArrayList<GameObject> objects = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      objects.add(box(random.nextInt(1000), random.nextInt(1000), 5 + random.nextInt(60)));
+    }
+    SpatialGrid grid = new SpatialGrid(Physics.BROADPHASE_CELL_SIZE);
+    grid.update(objects);
+    backend.update(objects);
+    for (int i = 0; i < 50; i++) {
+      float x = random.nextInt(1000);
+      float y = random.nextInt(1000);
+      float size = random.nextInt(200);
+      ArrayList<GameObject> expected = new ArrayList<>();
+      grid.query(x, y, x + size, y + size, expected);
+      ArrayList<GameObject> found = query(x, y, x + size, y + size);
+      assertEquals(expected.size(), found.size());
+      assertEquals(new HashSet<>(expected), new HashSet<>(found));
+    }
+  }
+}
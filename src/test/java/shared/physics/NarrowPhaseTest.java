@@ -0,0 +1,84 @@
+package shared.physics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.UUID;
+import org.junit.Before;
+import org.junit.Test;
+import shared.gameObjects.GameObject;
+import shared.gameObjects.TestObject;
+import shared.gameObjects.Utils.ObjectType;
+import shared.gameObjects.components.BoxCollider;
+import shared.gameObjects.components.Collider;
+import shared.gameObjects.components.ComponentType;
+import shared.gameObjects.components.Rigidbody;
+import shared.physics.data.AngularData;
+import shared.physics.data.MaterialProperty;
+import shared.physics.types.RigidbodyType;
+import shared.util.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+
+public class NarrowPhaseTest {
+
+  private ConcurrentLinkedHashMap<UUID, GameObject> objects;
+  private PhysicsWorld world;
+  private ArrayList<TestObject> crates;
+
+  @Before
+  public void setUp() {
+    objects = new ConcurrentLinkedHashMap.Builder<UUID, GameObject>()
+        .maximumWeightedCapacity(5000).build();
+    crates = new ArrayList<>();
+    //Rows of overlapping crates, more than one batch's worth
+    for (int i = 0; i < NarrowPhase.BATCH_SIZE * 4; i++) {
+      TestObject crate = new TestObject((i % 32) * 30, (i / 32) * 30, 40, 40, ObjectType.Bot,
+          UUID.randomUUID());
+      crate.addComponent(new Rigidbody(RigidbodyType.DYNAMIC, 1, 1, 0,
+          new MaterialProperty(0, 0, 0), new AngularData(0, 0, 0, 0), crate));
+      crate.addComponent(new BoxCollider(crate, false));
+      objects.put(crate.getUUID(), crate);
+      crates.add(crate);
+    }
+    world = new PhysicsWorld(objects);
+    world.updateBroadphase();
+  }
+
+  @Test
+  public void parallelTestsMatchTestingEachCollider() {
+    world.updateNarrowPhase();
+    assertTouchingMatches();
+  }
+
+  @Test
+  public void treeBackendTestsMatchTestingEachCollider() {
+    //The tree cannot be queried in parallel, so its world is tested on this thread
+    world = new PhysicsWorld(objects, new JBox2DBackend());
+    world.updateBroadphase();
+    world.updateNarrowPhase();
+    assertTouchingMatches();
+  }
+
+  private void assertTouchingMatches() {
+    for (TestObject crate : crates) {
+      Collider collider = (Collider) crate.getComponent(ComponentType.COLLIDER);
+      ArrayList<GameObject> found = new ArrayList<>(world.getTouching(collider));
+      ArrayList<GameObject> expected = new ArrayList<>();
+      world.findTouching(collider, expected);
+      assertEquals(expected, found);
+      assertFalse(found.contains(crate));
+    }
+  }
+
+  @Test
+  public void foundListsForgottenAfterPass() {
+    Collider collider = (Collider) crates.get(0).getComponent(ComponentType.COLLIDER);
+    world.updateNarrowPhase();
+    ArrayList<GameObject> found = world.getTouching(collider);
+    assertSame(found, world.getTouching(collider));
+    world.endCollisionPass();
+    assertNotSame(found, world.getTouching(collider));
+  }
+}
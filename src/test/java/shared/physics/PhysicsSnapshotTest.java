@@ -0,0 +1,94 @@
+package shared.physics;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.UUID;
+import org.junit.Before;
+import org.junit.Test;
+import shared.gameObjects.GameObject;
+import shared.gameObjects.TestObject;
+import shared.gameObjects.Utils.ObjectType;
+import shared.gameObjects.components.BoxCollider;
+import shared.gameObjects.components.ComponentType;
+import shared.gameObjects.components.Rigidbody;
+import shared.physics.data.AngularData;
+import shared.physics.data.MaterialProperty;
+import shared.physics.types.RigidbodyType;
+import shared.util.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import shared.util.maths.Vector2;
+
+public class PhysicsSnapshotTest {
+
+  private ConcurrentLinkedHashMap<UUID, GameObject> objects;
+  private PhysicsWorld world;
+
+  @Before
+  public void setUp() {
+    objects = new ConcurrentLinkedHashMap.Builder<UUID, GameObject>().maximumWeightedCapacity(500)
+        .build();
+    TestObject platform = new TestObject(0, 200, 400, 4, ObjectType.Bot, UUID.randomUUID());
+    platform.addComponent(new Rigidbody(0, platform));
+    platform.addComponent(new BoxCollider(platform, false));
+    objects.put(platform.getUUID(), platform);
+    world = new PhysicsWorld(objects);
+  }
+
+  private TestObject body(float x) {
+    TestObject body = new TestObject((int) x, 0, 10, 10, ObjectType.Bot, UUID.randomUUID());
+    body.addComponent(new Rigidbody(RigidbodyType.DYNAMIC, 1, 1, 0.1f,
+        new MaterialProperty(0, 0, 0), new AngularData(0, 0, 0, 0), body));
+    body.addComponent(new BoxCollider(body, false));
+    objects.put(body.getUUID(), body);
+    return body;
+  }
+
+  private void step(int ticks) {
+    for (int i = 0; i < ticks; i++) {
+      world.updateBroadphase();
+      for (GameObject object : objects.values()) {
+        object.getComponent(ComponentType.RIGIDBODY).update();
+        object.getComponent(ComponentType.COLLIDER).update();
+      }
+    }
+  }
+
+  @Test
+  public void restoredWorldStepsTheSameAgain() {
+    TestObject body = body(100);
+    Rigidbody rb = (Rigidbody) body.getComponent(ComponentType.RIGIDBODY);
+    rb.addForce(new Vector2(600, 0), 1);
+    step(10);
+    PhysicsSnapshot snapshot = new PhysicsSnapshot();
+    world.snapshot(snapshot);
+    float x = body.getTransform().getPos().getX();
+    float y = body.getTransform().getPos().getY();
+    step(20);
+    Vector2 pos = new Vector2(body.getTransform().getPos());
+    Vector2 velocity = rb.getVelocity();
+
+    world.restore(snapshot);
+    assertEquals(x, body.getTransform().getPos().getX(), 0);
+    assertEquals(y, body.getTransform().getPos().getY(), 0);
+    BoxCollider box = (BoxCollider) body.getComponent(ComponentType.COLLIDER);
+    assertEquals(x + 5, box.getCentre().getX(), 0);
+    step(20);
+    assertEquals(pos.getX(), body.getTransform().getPos().getX(), 0);
+    assertEquals(pos.getY(), body.getTransform().getPos().getY(), 0);
+    assertEquals(velocity.getX(), rb.getVelocity().getX(), 0);
+    assertEquals(velocity.getY(), rb.getVelocity().getY(), 0);
+  }
+
+  @Test
+  public void onlyDynamicBodiesCaptured() {
+    for (int i = 0; i < 40; i++) {
+      body(i * 10);
+    }
+    PhysicsSnapshot snapshot = new PhysicsSnapshot(1);
+    world.snapshot(snapshot);
+    assertEquals(40, snapshot.getBodies());
+    int size = snapshot.getSize();
+    world.snapshot(snapshot);
+    assertEquals(40, snapshot.getBodies());
+    assertEquals(size, snapshot.getSize());
+  }
+}
@@ -0,0 +1,91 @@
+package shared.physics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.UUID;
+import org.junit.Before;
+import org.junit.Test;
+import shared.gameObjects.GameObject;
+import shared.gameObjects.TestObject;
+import shared.gameObjects.Utils.ObjectType;
+import shared.gameObjects.components.BoxCollider;
+import shared.gameObjects.components.CircleCollider;
+import shared.physics.types.ColliderLayer;
+import shared.util.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import shared.util.maths.Vector2;
+
+public class QueryTest {
+
+  private TestObject wall, crate, ball;
+  private PhysicsWorld world;
+  private QueryResults results;
+
+  @Before
+  public void setUp() {
+    wall = new TestObject(200, 0, 40, 200, ObjectType.Bot, UUID.randomUUID());
+    wall.addComponent(new BoxCollider(wall, ColliderLayer.PLATFORM, false));
+    crate = new TestObject(100, 80, 40, 40, ObjectType.Bot, UUID.randomUUID());
+    crate.addComponent(new BoxCollider(crate, ColliderLayer.OBJECT, false));
+    ball = new TestObject(100, 300, 20, 20, ObjectType.Bot, UUID.randomUUID());
+    ball.addComponent(new CircleCollider(ball, 10, false));
+    ConcurrentLinkedHashMap<UUID, GameObject> objects =
+        new ConcurrentLinkedHashMap.Builder<UUID, GameObject>().maximumWeightedCapacity(500)
+            .build();
+    objects.put(wall.getUUID(), wall);
+    objects.put(crate.getUUID(), crate);
+    objects.put(ball.getUUID(), ball);
+    world = new PhysicsWorld(objects);
+    world.updateBroadphase();
+    results = new QueryResults();
+  }
+
+  @Test
+  public void layerMaskLimitsHits() {
+    QueryFilter platforms = new QueryFilter(QueryFilter.layerMask(ColliderLayer.PLATFORM));
+    assertTrue(world.raycast(new Vector2(0, 100), new Vector2(400, 0), platforms, results));
+    assertEquals(wall, results.getObject(0));
+    assertTrue(world.raycast(new Vector2(0, 100), new Vector2(400, 0), new QueryFilter(),
+        results));
+    assertEquals(crate, results.getObject(0));
+  }
+
+  @Test
+  public void ignoredObjectsSkipped() {
+    QueryFilter filter = new QueryFilter().ignore(crate);
+    assertEquals(1, world.raycastAll(new Vector2(0, 100), new Vector2(400, 0), filter, results));
+    assertEquals(wall, results.getObject(0));
+    filter.clearIgnored().setPredicate(object -> object != wall);
+    assertEquals(1, world.raycastAll(new Vector2(0, 100), new Vector2(400, 0), filter, results));
+    assertEquals(crate, results.getObject(0));
+  }
+
+  @Test
+  public void overlapsFindTouchingShapes() {
+    assertEquals(1, world.overlapBox(new Vector2(130, 110), new Vector2(20, 20),
+        new QueryFilter(), results));
+    assertEquals(crate, results.getObject(0));
+    assertEquals(1, world.overlapCircle(new Vector2(125, 310), 10, new QueryFilter(), results));
+    assertEquals(ball, results.getObject(0));
+    assertEquals(0, world.overlapCircle(new Vector2(160, 160), 5, new QueryFilter(), results));
+    assertTrue(results.isEmpty());
+  }
+
+  @Test
+  public void sweepsStopWhereShapeTouches() {
+    //A box 20 wide, centred on x=40, touches the crate once its centre reaches x=90
+    assertTrue(world.sweepBox(new Vector2(30, 90), new Vector2(20, 20), new Vector2(300, 0),
+        new QueryFilter(), results));
+    assertEquals(crate, results.getObject(0));
+    assertEquals(50, results.getDistance(0), 0.001);
+    assertEquals(-1, results.getNormalX(0), 0.001);
+    //A circle of radius 5 reaches the wall's face at x=200 once its centre is at x=195
+    assertTrue(world.sweepCircle(new Vector2(0, 20), 5, new Vector2(400, 0), new QueryFilter(),
+        results));
+    assertEquals(wall, results.getObject(0));
+    assertEquals(195, results.getPointX(0), 0.001);
+    assertFalse(world.sweepCircle(new Vector2(0, 250), 5, new Vector2(400, 0),
+        new QueryFilter(), results));
+  }
+}
@@ -0,0 +1,77 @@
+package shared.physics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.UUID;
+import org.junit.Before;
+import org.junit.Test;
+import shared.gameObjects.TestObject;
+import shared.gameObjects.Utils.ObjectType;
+import shared.gameObjects.components.BoxCollider;
+import shared.gameObjects.components.CircleCollider;
+import shared.physics.data.Collision;
+import shared.util.maths.Vector2;
+
+public class RayTest {
+
+  private TestObject box, circle, thin;
+
+  @Before
+  public void setUp() {
+    box = new TestObject(100, 0, 40, 40, ObjectType.Bot, UUID.randomUUID());
+    box.addComponent(new BoxCollider(box, false));
+    circle = new TestObject(0, 100, 20, 20, ObjectType.Bot, UUID.randomUUID());
+    circle.addComponent(new CircleCollider(circle, 10, false));
+    thin = new TestObject(503, -50, 1, 100, ObjectType.Bot, UUID.randomUUID());
+    thin.addComponent(new BoxCollider(thin, false));
+  }
+
+  @Test
+  public void boxHitAtFace() {
+    Ray ray = new Ray(new Vector2(0, 20), new Vector2(200, 0), new QueryFilter());
+    ray.test(box);
+    Collision hit = ray.getHit();
+    assertEquals(box, hit.getCollidedObject());
+    assertEquals(100, hit.getDistance(), 0.001);
+    assertEquals(100, hit.getPointOfCollision().getX(), 0.001);
+    assertEquals(-1, hit.getNormalCollision().getX(), 0.001);
+  }
+
+  @Test
+  public void circleHitAtEdge() {
+    Ray ray = new Ray(new Vector2(10, 0), new Vector2(0, 200), new QueryFilter());
+    ray.test(circle);
+    Collision hit = ray.getHit();
+    assertEquals(100, hit.getDistance(), 0.001);
+    assertEquals(-1, hit.getNormalCollision().getY(), 0.001);
+  }
+
+  @Test
+  public void thinObjectBetweenSamplesHit() {
+    //Sampling every 1% of this ray would step over the object
+    Ray ray = new Ray(new Vector2(0, 0), new Vector2(1000, 0), new QueryFilter());
+    ray.test(thin);
+    assertEquals(503, ray.getHit().getDistance(), 0.001);
+  }
+
+  @Test
+  public void nearestHitKept() {
+    Ray ray = new Ray(new Vector2(0, 20), new Vector2(1000, 0), new QueryFilter());
+    ray.test(thin);
+    ray.test(box);
+    assertEquals(box, ray.getHit().getCollidedObject());
+  }
+
+  @Test
+  public void missesAndFilteredObjectsIgnored() {
+    Ray ray = new Ray(new Vector2(0, 200), new Vector2(200, 0), new QueryFilter());
+    ray.test(box);
+    ray.test(circle);
+    assertNull(ray.getHit());
+    Ray filtered =
+        new Ray(new Vector2(0, 20), new Vector2(200, 0), new QueryFilter().ignore(box));
+    filtered.test(box);
+    assertNull(filtered.getHit());
+  }
+}
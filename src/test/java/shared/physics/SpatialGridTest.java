@@ -0,0 +1,101 @@
+package shared.physics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+import org.junit.Before;
+import org.junit.Test;
+import shared.gameObjects.GameObject;
+import shared.gameObjects.TestObject;
+import shared.gameObjects.Utils.ObjectType;
+import shared.gameObjects.components.BoxCollider;
+import shared.gameObjects.components.CircleCollider;
+import shared.physics.data.AABB;
+import shared.util.maths.Vector2;
+
+public class SpatialGridTest {
+
+  private SpatialGrid grid;
+  private TestObject a, b, far, wide;
+  private BoxCollider boxA;
+
+  @Before
+  public void setUp() {
+    grid = new SpatialGrid(40);
+    a = new TestObject(10, 10, 20, 20, ObjectType.Player, UUID.randomUUID());
+    b = new TestObject(25, 25, 20, 20, ObjectType.Player, UUID.randomUUID());
+    far = new TestObject(400, 400, 10, 10, ObjectType.Player, UUID.randomUUID());
+    wide = new TestObject(0, 200, 2000, 40, ObjectType.Player, UUID.randomUUID());
+    boxA = new BoxCollider(a, false);
+    a.addComponent(boxA);
+    b.addComponent(new BoxCollider(b, false));
+    far.addComponent(new CircleCollider(far, 5, false));
+    wide.addComponent(new BoxCollider(wide, false));
+  }
+
+  @Test
+  public void queryFindsOnlyNearbyObjects() {
+    grid.update(Arrays.asList(a, b, far));
+    ArrayList<GameObject> found = grid.query(boxA.getBounds());
+    assertTrue(found.contains(a));
+    assertTrue(found.contains(b));
+    assertFalse(found.contains(far));
+  }
+
+  @Test
+  public void objectOverManyCellsFoundOnce() {
+    grid.update(Arrays.asList(a, b));
+    //b covers four cells, all of which the query covers
+    ArrayList<GameObject> found = grid.query(new AABB(0, 0, 100, 100));
+    assertEquals(1, Collections.frequency(found, b));
+    assertEquals(2, found.size());
+  }
+
+  @Test
+  public void movedObjectsRefiled() {
+    grid.update(Arrays.asList(a, b, far));
+    a.getTransform().setPos(new Vector2(390, 390));
+    boxA.update();
+    grid.update(Arrays.asList(a, b, far));
+    ArrayList<GameObject> found = grid.query(boxA.getBounds());
+    assertTrue(found.contains(far));
+    assertFalse(found.contains(b));
+    assertFalse(grid.query(new AABB(0, 0, 50, 50)).contains(a));
+  }
+
+  @Test
+  public void removedObjectsDropped() {
+    grid.update(Arrays.asList(a, b));
+    grid.update(Collections.singletonList(a));
+    assertEquals(1, grid.size());
+    assertFalse(grid.query(boxA.getBounds()).contains(b));
+  }
+
+  @Test
+  public void objectsFoundAsCellTableGrows() {
+    grid.update(Arrays.asList(a, b));
+    //Crossing far more cells than the table first holds
+    for (int i = 0; i < 1000; i++) {
+      a.getTransform().setPos(new Vector2(1000 + i * 40, 1000 + (i % 7) * 40));
+      boxA.update();
+      grid.update(Arrays.asList(a, b));
+    }
+    assertEquals(Collections.singletonList(a), grid.query(boxA.getBounds()));
+    assertEquals(Collections.singletonList(b), grid.query(new AABB(30, 30, 35, 35)));
+  }
+
+  @Test
+  public void oversizedObjectsFound() {
+    grid.update(Arrays.asList(a, wide));
+    assertTrue(grid.query(new AABB(900, 210, 905, 215)).contains(wide));
+    assertFalse(grid.query(new AABB(900, 300, 905, 305)).contains(wide));
+    //A query over more cells than the limit still finds everything under it
+    ArrayList<GameObject> found = grid.query(new AABB(-1000, -1000, 1000, 1000));
+    assertEquals(2, found.size());
+  }
+}
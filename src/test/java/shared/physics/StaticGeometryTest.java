@@ -0,0 +1,106 @@
+package shared.physics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.UUID;
+import org.junit.Before;
+import org.junit.Test;
+import shared.gameObjects.GameObject;
+import shared.gameObjects.TestObject;
+import shared.gameObjects.Utils.ObjectType;
+import shared.gameObjects.components.BoxCollider;
+import shared.gameObjects.components.Collider;
+import shared.gameObjects.components.ComponentType;
+import shared.gameObjects.components.Rigidbody;
+import shared.physics.data.AABB;
+import shared.physics.data.AngularData;
+import shared.physics.data.MaterialProperty;
+import shared.physics.types.RigidbodyType;
+import shared.util.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import shared.util.maths.Vector2;
+
+public class StaticGeometryTest {
+
+  private TestObject floorA, floorB, floorC, wallA, wallB, crate;
+  private StaticGeometry geometry;
+
+  private static TestObject block(int x, int y) {
+    TestObject block = new TestObject(x, y, 40, 40, ObjectType.Bot, UUID.randomUUID());
+    block.addComponent(new Rigidbody(0, block));
+    block.addComponent(new BoxCollider(block, false));
+    return block;
+  }
+
+  @Before
+  public void setUp() {
+    floorA = block(0, 400);
+    floorB = block(40, 400);
+    floorC = block(80, 400);
+    wallA = block(400, 0);
+    wallB = block(400, 40);
+    crate = new TestObject(200, 360, 40, 40, ObjectType.Bot, UUID.randomUUID());
+    crate.addComponent(new Rigidbody(RigidbodyType.DYNAMIC, 200, 1, 0,
+        new MaterialProperty(1f, 0.2f, 0.1f), new AngularData(0, 0, 0, 0), crate));
+    crate.addComponent(new BoxCollider(crate, false));
+    geometry = StaticGeometry.bake(Arrays.asList(floorA, floorB, floorC, wallA, wallB, crate));
+  }
+
+  @Test
+  public void adjacentBlocksMerged() {
+    assertEquals(5, geometry.getObjectCount());
+    //The floor is one row and the wall one column
+    assertEquals(2, geometry.getLeafCount());
+    assertTrue(floorA.isStaticGeometry());
+    assertFalse(crate.isStaticGeometry());
+  }
+
+  @Test
+  public void queryFindsBlocksTouched() {
+    ArrayList<GameObject> found = new ArrayList<>();
+    geometry.query(new AABB(50, 390, 60, 410), found);
+    assertEquals(Arrays.asList(floorB), found);
+    found.clear();
+    geometry.query(new AABB(35, 390, 45, 410), found);
+    assertEquals(2, found.size());
+    found.clear();
+    geometry.query(new AABB(200, 200, 220, 220), found);
+    assertTrue(found.isEmpty());
+  }
+
+  @Test
+  public void movedBlocksReleased() {
+    floorB.getTransform().translate(new Vector2(0, -10));
+    geometry.releaseMoved();
+    assertFalse(floorB.isStaticGeometry());
+    assertTrue(floorA.isStaticGeometry());
+    ArrayList<GameObject> found = new ArrayList<>();
+    geometry.query(new AABB(50, 390, 60, 410), found);
+    assertTrue(found.isEmpty());
+  }
+
+  @Test
+  public void worldLeavesBakedObjectsOutOfGrid() {
+    ConcurrentLinkedHashMap<UUID, GameObject> objects =
+        new ConcurrentLinkedHashMap.Builder<UUID, GameObject>().maximumWeightedCapacity(500)
+            .build();
+    for (TestObject object : Arrays.asList(floorA, floorB, floorC, crate)) {
+      objects.put(object.getUUID(), object);
+    }
+    PhysicsWorld world = new PhysicsWorld(objects);
+    world.bakeStaticGeometry();
+    world.updateBroadphase();
+    BoxCollider probe = new BoxCollider(new Vector2(30, 380), new Vector2(20, 40));
+    ArrayList<GameObject> candidates = world.getCandidates(probe);
+    assertTrue(candidates.contains(floorA));
+    assertTrue(candidates.contains(floorB));
+    assertFalse(candidates.contains(crate));
+    //A baked block only looks for objects that are not baked
+    ArrayList<GameObject> nearFloor =
+        world.getCandidates((Collider) floorC.getComponent(ComponentType.COLLIDER));
+    assertFalse(nearFloor.contains(floorB));
+  }
+}
@@ -174,4 +174,41 @@ public class Vector2Test {
   public void equals() {
     assertTrue(Vector2.Unit().equals(Vector2.Unit()));
   }
+
+  @Test
+  public void localMethodsMatchCopyingMethods() {
+    Vector2 v = new Vector2(twoThree);
+    assertTrue(v.addLocal(fourSeven).equals(twoThree.add(fourSeven)));
+    assertTrue(v.subLocal(fourSeven).equals(twoThree));
+    assertTrue(v.multLocal(scalarNine).equals(twoThree.mult(scalarNine)));
+    assertTrue(v.divLocal(scalarNine).equals(twoThree.mult(scalarNine).div(scalarNine)));
+    assertTrue(new Vector2(twoThree).normalizeLocal().equals(twoThree.normalize()));
+    assertTrue(new Vector2(twoThree).normalLocal().equals(twoThree.normal()));
+    assertTrue(new Vector2(twoThree).applyRotationLocal(30).equals(twoThree.applyRotation(30)));
+    assertTrue(new Vector2(twoThree).addScaledLocal(fourSeven, scalarTwo)
+        .equals(twoThree.add(fourSeven.mult(scalarTwo))));
+  }
+
+  @Test
+  public void localMethodsReturnSameVector() {
+    Vector2 v = new Vector2(twoThree);
+    assertTrue(v.addLocal(fourSeven).multLocal(scalarTwo).set(1, 1) == v);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void constantsCannotBeChanged() {
+    Vector2.UP.addLocal(twoThree);
+  }
+
+  @Test
+  public void poolReusesReleasedVectors() {
+    Vector2Pool pool = Vector2Pool.get();
+    int mark = pool.mark();
+    Vector2 first = pool.take(1, 2);
+    pool.release(mark);
+    Vector2 second = pool.take(3, 4);
+    assertTrue(first == second);
+    assertEquals(3f, second.getX());
+    pool.release(mark);
+  }
 }